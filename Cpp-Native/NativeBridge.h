@@ -70,6 +70,41 @@ JNIEXPORT jstring JNICALL Java_NativeBridge_sisDeleteStudent(JNIEnv *, jobject,
  */
 JNIEXPORT jstring JNICALL Java_NativeBridge_sisListStudents(JNIEnv *, jobject);
 
+/*
+ * Class:     NativeBridge
+ * Method:    sisListStudentsPage
+ * Signature: (II)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisListStudentsPage(JNIEnv *, jobject, jint, jint);
+
+/*
+ * Class:     NativeBridge
+ * Method:    sisListRange
+ * Signature: (III)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisListRange(JNIEnv *, jobject, jint, jint, jint);
+
+/*
+ * Class:     NativeBridge
+ * Method:    sisSearchByNamePrefix
+ * Signature: (Ljava/lang/String;I)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisSearchByNamePrefix(JNIEnv *, jobject, jstring, jint);
+
+/*
+ * Class:     NativeBridge
+ * Method:    sisListStudentsByName
+ * Signature: (Ljava/lang/String;II)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisListStudentsByName(JNIEnv *, jobject, jstring, jint, jint);
+
+/*
+ * Class:     NativeBridge
+ * Method:    sisListStudentsStream
+ * Signature: (Ljava/nio/ByteBuffer;LReplySink;)Z
+ */
+JNIEXPORT jboolean JNICALL Java_NativeBridge_sisListStudentsStream(JNIEnv *, jobject, jobject, jobject);
+
 /*
  * Class:     NativeBridge
  * Method:    sisTreeSnapshot
@@ -98,6 +133,13 @@ JNIEXPORT jstring JNICALL Java_NativeBridge_attNewSessionDay(JNIEnv *, jobject);
  */
 JNIEXPORT jstring JNICALL Java_NativeBridge_attMarkPresent(JNIEnv *, jobject, jint);
 
+/*
+ * Class:     NativeBridge
+ * Method:    attMarkPresentBatch
+ * Signature: ([I)[I
+ */
+JNIEXPORT jintArray JNICALL Java_NativeBridge_attMarkPresentBatch(JNIEnv *, jobject, jintArray);
+
 /*
  * Class:     NativeBridge
  * Method:    attGetSummary
@@ -112,6 +154,55 @@ JNIEXPORT jstring JNICALL Java_NativeBridge_attGetSummary(JNIEnv *, jobject, jin
  */
 JNIEXPORT jstring JNICALL Java_NativeBridge_attGetDefaulters(JNIEnv *, jobject, jint);
 
+/*
+ * Class:     NativeBridge
+ * Method:    memoryBytes
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_NativeBridge_memoryBytes(JNIEnv *, jobject);
+
+/*
+ * Class:     NativeBridge
+ * Method:    sharedMemoryBytes
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_NativeBridge_sharedMemoryBytes(JNIEnv *, jclass);
+
+/*
+ * Class:     NativeBridge
+ * Method:    nativeStats
+ * Signature: ()Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_NativeBridge_nativeStats(JNIEnv *, jclass);
+
+/*
+ * Class:     NativeBridge
+ * Method:    sisListStudentsInto
+ * Signature: (Ljava/nio/ByteBuffer;)I
+ */
+JNIEXPORT jint JNICALL Java_NativeBridge_sisListStudentsInto(JNIEnv *, jobject, jobject);
+
+/*
+ * Class:     NativeBridge
+ * Method:    attGetDefaultersInto
+ * Signature: (ILjava/nio/ByteBuffer;)I
+ */
+JNIEXPORT jint JNICALL Java_NativeBridge_attGetDefaultersInto(JNIEnv *, jobject, jint, jobject);
+
+/*
+ * Class:     NativeBridge
+ * Method:    sisSetCommitWindow
+ * Signature: (II)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisSetCommitWindow(JNIEnv *, jobject, jint, jint);
+
+/*
+ * Class:     NativeBridge
+ * Method:    sisCommitStats
+ * Signature: ()Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisCommitStats(JNIEnv *, jobject);
+
 #ifdef __cplusplus
 }
 #endif
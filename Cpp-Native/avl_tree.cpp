@@ -1,121 +1,187 @@
 #include "avl_tree.h"
 
+#include "mem_usage.h"
+
 // Only <string>, <vector>, <iostream> are allowed by course rules.
 
 static inline int imax(int a, int b) { return a > b ? a : b; }
 
-AvlStudentDB::~AvlStudentDB() {
-  clear();
-}
-
 void AvlStudentDB::clear() {
-  destroy(root_);
-  root_ = nullptr;
+  std::vector<Node>().swap(nodes_);
+  std::vector<StudentRecord>().swap(recs_);
+  root_ = -1;
+  free_ = -1;
   size_ = 0;
 }
 
-int AvlStudentDB::height(Node* n) { return n ? n->h : 0; }
+size_t AvlStudentDB::memoryBytes() const {
+  size_t n = nodes_.capacity() * sizeof(Node) + recs_.capacity() * sizeof(StudentRecord);
+  for (size_t i = 0; i < recs_.size(); i++) {
+    n += memusage::stringHeap(recs_[i].name) + memusage::stringHeap(recs_[i].program);
+  }
+  return n;
+}
 
-int AvlStudentDB::bf(Node* n) { return n ? height(n->left) - height(n->right) : 0; }
+int AvlStudentDB::height(int n) const { return n >= 0 ? nodes_[n].h : 0; }
 
-void AvlStudentDB::update(Node* n) {
-  if (!n) return;
-  n->h = 1 + imax(height(n->left), height(n->right));
+int AvlStudentDB::bf(int n) const { return n >= 0 ? height(nodes_[n].left) - height(nodes_[n].right) : 0; }
+
+void AvlStudentDB::update(int n) {
+  if (n < 0) return;
+  nodes_[n].h = 1 + imax(height(nodes_[n].left), height(nodes_[n].right));
 }
 
-AvlStudentDB::Node* AvlStudentDB::rotateRight(Node* y) {
-  Node* x = y->left;
-  Node* t2 = x->right;
-  x->right = y;
-  y->left = t2;
+int AvlStudentDB::rotateRight(int y) {
+  int x = nodes_[y].left;
+  nodes_[y].left = nodes_[x].right;
+  nodes_[x].right = y;
   update(y);
   update(x);
   return x;
 }
 
-AvlStudentDB::Node* AvlStudentDB::rotateLeft(Node* x) {
-  Node* y = x->right;
-  Node* t2 = y->left;
-  y->left = x;
-  x->right = t2;
+int AvlStudentDB::rotateLeft(int x) {
+  int y = nodes_[x].right;
+  nodes_[x].right = nodes_[y].left;
+  nodes_[y].left = x;
   update(x);
   update(y);
   return y;
 }
 
-AvlStudentDB::Node* AvlStudentDB::balance(Node* n) {
+int AvlStudentDB::balance(int n) {
   update(n);
   int b = bf(n);
   if (b > 1) {
-    if (bf(n->left) < 0) n->left = rotateLeft(n->left);
+    if (bf(nodes_[n].left) < 0) nodes_[n].left = rotateLeft(nodes_[n].left);
     return rotateRight(n);
   }
   if (b < -1) {
-    if (bf(n->right) > 0) n->right = rotateRight(n->right);
+    if (bf(nodes_[n].right) > 0) nodes_[n].right = rotateRight(nodes_[n].right);
     return rotateLeft(n);
   }
   return n;
 }
 
-AvlStudentDB::Node* AvlStudentDB::insertOnly(Node* n, const StudentRecord& r, bool& insertedNew) {
-  if (!n) {
-    insertedNew = true;
-    return new Node(r);
+int AvlStudentDB::alloc(const StudentRecord& r) {
+  int s;
+  if (free_ >= 0) {
+    s = free_;
+    free_ = nodes_[s].left;
+    recs_[s] = r;
+  } else {
+    if (nodes_.size() == nodes_.capacity()) {
+      // grow by half rather than doubling: the arena is often an exact fit after
+      // buildSorted, and one upsert should not double every campus's tree
+      size_t cap = nodes_.size() + nodes_.size() / 2 + 8;
+      nodes_.reserve(cap);
+      recs_.reserve(cap);
+    }
+    s = (int)nodes_.size();
+    nodes_.push_back(Node());
+    recs_.push_back(r);
   }
-  if (r.roll < n->rec.roll) n->left = insertOnly(n->left, r, insertedNew);
-  else if (r.roll > n->rec.roll) n->right = insertOnly(n->right, r, insertedNew);
-  else insertedNew = false; // prevent overwrite
-  return balance(n);
+  nodes_[s] = Node{r.roll, -1, -1, 1};
+  return s;
 }
 
-AvlStudentDB::Node* AvlStudentDB::updateOnly(Node* n, const StudentRecord& r, bool& updated) {
-  if (!n) return nullptr;
-  if (r.roll < n->rec.roll) n->left = updateOnly(n->left, r, updated);
-  else if (r.roll > n->rec.roll) n->right = updateOnly(n->right, r, updated);
-  else {
-    n->rec = r;
-    updated = true;
-    return n;
+void AvlStudentDB::release(int n) {
+  std::string().swap(recs_[n].name);
+  std::string().swap(recs_[n].program);
+  nodes_[n].left = free_;
+  free_ = n;
+}
+
+int AvlStudentDB::findSlot(int roll) const {
+  int cur = root_;
+  while (cur >= 0) {
+    const Node& n = nodes_[cur];
+    if (roll < n.roll) cur = n.left;
+    else if (roll > n.roll) cur = n.right;
+    else return cur;
   }
-  return balance(n);
+  return -1;
 }
 
-AvlStudentDB::Node* AvlStudentDB::minNode(Node* n) {
-  Node* cur = n;
-  while (cur && cur->left) cur = cur->left;
-  return cur;
+// Child first, then the parent's link: alloc() may grow (move) the arena
+// during the recursive call.
+int AvlStudentDB::insertOnly(int n, const StudentRecord& r, bool& insertedNew) {
+  if (n < 0) {
+    insertedNew = true;
+    return alloc(r);
+  }
+  if (r.roll < nodes_[n].roll) {
+    int c = insertOnly(nodes_[n].left, r, insertedNew);
+    nodes_[n].left = c;
+  } else if (r.roll > nodes_[n].roll) {
+    int c = insertOnly(nodes_[n].right, r, insertedNew);
+    nodes_[n].right = c;
+  } else {
+    insertedNew = false; // prevent overwrite
+  }
+  return balance(n);
 }
 
-AvlStudentDB::Node* AvlStudentDB::erase(Node* n, int roll, bool& removed) {
-  if (!n) return nullptr;
-  if (roll < n->rec.roll) n->left = erase(n->left, roll, removed);
-  else if (roll > n->rec.roll) n->right = erase(n->right, roll, removed);
+int AvlStudentDB::erase(int n, int roll, bool& removed) {
+  if (n < 0) return -1;
+  if (roll < nodes_[n].roll) nodes_[n].left = erase(nodes_[n].left, roll, removed);
+  else if (roll > nodes_[n].roll) nodes_[n].right = erase(nodes_[n].right, roll, removed);
   else {
     removed = true;
-    if (!n->left || !n->right) {
-      Node* child = n->left ? n->left : n->right;
-      delete n;
+    if (nodes_[n].left < 0 || nodes_[n].right < 0) {
+      int child = nodes_[n].left >= 0 ? nodes_[n].left : nodes_[n].right;
+      release(n);
       return child;
     }
-    Node* succ = minNode(n->right);
-    n->rec = succ->rec;
-    n->right = erase(n->right, succ->rec.roll, removed);
+    int succ = nodes_[n].right;
+    while (nodes_[succ].left >= 0) succ = nodes_[succ].left;
+    recs_[n] = recs_[succ];
+    nodes_[n].roll = nodes_[succ].roll;
+    nodes_[n].right = erase(nodes_[n].right, nodes_[succ].roll, removed);
   }
   return balance(n);
 }
 
-void AvlStudentDB::destroy(Node* n) {
-  if (!n) return;
-  destroy(n->left);
-  destroy(n->right);
-  delete n;
+// Rows [lo, hi) as a subtree rooted at the middle one; the halves differ by at
+// most one row, so every node is balanced and heights come out exact. Slot i
+// holds row i.
+int AvlStudentDB::buildRange(std::vector<StudentRecord>& rows, int lo, int hi) {
+  if (lo >= hi) return -1;
+  int mid = lo + (hi - lo) / 2;
+  StudentRecord& r = rows[mid];
+  StudentRecord& to = recs_[mid];
+  to.roll = r.roll;
+  to.name.swap(r.name);
+  to.program.swap(r.program);
+  to.semester = r.semester;
+  to.present = r.present;
+  to.total = r.total;
+  nodes_[mid].roll = r.roll;
+  nodes_[mid].left = buildRange(rows, lo, mid);
+  nodes_[mid].right = buildRange(rows, mid + 1, hi);
+  update(mid);
+  return mid;
 }
 
-void AvlStudentDB::inorderCollect(Node* n, std::vector<StudentRecord>& out) {
-  if (!n) return;
-  inorderCollect(n->left, out);
-  out.push_back(n->rec);
-  inorderCollect(n->right, out);
+void AvlStudentDB::inorderCollect(int n, std::vector<StudentRecord>& out) const {
+  if (n < 0) return;
+  inorderCollect(nodes_[n].left, out);
+  out.push_back(recs_[n]);
+  inorderCollect(nodes_[n].right, out);
+}
+
+void AvlStudentDB::inorderVisitNode(int n, StudentVisitor& v) const {
+  if (n < 0) return;
+  inorderVisitNode(nodes_[n].left, v);
+  v.visit(recs_[n]);
+  inorderVisitNode(nodes_[n].right, v);
+}
+
+void AvlStudentDB::inorderMutateNode(int n, StudentMutator& m) {
+  if (n < 0) return;
+  inorderMutateNode(nodes_[n].left, m);
+  m.visit(recs_[n]);
+  inorderMutateNode(nodes_[n].right, m);
 }
 
 bool AvlStudentDB::remove(int roll) {
@@ -125,6 +191,18 @@ bool AvlStudentDB::remove(int roll) {
   return removed;
 }
 
+bool AvlStudentDB::buildSorted(std::vector<StudentRecord>& rows) {
+  for (size_t i = 1; i < rows.size(); i++) {
+    if (rows[i - 1].roll >= rows[i].roll) return false;
+  }
+  clear();
+  nodes_.resize(rows.size());
+  recs_.resize(rows.size());
+  root_ = buildRange(rows, 0, (int)rows.size());
+  size_ = (int)rows.size();
+  return true;
+}
+
 bool AvlStudentDB::insert(const StudentRecord& r) {
   bool insertedNew = false;
   root_ = insertOnly(root_, r, insertedNew);
@@ -132,34 +210,36 @@ bool AvlStudentDB::insert(const StudentRecord& r) {
   return insertedNew;
 }
 
+// In place: the key is unchanged, so the tree shape is too.
 bool AvlStudentDB::update(const StudentRecord& r) {
-  bool updated = false;
-  root_ = updateOnly(root_, r, updated);
-  return updated;
+  int s = findSlot(r.roll);
+  if (s < 0) return false;
+  recs_[s] = r;
+  return true;
 }
 
 bool AvlStudentDB::find(int roll, StudentRecord& out) const {
-  Node* cur = root_;
-  while (cur) {
-    if (roll < cur->rec.roll) cur = cur->left;
-    else if (roll > cur->rec.roll) cur = cur->right;
-    else {
-      out = cur->rec;
-      return true;
-    }
-  }
-  return false;
+  int s = findSlot(roll);
+  if (s < 0) return false;
+  out = recs_[s];
+  return true;
+}
+
+const StudentRecord* AvlStudentDB::get(int roll) const {
+  int s = findSlot(roll);
+  return s >= 0 ? &recs_[s] : nullptr;
 }
 
 bool AvlStudentDB::findTrace(int roll, StudentRecord& out, std::vector<int>& visited) const {
   visited.clear();
-  Node* cur = root_;
-  while (cur) {
-    visited.push_back(cur->rec.roll);
-    if (roll < cur->rec.roll) cur = cur->left;
-    else if (roll > cur->rec.roll) cur = cur->right;
+  int cur = root_;
+  while (cur >= 0) {
+    const Node& n = nodes_[cur];
+    visited.push_back(n.roll);
+    if (roll < n.roll) cur = n.left;
+    else if (roll > n.roll) cur = n.right;
     else {
-      out = cur->rec;
+      out = recs_[cur];
       return true;
     }
   }
@@ -168,6 +248,74 @@ bool AvlStudentDB::findTrace(int roll, StudentRecord& out, std::vector<int>& vis
 
 std::vector<StudentRecord> AvlStudentDB::inorder() const {
   std::vector<StudentRecord> out;
+  out.reserve((size_t)size_);
   inorderCollect(root_, out);
   return out;
 }
+
+void AvlStudentDB::inorderVisit(StudentVisitor& v) const {
+  inorderVisitNode(root_, v);
+}
+
+int AvlStudentDB::inorderVisitAfter(int afterRoll, int limit, StudentVisitor& v) const {
+  if (limit <= 0) return 0;
+  // Explicit stack holding the path of slots still to visit (at most the tree height).
+  std::vector<int> stack;
+  stack.reserve(48);
+
+  // Seed with every ancestor > afterRoll on the search path for afterRoll.
+  int cur = root_;
+  while (cur >= 0) {
+    if (nodes_[cur].roll > afterRoll) {
+      stack.push_back(cur);
+      cur = nodes_[cur].left;
+    } else {
+      cur = nodes_[cur].right;
+    }
+  }
+
+  int visited = 0;
+  while (!stack.empty() && visited < limit) {
+    int n = stack.back();
+    stack.pop_back();
+    v.visit(recs_[n]);
+    visited++;
+    for (cur = nodes_[n].right; cur >= 0; cur = nodes_[cur].left) stack.push_back(cur);
+  }
+  return visited;
+}
+
+int AvlStudentDB::inorderVisitRange(int lo, int hi, int limit, StudentVisitor& v) const {
+  if (limit <= 0 || lo > hi) return 0;
+  std::vector<int> stack;
+  stack.reserve(48);
+
+  // Seed with every ancestor >= lo on the search path for lo; subtrees below lo
+  // are skipped by going right.
+  int cur = root_;
+  while (cur >= 0) {
+    if (nodes_[cur].roll >= lo) {
+      stack.push_back(cur);
+      cur = nodes_[cur].left;
+    } else {
+      cur = nodes_[cur].right;
+    }
+  }
+
+  // In order from there; the first roll above hi ends the walk, so nothing
+  // right of the range is entered beyond one left spine.
+  int visited = 0;
+  while (!stack.empty() && visited < limit) {
+    int n = stack.back();
+    stack.pop_back();
+    if (nodes_[n].roll > hi) break;
+    v.visit(recs_[n]);
+    visited++;
+    for (cur = nodes_[n].right; cur >= 0; cur = nodes_[cur].left) stack.push_back(cur);
+  }
+  return visited;
+}
+
+void AvlStudentDB::inorderMutate(StudentMutator& m) {
+  inorderMutateNode(root_, m);
+}
@@ -12,12 +12,26 @@ struct StudentRecord {
   int total = 0;
 };
 
+// Read-only in-order visitor (walks the tree without copying records out).
+class StudentVisitor {
+ public:
+  virtual ~StudentVisitor() = default;
+  virtual void visit(const StudentRecord& r) = 0;
+};
+
+// In-order visitor that may edit records in place. It must not change roll
+// (the key), so the tree shape stays valid.
+class StudentMutator {
+ public:
+  virtual ~StudentMutator() = default;
+  virtual void visit(StudentRecord& r) = 0;
+};
+
 class AvlStudentDB {
  public:
   AvlStudentDB() = default;
   AvlStudentDB(const AvlStudentDB&) = delete;
   AvlStudentDB& operator=(const AvlStudentDB&) = delete;
-  ~AvlStudentDB();
 
   // Practical DB semantics:
   // - insert: fails if roll already exists (prevents overwrite)
@@ -25,39 +39,72 @@ class AvlStudentDB {
   bool insert(const StudentRecord& r);
   bool update(const StudentRecord& r);
   bool remove(int roll);
+  // Replaces the contents with rows, which must be strictly increasing by roll
+  // (false and nothing changed otherwise). O(n): builds a perfectly balanced
+  // tree directly (the middle row at each root, no rotations). The names and
+  // programs are moved out of rows.
+  bool buildSorted(std::vector<StudentRecord>& rows);
   bool find(int roll, StudentRecord& out) const;
+  // The record for roll without copying it, or nullptr; valid until the next
+  // insert/remove/buildSorted/clear.
+  const StudentRecord* get(int roll) const;
   // Like find(), but also returns the visited node keys (for UI search animation).
   bool findTrace(int roll, StudentRecord& out, std::vector<int>& visited) const;
   std::vector<StudentRecord> inorder() const;
+  void inorderVisit(StudentVisitor& v) const;
+  // Bounded in-order walk: visits up to limit records with roll > afterRoll.
+  // O(log n + limit): subtrees entirely at or below afterRoll are never entered.
+  // Returns the number of records visited.
+  int inorderVisitAfter(int afterRoll, int limit, StudentVisitor& v) const;
+  // Pruned in-order walk: visits up to limit records with lo <= roll <= hi.
+  // Only the search paths to lo and to the end of the range and the records in
+  // it are touched, O(log n + matches). Returns the number of records visited.
+  int inorderVisitRange(int lo, int hi, int limit, StudentVisitor& v) const;
+  void inorderMutate(StudentMutator& m);
 
   int size() const { return size_; }
+  // Drops every record and releases the arena (no per-node frees).
   void clear();
 
+  // Approximate heap bytes: the node and record arrays (by capacity) plus
+  // out-of-line name/program bytes.
+  size_t memoryBytes() const;
+
  private:
+  // Node arena: slot i is nodes_[i] (key, child slots, height) with its record
+  // in recs_[i]. Lookups only touch the 16-byte nodes, packed together instead
+  // of scattered across the heap. -1 means no child; freed slots are chained
+  // through left from free_ and reused by the next insert.
   struct Node {
-    StudentRecord rec;
-    Node* left = nullptr;
-    Node* right = nullptr;
-    int h = 1;
-    explicit Node(const StudentRecord& r) : rec(r) {}
+    int roll;
+    int left;
+    int right;
+    int h;
   };
 
-  Node* root_ = nullptr;
+  std::vector<Node> nodes_;
+  std::vector<StudentRecord> recs_;
+  int root_ = -1;
+  int free_ = -1;
   int size_ = 0;
 
-  static int height(Node* n);
-  static int bf(Node* n);
-  static void update(Node* n);
+  int height(int n) const;
+  int bf(int n) const;
+  void update(int n);
+
+  int rotateRight(int y);
+  int rotateLeft(int x);
+  int balance(int n);
 
-  static Node* rotateRight(Node* y);
-  static Node* rotateLeft(Node* x);
-  static Node* balance(Node* n);
+  int alloc(const StudentRecord& r);
+  void release(int n);
+  int findSlot(int roll) const;
 
-  static Node* insertOnly(Node* n, const StudentRecord& r, bool& insertedNew);
-  static Node* updateOnly(Node* n, const StudentRecord& r, bool& updated);
-  static Node* erase(Node* n, int roll, bool& removed);
-  static Node* minNode(Node* n);
+  int insertOnly(int n, const StudentRecord& r, bool& insertedNew);
+  int erase(int n, int roll, bool& removed);
+  int buildRange(std::vector<StudentRecord>& rows, int lo, int hi);
 
-  static void destroy(Node* n);
-  static void inorderCollect(Node* n, std::vector<StudentRecord>& out);
+  void inorderCollect(int n, std::vector<StudentRecord>& out) const;
+  void inorderVisitNode(int n, StudentVisitor& v) const;
+  void inorderMutateNode(int n, StudentMutator& m);
 };
@@ -1,15 +1,45 @@
 #pragma once
 
+#include <condition_variable>
+#include <mutex>
+#include <shared_mutex>
 #include <string>
+#include <thread>
 
 #include "graph.h"
 #include "student_store.h"
 
-// Backend object (no global variables): one instance per Java NativeBridge.
+// Backend object (no global variables): one instance per Java NativeBridge, i.e.
+// per campus. Any number can be open in one process (see CampusRegistry.java).
 class Backend {
  public:
-  Backend(const std::string& studentCsvPath) : students(studentCsvPath) {}
+  Backend(const std::string& studentCsvPath) : nav(defaultCampusGraph()), students(studentCsvPath) {}
 
-  CampusGraph nav;
+  ~Backend() {
+    {
+      std::lock_guard<std::mutex> w(wakeMu);
+      stopping = true;
+    }
+    wake.notify_one();
+    if (compactor.joinable()) compactor.join(); // lets a running fold finish
+    students.close();
+  }
+
+  // Shared and immutable (defaultCampusGraph), so routing needs no lock.
+  const CampusGraph& nav;
   StudentStore students;
+
+  // Reader/writer lock over students (taken in backend_api.cpp):
+  // lookups and listings share it; mutations take it exclusively.
+  mutable std::shared_mutex mu;
+
+  // Log compaction thread (api::requestCompaction), started by the first
+  // mutation that needs it. compactMu is held for a whole fold; sisImportCsv
+  // takes it too, before mu. compactWanted/stopping are guarded by wakeMu.
+  std::mutex compactMu;
+  std::mutex wakeMu;
+  std::condition_variable wake;
+  bool compactWanted = false;
+  bool stopping = false;
+  std::thread compactor; // under mu
 };
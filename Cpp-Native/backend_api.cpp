@@ -0,0 +1,492 @@
+#include "backend_api.h"
+
+#include <mutex>
+
+#include "columnar.h"
+#include "utils_json.h"
+
+// Course header rules are relaxed here for <mutex>/<shared_mutex>/<thread>/
+// <condition_variable> (see README).
+
+namespace api {
+
+using jsonutil::Writer;
+
+typedef std::shared_lock<std::shared_mutex> ReadLock;
+typedef std::unique_lock<std::shared_mutex> WriteLock;
+
+// Open handles sorted by address (guarded by handles()), so the FFM per-call
+// isOpen check stays O(log n) with many campuses open.
+static std::vector<const Backend*> gOpen;
+
+std::shared_mutex& handles() {
+  static std::shared_mutex mu;
+  return mu;
+}
+
+static size_t key(const Backend* b) { return (size_t)b; }
+
+// First index whose handle is >= b.
+static size_t lowerBound(const Backend* b) {
+  size_t lo = 0, hi = gOpen.size();
+  while (lo < hi) {
+    size_t mid = lo + (hi - lo) / 2;
+    if (key(gOpen[mid]) < key(b)) lo = mid + 1;
+    else hi = mid;
+  }
+  return lo;
+}
+
+bool isOpen(const Backend* b) {
+  if (!b) return false;
+  size_t i = lowerBound(b);
+  return i < gOpen.size() && gOpen[i] == b;
+}
+
+
+// Body of Backend::compactor: waits for requestCompaction, then folds the log
+// the store just switched away from into the CSV. b->mu is held only to take
+// the snapshot and to record the outcome, so mutations keep appending to the
+// new log while the files are written.
+static void compactLoop(Backend* b) {
+  for (;;) {
+    {
+      std::unique_lock<std::mutex> w(b->wakeMu);
+      while (!b->compactWanted && !b->stopping) b->wake.wait(w);
+      if (b->stopping) return;
+      b->compactWanted = false;
+    }
+    std::lock_guard<std::mutex> c(b->compactMu);
+    std::vector<StudentRecord> rows;
+    int folded = 0;
+    {
+      WriteLock lock(b->mu);
+      if (!b->students.beginCompaction(rows, folded)) continue;
+    }
+    size_t bytes = 0;
+    StoreResult r = b->students.writeCompaction(rows, folded, bytes);
+    WriteLock lock(b->mu);
+    b->students.endCompaction(r, bytes);
+  }
+}
+
+// After a mutation; caller holds b->mu exclusively.
+static void requestCompaction(Backend* b) {
+  if (!b->students.needsCompaction()) return;
+  {
+    std::lock_guard<std::mutex> w(b->wakeMu);
+    b->compactWanted = true;
+  }
+  if (b->compactor.joinable()) b->wake.notify_one();
+  else b->compactor = std::thread(compactLoop, b);
+}
+
+// Ends a mutation: asks for compaction if due, releases b->mu, then waits for the
+// group commit that flushes the mutation's log records (GroupLog::commit), so
+// other mutations can join the batch meanwhile.
+static StoreResult commit(Backend* b, WriteLock& lock, const StoreResult& sr) {
+  requestCompaction(b);
+  unsigned long long seq = sr.ok ? b->students.logSeq() : 0;
+  lock.unlock();
+  if (!b->students.commitLog(seq)) return StoreResult{false, "Failed to append to log file."};
+  return sr;
+}
+
+static void okMessage(Writer& out, bool ok, const std::string& message) {
+  out.beginObject().field("ok", ok).field("message", message).endObject();
+}
+
+Backend* open(const std::string& csvPath) {
+  Backend* b = new Backend(csvPath);
+  StoreResult lr = b->students.load();
+  (void)lr;
+
+  // ensure some initial data if file had none
+  if (b->students.count() == 0) {
+    StudentRecord s1; s1.roll = 101; s1.name = "Ayesha"; s1.program = "BSCS"; s1.semester = 3; s1.present = 5; s1.total = 10;
+    StudentRecord s2; s2.roll = 102; s2.name = "Hassan"; s2.program = "BBA";  s2.semester = 2; s2.present = 7; s2.total = 10;
+    StudentRecord s3; s3.roll = 103; s3.name = "Zara";   s3.program = "BSSE"; s3.semester = 4; s3.present = 3; s3.total = 10;
+    StudentRecord s4; s4.roll = 104; s4.name = "Ali";    s4.program = "BSAI"; s4.semester = 1; s4.present = 6; s4.total = 10;
+    b->students.addStudent(s1);
+    b->students.addStudent(s2);
+    b->students.addStudent(s3);
+    b->students.addStudent(s4);
+    b->students.commitLog(b->students.logSeq());
+  }
+
+  WriteLock lock(handles());
+  gOpen.insert(gOpen.begin() + (long)lowerBound(b), b);
+  return b;
+}
+
+// Unregisters under handles() (waiting out running calls), then deletes with it
+// released: ~Backend joins the compactor and folds the log, and other campuses'
+// calls must not wait for that file I/O. Nothing can reach b once it is not open.
+void close(Backend* b) {
+  {
+    WriteLock lock(handles());
+    if (!isOpen(b)) return;
+    gOpen.erase(gOpen.begin() + (long)lowerBound(b));
+  }
+  delete b;
+}
+
+size_t memoryBytes(Backend* b) {
+  if (!b) return 0;
+  ReadLock lock(b->mu);
+  return sizeof(Backend) + b->students.memoryBytes();
+}
+
+size_t sharedMemoryBytes() {
+  return sizeof(CampusGraph) + defaultCampusGraph().memoryBytes();
+}
+
+void sisImportCsv(Backend* b, const std::string& csvPath, Writer& out) {
+  if (!b) { out.raw("{\"ok\":false,\"message\":\"Backend not initialized.\"}"); return; }
+  std::lock_guard<std::mutex> c(b->compactMu); // no fold writing the old files
+  WriteLock lock(b->mu);
+  StoreResult sr = b->students.switchToFile(csvPath);
+  okMessage(out, sr.ok, sr.message);
+}
+
+void sisSetCommitWindow(Backend* b, int windowMicros, int maxBatch, Writer& out) {
+  if (!b) { okMessage(out, false, "Backend not initialized."); return; }
+  bool ok = b->students.configureCommit(windowMicros, maxBatch);
+  okMessage(out, ok, ok ? "Commit window set." : "Invalid commit window.");
+}
+
+void sisCommitStats(Backend* b, Writer& out) {
+  if (!b) { out.raw("{}"); return; }
+  b->students.commitStats(out);
+}
+
+void sisExportCsv(Backend* b, const std::string& csvPath, Writer& out) {
+  if (!b) { out.raw("{\"ok\":false,\"message\":\"Backend not initialized.\"}"); return; }
+  ReadLock lock(b->mu);
+  StoreResult sr = b->students.exportTo(csvPath);
+  okMessage(out, sr.ok, sr.message);
+}
+
+static void stringArray(Writer& out, const char* k, const std::vector<std::string>& items) {
+  out.key(k).beginArray();
+  for (size_t i = 0; i < items.size(); i++) out.string(items[i]);
+  out.endArray();
+}
+
+// Backwards compatibility with earlier scaffold
+void getShortestPath(const std::string& src, const std::string& dest, Writer& out) {
+  PathResult pr = defaultCampusGraph().dijkstraShortestPath(src, dest);
+
+  out.beginObject()
+      .field("ok", pr.distance >= 0)
+      .field("algorithm", pr.algorithm)
+      .field("distance", pr.distance)
+      .field("hops", pr.hops)
+      .field("cost", pr.cost);
+  stringArray(out, "path", pr.path);
+  stringArray(out, "visited", pr.visitedOrder);
+  out.endObject();
+}
+
+// The graph is shared and immutable: no backend lock for navigation.
+static const CampusGraph& graphOf(const Backend* b) { return b ? b->nav : defaultCampusGraph(); }
+
+std::vector<std::string> navLocations(Backend* b) {
+  return graphOf(b).locations();
+}
+
+void navShortestPath(Backend* b, const std::string& src, const std::string& dest, const std::string& algorithm, Writer& out) {
+  const CampusGraph* g = &graphOf(b);
+  PathResult pr = (algorithm == "BFS") ? g->bfsShortestPath(src, dest) : g->dijkstraShortestPath(src, dest);
+
+  if (pr.distance < 0 || pr.path.empty()) {
+    out.beginObject()
+        .field("ok", false)
+        .field("error", "No route found (check locations).")
+        .field("algorithm", pr.algorithm)
+        .endObject();
+    return;
+  }
+
+  out.beginObject()
+      .field("ok", true)
+      .field("algorithm", pr.algorithm)
+      .field("distance", pr.distance)
+      .field("hops", pr.hops)
+      .field("cost", pr.cost);
+  stringArray(out, "path", pr.path);
+  stringArray(out, "visited", pr.visitedOrder);
+
+  // Edge weights along the returned path (for UI animation timing + explanation).
+  out.key("edgeWeights").beginArray();
+  for (int i = 0; i + 1 < (int)pr.path.size(); i++) {
+    int ai, bi;
+    if (!g->resolve(pr.path[(size_t)i], ai)) { out.number(0); continue; }
+    if (!g->resolve(pr.path[(size_t)i + 1], bi)) { out.number(0); continue; }
+    int w = g->edgeWeight(ai, bi);
+    out.number(w < 0 ? 0 : w);
+  }
+  out.endArray().endObject();
+}
+
+void navDivergenceReport(Backend* b, Writer& out) {
+  const CampusGraph* g = &graphOf(b);
+  int totalPairs = 0, divergedPairs = 0, percent = 0;
+  g->divergenceStats(totalPairs, divergedPairs, percent);
+
+  out.beginObject()
+      .field("totalPairs", totalPairs)
+      .field("divergedPairs", divergedPairs)
+      .field("percent", percent)
+      .endObject();
+}
+
+// Insert-only (prevents overwrite) per requirements.
+void sisUpsertStudent(Backend* b, int roll, const std::string& name, const std::string& program, int year, Writer& out) {
+  if (!b) { okMessage(out, false, "Backend not initialized. Restart app."); return; }
+  WriteLock lock(b->mu);
+
+  StudentRecord r;
+  r.roll = roll;
+  r.name = name;
+  r.program = program;
+  r.semester = year;
+  r.present = 0;
+  r.total = 0;
+
+  StoreResult sr = commit(b, lock, b->students.addStudent(r));
+  okMessage(out, sr.ok, sr.message);
+}
+
+static void studentFields(const StudentRecord& r, int total, Writer& out) {
+  out.field("roll", r.roll)
+      .field("name", r.name)
+      .field("program", r.program)
+      .field("year", r.semester)
+      .field("present", r.present)
+      .field("total", total);
+}
+
+// Writes each visited record as one array element, straight from the tree.
+class StudentJsonWriter : public StudentRowVisitor {
+ public:
+  explicit StudentJsonWriter(Writer& out) : out_(out) {}
+  void visit(const StudentRecord& r, int total) override {
+    out_.beginObject();
+    studentFields(r, total, out_);
+    out_.endObject();
+  }
+
+ private:
+  Writer& out_;
+};
+
+void sisGetStudent(Backend* b, int roll, Writer& out) {
+  if (!b) return;
+  ReadLock lock(b->mu);
+  StudentRecord r;
+  StoreResult sr = b->students.getStudent(roll, r);
+  if (!sr.ok) return;
+
+  out.beginObject();
+  studentFields(r, r.total, out);
+  out.endObject();
+}
+
+void sisGetStudentTrace(Backend* b, int roll, Writer& out) {
+  if (!b) return;
+  ReadLock lock(b->mu);
+  StudentRecord r;
+  std::vector<int> visited;
+  StoreResult sr = b->students.getStudentTrace(roll, r, visited);
+  if (!sr.ok) return;
+
+  out.beginObject();
+  studentFields(r, r.total, out);
+  out.key("visited").beginArray();
+  for (size_t i = 0; i < visited.size(); i++) out.number(visited[i]);
+  out.endArray().endObject();
+}
+
+void sisDeleteStudent(Backend* b, int roll, Writer& out) {
+  if (!b) { okMessage(out, false, "Backend not initialized."); return; }
+  WriteLock lock(b->mu);
+  StoreResult sr = commit(b, lock, b->students.deleteStudent(roll));
+  okMessage(out, sr.ok, sr.message);
+}
+
+void sisListStudents(Backend* b, Writer& out) {
+  if (!b) { out.raw("[]"); return; }
+  ReadLock lock(b->mu);
+  // ~80 bytes per record; one up-front reserve instead of repeated doubling
+  out.reserve(out.size() + (size_t)b->students.count() * 96 + 2);
+  out.beginArray();
+  StudentJsonWriter w(out);
+  b->students.visitByRoll(w);
+  out.endArray();
+}
+
+// StudentJsonWriter that remembers the last roll written (the stream's cursor).
+class StudentJsonStepper : public StudentRowVisitor {
+ public:
+  explicit StudentJsonStepper(Writer& out) : json_(out) {}
+  void visit(const StudentRecord& r, int total) override {
+    json_.visit(r, total);
+    last = r.roll;
+  }
+  int last = 0;
+
+ private:
+  StudentJsonWriter json_;
+};
+
+// Records encoded per lock hold.
+static const int kStreamStep = 256;
+
+bool sisListStudentsStream(BackendSource& src, Writer& out) {
+  out.beginArray();
+  int after = -2147483647 - 1;
+  while (true) {
+    int n = 0;
+    {
+      HandleGuard guard;
+      Backend* b = src.backend();
+      if (b) {
+        ReadLock lock(b->mu);
+        StudentJsonStepper w(out);
+        n = b->students.visitPage(after, kStreamStep, w);
+        if (n > 0) after = w.last;
+      }
+    }
+    // Both locks are released before the sink sees anything.
+    if (!out.spill()) return out.finish();
+    if (n < kStreamStep) break;
+  }
+  out.endArray();
+  return out.finish();
+}
+
+void sisListStudentsPage(Backend* b, int afterRoll, int limit, Writer& out) {
+  if (!b || limit <= 0) { out.raw("[]"); return; }
+  ReadLock lock(b->mu);
+  out.beginArray();
+  StudentJsonWriter w(out);
+  b->students.visitPage(afterRoll, limit, w);
+  out.endArray();
+}
+
+void sisListRange(Backend* b, int lo, int hi, int limit, Writer& out) {
+  if (!b || limit <= 0 || lo > hi) { out.raw("[]"); return; }
+  ReadLock lock(b->mu);
+  out.beginArray();
+  StudentJsonWriter w(out);
+  b->students.visitRange(lo, hi, limit, w);
+  out.endArray();
+}
+
+void sisSearchByNamePrefix(Backend* b, const std::string& prefix, int limit, Writer& out) {
+  if (!b || limit <= 0) { out.raw("[]"); return; }
+  ReadLock lock(b->mu);
+  out.beginArray();
+  StudentJsonWriter w(out);
+  b->students.visitNamePrefix(prefix, limit, w);
+  out.endArray();
+}
+
+void sisListStudentsByName(Backend* b, const std::string& afterName, int afterRoll, int limit, Writer& out) {
+  if (!b || limit <= 0) { out.raw("[]"); return; }
+  ReadLock lock(b->mu);
+  out.beginArray();
+  StudentJsonWriter w(out);
+  b->students.visitNamePage(afterName, afterRoll, limit, w);
+  out.endArray();
+}
+
+void attNewSessionDay(Backend* b, Writer& out) {
+  if (!b) { okMessage(out, false, "Backend not initialized."); return; }
+  WriteLock lock(b->mu);
+  StoreResult sr = commit(b, lock, b->students.newDayForAll());
+  okMessage(out, sr.ok, sr.message);
+}
+
+void attMarkPresent(Backend* b, int roll, Writer& out) {
+  if (!b) { okMessage(out, false, "Backend not initialized."); return; }
+  WriteLock lock(b->mu);
+  StoreResult sr = commit(b, lock, b->students.markPresent(roll));
+  okMessage(out, sr.ok, sr.message);
+}
+
+bool attMarkPresentBatch(Backend* b, const int* rolls, size_t n, int* present) {
+  if (!b) return false;
+  std::vector<int> in(rolls, rolls + n);
+  std::vector<int> out;
+  WriteLock lock(b->mu);
+  StoreResult sr = commit(b, lock, b->students.markPresentBatch(in, out));
+  for (size_t i = 0; i < n; i++) present[i] = out[i];
+  return sr.ok;
+}
+
+static void attendanceFields(const StudentRecord& r, Writer& out) {
+  int pct = (r.total > 0) ? (r.present * 100) / r.total : 0;
+  out.field("roll", r.roll)
+      .field("name", r.name)
+      .field("present", r.present)
+      .field("total", r.total)
+      .field("percent", pct);
+}
+
+void attGetSummary(Backend* b, int roll, Writer& out) {
+  if (!b) return;
+  ReadLock lock(b->mu);
+  StudentRecord r;
+  StoreResult sr = b->students.getStudent(roll, r);
+  if (!sr.ok) return;
+  out.beginObject();
+  attendanceFields(r, out);
+  out.endObject();
+}
+
+void attGetDefaulters(Backend* b, int minPercent, Writer& out) {
+  if (!b) { out.raw("[]"); return; }
+  ReadLock lock(b->mu);
+  auto list = b->students.defaultersBelow(minPercent);
+  out.beginArray();
+  for (const auto& s : list) {
+    out.beginObject();
+    attendanceFields(s, out);
+    out.endObject();
+  }
+  out.endArray();
+}
+
+static long long fillColumnar(const std::vector<columnar::Row>& rows, unsigned char* dst, size_t cap) {
+  size_t need = columnar::encodedSize(rows);
+  if (cap < need) return -(long long)need;
+  return (long long)columnar::encode(rows, dst, cap);
+}
+
+long long sisListStudentsInto(Backend* b, unsigned char* dst, size_t cap) {
+  std::vector<columnar::Row> rows;
+  ReadLock lock;
+  if (b) {
+    lock = ReadLock(b->mu);
+    rows.reserve((size_t)b->students.count());
+    columnar::RowCollector collect(rows);
+    b->students.visitByRoll(collect);
+  }
+  return fillColumnar(rows, dst, cap);
+}
+
+long long attGetDefaultersInto(Backend* b, int minPercent, unsigned char* dst, size_t cap) {
+  std::vector<StudentRecord> list;
+  if (b) {
+    ReadLock lock(b->mu);
+    list = b->students.defaultersBelow(minPercent);
+  }
+  std::vector<columnar::Row> rows;
+  rows.reserve(list.size());
+  for (size_t i = 0; i < list.size(); i++) rows.push_back(columnar::Row{&list[i], list[i].total});
+  return fillColumnar(rows, dst, cap);
+}
+
+} // namespace api
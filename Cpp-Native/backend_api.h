@@ -0,0 +1,104 @@
+#pragma once
+
+#include <shared_mutex>
+#include <string>
+#include <vector>
+
+#include "backend.h"
+#include "utils_json.h"
+
+// Transport-neutral entry points shared by the JNI layer (native_impl.cpp)
+// and the plain C ABI used by the java.lang.foreign bridge (ffi_exports.cpp).
+// JSON replies (the compact format the Java UI parses) are appended to the
+// caller's jsonutil::Writer; "no result" replies leave it empty.
+namespace api {
+
+Backend* open(const std::string& csvPath); // loads CSV, seeds demo rows if empty
+void close(Backend* b);                    // no-op for handles that are not open
+
+// Handle lifecycle lock. open/close take it exclusively; a transport holds it
+// shared (HandleGuard) from reading a handle until its call returns, so a
+// Backend is never closed or replaced underneath a running call.
+std::shared_mutex& handles();
+bool isOpen(const Backend* b); // caller holds handles()
+
+// Memory accounting for packing many campuses into one process (approximate heap
+// bytes, excluding allocator overhead). memoryBytes covers one campus's own data
+// (records, AVL nodes, paths); sharedMemoryBytes the state every campus shares
+// (the campus graph), paid once per process.
+size_t memoryBytes(Backend* b);
+size_t sharedMemoryBytes();
+
+class HandleGuard {
+ public:
+  HandleGuard() : lock_(handles()) {}
+
+ private:
+  std::shared_lock<std::shared_mutex> lock_;
+};
+
+void sisImportCsv(Backend* b, const std::string& csvPath, jsonutil::Writer& out);
+void sisExportCsv(Backend* b, const std::string& csvPath, jsonutil::Writer& out);
+// Group commit of the student log (GroupLog): a mutation's reply waits until its
+// record is flushed, batched with the mutations arriving within windowMicros (or
+// until maxBatch are buffered). Defaults: 0 us (no waiting; batches form only
+// while a flush is in progress) and 64. sisCommitStats returns the settings with
+// batch-size and commit-wait histograms (bucket i counts [2^i, 2^(i+1))).
+void sisSetCommitWindow(Backend* b, int windowMicros, int maxBatch, jsonutil::Writer& out);
+void sisCommitStats(Backend* b, jsonutil::Writer& out);
+
+void getShortestPath(const std::string& src, const std::string& dest, jsonutil::Writer& out);
+std::vector<std::string> navLocations(Backend* b);
+void navShortestPath(Backend* b, const std::string& src, const std::string& dest, const std::string& algorithm, jsonutil::Writer& out);
+void navDivergenceReport(Backend* b, jsonutil::Writer& out);
+
+void sisUpsertStudent(Backend* b, int roll, const std::string& name, const std::string& program, int year, jsonutil::Writer& out);
+void sisGetStudent(Backend* b, int roll, jsonutil::Writer& out);
+void sisGetStudentTrace(Backend* b, int roll, jsonutil::Writer& out);
+void sisDeleteStudent(Backend* b, int roll, jsonutil::Writer& out);
+void sisListStudents(Backend* b, jsonutil::Writer& out);
+// Same records as sisListStudents, but only the first limit with roll > afterRoll.
+// Start with afterRoll = INT_MIN (or any roll below the first); continue from the
+// last roll returned. Fewer than limit items means the end was reached.
+void sisListStudentsPage(Backend* b, int afterRoll, int limit, jsonutil::Writer& out);
+// Same records as sisListStudents, but only the first limit with lo <= roll <= hi
+// (a program's roll block), in roll order. "[]" when lo > hi.
+void sisListRange(Backend* b, int lo, int hi, int limit, jsonutil::Writer& out);
+// Same records as sisListStudents, but only the first limit whose name starts with
+// prefix (ASCII case ignored; empty matches everyone), in name then roll order.
+void sisSearchByNamePrefix(Backend* b, const std::string& prefix, int limit, jsonutil::Writer& out);
+// sisListStudentsPage in name order (then roll; ASCII case ignored): the first limit
+// students after the cursor (afterName, afterRoll). Start with ("", INT_MIN) and
+// continue from the name and roll of the last student returned.
+void sisListStudentsByName(Backend* b, const std::string& afterName, int afterRoll, int limit, jsonutil::Writer& out);
+// Where a stream finds its backend for each step: called with handles() held
+// shared, it re-reads the caller's handle (nullptr once it is closed).
+class BackendSource {
+ public:
+  virtual ~BackendSource() = default;
+  virtual Backend* backend() = 0;
+};
+// sisListStudents for a writer in streaming mode (Writer::streamTo), a few hundred
+// records at a time: each step takes handles() and the read lock, encodes the next
+// records after the last roll sent, drops both locks and only then spills to the
+// sink. The sink may therefore call any campus, this one included, and never blocks
+// writers or open/close. Rolls come out once each, in increasing order; a mutation
+// between steps shows up only if it lands after the cursor, and a campus closed
+// mid-stream ends the array early. False if the sink stopped the stream early.
+bool sisListStudentsStream(BackendSource& src, jsonutil::Writer& out);
+
+void attNewSessionDay(Backend* b, jsonutil::Writer& out);
+void attMarkPresent(Backend* b, int roll, jsonutil::Writer& out);
+// One lock, one AVL pass, one log append for n rolls. present[i] receives the new
+// present count for rolls[i] or -1 if not found. False when not initialized or the
+// append failed.
+bool attMarkPresentBatch(Backend* b, const int* rolls, size_t n, int* present);
+void attGetSummary(Backend* b, int roll, jsonutil::Writer& out);
+void attGetDefaulters(Backend* b, int minPercent, jsonutil::Writer& out);
+
+// Columnar listings (layout in columnar.h).
+// Return bytes written, or -(bytes needed) when cap is too small.
+long long sisListStudentsInto(Backend* b, unsigned char* dst, size_t cap);
+long long attGetDefaultersInto(Backend* b, int minPercent, unsigned char* dst, size_t cap);
+
+} // namespace api
@@ -25,9 +25,9 @@ if %errorlevel% neq 0 (
 
 REM Compile the native library
 echo Compiling JNI backend (multiple C++ files)...
-g++ -std=c++17 -O2 -shared -o campus_backend.dll ^
+g++ -std=c++17 -O2 -shared -pthread -o campus_backend.dll ^
   -I"%JAVA_HOME%\include" -I"%JAVA_HOME%\include\win32" ^
-  native_impl.cpp graph.cpp avl_tree.cpp student_store.cpp utils_json.cpp
+  native_impl.cpp graph.cpp avl_tree.cpp name_index.cpp student_store.cpp group_log.cpp snapshot_file.cpp csv_loader.cpp utils_json.cpp columnar.cpp stats.cpp backend_api.cpp ffi_exports.cpp
 
 REM Check if compilation succeeded
 if %errorlevel% neq 0 (
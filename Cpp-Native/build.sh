@@ -20,12 +20,20 @@ OUT_LIB="${ROOT_DIR}/libcampus_backend.so"
 echo "JAVA_HOME=${JAVA_HOME}"
 echo "Building ${OUT_LIB}"
 
-g++ -std=c++17 -O2 -fPIC -shared \
+g++ -std=c++17 -O2 -fPIC -shared -pthread \
   "${ROOT_DIR}/native_impl.cpp" \
   "${ROOT_DIR}/graph.cpp" \
   "${ROOT_DIR}/avl_tree.cpp" \
+  "${ROOT_DIR}/name_index.cpp" \
   "${ROOT_DIR}/student_store.cpp" \
+  "${ROOT_DIR}/group_log.cpp" \
+  "${ROOT_DIR}/snapshot_file.cpp" \
+  "${ROOT_DIR}/csv_loader.cpp" \
   "${ROOT_DIR}/utils_json.cpp" \
+  "${ROOT_DIR}/columnar.cpp" \
+  "${ROOT_DIR}/stats.cpp" \
+  "${ROOT_DIR}/backend_api.cpp" \
+  "${ROOT_DIR}/ffi_exports.cpp" \
   "${JNI_INCLUDE[@]}" \
   -o "${OUT_LIB}"
 
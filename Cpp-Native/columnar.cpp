@@ -0,0 +1,53 @@
+#include "columnar.h"
+
+#include <string>
+
+// Only <string>, <vector>, <iostream> are allowed by course rules.
+
+namespace columnar {
+
+static const size_t kHeaderInts = 2;
+static const size_t kIntColumns = 4;
+
+size_t encodedSize(const std::vector<Row>& rows) {
+  size_t n = rows.size();
+  size_t heap = 0;
+  for (size_t i = 0; i < n; i++) heap += rows[i].rec->name.size() + rows[i].rec->program.size();
+  size_t ints = kHeaderInts + kIntColumns * n + (2 * n + 1);
+  return ints * sizeof(int) + heap;
+}
+
+size_t encode(const std::vector<Row>& rows, unsigned char* dst, size_t cap) {
+  size_t need = encodedSize(rows);
+  if (!dst || cap < need) return 0;
+
+  size_t n = rows.size();
+  int* ints = reinterpret_cast<int*>(dst);
+  int* roll = ints + kHeaderInts;
+  int* semester = roll + n;
+  int* present = semester + n;
+  int* total = present + n;
+  int* strOff = total + n;
+  char* heap = reinterpret_cast<char*>(strOff + 2 * n + 1);
+
+  size_t pos = 0;
+  for (size_t i = 0; i < n; i++) {
+    const StudentRecord& r = *rows[i].rec;
+    roll[i] = r.roll;
+    semester[i] = r.semester;
+    present[i] = r.present;
+    total[i] = rows[i].total;
+
+    strOff[2 * i] = (int)pos;
+    pos += r.name.copy(heap + pos, r.name.size());
+    strOff[2 * i + 1] = (int)pos;
+    pos += r.program.copy(heap + pos, r.program.size());
+  }
+  strOff[2 * n] = (int)pos;
+
+  ints[0] = (int)n;
+  ints[1] = (int)pos;
+  return need;
+}
+
+} // namespace columnar
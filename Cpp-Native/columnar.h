@@ -0,0 +1,41 @@
+#pragma once
+
+#include <vector>
+
+#include "student_store.h"
+
+// Columnar bulk layout shared with Java (StudentColumns.java).
+// All integers are native-endian int32, starting at byte 0 of the buffer:
+//
+//   count, heapBytes
+//   roll[count], semester[count], present[count], total[count]
+//   strOff[2 * count + 1]   string k = heap[strOff[k], strOff[k + 1])
+//                           (string 2i = name of row i, 2i + 1 = program)
+//   heap[heapBytes]         UTF-8 bytes, no terminators
+//
+// Rows are referenced by pointer so listings never copy StudentRecord strings.
+
+namespace columnar {
+
+// One row: the record plus its real total (StudentRowVisitor).
+struct Row {
+  const StudentRecord* rec;
+  int total;
+};
+
+// Collects records in visit order (valid until the next mutation).
+class RowCollector : public StudentRowVisitor {
+ public:
+  explicit RowCollector(std::vector<Row>& out) : out_(out) {}
+  void visit(const StudentRecord& r, int total) override { out_.push_back(Row{&r, total}); }
+
+ private:
+  std::vector<Row>& out_;
+};
+
+size_t encodedSize(const std::vector<Row>& rows);
+
+// Writes rows into dst. Returns bytes written, or 0 when cap is too small.
+size_t encode(const std::vector<Row>& rows, unsigned char* dst, size_t cap);
+
+} // namespace columnar
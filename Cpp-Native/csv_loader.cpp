@@ -0,0 +1,200 @@
+#include "csv_loader.h"
+
+#include "dsa_merge_sort.h"
+#include "dsa_min_heap.h"
+
+#include <thread>
+
+// Course header rules: <thread> is an exception here (see README), for the
+// per-core chunk parsers.
+
+namespace csvload {
+
+static const size_t kMinChunkBytes = 256 * 1024; // smaller inputs are not worth a thread
+static const int kMaxThreads = 64;
+
+static inline bool isSpace(char c) { return c == ' ' || c == '\t' || c == '\r' || c == '\n'; }
+
+static inline void trimSpan(const char*& a, const char*& b) {
+  while (a < b && isSpace(*a)) a++;
+  while (b > a && isSpace(b[-1])) b--;
+}
+
+// Same result as the store's toInt on the field [a, b).
+static inline int toInt(const char* a, const char* b, int def) {
+  trimSpan(a, b);
+  if (a == b) return def;
+  int sign = 1;
+  if (*a == '-') { sign = -1; a++; }
+  long long v = 0;
+  for (; a < b; a++) {
+    char c = *a;
+    if (c < '0' || c > '9') return def;
+    v = v * 10 + (c - '0');
+    if (v > 2000000000LL) break;
+  }
+  return (int)(sign * v);
+}
+
+bool parseLine(const char* p, size_t n, StudentRecord& out) {
+  if (n == 0) return false;
+  // skip header
+  if (n >= 4 && p[0] == 'r' && p[1] == 'o' && p[2] == 'l' && p[3] == 'l') return false;
+
+  // field k = [cut[k], cut[k + 1] - 1), exactly 6 of them
+  const char* cut[7];
+  int fields = 0;
+  cut[0] = p;
+  for (size_t i = 0; i < n; i++) {
+    if (p[i] != ',') continue;
+    if (fields >= 5) return false;
+    cut[++fields] = p + i + 1;
+  }
+  if (fields != 5) return false;
+  cut[6] = p + n + 1;
+
+  out.roll = toInt(cut[0], cut[1] - 1, -1);
+  if (out.roll <= 0) return false;
+  const char* a = cut[1];
+  const char* b = cut[2] - 1;
+  trimSpan(a, b);
+  if (a == b) return false;
+  out.name.assign(a, (size_t)(b - a));
+  a = cut[2];
+  b = cut[3] - 1;
+  trimSpan(a, b);
+  if (a == b) return false;
+  out.program.assign(a, (size_t)(b - a));
+  out.semester = toInt(cut[3], cut[4] - 1, 1);
+  out.present = toInt(cut[4], cut[5] - 1, 0);
+  out.total = toInt(cut[5], cut[6] - 1, 0);
+
+  if (out.semester < 1) out.semester = 1;
+  if (out.present < 0) out.present = 0;
+  if (out.total < 0) out.total = 0;
+  if (out.present > out.total) out.present = out.total;
+  return true;
+}
+
+size_t lineBytes(const std::string& text) {
+  return text.size() + (!text.empty() && text[text.size() - 1] != '\n' ? 1 : 0);
+}
+
+// One record's roll plus its position in file order.
+struct Key {
+  int roll;
+  size_t index;
+};
+
+struct KeyRollLess {
+  bool operator()(const Key& a, const Key& b) const { return a.roll < b.roll; }
+};
+
+// The next unmerged record of one chunk; the heap orders by roll, then chunk
+// (file order), so of equal rolls the earliest chunk comes out first.
+struct Head {
+  int roll;
+  int chunk;
+};
+
+struct HeadLess {
+  bool operator()(const Head& a, const Head& b) const {
+    return a.roll != b.roll ? a.roll < b.roll : a.chunk < b.chunk;
+  }
+};
+
+static void take(StudentRecord& to, StudentRecord& from) {
+  to.roll = from.roll;
+  to.name.swap(from.name);
+  to.program.swap(from.program);
+  to.semester = from.semester;
+  to.present = from.present;
+  to.total = from.total;
+}
+
+// Sorts recs by roll keeping the first of each roll. Files the store wrote are
+// already strictly increasing, which is checked first.
+static void sortUnique(std::vector<StudentRecord>& recs) {
+  size_t i = 1;
+  while (i < recs.size() && recs[i - 1].roll < recs[i].roll) i++;
+  if (i >= recs.size()) return;
+
+  std::vector<Key> keys(recs.size());
+  for (size_t k = 0; k < recs.size(); k++) keys[k] = Key{recs[k].roll, k};
+  dsa::mergeSort(keys, KeyRollLess()); // stable: file order within a roll
+  std::vector<StudentRecord> out;
+  out.reserve(recs.size());
+  for (size_t k = 0; k < keys.size(); k++) {
+    if (k > 0 && keys[k].roll == keys[k - 1].roll) continue; // a later duplicate
+    out.push_back(StudentRecord());
+    take(out.back(), recs[keys[k].index]);
+  }
+  recs.swap(out);
+}
+
+static void parseChunk(const char* p, const char* end, std::vector<StudentRecord>& out) {
+  out.reserve((size_t)(end - p) / 32 + 1);
+  StudentRecord r;
+  while (p < end) {
+    const char* nl = p;
+    while (nl < end && *nl != '\n') nl++;
+    if (parseLine(p, (size_t)(nl - p), r)) out.push_back(r);
+    p = nl + 1;
+  }
+  sortUnique(out);
+}
+
+std::vector<StudentRecord> parse(const std::string& text, int threads) {
+  size_t n = text.size();
+  int t = threads > 0 ? threads : (int)std::thread::hardware_concurrency();
+  if (t > kMaxThreads) t = kMaxThreads;
+  if ((size_t)t > n / kMinChunkBytes) t = (int)(n / kMinChunkBytes);
+  if (t < 1) t = 1;
+
+  // chunk c = [bound[c], bound[c + 1]), every bound just after a newline
+  const char* base = text.data();
+  std::vector<const char*> bound(t + 1, base + n);
+  bound[0] = base;
+  for (int c = 1; c < t; c++) {
+    const char* p = base + n / t * c;
+    if (p < bound[c - 1]) p = bound[c - 1];
+    while (p < base + n && p[-1] != '\n') p++;
+    bound[c] = p;
+  }
+
+  std::vector<std::vector<StudentRecord>> chunks(t);
+  std::vector<std::thread> workers;
+  for (int c = 1; c < t; c++) {
+    workers.push_back(std::thread([&bound, &chunks, c] { parseChunk(bound[c], bound[c + 1], chunks[c]); }));
+  }
+  parseChunk(bound[0], bound[1], chunks[0]);
+  for (size_t w = 0; w < workers.size(); w++) workers[w].join();
+  std::vector<StudentRecord> out;
+  if (t == 1) {
+    out.swap(chunks[0]);
+    return out;
+  }
+
+  // k-way merge by roll through a min-heap of chunk heads, O(n log t); each chunk
+  // is strictly increasing, so a roll equal to the last one out is a later duplicate
+  size_t total = 0;
+  for (int c = 0; c < t; c++) total += chunks[c].size();
+  out.reserve(total);
+  std::vector<size_t> at(t, 0);
+  dsa::MinHeap<Head, HeadLess> heads;
+  for (int c = 0; c < t; c++) {
+    if (!chunks[c].empty()) heads.push(Head{chunks[c][0].roll, c});
+  }
+  while (!heads.empty()) {
+    Head h = heads.popMin();
+    StudentRecord& r = chunks[h.chunk][at[h.chunk]++];
+    if (out.empty() || out.back().roll != h.roll) {
+      out.push_back(StudentRecord());
+      take(out.back(), r);
+    }
+    if (at[h.chunk] < chunks[h.chunk].size()) heads.push(Head{chunks[h.chunk][at[h.chunk]].roll, h.chunk});
+  }
+  return out;
+}
+
+} // namespace csvload
@@ -0,0 +1,28 @@
+#pragma once
+
+#include <string>
+#include <vector>
+
+#include "avl_tree.h"
+
+// Student CSV parsing for StudentStore::load (format in student_store.h).
+// The file is read in one go and split at newline boundaries into one chunk
+// per core; each chunk is parsed in place (no per-line or per-field strings)
+// into records sorted by roll, then the chunks are merged by roll.
+
+namespace csvload {
+
+// One line without its newline, with the store's rules: exactly 6 fields,
+// roll > 0, name and program non-empty after trimming, semester >= 1,
+// 0 <= present <= total. False for the header and for invalid lines.
+bool parseLine(const char* p, size_t n, StudentRecord& out);
+
+// Valid records of text in roll order; of repeated rolls the first in file
+// order wins. threads 0 = one per core; small inputs use one thread.
+std::vector<StudentRecord> parse(const std::string& text, int threads = 0);
+
+// Bytes the lines of text add up to, counting a newline after the last one
+// even when the file lacks it (what the getline loader counted).
+size_t lineBytes(const std::string& text);
+
+} // namespace csvload
@@ -3,6 +3,8 @@
 #include <string>
 #include <vector>
 
+#include "mem_usage.h"
+
 // Level-1 DSAs (custom): LinkedList, HashMap, Queue + helper sorting/searching.
 
 namespace dsa {
@@ -68,6 +70,7 @@ class LinkedList {
   }
 
   size_t size() const { return size_; }
+  size_t nodeBytes() const { return size_ * sizeof(Node); } // heap held by the nodes
 
   struct Iterator {
     Node* p;
@@ -139,6 +142,13 @@ class HashMap {
 
   size_t size() const { return used_; }
 
+  // Table plus out-of-line key bytes (see mem_usage.h).
+  size_t memoryBytes() const {
+    size_t n = table_.capacity() * sizeof(Slot);
+    for (const auto& s : table_) n += memusage::stringHeap(s.key);
+    return n;
+  }
+
   bool contains(const std::string& key) const {
     V out;
     return get(key, out);
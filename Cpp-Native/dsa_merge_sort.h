@@ -0,0 +1,38 @@
+#pragma once
+
+#include <vector>
+
+// Level-2 DSA: stable bottom-up Merge Sort (custom)
+// Used wherever the store sorts: CSV records by roll (csv_loader), attendance
+// batches by roll (StudentStore::markPresentBatch), the name index at load
+// (NameIndex::build).
+
+namespace dsa {
+
+// Sorts a so that less(a[i+1], a[i]) never holds; equal elements keep their
+// input order. Iterative (runs of 1, 2, 4, ...), one scratch array, O(n log n).
+template <typename T, typename Less>
+void mergeSort(std::vector<T>& a, Less less) {
+  size_t n = a.size();
+  if (n < 2) return;
+  std::vector<T> tmp(n);
+  for (size_t width = 1; width < n; width *= 2) {
+    for (size_t i = 0; i < n; i += 2 * width) {
+      size_t m = i + width;
+      size_t r = i + 2 * width;
+      if (m > n) m = n;
+      if (r > n) r = n;
+
+      size_t p = i, q = m, k = i;
+      while (p < m && q < r) {
+        if (less(a[q], a[p])) tmp[k++] = a[q++]; // left wins ties: stable
+        else tmp[k++] = a[p++];
+      }
+      while (p < m) tmp[k++] = a[p++];
+      while (q < r) tmp[k++] = a[q++];
+    }
+    a.swap(tmp);
+  }
+}
+
+} // namespace dsa
@@ -0,0 +1,311 @@
+#include <jni.h> // JNIEXPORT only (symbol visibility / dllexport)
+
+#include <string>
+#include <vector>
+
+#include "backend_api.h"
+#include "stats.h"
+#include "utils_json.h"
+
+// Plain C ABI for the java.lang.foreign bridge (SCNS-Java/src-ffm/ForeignBridge.java).
+// No JNIEnv: strings come in as NUL-terminated UTF-8, and JSON results are copied
+// into a caller-owned buffer. Each call returns the result length in bytes; if that
+// is >= cap, nothing was copied and the result can be fetched once with
+// campus_last_result (so mutations are never executed twice).
+
+static thread_local std::string tLastResult;
+
+// Per-thread reply buffer, reused across calls (see native_impl.cpp).
+static jsonutil::Writer& reply() {
+  static thread_local jsonutil::Writer w;
+  w.reset();
+  return w;
+}
+
+static int deliver(const std::string& s, char* out, int cap) {
+  int n = (int)s.size();
+  if (out && n < cap) {
+    s.copy(out, s.size());
+    out[n] = '\0';
+  } else {
+    tLastResult = s;
+  }
+  return n;
+}
+
+static int deliver(const jsonutil::Writer& w, char* out, int cap, stats::Scope& st) {
+  st.bytes(w.size());
+  return deliver(w.out(), out, cap);
+}
+
+static std::string str(const char* s) { return s ? std::string(s) : std::string(); }
+
+// One FFM call: holds the handle lifecycle lock and only dereferences handles that
+// are still open (Java reads the handle before the downcall, so it may be stale).
+struct Call {
+  api::HandleGuard guard;
+  Backend* b;
+  explicit Call(void* h) : b(api::isOpen(static_cast<Backend*>(h)) ? static_cast<Backend*>(h) : nullptr) {}
+};
+
+extern "C" {
+
+JNIEXPORT int campus_last_result(char* out, int cap) {
+  int n = (int)tLastResult.size();
+  if (!out || n >= cap) return n;
+  tLastResult.copy(out, tLastResult.size());
+  out[n] = '\0';
+  tLastResult.clear();
+  return n;
+}
+
+JNIEXPORT void* campus_open(const char* csvPath) {
+  stats::Scope st(stats::kInit);
+  return api::open(csvPath ? std::string(csvPath) : std::string("data/students.csv"));
+}
+
+JNIEXPORT void campus_close(void* h) {
+  stats::Scope st(stats::kClose);
+  api::close(static_cast<Backend*>(h));
+}
+
+JNIEXPORT long long campus_memory_bytes(void* h) {
+  stats::Scope st(stats::kMemoryBytes);
+  Call c(h);
+  return (long long)api::memoryBytes(c.b);
+}
+
+JNIEXPORT int campus_test_connection(char* out, int cap) {
+  stats::Scope st(stats::kTestConnection);
+  static const char kReply[] = "FFM Connected Successfully!";
+  st.bytes(sizeof(kReply) - 1);
+  return deliver(kReply, out, cap);
+}
+
+JNIEXPORT int campus_sis_import_csv(void* h, const char* csvPath, char* out, int cap) {
+  stats::Scope st(stats::kSisImportCsv);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisImportCsv(c.b, str(csvPath), w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_export_csv(void* h, const char* csvPath, char* out, int cap) {
+  stats::Scope st(stats::kSisExportCsv);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisExportCsv(c.b, str(csvPath), w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_set_commit_window(void* h, int windowMicros, int maxBatch, char* out, int cap) {
+  stats::Scope st(stats::kSisSetCommitWindow);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisSetCommitWindow(c.b, windowMicros, maxBatch, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_commit_stats(void* h, char* out, int cap) {
+  stats::Scope st(stats::kSisCommitStats);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisCommitStats(c.b, w);
+  return deliver(w, out, cap, st);
+}
+
+// Locations as a JSON array of strings (JNI returns String[] directly).
+JNIEXPORT int campus_nav_locations(void* h, char* out, int cap) {
+  stats::Scope st(stats::kNavLocations);
+  Call c(h);
+  std::vector<std::string> locs = api::navLocations(c.b);
+  jsonutil::Writer& w = reply();
+  w.beginArray();
+  for (size_t i = 0; i < locs.size(); i++) w.string(locs[i]);
+  w.endArray();
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_nav_shortest_path(void* h, const char* src, const char* dest, const char* algorithm, char* out, int cap) {
+  stats::Scope st(stats::kNavShortestPath);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::navShortestPath(c.b, str(src), str(dest), str(algorithm), w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_nav_divergence_report(void* h, char* out, int cap) {
+  stats::Scope st(stats::kNavDivergenceReport);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::navDivergenceReport(c.b, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_upsert_student(void* h, int roll, const char* name, const char* program, int year, char* out, int cap) {
+  stats::Scope st(stats::kSisUpsertStudent);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisUpsertStudent(c.b, roll, str(name), str(program), year, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_get_student(void* h, int roll, char* out, int cap) {
+  stats::Scope st(stats::kSisGetStudent);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisGetStudent(c.b, roll, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_get_student_trace(void* h, int roll, char* out, int cap) {
+  stats::Scope st(stats::kSisGetStudentTrace);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisGetStudentTrace(c.b, roll, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_delete_student(void* h, int roll, char* out, int cap) {
+  stats::Scope st(stats::kSisDeleteStudent);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisDeleteStudent(c.b, roll, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_list_students(void* h, char* out, int cap) {
+  stats::Scope st(stats::kSisListStudents);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisListStudents(c.b, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_list_students_page(void* h, int afterRoll, int limit, char* out, int cap) {
+  stats::Scope st(stats::kSisListStudentsPage);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisListStudentsPage(c.b, afterRoll, limit, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_list_range(void* h, int lo, int hi, int limit, char* out, int cap) {
+  stats::Scope st(stats::kSisListRange);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisListRange(c.b, lo, hi, limit, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_search_by_name_prefix(void* h, const char* prefix, int limit, char* out, int cap) {
+  stats::Scope st(stats::kSisSearchByNamePrefix);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisSearchByNamePrefix(c.b, str(prefix), limit, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_sis_list_students_by_name(void* h, const char* afterName, int afterRoll, int limit, char* out, int cap) {
+  stats::Scope st(stats::kSisListStudentsByName);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::sisListStudentsByName(c.b, str(afterName), afterRoll, limit, w);
+  return deliver(w, out, cap, st);
+}
+
+// Streamed sisListStudents: each chunk (at most cap bytes) is copied into buf and
+// sink(n) is called; a zero return from sink stops the stream. Returns 1 if the whole
+// listing was delivered, 0 if it was stopped or the arguments are invalid.
+typedef int (*campus_chunk_sink)(int n);
+
+struct FfiChunkSink : jsonutil::ChunkSink {
+  char* buf;
+  campus_chunk_sink sink;
+  FfiChunkSink(char* b, campus_chunk_sink s) : buf(b), sink(s) {}
+  bool chunk(const char* data, size_t n) override {
+    std::char_traits<char>::copy(buf, data, n);
+    return sink((int)n) != 0;
+  }
+};
+
+// Checks the handle is still open for every step of a stream.
+struct FfiBackendSource : api::BackendSource {
+  void* h;
+  explicit FfiBackendSource(void* handle) : h(handle) {}
+  Backend* backend() override { return api::isOpen(static_cast<Backend*>(h)) ? static_cast<Backend*>(h) : nullptr; }
+};
+
+JNIEXPORT int campus_sis_list_students_stream(void* h, char* buf, int cap, campus_chunk_sink sink) {
+  stats::Scope st(stats::kSisListStudentsStream);
+  if (!buf || cap <= 0 || !sink) return 0;
+  FfiChunkSink fs(buf, sink);
+  jsonutil::Writer w; // not reply(): the sink may call any campus (no lock is held)
+  w.reserve((size_t)cap + 256);
+  w.streamTo(&fs, (size_t)cap);
+  FfiBackendSource src(h);
+  bool ok = api::sisListStudentsStream(src, w);
+  st.bytes(w.streamed());
+  return ok ? 1 : 0;
+}
+
+JNIEXPORT int campus_att_new_session_day(void* h, char* out, int cap) {
+  stats::Scope st(stats::kAttNewSessionDay);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::attNewSessionDay(c.b, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_att_mark_present(void* h, int roll, char* out, int cap) {
+  stats::Scope st(stats::kAttMarkPresent);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::attMarkPresent(c.b, roll, w);
+  return deliver(w, out, cap, st);
+}
+
+// present[i] gets the new count for rolls[i] (-1 = not found); returns 1, or 0 on failure.
+JNIEXPORT int campus_att_mark_present_batch(void* h, const int* rolls, int n, int* present) {
+  stats::Scope st(stats::kAttMarkPresentBatch);
+  Call c(h);
+  if (n < 0) return 0;
+  if (!api::attMarkPresentBatch(c.b, rolls, (size_t)n, present)) return 0;
+  st.bytes((unsigned long long)n * sizeof(int));
+  return 1;
+}
+
+JNIEXPORT int campus_att_get_summary(void* h, int roll, char* out, int cap) {
+  stats::Scope st(stats::kAttGetSummary);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::attGetSummary(c.b, roll, w);
+  return deliver(w, out, cap, st);
+}
+
+JNIEXPORT int campus_att_get_defaulters(void* h, int minPercent, char* out, int cap) {
+  stats::Scope st(stats::kAttGetDefaulters);
+  Call c(h);
+  jsonutil::Writer& w = reply();
+  api::attGetDefaulters(c.b, minPercent, w);
+  return deliver(w, out, cap, st);
+}
+
+// Columnar listings (layout in columnar.h): bytes written, or -(bytes needed).
+JNIEXPORT long long campus_sis_list_students_into(void* h, unsigned char* dst, long long cap) {
+  stats::Scope st(stats::kSisListStudentsInto);
+  Call c(h);
+  long long n = api::sisListStudentsInto(c.b, dst, cap < 0 ? 0 : (size_t)cap);
+  if (n > 0) st.bytes((unsigned long long)n);
+  return n;
+}
+
+JNIEXPORT long long campus_att_get_defaulters_into(void* h, int minPercent, unsigned char* dst, long long cap) {
+  stats::Scope st(stats::kAttGetDefaultersInto);
+  Call c(h);
+  long long n = api::attGetDefaultersInto(c.b, minPercent, dst, cap < 0 ? 0 : (size_t)cap);
+  if (n > 0) st.bytes((unsigned long long)n);
+  return n;
+}
+
+} // extern "C"
@@ -109,7 +109,7 @@ std::vector<std::string> CampusGraph::locations() const {
   return nameOf_;
 }
 
-PathResult CampusGraph::bfsShortestPath(const std::string& src, const std::string& dst) {
+PathResult CampusGraph::bfsShortestPath(const std::string& src, const std::string& dst) const {
   PathResult res;
   res.algorithm = "BFS";
 
@@ -171,7 +171,7 @@ PathResult CampusGraph::bfsShortestPath(const std::string& src, const std::strin
   return res;
 }
 
-PathResult CampusGraph::dijkstraShortestPath(const std::string& src, const std::string& dst) {
+PathResult CampusGraph::dijkstraShortestPath(const std::string& src, const std::string& dst) const {
   PathResult res;
   res.algorithm = "Dijkstra";
 
@@ -243,10 +243,8 @@ void CampusGraph::divergenceStats(int& totalPairs, int& divergedPairs, int& perc
       const std::string& a = nameOf_[(size_t)i];
       const std::string& b = nameOf_[(size_t)j];
 
-      // Use const_cast to call existing methods without changing signatures.
-      CampusGraph* self = const_cast<CampusGraph*>(this);
-      PathResult bfs = self->bfsShortestPath(a, b);
-      PathResult dij = self->dijkstraShortestPath(a, b);
+      PathResult bfs = bfsShortestPath(a, b);
+      PathResult dij = dijkstraShortestPath(a, b);
       if (bfs.path.empty() || dij.path.empty()) continue;
 
       bool differentPath = bfs.path != dij.path;
@@ -257,3 +255,17 @@ void CampusGraph::divergenceStats(int& totalPairs, int& divergedPairs, int& perc
   }
   percent = (totalPairs > 0) ? (divergedPairs * 100) / totalPairs : 0;
 }
+
+size_t CampusGraph::memoryBytes() const {
+  size_t n = nameOf_.capacity() * sizeof(std::string);
+  for (size_t i = 0; i < nameOf_.size(); i++) n += memusage::stringHeap(nameOf_[i]);
+  n += adjW_.capacity() * sizeof(adjW_[0]);
+  for (size_t i = 0; i < adjW_.size(); i++) n += adjW_[i].nodeBytes();
+  return n + indexOf_.memoryBytes();
+}
+
+// Function-local static: initialized once, thread-safely, on first use.
+const CampusGraph& defaultCampusGraph() {
+  static const CampusGraph g;
+  return g;
+}
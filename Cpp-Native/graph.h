@@ -34,13 +34,16 @@ class CampusGraph {
   bool resolve(const std::string& name, int& idx) const;
   int edgeWeight(int fromIdx, int toIdx) const;
 
-  PathResult bfsShortestPath(const std::string& src, const std::string& dst);
-  PathResult dijkstraShortestPath(const std::string& src, const std::string& dst);
+  PathResult bfsShortestPath(const std::string& src, const std::string& dst) const;
+  PathResult dijkstraShortestPath(const std::string& src, const std::string& dst) const;
 
   // Measures how often BFS picks fewer hops but higher cost than Dijkstra.
   // Returns JSON-friendly fields: totalPairs, divergedPairs, percent.
   void divergenceStats(int& totalPairs, int& divergedPairs, int& percent) const;
 
+  // Approximate heap bytes (names, adjacency nodes, index table).
+  size_t memoryBytes() const;
+
  private:
   struct EdgeW { int to; int w; };
 
@@ -51,3 +54,7 @@ class CampusGraph {
 
   // (kept as public above)
 };
+
+// The seeded campus map, built once and never modified afterwards. Every Backend
+// routes over this one instance, so hosting many campuses costs one graph.
+const CampusGraph& defaultCampusGraph();
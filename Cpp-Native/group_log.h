@@ -0,0 +1,72 @@
+#pragma once
+
+#include <chrono>
+#include <condition_variable>
+#include <fstream>
+#include <mutex>
+#include <string>
+#include <vector>
+
+#include "utils_json.h"
+
+// Append-only log file with group commit (StudentStore's write-ahead log).
+//
+// append() only buffers the records and returns their sequence number; commit(seq)
+// blocks until they are written and flushed. The first committer to find no flush
+// in progress becomes the leader: it waits up to the commit window (or until
+// maxBatch operations are buffered), then writes and flushes everything buffered
+// in one go and wakes the others. Committers arriving meanwhile wait for the
+// next batch, so a burst of marks costs one write per batch instead of one each.
+// A window of 0 never waits: whatever piles up during one flush goes in the next.
+//
+// Thread-safe. "Durable" means handed to the OS with one flush per batch (there
+// is no fsync under the course header rules).
+class GroupLog {
+ public:
+  static const int kSizeBuckets = 12; // batch sizes: bucket i counts [2^i, 2^(i+1)) ops
+  static const int kWaitBuckets = 24; // commit waits: bucket i counts [2^i, 2^(i+1)) us, bucket 0 also 0
+
+  ~GroupLog() { close(); }
+
+  // Flushes what is buffered to the current file, then starts file anew with header.
+  bool open(const std::string& file, const std::string& header);
+  void close(); // flushes what is buffered
+  bool isOpen() const;
+
+  // Buffers records (one or more complete lines); returns their sequence number,
+  // or 0 when no file is open.
+  unsigned long long append(const std::string& records);
+  // Waits until every record up to seq is flushed; true if the batch holding seq
+  // was written, false if that write failed (other batches' failures, before or
+  // after, and reopening the file do not change the answer). seq 0 (nothing
+  // appended) returns true at once.
+  bool commit(unsigned long long seq);
+
+  // windowMicros 0..1000000, maxBatch >= 1; false (unchanged) otherwise.
+  bool configure(int windowMicros, int maxBatch);
+  // {"windowMicros":n,"maxBatch":n,"commits":n,"ops":n,"batchSizes":[...],"waitMicros":[...]}
+  void stats(jsonutil::Writer& out) const;
+
+ private:
+  mutable std::mutex mu_; // everything below; file_ is written by the leader outside it
+  std::condition_variable cv_;
+  std::ofstream file_;
+  std::string pending_;
+  int pendingOps_ = 0;
+  unsigned long long appended_ = 0; // seq of the last append
+  unsigned long long durable_ = 0;  // seq of the last flushed append
+  bool flushing_ = false;           // a leader owns file_
+  // Seq spans whose write failed, as [first, last] pairs in increasing order
+  // (adjacent spans merged). Kept for the log's lifetime, across open().
+  std::vector<unsigned long long> failed_;
+  int windowMicros_ = 0;
+  int maxBatch_ = 64;
+  unsigned long long commits_ = 0;
+  unsigned long long ops_ = 0;
+  unsigned long long sizes_[kSizeBuckets] = {};
+  unsigned long long waits_[kWaitBuckets] = {};
+
+  void writePending();
+  void markFailed(unsigned long long first, unsigned long long last);
+  bool failedAt(unsigned long long seq) const;
+};
@@ -0,0 +1,193 @@
+// Standalone benchmark for the JSON reply path (not part of the JNI library):
+// sisListStudents built the old way (listByRoll copy + vector<Kv> + quote/obj/arr)
+// versus the streaming jsonutil::Writer used by the entry points now.
+// Counts heap allocations and bytes requested through a replaced operator new.
+//
+// Build (one command line):
+//   g++ -std=c++17 -O2 -ICpp-Native Cpp-Native/json_bench.cpp Cpp-Native/backend_api.cpp
+//       Cpp-Native/student_store.cpp Cpp-Native/avl_tree.cpp Cpp-Native/name_index.cpp Cpp-Native/graph.cpp
+//       Cpp-Native/utils_json.cpp Cpp-Native/columnar.cpp Cpp-Native/group_log.cpp Cpp-Native/snapshot_file.cpp
+//       Cpp-Native/csv_loader.cpp -pthread -o json_bench
+//   ./json_bench [records] [rounds]
+//
+// Course header rules are relaxed here for <new>/<cstdio>/<cstdlib>/<chrono> (benchmark only).
+
+#include <chrono>
+#include <cstdio>
+#include <cstdlib>
+#include <fstream>
+#include <iostream>
+#include <new>
+#include <string>
+#include <vector>
+
+#include "backend_api.h"
+#include "utils_json.h"
+
+static unsigned long long gAllocs = 0;
+static unsigned long long gBytes = 0;
+
+void* operator new(size_t n) {
+  gAllocs++;
+  gBytes += n;
+  void* p = std::malloc(n ? n : 1);
+  if (!p) throw std::bad_alloc();
+  return p;
+}
+void operator delete(void* p) noexcept { std::free(p); }
+void operator delete(void* p, size_t) noexcept { std::free(p); }
+
+// The pre-Writer encoder (was jsonutil's Kv/quote/obj/arr), kept here only as the baseline.
+namespace legacy {
+
+struct Kv {
+  std::string k;
+  std::string v; // already JSON encoded value
+};
+
+std::string escapeJsonString(const std::string& s) {
+  std::string out;
+  out.reserve(s.size() + 8);
+  const char* hex = "0123456789abcdef";
+
+  for (size_t i = 0; i < s.size(); i++) {
+    char c = s[i];
+    switch (c) {
+      case '"': out += "\\\""; break;
+      case '\\': out += "\\\\"; break;
+      case '\b': out += "\\b"; break;
+      case '\f': out += "\\f"; break;
+      case '\n': out += "\\n"; break;
+      case '\r': out += "\\r"; break;
+      case '\t': out += "\\t"; break;
+      default:
+        if ((unsigned char)c < 0x20) {
+          out += "\\u00";
+          out.push_back(hex[((unsigned char)c >> 4) & 0xF]);
+          out.push_back(hex[(unsigned char)c & 0xF]);
+        } else {
+          out.push_back(c);
+        }
+    }
+  }
+  return out;
+}
+
+std::string quote(const std::string& s) { return std::string("\"") + escapeJsonString(s) + "\""; }
+
+std::string obj(const std::vector<Kv>& kv) {
+  std::string out;
+  out.reserve(32 + kv.size() * 16);
+  out.push_back('{');
+  for (size_t i = 0; i < kv.size(); i++) {
+    if (i) out.push_back(',');
+    out += quote(kv[i].k);
+    out.push_back(':');
+    out += kv[i].v;
+  }
+  out.push_back('}');
+  return out;
+}
+
+std::string arr(const std::vector<std::string>& items) {
+  std::string out;
+  out.reserve(16 + items.size() * 8);
+  out.push_back('[');
+  for (size_t i = 0; i < items.size(); i++) {
+    if (i) out.push_back(',');
+    out += items[i];
+  }
+  out.push_back(']');
+  return out;
+}
+
+} // namespace legacy
+
+// The pre-Writer sisListStudents, kept verbatim as the baseline.
+static std::string legacyList(Backend* b) {
+  using legacy::Kv;
+  std::vector<StudentRecord> all = b->students.listByRoll();
+  std::vector<std::string> items;
+  items.reserve(all.size());
+  for (const auto& r : all) {
+    std::vector<Kv> kv;
+    kv.push_back(Kv{"roll", std::to_string(r.roll)});
+    kv.push_back(Kv{"name", legacy::quote(r.name)});
+    kv.push_back(Kv{"program", legacy::quote(r.program)});
+    kv.push_back(Kv{"year", std::to_string(r.semester)});
+    kv.push_back(Kv{"present", std::to_string(r.present)});
+    kv.push_back(Kv{"total", std::to_string(r.total)});
+    items.push_back(legacy::obj(kv));
+  }
+  return legacy::arr(items);
+}
+
+struct Sample {
+  unsigned long long allocs = 0;
+  unsigned long long bytes = 0;
+  double ms = 0;
+  size_t out = 0;
+};
+
+template <class F>
+static Sample measure(int rounds, F f) {
+  Sample s;
+  unsigned long long a0 = gAllocs, b0 = gBytes;
+  auto t0 = std::chrono::steady_clock::now();
+  for (int i = 0; i < rounds; i++) s.out = f();
+  auto t1 = std::chrono::steady_clock::now();
+  s.allocs = (gAllocs - a0) / (unsigned long long)rounds;
+  s.bytes = (gBytes - b0) / (unsigned long long)rounds;
+  s.ms = std::chrono::duration<double, std::milli>(t1 - t0).count() / rounds;
+  return s;
+}
+
+static void row(const char* label, const Sample& s) {
+  std::cout << label << "  allocs/call=" << s.allocs << "  bytesAllocated/call=" << s.bytes
+            << "  ms/call=" << s.ms << "  replyBytes=" << s.out << "\n";
+}
+
+int main(int argc, char** argv) {
+  int records = argc > 1 ? std::atoi(argv[1]) : 100000;
+  int rounds = argc > 2 ? std::atoi(argv[2]) : 10;
+  if (records < 1) records = 1;
+  if (rounds < 1) rounds = 1;
+
+  const std::string csv = "json_bench_students.csv";
+  {
+    std::ofstream f(csv);
+    f << "roll,name,program,semester,present,total\n";
+    const char* programs[] = {"BSCS", "BSSE", "BSAI", "BBA"};
+    for (int i = 0; i < records; i++) {
+      f << (100000 + i) << ",Student " << i << "," << programs[i % 4] << "," << (1 + i % 8) << ","
+        << (i % 30) << ",30\n";
+    }
+  }
+  Backend* b = api::open(csv);
+
+  std::string legacy = legacyList(b);
+  jsonutil::Writer w;
+  api::sisListStudents(b, w);
+  if (legacy != w.out()) {
+    std::cout << "FAILED: writer output differs from the legacy reply\n";
+    return 1;
+  }
+
+  std::cout << "sisListStudents, " << b->students.count() << " records, " << rounds << " rounds\n";
+  row("legacy vector<Kv>      ", measure(rounds, [&] { return legacyList(b).size(); }));
+  row("writer (fresh buffer)  ", measure(rounds, [&] {
+        jsonutil::Writer fresh;
+        api::sisListStudents(b, fresh);
+        return fresh.size();
+      }));
+  row("writer (reused buffer) ", measure(rounds, [&] {
+        w.reset();
+        api::sisListStudents(b, w);
+        return w.size();
+      }));
+
+  api::close(b);
+  const char* files[] = {"", ".bak", ".wal0", ".wal1", ".snap"};
+  for (const char* suffix : files) std::remove((csv + suffix).c_str());
+  return 0;
+}
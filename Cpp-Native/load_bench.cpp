@@ -0,0 +1,265 @@
+// Standalone benchmark for the student CSV loader (not part of the JNI library):
+// the getline + split6 loop StudentStore::load used before, versus
+// csvload::parse (one read, per-core chunks parsed in place, merged by roll)
+// at several thread counts, on a generated file, and the tree build after it
+// (n inserts vs AvlStudentDB::buildSorted), lookups and clear(). Checks every variant yields the
+// same records (and a balanced tree) first.
+//
+// Build (one command line):
+//   g++ -std=c++17 -O2 -ICpp-Native Cpp-Native/load_bench.cpp Cpp-Native/csv_loader.cpp
+//       Cpp-Native/student_store.cpp Cpp-Native/avl_tree.cpp Cpp-Native/name_index.cpp Cpp-Native/group_log.cpp
+//       Cpp-Native/snapshot_file.cpp Cpp-Native/utils_json.cpp -pthread -o load_bench
+//   ./load_bench [rows] [rounds]
+//
+// Course header rules are relaxed here for <chrono>/<cstdio>/<cstdlib>/<thread> (benchmark only).
+
+#include <chrono>
+#include <cstdio>
+#include <cstdlib>
+#include <fstream>
+#include <iostream>
+#include <string>
+#include <thread>
+#include <vector>
+
+#include "csv_loader.h"
+#include "snapshot_file.h"
+#include "student_store.h"
+
+// The pre-csvload parsing helpers and load loop, kept verbatim as the baseline
+// (records deduplicated by the AVL insert, as load() did).
+static inline std::string trim(const std::string& s) {
+  size_t a = 0;
+  while (a < s.size() && (s[a] == ' ' || s[a] == '\t' || s[a] == '\r' || s[a] == '\n')) a++;
+  size_t b = s.size();
+  while (b > a && (s[b - 1] == ' ' || s[b - 1] == '\t' || s[b - 1] == '\r' || s[b - 1] == '\n')) b--;
+  return s.substr(a, b - a);
+}
+
+static inline bool split6(const std::string& line, std::string out[6]) {
+  int idx = 0;
+  std::string cur;
+  for (size_t i = 0; i < line.size(); i++) {
+    char c = line[i];
+    if (c == ',') {
+      if (idx >= 6) return false;
+      out[idx++] = cur;
+      cur.clear();
+    } else {
+      cur.push_back(c);
+    }
+  }
+  if (idx != 5) return false;
+  out[idx] = cur;
+  return true;
+}
+
+static inline int toInt(const std::string& s, int def) {
+  int sign = 1;
+  size_t i = 0;
+  std::string t = trim(s);
+  if (t.empty()) return def;
+  if (t[0] == '-') { sign = -1; i = 1; }
+  long long v = 0;
+  for (; i < t.size(); i++) {
+    char c = t[i];
+    if (c < '0' || c > '9') return def;
+    v = v * 10 + (c - '0');
+    if (v > 2000000000LL) break;
+  }
+  return (int)(sign * v);
+}
+
+static bool legacyParseLine(const std::string& line, StudentRecord& out) {
+  if (line.empty()) return false;
+  // skip header
+  if (line.size() >= 4 && line.substr(0, 4) == "roll") return false;
+
+  std::string parts[6];
+  if (!split6(line, parts)) return false;
+
+  out.roll = toInt(parts[0], -1);
+  out.name = trim(parts[1]);
+  out.program = trim(parts[2]);
+  out.semester = toInt(parts[3], 1);
+  out.present = toInt(parts[4], 0);
+  out.total = toInt(parts[5], 0);
+
+  if (out.roll <= 0) return false;
+  if (out.name.empty()) return false;
+  if (out.program.empty()) return false;
+  if (out.semester < 1) out.semester = 1;
+  if (out.present < 0) out.present = 0;
+  if (out.total < 0) out.total = 0;
+  if (out.present > out.total) out.present = out.total;
+
+  return true;
+}
+
+static std::vector<StudentRecord> legacyLoad(const std::string& file, size_t& bytes) {
+  AvlStudentDB db;
+  std::ifstream in(file.c_str());
+  std::string line;
+  bytes = 0;
+  while (std::getline(in, line)) {
+    bytes += line.size() + 1;
+    StudentRecord r;
+    if (!legacyParseLine(line, r)) continue;
+    db.insert(r);
+  }
+  return db.inorder();
+}
+
+static std::vector<StudentRecord> newLoad(const std::string& file, int threads, size_t& bytes) {
+  std::string text;
+  snapfile::readFile(file, text);
+  bytes = csvload::lineBytes(text);
+  return csvload::parse(text, threads);
+}
+
+static bool same(const std::vector<StudentRecord>& a, const std::vector<StudentRecord>& b) {
+  if (a.size() != b.size()) return false;
+  for (size_t i = 0; i < a.size(); i++) {
+    if (a[i].roll != b[i].roll || a[i].name != b[i].name || a[i].program != b[i].program ||
+        a[i].semester != b[i].semester || a[i].present != b[i].present || a[i].total != b[i].total) {
+      return false;
+    }
+  }
+  return true;
+}
+
+// rows lines; shuffled: rolls in scattered order plus duplicates, bad lines,
+// padding and present > total, else sorted and clean (as the store writes it).
+static void generate(const std::string& file, int rows, bool shuffled) {
+  std::ofstream f(file.c_str());
+  f << "roll,name,program,semester,present,total\n";
+  const char* programs[] = {"BSCS", "BSSE", "BSAI", "BBA"};
+  for (int i = 0; i < rows; i++) {
+    long long k = shuffled ? (long long)i * 7919 % rows : i;
+    if (shuffled && i % 997 == 0) f << "bad," << i << ",,1,2,3\n";
+    if (shuffled && i % 1009 == 0) f << (100000 + k / 2) << ",Duplicate " << i << ",BBA,2,1,5\n";
+    f << (100000 + k) << (shuffled && i % 13 == 0 ? ", Student " : ",Student ") << k << "," << programs[k % 4] << ","
+      << (1 + k % 8) << "," << (k % 37) << ",30" << (shuffled && i % 7 == 0 ? "\r\n" : "\n");
+  }
+}
+
+// Tree build from the loaded records: n inserts (the loaders before buildSorted)
+// vs AvlStudentDB::buildSorted. Copies are made outside the timed part.
+static void timeTreeBuild(const std::vector<StudentRecord>& recs, int rounds, double& insertMs, double& buildMs) {
+  insertMs = buildMs = 0;
+  for (int i = 0; i < rounds; i++) {
+    AvlStudentDB a;
+    auto t0 = std::chrono::steady_clock::now();
+    for (size_t k = 0; k < recs.size(); k++) a.insert(recs[k]);
+    auto t1 = std::chrono::steady_clock::now();
+    std::vector<StudentRecord> copy = recs;
+    AvlStudentDB b;
+    auto t2 = std::chrono::steady_clock::now();
+    b.buildSorted(copy);
+    auto t3 = std::chrono::steady_clock::now();
+    insertMs += std::chrono::duration<double, std::milli>(t1 - t0).count() / rounds;
+    buildMs += std::chrono::duration<double, std::milli>(t3 - t2).count() / rounds;
+  }
+}
+
+// Lookups of every roll in a scattered order, then clear(), on a built tree.
+static void timeTreeUse(const std::vector<StudentRecord>& recs, int rounds, double& findMs, double& clearMs) {
+  findMs = clearMs = 0;
+  size_t n = recs.size();
+  for (int i = 0; i < rounds; i++) {
+    std::vector<StudentRecord> copy = recs;
+    AvlStudentDB db;
+    db.buildSorted(copy);
+    StudentRecord r;
+    long long found = 0;
+    auto t0 = std::chrono::steady_clock::now();
+    for (size_t k = 0; k < n; k++) found += db.find(recs[(k * 7919) % n].roll, r) ? r.present : 0;
+    auto t1 = std::chrono::steady_clock::now();
+    db.clear();
+    auto t2 = std::chrono::steady_clock::now();
+    if (found < 0) std::cout << "";
+    findMs += std::chrono::duration<double, std::milli>(t1 - t0).count() / rounds;
+    clearMs += std::chrono::duration<double, std::milli>(t2 - t1).count() / rounds;
+  }
+}
+
+// buildSorted must hold the same records with every search path no longer than a
+// perfectly balanced tree's height.
+static bool checkBuilt(const std::vector<StudentRecord>& recs) {
+  std::vector<StudentRecord> copy = recs;
+  AvlStudentDB db;
+  if (!db.buildSorted(copy) || !same(recs, db.inorder())) return false;
+  size_t height = 0;
+  while (((size_t)1 << height) - 1 < recs.size()) height++;
+  StudentRecord r;
+  std::vector<int> path;
+  for (size_t i = 0; i < recs.size(); i++) {
+    if (!db.findTrace(recs[i].roll, r, path) || path.size() > height) return false;
+  }
+  return true;
+}
+
+template <class F>
+static double ms(int rounds, F f) {
+  auto t0 = std::chrono::steady_clock::now();
+  for (int i = 0; i < rounds; i++) f();
+  auto t1 = std::chrono::steady_clock::now();
+  return std::chrono::duration<double, std::milli>(t1 - t0).count() / rounds;
+}
+
+int main(int argc, char** argv) {
+  int rows = argc > 1 ? std::atoi(argv[1]) : 5000000;
+  int rounds = argc > 2 ? std::atoi(argv[2]) : 3;
+  if (rows < 1) rows = 1;
+  if (rounds < 1) rounds = 1;
+  int cores = (int)std::thread::hardware_concurrency();
+  if (cores < 1) cores = 1;
+  // 1, 2, 4, ... plus the core count; several chunks are checked even on one core,
+  // and 64 (csvload's cap) times the widest merge
+  std::vector<int> threads;
+  for (int t = 1; t < cores || t <= 4; t *= 2) threads.push_back(t);
+  if (threads.back() != cores && cores > 4) threads.push_back(cores);
+  if (threads.back() < 64) threads.push_back(64);
+
+  const std::string csv = "load_bench_students.csv";
+  for (int shuffled = 0; shuffled < 2; shuffled++) {
+    generate(csv, rows, shuffled != 0);
+    size_t legacyBytes = 0, bytes = 0;
+    std::vector<StudentRecord> ref = legacyLoad(csv, legacyBytes);
+    for (size_t i = 0; i < threads.size(); i++) {
+      if (!same(ref, newLoad(csv, threads[i], bytes)) || bytes != legacyBytes) {
+        std::cout << "FAILED: csvload::parse with " << threads[i] << " threads differs from the getline loader\n";
+        return 1;
+      }
+    }
+
+    if (!checkBuilt(ref)) {
+      std::cout << "FAILED: AvlStudentDB::buildSorted tree differs or is not balanced\n";
+      return 1;
+    }
+
+    std::cout << rows << " rows, " << (shuffled ? "shuffled with duplicates and bad lines" : "sorted") << ", "
+              << ref.size() << " records, " << cores << " cores\n";
+    std::cout << "  getline loader              ms=" << ms(rounds, [&] { legacyLoad(csv, bytes); }) << "\n";
+    for (size_t i = 0; i < threads.size(); i++) {
+      std::cout << "  csvload::parse, " << threads[i] << (threads[i] == 1 ? " thread   " : threads[i] < 10 ? " threads  " : " threads ")
+                << " ms=" << ms(rounds, [&] { newLoad(csv, threads[i], bytes); }) << "\n";
+    }
+    std::cout << "  StudentStore::load          ms=" << ms(rounds, [&] {
+      StudentStore s(csv);
+      s.load();
+    }) << "\n";
+    double insertMs = 0, buildMs = 0;
+    timeTreeBuild(ref, rounds, insertMs, buildMs);
+    std::cout << "  tree: insert loop           ms=" << insertMs << "\n";
+    std::cout << "  tree: buildSorted           ms=" << buildMs << "\n";
+    double findMs = 0, clearMs = 0;
+    timeTreeUse(ref, rounds, findMs, clearMs);
+    std::cout << "  tree: find every roll       ms=" << findMs << "\n";
+    std::cout << "  tree: clear                 ms=" << clearMs << "\n";
+  }
+
+  const char* files[] = {"", ".bak", ".wal0", ".wal1", ".snap"};
+  for (const char* suffix : files) std::remove((csv + suffix).c_str());
+  return 0;
+}
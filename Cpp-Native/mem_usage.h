@@ -0,0 +1,18 @@
+#pragma once
+
+#include <string>
+
+// Approximate heap accounting for per-tenant memory reports (see api::memoryBytes).
+// Counts bytes requested from the allocator, not allocator overhead.
+namespace memusage {
+
+// Heap bytes owned by s: 0 while the characters live inside the object itself
+// (small-string optimization), otherwise the allocated capacity + terminator.
+inline size_t stringHeap(const std::string& s) {
+  const char* p = s.data();
+  const char* self = reinterpret_cast<const char*>(&s);
+  if (p >= self && p < self + sizeof(std::string)) return 0;
+  return s.capacity() + 1;
+}
+
+} // namespace memusage
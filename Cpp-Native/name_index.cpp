@@ -0,0 +1,245 @@
+#include "name_index.h"
+
+#include "dsa_merge_sort.h"
+#include "mem_usage.h"
+
+// Only <string>, <vector>, <iostream> are allowed by course rules.
+
+static inline int imax(int a, int b) { return a > b ? a : b; }
+
+std::string NameIndex::key(const std::string& name) {
+  std::string k = name;
+  for (size_t i = 0; i < k.size(); i++) {
+    if (k[i] >= 'A' && k[i] <= 'Z') k[i] = (char)(k[i] - 'A' + 'a');
+  }
+  return k;
+}
+
+void NameIndex::clear() {
+  std::vector<Node>().swap(nodes_);
+  std::vector<std::string>().swap(keys_);
+  root_ = -1;
+  free_ = -1;
+  size_ = 0;
+}
+
+size_t NameIndex::memoryBytes() const {
+  size_t n = nodes_.capacity() * sizeof(Node) + keys_.capacity() * sizeof(std::string);
+  for (size_t i = 0; i < keys_.size(); i++) n += memusage::stringHeap(keys_[i]);
+  return n;
+}
+
+int NameIndex::compare(const std::string& key, int roll, int n) const {
+  int c = key.compare(keys_[n]);
+  if (c != 0) return c;
+  return roll < nodes_[n].roll ? -1 : roll > nodes_[n].roll ? 1 : 0;
+}
+
+int NameIndex::height(int n) const { return n >= 0 ? nodes_[n].h : 0; }
+
+int NameIndex::bf(int n) const { return n >= 0 ? height(nodes_[n].left) - height(nodes_[n].right) : 0; }
+
+void NameIndex::update(int n) {
+  if (n < 0) return;
+  nodes_[n].h = 1 + imax(height(nodes_[n].left), height(nodes_[n].right));
+}
+
+int NameIndex::rotateRight(int y) {
+  int x = nodes_[y].left;
+  nodes_[y].left = nodes_[x].right;
+  nodes_[x].right = y;
+  update(y);
+  update(x);
+  return x;
+}
+
+int NameIndex::rotateLeft(int x) {
+  int y = nodes_[x].right;
+  nodes_[x].right = nodes_[y].left;
+  nodes_[y].left = x;
+  update(x);
+  update(y);
+  return y;
+}
+
+int NameIndex::balance(int n) {
+  update(n);
+  int b = bf(n);
+  if (b > 1) {
+    if (bf(nodes_[n].left) < 0) nodes_[n].left = rotateLeft(nodes_[n].left);
+    return rotateRight(n);
+  }
+  if (b < -1) {
+    if (bf(nodes_[n].right) > 0) nodes_[n].right = rotateRight(nodes_[n].right);
+    return rotateLeft(n);
+  }
+  return n;
+}
+
+int NameIndex::alloc(const std::string& key, int roll) {
+  int s;
+  if (free_ >= 0) {
+    s = free_;
+    free_ = nodes_[s].left;
+    keys_[s] = key;
+  } else {
+    if (nodes_.size() == nodes_.capacity()) {
+      size_t cap = nodes_.size() + nodes_.size() / 2 + 8; // as AvlStudentDB::alloc
+      nodes_.reserve(cap);
+      keys_.reserve(cap);
+    }
+    s = (int)nodes_.size();
+    nodes_.push_back(Node());
+    keys_.push_back(key);
+  }
+  nodes_[s] = Node{roll, -1, -1, 1};
+  return s;
+}
+
+void NameIndex::release(int n) {
+  std::string().swap(keys_[n]);
+  nodes_[n].left = free_;
+  free_ = n;
+}
+
+// Child first, then the parent's link: alloc() may grow (move) the arena.
+int NameIndex::insertAt(int n, const std::string& key, int roll, bool& inserted) {
+  if (n < 0) {
+    inserted = true;
+    return alloc(key, roll);
+  }
+  int c = compare(key, roll, n);
+  if (c < 0) {
+    int child = insertAt(nodes_[n].left, key, roll, inserted);
+    nodes_[n].left = child;
+  } else if (c > 0) {
+    int child = insertAt(nodes_[n].right, key, roll, inserted);
+    nodes_[n].right = child;
+  } else {
+    inserted = false;
+  }
+  return balance(n);
+}
+
+int NameIndex::eraseAt(int n, const std::string& key, int roll, bool& removed) {
+  if (n < 0) return -1;
+  int c = compare(key, roll, n);
+  if (c < 0) nodes_[n].left = eraseAt(nodes_[n].left, key, roll, removed);
+  else if (c > 0) nodes_[n].right = eraseAt(nodes_[n].right, key, roll, removed);
+  else {
+    removed = true;
+    if (nodes_[n].left < 0 || nodes_[n].right < 0) {
+      int child = nodes_[n].left >= 0 ? nodes_[n].left : nodes_[n].right;
+      release(n);
+      return child;
+    }
+    int succ = nodes_[n].right;
+    while (nodes_[succ].left >= 0) succ = nodes_[succ].left;
+    keys_[n] = keys_[succ];
+    nodes_[n].roll = nodes_[succ].roll;
+    nodes_[n].right = eraseAt(nodes_[n].right, keys_[n], nodes_[n].roll, removed);
+  }
+  return balance(n);
+}
+
+bool NameIndex::insert(const std::string& name, int roll) {
+  bool inserted = false;
+  root_ = insertAt(root_, key(name), roll, inserted);
+  if (inserted) size_++;
+  return inserted;
+}
+
+bool NameIndex::remove(const std::string& name, int roll) {
+  bool removed = false;
+  root_ = eraseAt(root_, key(name), roll, removed);
+  if (removed) size_--;
+  return removed;
+}
+
+// Slots [lo, hi) already hold the entries in order; the middle one is the root.
+int NameIndex::buildRange(int lo, int hi) {
+  if (lo >= hi) return -1;
+  int mid = lo + (hi - lo) / 2;
+  nodes_[mid].left = buildRange(lo, mid);
+  nodes_[mid].right = buildRange(mid + 1, hi);
+  update(mid);
+  return mid;
+}
+
+// Orders row positions by their keys.
+struct PositionKeyLess {
+  const std::vector<std::string>& keys;
+  explicit PositionKeyLess(const std::vector<std::string>& k) : keys(k) {}
+  bool operator()(int a, int b) const { return keys[a] < keys[b]; }
+};
+
+void NameIndex::build(const std::vector<StudentRecord>& rows) {
+  clear();
+  size_t n = rows.size();
+  std::vector<std::string> keys(n);
+  for (size_t i = 0; i < n; i++) keys[i] = key(rows[i].name);
+
+  // Row positions sorted by key; the sort is stable and rows are in roll order,
+  // so equal keys stay in roll order.
+  std::vector<int> order(n);
+  for (size_t i = 0; i < n; i++) order[i] = (int)i;
+  dsa::mergeSort(order, PositionKeyLess(keys));
+
+  nodes_.resize(n);
+  keys_.resize(n);
+  for (size_t i = 0; i < n; i++) {
+    keys_[i].swap(keys[order[i]]);
+    nodes_[i].roll = rows[order[i]].roll;
+  }
+  root_ = buildRange(0, (int)n);
+  size_ = (int)n;
+}
+
+void NameIndex::seekAfter(const std::string& key, int roll, std::vector<int>& stack) const {
+  stack.reserve(48);
+  int cur = root_;
+  while (cur >= 0) {
+    if (compare(key, roll, cur) < 0) {
+      stack.push_back(cur);
+      cur = nodes_[cur].left;
+    } else {
+      cur = nodes_[cur].right;
+    }
+  }
+}
+
+// After visiting n: its right subtree's leftmost path (as AvlStudentDB::inorderVisitAfter).
+void NameIndex::next(int n, std::vector<int>& stack) const {
+  for (int cur = nodes_[n].right; cur >= 0; cur = nodes_[cur].left) stack.push_back(cur);
+}
+
+void NameIndex::prefix(const std::string& prefix, int limit, std::vector<int>& rolls) const {
+  rolls.clear();
+  if (limit <= 0) return;
+  std::string p = key(prefix);
+
+  // Rolls are positive, so (p, 0) sorts just before every key >= p; keys
+  // starting with p are contiguous from there on.
+  std::vector<int> stack;
+  seekAfter(p, 0, stack);
+  while (!stack.empty() && (int)rolls.size() < limit) {
+    int n = stack.back();
+    stack.pop_back();
+    if (keys_[n].compare(0, p.size(), p) != 0) break;
+    rolls.push_back(nodes_[n].roll);
+    next(n, stack);
+  }
+}
+
+void NameIndex::after(const std::string& afterName, int afterRoll, int limit, std::vector<int>& rolls) const {
+  rolls.clear();
+  if (limit <= 0) return;
+  std::vector<int> stack;
+  seekAfter(key(afterName), afterRoll, stack);
+  while (!stack.empty() && (int)rolls.size() < limit) {
+    int n = stack.back();
+    stack.pop_back();
+    rolls.push_back(nodes_[n].roll);
+    next(n, stack);
+  }
+}
@@ -0,0 +1,75 @@
+#pragma once
+
+#include <string>
+#include <vector>
+
+#include "avl_tree.h"
+
+// Secondary index of the student store for name search: one (key, roll) entry
+// per student, ordered by key then roll, where key is the name with ASCII
+// letters lowercased (other bytes, UTF-8 included, compare as unsigned bytes).
+// An AVL tree in a node arena like AvlStudentDB, keys in a parallel array; it
+// holds rolls, not records, and is updated with every insert and delete.
+
+class NameIndex {
+ public:
+  NameIndex() = default;
+  NameIndex(const NameIndex&) = delete;
+  NameIndex& operator=(const NameIndex&) = delete;
+
+  // The search form of a name or prefix.
+  static std::string key(const std::string& name);
+
+  // False if (name, roll) is already present / not present.
+  bool insert(const std::string& name, int roll);
+  bool remove(const std::string& name, int roll);
+  // Replaces the contents with one entry per record of rows.
+  void build(const std::vector<StudentRecord>& rows);
+
+  // Up to limit rolls whose key starts with key(prefix), in (key, roll) order.
+  // O(log n + limit): only the path to the first match and the matches are
+  // visited. An empty prefix matches everyone.
+  void prefix(const std::string& prefix, int limit, std::vector<int>& rolls) const;
+  // Up to limit rolls whose entry sorts after (key(afterName), afterRoll), in
+  // order: a name-ordered cursor page, O(log n + limit). ("", INT_MIN) starts
+  // at the first entry.
+  void after(const std::string& afterName, int afterRoll, int limit, std::vector<int>& rolls) const;
+
+  int size() const { return size_; }
+  void clear();
+  size_t memoryBytes() const;
+
+ private:
+  struct Node {
+    int roll;
+    int left;
+    int right;
+    int h;
+  };
+
+  std::vector<Node> nodes_;
+  std::vector<std::string> keys_;
+  int root_ = -1;
+  int free_ = -1;
+  int size_ = 0;
+
+  // <0, 0, >0 as (key, roll) sorts before, at or after slot n.
+  int compare(const std::string& key, int roll, int n) const;
+  // Pushes the ancestors of the first entry after (key, roll), that entry last:
+  // exactly the entries an in-order walk from there still has to visit.
+  void seekAfter(const std::string& key, int roll, std::vector<int>& stack) const;
+  void next(int n, std::vector<int>& stack) const;
+
+  int height(int n) const;
+  int bf(int n) const;
+  void update(int n);
+  int rotateRight(int y);
+  int rotateLeft(int x);
+  int balance(int n);
+
+  int alloc(const std::string& key, int roll);
+  void release(int n);
+  int insertAt(int n, const std::string& key, int roll, bool& inserted);
+  int eraseAt(int n, const std::string& key, int roll, bool& removed);
+  int buildRange(int lo, int hi);
+};
@@ -1,395 +1,427 @@
 #include <jni.h>
 
 #include <iostream>
+#include <mutex>
 #include <string>
 #include <vector>
 
 #include "NativeBridge.h"
-#include "backend.h"
+#include "backend_api.h"
+#include "stats.h"
 #include "utils_json.h"
 
-extern "C" {
+// JNI glue only: converts jstring <-> std::string and forwards to backend_api.
 
-using jsonutil::Kv;
+extern "C" {
 
+// NativeBridge.handle, resolved once in JNI_OnLoad (before any native method can
+// run), so concurrent callers never race on initializing it.
 static jfieldID gHandleField = nullptr;
 
+// Serializes init/close on the Java side; api::open/close guard the handle set.
+static std::mutex gInitMu;
+
+JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM* vm, void*) {
+  JNIEnv* env = nullptr;
+  if (vm->GetEnv(reinterpret_cast<void**>(&env), JNI_VERSION_1_8) != JNI_OK) return JNI_ERR;
+  jclass cls = env->FindClass("NativeBridge");
+  if (!cls) return JNI_ERR;
+  gHandleField = env->GetFieldID(cls, "handle", "J");
+  if (!gHandleField) return JNI_ERR;
+  return JNI_VERSION_1_8;
+}
+
 static Backend* getBackend(JNIEnv* env, jobject obj) {
   if (!obj) return nullptr;
-  if (!gHandleField) {
-    jclass cls = env->GetObjectClass(obj);
-    gHandleField = env->GetFieldID(cls, "handle", "J");
-  }
   jlong h = env->GetLongField(obj, gHandleField);
   return reinterpret_cast<Backend*>(h);
 }
 
 static void setBackend(JNIEnv* env, jobject obj, Backend* b) {
-  if (!gHandleField) {
-    jclass cls = env->GetObjectClass(obj);
-    gHandleField = env->GetFieldID(cls, "handle", "J");
-  }
   env->SetLongField(obj, gHandleField, reinterpret_cast<jlong>(b));
 }
 
+// One JNI call: holds the handle lifecycle lock from reading NativeBridge.handle
+// until the call returns (data locking happens inside backend_api).
+struct Call {
+  api::HandleGuard guard;
+  Backend* b;
+  Call(JNIEnv* env, jobject obj) : b(getBackend(env, obj)) {}
+};
+
+static std::string toStd(JNIEnv* env, jstring s, const char* def) {
+  const char* p = s ? env->GetStringUTFChars(s, nullptr) : nullptr;
+  std::string out = p ? std::string(p) : std::string(def);
+  if (p) env->ReleaseStringUTFChars(s, p);
+  return out;
+}
+
+// Reply buffer for this thread's calls: cleared per call, capacity kept, so steady
+// state replies are built without heap allocation (NewStringUTF is the only copy).
+static jsonutil::Writer& reply() {
+  static thread_local jsonutil::Writer w;
+  w.reset();
+  return w;
+}
+
+static jstring toJava(JNIEnv* env, const jsonutil::Writer& w, stats::Scope& st) {
+  st.bytes(w.size());
+  return env->NewStringUTF(w.out().c_str());
+}
+
 JNIEXPORT jstring JNICALL Java_NativeBridge_testConnection(JNIEnv* env, jobject) {
-  return env->NewStringUTF("JNI Connected Successfully!");
+  stats::Scope st(stats::kTestConnection);
+  static const char kReply[] = "JNI Connected Successfully!";
+  st.bytes(sizeof(kReply) - 1);
+  return env->NewStringUTF(kReply);
 }
 
 JNIEXPORT jboolean JNICALL Java_NativeBridge_init(JNIEnv* env, jobject obj, jstring csvPath) {
-  const char* p = env->GetStringUTFChars(csvPath, nullptr);
-  std::string path = p ? std::string(p) : std::string("data/students.csv");
-  env->ReleaseStringUTFChars(csvPath, p);
+  stats::Scope st(stats::kInit);
+  std::string path = toStd(env, csvPath, "data/students.csv");
+  // The current backend is closed first: closing folds its log and writes its
+  // snapshot, which the new one may be about to read (same CSV).
+  // Clear the field first: callers that already read it hold the guard, and
+  // api::close waits for them before deleting.
+  Backend* cur;
+  {
+    std::lock_guard<std::mutex> lock(gInitMu);
+    cur = getBackend(env, obj);
+    if (cur) setBackend(env, obj, nullptr);
+  }
+  api::close(cur);
+  // Load outside gInitMu, so several campuses (CampusRegistry) can open in parallel.
+  Backend* fresh = api::open(path);
 
-  Backend* cur = getBackend(env, obj);
-  if (cur) {
-    delete cur;
+  std::lock_guard<std::mutex> lock(gInitMu);
+  Backend* raced = getBackend(env, obj); // another init on this bridge won
+  if (raced) {
     setBackend(env, obj, nullptr);
+    api::close(raced);
   }
+  setBackend(env, obj, fresh);
+  return JNI_TRUE;
+}
 
-  Backend* b = new Backend(path);
-  b->nav.seedDefault();
-  StoreResult lr = b->students.load();
-  (void)lr;
-
-  // ensure some initial data if file had none
-  if (b->students.count() == 0) {
-    StudentRecord s1; s1.roll = 101; s1.name = "Ayesha"; s1.program = "BSCS"; s1.semester = 3; s1.present = 5; s1.total = 10;
-    StudentRecord s2; s2.roll = 102; s2.name = "Hassan"; s2.program = "BBA";  s2.semester = 2; s2.present = 7; s2.total = 10;
-    StudentRecord s3; s3.roll = 103; s3.name = "Zara";   s3.program = "BSSE"; s3.semester = 4; s3.present = 3; s3.total = 10;
-    StudentRecord s4; s4.roll = 104; s4.name = "Ali";    s4.program = "BSAI"; s4.semester = 1; s4.present = 6; s4.total = 10;
-    b->students.addStudent(s1);
-    b->students.addStudent(s2);
-    b->students.addStudent(s3);
-    b->students.addStudent(s4);
+JNIEXPORT void JNICALL Java_NativeBridge_release(JNIEnv* env, jobject obj) {
+  stats::Scope st(stats::kClose);
+  Backend* b;
+  {
+    std::lock_guard<std::mutex> lock(gInitMu);
+    b = getBackend(env, obj);
+    if (b) setBackend(env, obj, nullptr);
   }
+  api::close(b); // outside gInitMu: closing folds the log, other campuses keep opening
+}
 
-  setBackend(env, obj, b);
-  return JNI_TRUE;
+JNIEXPORT jlong JNICALL Java_NativeBridge_memoryBytes(JNIEnv* env, jobject obj) {
+  stats::Scope st(stats::kMemoryBytes);
+  Call c(env, obj);
+  return (jlong)api::memoryBytes(c.b);
 }
 
-JNIEXPORT void JNICALL Java_NativeBridge_close(JNIEnv* env, jobject obj) {
-  Backend* b = getBackend(env, obj);
-  if (b) {
-    delete b;
-    setBackend(env, obj, nullptr);
-  }
+JNIEXPORT jlong JNICALL Java_NativeBridge_sharedMemoryBytes(JNIEnv*, jclass) {
+  stats::Scope st(stats::kSharedMemoryBytes);
+  return (jlong)api::sharedMemoryBytes();
 }
 
-JNIEXPORT jstring JNICALL Java_NativeBridge_sisImportCsv(JNIEnv* env, jobject obj, jstring csvPath) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) return env->NewStringUTF("{\"ok\":false,\"message\":\"Backend not initialized.\"}");
-  const char* p = env->GetStringUTFChars(csvPath, nullptr);
-  std::string path = p ? std::string(p) : std::string();
-  env->ReleaseStringUTFChars(csvPath, p);
+// Process-wide counters for every entry point above (see stats.h); not counted itself.
+JNIEXPORT jstring JNICALL Java_NativeBridge_nativeStats(JNIEnv* env, jclass) {
+  jsonutil::Writer& w = reply();
+  stats::json(w);
+  return env->NewStringUTF(w.out().c_str());
+}
 
-  StoreResult sr = bkend->students.switchToFile(path);
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"ok", sr.ok ? "true" : "false"});
-  kv.push_back(Kv{"message", jsonutil::quote(sr.message)});
-  return env->NewStringUTF(jsonutil::obj(kv).c_str());
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisImportCsv(JNIEnv* env, jobject obj, jstring csvPath) {
+  stats::Scope st(stats::kSisImportCsv);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisImportCsv(c.b, toStd(env, csvPath, ""), w);
+  return toJava(env, w, st);
 }
 
 JNIEXPORT jstring JNICALL Java_NativeBridge_sisExportCsv(JNIEnv* env, jobject obj, jstring csvPath) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) return env->NewStringUTF("{\"ok\":false,\"message\":\"Backend not initialized.\"}");
-  const char* p = env->GetStringUTFChars(csvPath, nullptr);
-  std::string path = p ? std::string(p) : std::string();
-  env->ReleaseStringUTFChars(csvPath, p);
+  stats::Scope st(stats::kSisExportCsv);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisExportCsv(c.b, toStd(env, csvPath, ""), w);
+  return toJava(env, w, st);
+}
 
-  StoreResult sr = bkend->students.exportTo(path);
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"ok", sr.ok ? "true" : "false"});
-  kv.push_back(Kv{"message", jsonutil::quote(sr.message)});
-  return env->NewStringUTF(jsonutil::obj(kv).c_str());
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisSetCommitWindow(JNIEnv* env, jobject obj, jint windowMicros, jint maxBatch) {
+  stats::Scope st(stats::kSisSetCommitWindow);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisSetCommitWindow(c.b, (int)windowMicros, (int)maxBatch, w);
+  return toJava(env, w, st);
+}
+
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisCommitStats(JNIEnv* env, jobject obj) {
+  stats::Scope st(stats::kSisCommitStats);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisCommitStats(c.b, w);
+  return toJava(env, w, st);
 }
 
 // Backwards compatibility with earlier scaffold
 JNIEXPORT jstring JNICALL Java_NativeBridge_getShortestPath(JNIEnv* env, jobject, jstring src, jstring dest) {
-  const char* a = env->GetStringUTFChars(src, nullptr);
-  const char* b = env->GetStringUTFChars(dest, nullptr);
-
-  CampusGraph g;
-  PathResult pr = g.dijkstraShortestPath(a ? a : "", b ? b : "");
-
-  env->ReleaseStringUTFChars(src, a);
-  env->ReleaseStringUTFChars(dest, b);
-
-  using namespace jsonutil;
-  std::vector<std::string> pathQuoted;
-  for (const auto& s : pr.path) pathQuoted.push_back(quote(s));
-  std::vector<std::string> visQuoted;
-  for (const auto& s : pr.visitedOrder) visQuoted.push_back(quote(s));
-
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"ok", pr.distance >= 0 ? "true" : "false"});
-  kv.push_back(Kv{"algorithm", quote(pr.algorithm)});
-  kv.push_back(Kv{"distance", std::to_string(pr.distance)});
-  kv.push_back(Kv{"hops", std::to_string(pr.hops)});
-  kv.push_back(Kv{"cost", std::to_string(pr.cost)});
-  kv.push_back(Kv{"path", arr(pathQuoted)});
-  kv.push_back(Kv{"visited", arr(visQuoted)});
-  std::string out = obj(kv);
-  return env->NewStringUTF(out.c_str());
+  stats::Scope st(stats::kGetShortestPath);
+  jsonutil::Writer& w = reply();
+  api::getShortestPath(toStd(env, src, ""), toStd(env, dest, ""), w);
+  return toJava(env, w, st);
 }
 
 JNIEXPORT jobjectArray JNICALL Java_NativeBridge_navLocations(JNIEnv* env, jobject obj) {
-  Backend* b = getBackend(env, obj);
-  CampusGraph* g = b ? &b->nav : nullptr;
-  CampusGraph local;
-  std::vector<std::string> locs = (g ? g->locations() : local.locations());
+  stats::Scope st(stats::kNavLocations);
+  std::vector<std::string> locs;
+  {
+    Call c(env, obj);
+    locs = api::navLocations(c.b);
+  }
   jclass stringClass = env->FindClass("java/lang/String");
   jobjectArray arr = env->NewObjectArray((jsize)locs.size(), stringClass, env->NewStringUTF(""));
+  size_t bytes = 0;
   for (jsize i = 0; i < (jsize)locs.size(); i++) {
     env->SetObjectArrayElement(arr, i, env->NewStringUTF(locs[(size_t)i].c_str()));
+    bytes += locs[(size_t)i].size();
   }
+  st.bytes(bytes);
   return arr;
 }
 
 JNIEXPORT jstring JNICALL Java_NativeBridge_navShortestPath(JNIEnv* env, jobject obj, jstring src, jstring dest, jstring algorithm) {
-  Backend* bkend = getBackend(env, obj);
-  CampusGraph* g = bkend ? &bkend->nav : nullptr;
-  CampusGraph local;
-
-  const char* a = env->GetStringUTFChars(src, nullptr);
-  const char* b = env->GetStringUTFChars(dest, nullptr);
-  const char* alg = env->GetStringUTFChars(algorithm, nullptr);
-
-  std::string algs = alg ? std::string(alg) : std::string();
-  PathResult pr = (algs == "BFS") ? (g ? g->bfsShortestPath(a ? a : "", b ? b : "") : local.bfsShortestPath(a ? a : "", b ? b : ""))
-                                 : (g ? g->dijkstraShortestPath(a ? a : "", b ? b : "") : local.dijkstraShortestPath(a ? a : "", b ? b : ""));
-
-  env->ReleaseStringUTFChars(src, a);
-  env->ReleaseStringUTFChars(dest, b);
-  env->ReleaseStringUTFChars(algorithm, alg);
-
-  if (pr.distance < 0 || pr.path.empty()) {
-    std::vector<Kv> kv;
-    kv.push_back(Kv{"ok", "false"});
-    kv.push_back(Kv{"error", jsonutil::quote("No route found (check locations).")});
-    kv.push_back(Kv{"algorithm", jsonutil::quote(pr.algorithm)});
-    std::string out = jsonutil::obj(kv);
-    return env->NewStringUTF(out.c_str());
-  }
-
-  std::vector<std::string> pathQuoted;
-  for (const auto& s : pr.path) pathQuoted.push_back(jsonutil::quote(s));
-  std::vector<std::string> visQuoted;
-  for (const auto& s : pr.visitedOrder) visQuoted.push_back(jsonutil::quote(s));
-
-  // Edge weights along the returned path (for UI animation timing + explanation).
-  std::vector<std::string> edgeWeights;
-  if (!pr.path.empty()) {
-    for (int i = 0; i + 1 < (int)pr.path.size(); i++) {
-      int ai, bi;
-      if (!(g ? g->resolve(pr.path[(size_t)i], ai) : local.resolve(pr.path[(size_t)i], ai))) { edgeWeights.push_back("0"); continue; }
-      if (!(g ? g->resolve(pr.path[(size_t)i + 1], bi) : local.resolve(pr.path[(size_t)i + 1], bi))) { edgeWeights.push_back("0"); continue; }
-      int w = (g ? g->edgeWeight(ai, bi) : local.edgeWeight(ai, bi));
-      edgeWeights.push_back(std::to_string(w < 0 ? 0 : w));
-    }
-  }
-
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"ok", "true"});
-  kv.push_back(Kv{"algorithm", jsonutil::quote(pr.algorithm)});
-  kv.push_back(Kv{"distance", std::to_string(pr.distance)});
-  kv.push_back(Kv{"hops", std::to_string(pr.hops)});
-  kv.push_back(Kv{"cost", std::to_string(pr.cost)});
-  kv.push_back(Kv{"path", jsonutil::arr(pathQuoted)});
-  kv.push_back(Kv{"visited", jsonutil::arr(visQuoted)});
-  kv.push_back(Kv{"edgeWeights", jsonutil::arr(edgeWeights)});
-  std::string out = jsonutil::obj(kv);
-  return env->NewStringUTF(out.c_str());
+  stats::Scope st(stats::kNavShortestPath);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::navShortestPath(c.b, toStd(env, src, ""), toStd(env, dest, ""), toStd(env, algorithm, ""), w);
+  return toJava(env, w, st);
 }
 
 JNIEXPORT jstring JNICALL Java_NativeBridge_navDivergenceReport(JNIEnv* env, jobject obj) {
-  Backend* bkend = getBackend(env, obj);
-  CampusGraph* g = bkend ? &bkend->nav : nullptr;
-  CampusGraph local;
-  CampusGraph* gg = g ? g : &local;
-
-  int totalPairs = 0, divergedPairs = 0, percent = 0;
-  gg->divergenceStats(totalPairs, divergedPairs, percent);
-
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"totalPairs", std::to_string(totalPairs)});
-  kv.push_back(Kv{"divergedPairs", std::to_string(divergedPairs)});
-  kv.push_back(Kv{"percent", std::to_string(percent)});
-  return env->NewStringUTF(jsonutil::obj(kv).c_str());
+  stats::Scope st(stats::kNavDivergenceReport);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::navDivergenceReport(c.b, w);
+  return toJava(env, w, st);
 }
 
 // Insert-only (prevents overwrite) per requirements.
 JNIEXPORT jstring JNICALL Java_NativeBridge_sisUpsertStudent(JNIEnv* env, jobject obj, jint roll, jstring name, jstring program, jint year) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) {
-    std::vector<Kv> kv;
-    kv.push_back(Kv{"ok", "false"});
-    kv.push_back(Kv{"message", jsonutil::quote("Backend not initialized. Restart app.")});
-    return env->NewStringUTF(jsonutil::obj(kv).c_str());
-  }
-
-  const char* n = env->GetStringUTFChars(name, nullptr);
-  const char* p = env->GetStringUTFChars(program, nullptr);
-
-  StudentRecord r;
-  r.roll = (int)roll;
-  r.name = n ? std::string(n) : std::string();
-  r.program = p ? std::string(p) : std::string();
-  r.semester = (int)year;
-  r.present = 0;
-  r.total = 0;
-
-  env->ReleaseStringUTFChars(name, n);
-  env->ReleaseStringUTFChars(program, p);
-
-  StoreResult sr = bkend->students.addStudent(r);
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"ok", sr.ok ? "true" : "false"});
-  kv.push_back(Kv{"message", jsonutil::quote(sr.message)});
-  return env->NewStringUTF(jsonutil::obj(kv).c_str());
+  stats::Scope st(stats::kSisUpsertStudent);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisUpsertStudent(c.b, (int)roll, toStd(env, name, ""), toStd(env, program, ""), (int)year, w);
+  return toJava(env, w, st);
 }
 
 JNIEXPORT jstring JNICALL Java_NativeBridge_sisGetStudent(JNIEnv* env, jobject obj, jint roll) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) return env->NewStringUTF("");
-  StudentRecord r;
-  StoreResult sr = bkend->students.getStudent((int)roll, r);
-  if (!sr.ok) return env->NewStringUTF("");
-
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"roll", std::to_string(r.roll)});
-  kv.push_back(Kv{"name", jsonutil::quote(r.name)});
-  kv.push_back(Kv{"program", jsonutil::quote(r.program)});
-  kv.push_back(Kv{"year", std::to_string(r.semester)});
-  kv.push_back(Kv{"present", std::to_string(r.present)});
-  kv.push_back(Kv{"total", std::to_string(r.total)});
-  std::string out = jsonutil::obj(kv);
-  return env->NewStringUTF(out.c_str());
+  stats::Scope st(stats::kSisGetStudent);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisGetStudent(c.b, (int)roll, w);
+  return toJava(env, w, st);
 }
 
 JNIEXPORT jstring JNICALL Java_NativeBridge_sisGetStudentTrace(JNIEnv* env, jobject obj, jint roll) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) return env->NewStringUTF("");
-  StudentRecord r;
-  std::vector<int> visited;
-  StoreResult sr = bkend->students.getStudentTrace((int)roll, r, visited);
-  if (!sr.ok) return env->NewStringUTF("");
-
-  std::vector<std::string> visItems;
-  visItems.reserve(visited.size());
-  for (size_t i = 0; i < visited.size(); i++) visItems.push_back(std::to_string(visited[i]));
-
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"roll", std::to_string(r.roll)});
-  kv.push_back(Kv{"name", jsonutil::quote(r.name)});
-  kv.push_back(Kv{"program", jsonutil::quote(r.program)});
-  kv.push_back(Kv{"year", std::to_string(r.semester)});
-  kv.push_back(Kv{"present", std::to_string(r.present)});
-  kv.push_back(Kv{"total", std::to_string(r.total)});
-  kv.push_back(Kv{"visited", jsonutil::arr(visItems)});
-  return env->NewStringUTF(jsonutil::obj(kv).c_str());
+  stats::Scope st(stats::kSisGetStudentTrace);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisGetStudentTrace(c.b, (int)roll, w);
+  return toJava(env, w, st);
 }
 
 JNIEXPORT jstring JNICALL Java_NativeBridge_sisDeleteStudent(JNIEnv* env, jobject obj, jint roll) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) {
-    std::vector<Kv> kv;
-    kv.push_back(Kv{"ok", "false"});
-    kv.push_back(Kv{"message", jsonutil::quote("Backend not initialized.")});
-    return env->NewStringUTF(jsonutil::obj(kv).c_str());
-  }
-
-  StoreResult sr = bkend->students.deleteStudent((int)roll);
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"ok", sr.ok ? "true" : "false"});
-  kv.push_back(Kv{"message", jsonutil::quote(sr.message)});
-  return env->NewStringUTF(jsonutil::obj(kv).c_str());
+  stats::Scope st(stats::kSisDeleteStudent);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisDeleteStudent(c.b, (int)roll, w);
+  return toJava(env, w, st);
 }
 
 JNIEXPORT jstring JNICALL Java_NativeBridge_sisListStudents(JNIEnv* env, jobject obj) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) return env->NewStringUTF("[]");
-  std::vector<StudentRecord> all = bkend->students.listByRoll();
-  std::vector<std::string> items;
-  items.reserve(all.size());
-  for (const auto& r : all) {
-    std::vector<Kv> kv;
-    kv.push_back(Kv{"roll", std::to_string(r.roll)});
-    kv.push_back(Kv{"name", jsonutil::quote(r.name)});
-    kv.push_back(Kv{"program", jsonutil::quote(r.program)});
-    kv.push_back(Kv{"year", std::to_string(r.semester)});
-    kv.push_back(Kv{"present", std::to_string(r.present)});
-    kv.push_back(Kv{"total", std::to_string(r.total)});
-    items.push_back(jsonutil::obj(kv));
-  }
-  return env->NewStringUTF(jsonutil::arr(items).c_str());
+  stats::Scope st(stats::kSisListStudents);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisListStudents(c.b, w);
+  return toJava(env, w, st);
 }
 
-JNIEXPORT jstring JNICALL Java_NativeBridge_attNewSessionDay(JNIEnv* env, jobject obj) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) {
-    std::vector<Kv> kv;
-    kv.push_back(Kv{"ok", "false"});
-    kv.push_back(Kv{"message", jsonutil::quote("Backend not initialized.")});
-    return env->NewStringUTF(jsonutil::obj(kv).c_str());
-  }
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisListStudentsPage(JNIEnv* env, jobject obj, jint afterRoll, jint limit) {
+  stats::Scope st(stats::kSisListStudentsPage);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisListStudentsPage(c.b, (int)afterRoll, (int)limit, w);
+  return toJava(env, w, st);
+}
 
-  StoreResult sr = bkend->students.newDayForAll();
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"ok", sr.ok ? "true" : "false"});
-  kv.push_back(Kv{"message", jsonutil::quote(sr.message)});
-  return env->NewStringUTF(jsonutil::obj(kv).c_str());
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisListRange(JNIEnv* env, jobject obj, jint lo, jint hi, jint limit) {
+  stats::Scope st(stats::kSisListRange);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisListRange(c.b, (int)lo, (int)hi, (int)limit, w);
+  return toJava(env, w, st);
+}
+
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisSearchByNamePrefix(JNIEnv* env, jobject obj, jstring prefix, jint limit) {
+  stats::Scope st(stats::kSisSearchByNamePrefix);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisSearchByNamePrefix(c.b, toStd(env, prefix, ""), (int)limit, w);
+  return toJava(env, w, st);
+}
+
+JNIEXPORT jstring JNICALL Java_NativeBridge_sisListStudentsByName(JNIEnv* env, jobject obj, jstring afterName, jint afterRoll, jint limit) {
+  stats::Scope st(stats::kSisListStudentsByName);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::sisListStudentsByName(c.b, toStd(env, afterName, ""), (int)afterRoll, (int)limit, w);
+  return toJava(env, w, st);
+}
+
+JNIEXPORT jstring JNICALL Java_NativeBridge_attNewSessionDay(JNIEnv* env, jobject obj) {
+  stats::Scope st(stats::kAttNewSessionDay);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::attNewSessionDay(c.b, w);
+  return toJava(env, w, st);
 }
 
 JNIEXPORT jstring JNICALL Java_NativeBridge_attMarkPresent(JNIEnv* env, jobject obj, jint roll) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) {
-    std::vector<Kv> kv;
-    kv.push_back(Kv{"ok", "false"});
-    kv.push_back(Kv{"message", jsonutil::quote("Backend not initialized.")});
-    return env->NewStringUTF(jsonutil::obj(kv).c_str());
-  }
+  stats::Scope st(stats::kAttMarkPresent);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::attMarkPresent(c.b, (int)roll, w);
+  return toJava(env, w, st);
+}
 
-  StoreResult sr = bkend->students.markPresent((int)roll);
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"ok", sr.ok ? "true" : "false"});
-  kv.push_back(Kv{"message", jsonutil::quote(sr.message)});
-  return env->NewStringUTF(jsonutil::obj(kv).c_str());
+// One crossing for a whole lecture: returns the new present count per roll (-1 = not
+// found), or null when the backend is not initialized or the log append failed.
+JNIEXPORT jintArray JNICALL Java_NativeBridge_attMarkPresentBatch(JNIEnv* env, jobject obj, jintArray rolls) {
+  stats::Scope st(stats::kAttMarkPresentBatch);
+  jsize n = rolls ? env->GetArrayLength(rolls) : 0;
+  std::vector<int> in((size_t)n);
+  std::vector<int> out((size_t)n);
+  if (n > 0) env->GetIntArrayRegion(rolls, 0, n, reinterpret_cast<jint*>(in.data()));
+  bool ok;
+  {
+    Call c(env, obj);
+    ok = api::attMarkPresentBatch(c.b, in.data(), in.size(), out.data());
+  }
+  if (!ok) return nullptr;
+  jintArray res = env->NewIntArray(n);
+  if (res && n > 0) env->SetIntArrayRegion(res, 0, n, reinterpret_cast<const jint*>(out.data()));
+  st.bytes((unsigned long long)n * sizeof(jint));
+  return res;
 }
 
 JNIEXPORT jstring JNICALL Java_NativeBridge_attGetSummary(JNIEnv* env, jobject obj, jint roll) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) return env->NewStringUTF("");
-  StudentRecord r;
-  StoreResult sr = bkend->students.getStudent((int)roll, r);
-  if (!sr.ok) return env->NewStringUTF("");
-  std::vector<Kv> kv;
-  kv.push_back(Kv{"roll", std::to_string(r.roll)});
-  kv.push_back(Kv{"name", jsonutil::quote(r.name)});
-  kv.push_back(Kv{"present", std::to_string(r.present)});
-  kv.push_back(Kv{"total", std::to_string(r.total)});
-  int pct = (r.total > 0) ? (r.present * 100) / r.total : 0;
-  kv.push_back(Kv{"percent", std::to_string(pct)});
-  return env->NewStringUTF(jsonutil::obj(kv).c_str());
+  stats::Scope st(stats::kAttGetSummary);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::attGetSummary(c.b, (int)roll, w);
+  return toJava(env, w, st);
 }
 
 JNIEXPORT jstring JNICALL Java_NativeBridge_attGetDefaulters(JNIEnv* env, jobject obj, jint minPercent) {
-  Backend* bkend = getBackend(env, obj);
-  if (!bkend) return env->NewStringUTF("[]");
-  auto list = bkend->students.defaultersBelow((int)minPercent);
-  std::vector<std::string> items;
-  items.reserve(list.size());
-  for (const auto& s : list) {
-    std::vector<Kv> kv;
-    kv.push_back(Kv{"roll", std::to_string(s.roll)});
-    kv.push_back(Kv{"name", jsonutil::quote(s.name)});
-    kv.push_back(Kv{"present", std::to_string(s.present)});
-    kv.push_back(Kv{"total", std::to_string(s.total)});
-    int pct = (s.total > 0) ? (s.present * 100) / s.total : 0;
-    kv.push_back(Kv{"percent", std::to_string(pct)});
-    items.push_back(jsonutil::obj(kv));
+  stats::Scope st(stats::kAttGetDefaulters);
+  Call c(env, obj);
+  jsonutil::Writer& w = reply();
+  api::attGetDefaulters(c.b, (int)minPercent, w);
+  return toJava(env, w, st);
+}
+
+// Bulk columnar transfer into a caller-supplied direct ByteBuffer (layout in columnar.h).
+// Returns bytes written, or -(bytes needed) when the buffer is too small.
+static unsigned char* directBuffer(JNIEnv* env, jobject buf, size_t& cap) {
+  unsigned char* dst = buf ? static_cast<unsigned char*>(env->GetDirectBufferAddress(buf)) : nullptr;
+  jlong c = buf ? env->GetDirectBufferCapacity(buf) : -1;
+  if (!dst || c < 0) {
+    jclass iae = env->FindClass("java/lang/IllegalArgumentException");
+    if (iae) env->ThrowNew(iae, "A direct ByteBuffer is required.");
+    return nullptr;
   }
-  return env->NewStringUTF(jsonutil::arr(items).c_str());
+  cap = (size_t)c;
+  return dst;
+}
+
+// Copies each chunk into the caller's direct ByteBuffer and calls sink.accept(buf, n).
+// A Java exception (or false) from the sink stops the stream; the exception stays
+// pending and is thrown when the native method returns.
+class JavaChunkSink : public jsonutil::ChunkSink {
+ public:
+  JavaChunkSink(JNIEnv* env, jobject buf, char* dst, jobject sink, jmethodID accept)
+      : env_(env), buf_(buf), dst_(dst), sink_(sink), accept_(accept) {}
+  bool chunk(const char* data, size_t n) override {
+    std::char_traits<char>::copy(dst_, data, n);
+    jboolean go = env_->CallBooleanMethod(sink_, accept_, buf_, (jint)n);
+    return !env_->ExceptionCheck() && go;
+  }
+
+ private:
+  JNIEnv* env_;
+  jobject buf_;
+  char* dst_;
+  jobject sink_;
+  jmethodID accept_;
+};
+
+// Re-reads NativeBridge.handle for every step of a stream.
+class JavaBackendSource : public api::BackendSource {
+ public:
+  JavaBackendSource(JNIEnv* env, jobject obj) : env_(env), obj_(obj) {}
+  Backend* backend() override { return getBackend(env_, obj_); }
+
+ private:
+  JNIEnv* env_;
+  jobject obj_;
+};
+
+JNIEXPORT jboolean JNICALL Java_NativeBridge_sisListStudentsStream(JNIEnv* env, jobject obj, jobject buf, jobject sink) {
+  stats::Scope st(stats::kSisListStudentsStream);
+  size_t cap = 0;
+  unsigned char* dst = directBuffer(env, buf, cap);
+  if (!dst) return JNI_FALSE;
+  jmethodID accept = sink ? env->GetMethodID(env->GetObjectClass(sink), "accept", "(Ljava/nio/ByteBuffer;I)Z") : nullptr;
+  if (!accept || cap == 0) {
+    if (!env->ExceptionCheck()) {
+      jclass iae = env->FindClass("java/lang/IllegalArgumentException");
+      if (iae) env->ThrowNew(iae, "A sink and a non-empty buffer are required.");
+    }
+    return JNI_FALSE;
+  }
+  JavaChunkSink js(env, buf, reinterpret_cast<char*>(dst), sink, accept);
+  // Not the per-thread reply(): the sink may call back into any campus, which is
+  // allowed because api::sisListStudentsStream holds no lock while it runs.
+  jsonutil::Writer w;
+  w.reserve(cap + 256);
+  w.streamTo(&js, cap);
+  JavaBackendSource src(env, obj);
+  bool ok = api::sisListStudentsStream(src, w);
+  st.bytes(w.streamed());
+  return ok ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT jint JNICALL Java_NativeBridge_sisListStudentsInto(JNIEnv* env, jobject obj, jobject buf) {
+  stats::Scope st(stats::kSisListStudentsInto);
+  size_t cap = 0;
+  unsigned char* dst = directBuffer(env, buf, cap);
+  if (!dst) return 0;
+  Call c(env, obj);
+  long long n = api::sisListStudentsInto(c.b, dst, cap);
+  if (n > 0) st.bytes((unsigned long long)n);
+  return (jint)n;
+}
+
+JNIEXPORT jint JNICALL Java_NativeBridge_attGetDefaultersInto(JNIEnv* env, jobject obj, jint minPercent, jobject buf) {
+  stats::Scope st(stats::kAttGetDefaultersInto);
+  size_t cap = 0;
+  unsigned char* dst = directBuffer(env, buf, cap);
+  if (!dst) return 0;
+  Call c(env, obj);
+  long long n = api::attGetDefaultersInto(c.b, (int)minPercent, dst, cap);
+  if (n > 0) st.bytes((unsigned long long)n);
+  return (jint)n;
 }
 
 } // extern "C"
@@ -0,0 +1,128 @@
+#include "snapshot_file.h"
+
+#include <fstream>
+
+// Only <string>, <vector>, <iostream>, <fstream> are allowed by course rules.
+
+namespace snapfile {
+
+static const char kMagic[] = "SCNSSNAP";
+static const size_t kHeaderBytes = 48;
+static const size_t kRecordInts = 6;
+
+unsigned long long hash(const char* p, size_t n) {
+  const unsigned long long prime = 0x100000001b3ULL;
+  unsigned long long h = 0xcbf29ce484222325ULL;
+  const unsigned char* b = reinterpret_cast<const unsigned char*>(p);
+  for (size_t i = 0; i < n; i += 8) {
+    unsigned long long w = 0;
+    size_t m = n - i < 8 ? n - i : 8;
+    for (size_t k = 0; k < m; k++) w |= (unsigned long long)b[i + k] << (8 * k);
+    h = (h ^ w) * prime;
+  }
+  return (h ^ (unsigned long long)n) * prime;
+}
+
+bool readFile(const std::string& file, std::string& out) {
+  std::ifstream in(file.c_str(), std::ios::in | std::ios::binary);
+  if (!in.good()) return false;
+  in.seekg(0, std::ios::end);
+  long long size = (long long)in.tellg();
+  if (size < 0) return false;
+  in.seekg(0, std::ios::beg);
+  out.resize((size_t)size);
+  if (size > 0) in.read(&out[0], (std::streamsize)size);
+  return in.good();
+}
+
+static void put32(std::string& b, size_t at, unsigned v) {
+  for (int k = 0; k < 4; k++) b[at + k] = (char)((v >> (8 * k)) & 0xFF);
+}
+
+static void put64(std::string& b, size_t at, unsigned long long v) {
+  for (int k = 0; k < 8; k++) b[at + k] = (char)((v >> (8 * k)) & 0xFF);
+}
+
+static unsigned get32(const std::string& b, size_t at) {
+  unsigned v = 0;
+  for (int k = 0; k < 4; k++) v |= (unsigned)(unsigned char)b[at + k] << (8 * k);
+  return v;
+}
+
+static unsigned long long get64(const std::string& b, size_t at) {
+  unsigned long long v = 0;
+  for (int k = 0; k < 8; k++) v |= (unsigned long long)(unsigned char)b[at + k] << (8 * k);
+  return v;
+}
+
+bool write(const std::string& file, const std::string& csvFile, const std::vector<StudentRecord>& rows) {
+  std::string csv;
+  if (!readFile(csvFile, csv)) return false;
+
+  size_t heap = 0;
+  for (size_t i = 0; i < rows.size(); i++) heap += rows[i].name.size() + rows[i].program.size();
+  std::string b(kHeaderBytes + rows.size() * kRecordInts * 4 + heap, '\0');
+  b.replace(0, 8, kMagic, 8);
+  put32(b, 16, kVersion);
+  put32(b, 20, (unsigned)rows.size());
+  put64(b, 24, heap);
+  put64(b, 32, csv.size());
+  put64(b, 40, hash(csv.data(), csv.size()));
+
+  size_t pos = kHeaderBytes + rows.size() * kRecordInts * 4;
+  for (size_t i = 0; i < rows.size(); i++) {
+    const StudentRecord& r = rows[i];
+    size_t at = kHeaderBytes + i * kRecordInts * 4;
+    put32(b, at, (unsigned)r.roll);
+    put32(b, at + 4, (unsigned)r.semester);
+    put32(b, at + 8, (unsigned)r.present);
+    put32(b, at + 12, (unsigned)r.total);
+    put32(b, at + 16, (unsigned)r.name.size());
+    put32(b, at + 20, (unsigned)r.program.size());
+    pos += r.name.copy(&b[pos], r.name.size());
+    pos += r.program.copy(&b[pos], r.program.size());
+  }
+  put64(b, 8, hash(b.data() + 16, b.size() - 16));
+
+  std::ofstream out(file.c_str(), std::ios::out | std::ios::binary | std::ios::trunc);
+  if (!out.good()) return false;
+  out.write(b.data(), (std::streamsize)b.size());
+  out.close();
+  return out.good();
+}
+
+bool read(const std::string& file, const std::string& csvFile, std::vector<StudentRecord>& rows, size_t& csvBytes) {
+  std::string b;
+  if (!readFile(file, b) || b.size() < kHeaderBytes || b.compare(0, 8, kMagic, 8) != 0) return false;
+  if (get64(b, 8) != hash(b.data() + 16, b.size() - 16) || get32(b, 16) != kVersion) return false;
+  size_t count = get32(b, 20);
+  unsigned long long heap = get64(b, 24);
+  if ((unsigned long long)(b.size() - kHeaderBytes) != count * kRecordInts * 4 + heap) return false;
+
+  std::string csv;
+  if (!readFile(csvFile, csv)) return false;
+  if (get64(b, 32) != csv.size() || get64(b, 40) != hash(csv.data(), csv.size())) return false; // CSV changed since
+  csvBytes = csv.size();
+
+  rows.clear();
+  rows.resize(count);
+  size_t pos = kHeaderBytes + count * kRecordInts * 4;
+  for (size_t i = 0; i < count; i++) {
+    size_t at = kHeaderBytes + i * kRecordInts * 4;
+    StudentRecord& r = rows[i];
+    r.roll = (int)get32(b, at);
+    if (i > 0 && rows[i - 1].roll >= r.roll) return false;
+    r.semester = (int)get32(b, at + 4);
+    r.present = (int)get32(b, at + 8);
+    r.total = (int)get32(b, at + 12);
+    size_t nameLen = get32(b, at + 16);
+    size_t programLen = get32(b, at + 20);
+    if (nameLen + programLen > b.size() - pos) return false;
+    r.name.assign(b, pos, nameLen);
+    r.program.assign(b, pos + nameLen, programLen);
+    pos += nameLen + programLen;
+  }
+  return true;
+}
+
+} // namespace snapfile
@@ -0,0 +1,46 @@
+#pragma once
+
+#include <string>
+#include <vector>
+
+#include "avl_tree.h"
+
+// Binary snapshot of the student CSV (<csv>.snap), read at startup instead of
+// parsing the CSV. All integers little-endian:
+//
+//   0   "SCNSSNAP"
+//   8   u64 checksum     hash of every byte from offset 16 to the end
+//   16  u32 version      (kVersion)
+//   20  u32 count
+//   24  u64 heapBytes
+//   32  u64 csvBytes     size of the CSV this snapshot was taken from
+//   40  u64 csvHash      hash of that CSV's bytes
+//   48  count records:   i32 roll, semester, present, total, nameLen, programLen
+//       heap             name then program of each record, UTF-8, no terminators
+//
+// A snapshot is only used while the CSV still hashes to csvHash, so an edited
+// or rewritten CSV (or a snapshot torn by a crash) falls back to the CSV. The
+// CSV stays the interchange format; SnapshotFile.java reads and writes the same
+// bytes.
+
+namespace snapfile {
+
+static const unsigned kVersion = 1;
+
+// 64-bit FNV-1a over little-endian 8-byte words (the last one zero-padded),
+// then the length.
+unsigned long long hash(const char* p, size_t n);
+
+// Whole file into out; false if it cannot be read.
+bool readFile(const std::string& file, std::string& out);
+
+// Writes rows (roll order, real totals) as the snapshot of csvFile, which must
+// hold the same records. False on failure.
+bool write(const std::string& file, const std::string& csvFile, const std::vector<StudentRecord>& rows);
+
+// Fills rows when file is an intact snapshot of csvFile as it is now, with
+// strictly increasing rolls (the store builds its tree from them directly);
+// csvBytes = the CSV's size.
+bool read(const std::string& file, const std::string& csvFile, std::vector<StudentRecord>& rows, size_t& csvBytes);
+
+} // namespace snapfile
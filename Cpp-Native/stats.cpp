@@ -0,0 +1,65 @@
+#include "stats.h"
+
+// Course header rules are relaxed here for <atomic>/<chrono> (see README).
+
+namespace stats {
+
+namespace {
+
+// One cache line per entry point: concurrent calls to different entry points never
+// contend, and calls to the same one only share relaxed fetch_adds.
+struct alignas(64) Counters {
+  std::atomic<unsigned long long> calls{0};
+  std::atomic<unsigned long long> totalNs{0};
+  std::atomic<unsigned long long> maxNs{0};
+  std::atomic<unsigned long long> bytes{0};
+};
+
+Counters gCounters[kOpCount];
+
+const char* const kNames[kOpCount] = {
+    "testConnection",        "init",                  "close",
+    "memoryBytes",           "sharedMemoryBytes",     "getShortestPath",
+    "navLocations",          "navShortestPath",       "navDivergenceReport",
+    "sisUpsertStudent",      "sisGetStudent",         "sisGetStudentTrace",
+    "sisDeleteStudent",      "sisListStudents",       "sisListStudentsPage",
+    "sisListRange",          "sisSearchByNamePrefix", "sisListStudentsByName",
+    "sisListStudentsStream", "sisImportCsv",          "sisExportCsv",
+    "sisSetCommitWindow",    "sisCommitStats",        "sisListStudentsInto",
+    "attGetDefaultersInto",  "attNewSessionDay",      "attMarkPresent",
+    "attMarkPresentBatch",   "attGetSummary",         "attGetDefaulters",
+};
+
+// Fields are read one by one, so a snapshot taken during calls can be off by the
+// calls in flight; each counter on its own is exact.
+unsigned long long load(const std::atomic<unsigned long long>& a) { return a.load(std::memory_order_relaxed); }
+
+} // namespace
+
+void record(Op op, unsigned long long ns, unsigned long long bytes) {
+  Counters& c = gCounters[op];
+  c.calls.fetch_add(1, std::memory_order_relaxed);
+  c.totalNs.fetch_add(ns, std::memory_order_relaxed);
+  if (bytes) c.bytes.fetch_add(bytes, std::memory_order_relaxed);
+  unsigned long long prev = c.maxNs.load(std::memory_order_relaxed);
+  while (ns > prev && !c.maxNs.compare_exchange_weak(prev, ns, std::memory_order_relaxed)) {
+  }
+}
+
+void json(jsonutil::Writer& out) {
+  out.beginObject();
+  for (int i = 0; i < kOpCount; i++) {
+    const Counters& c = gCounters[i];
+    unsigned long long calls = load(c.calls);
+    if (!calls) continue;
+    out.key(kNames[i]).beginObject();
+    out.key("calls").number(calls);
+    out.key("totalNs").number(load(c.totalNs));
+    out.key("maxNs").number(load(c.maxNs));
+    out.key("bytes").number(load(c.bytes));
+    out.endObject();
+  }
+  out.endObject();
+}
+
+} // namespace stats
@@ -0,0 +1,73 @@
+#pragma once
+
+#include <atomic>
+#include <chrono>
+
+#include "utils_json.h"
+
+// Per-entry-point counters for the native layer: call count, cumulative and max
+// wall-clock nanoseconds, and reply bytes. Lock-free (relaxed atomics, one cache
+// line per entry point), so they stay on in production; read with
+// NativeBridge.nativeStats() or the NativeStats MXBean.
+namespace stats {
+
+enum Op {
+  kTestConnection,
+  kInit,
+  kClose,
+  kMemoryBytes,
+  kSharedMemoryBytes,
+  kGetShortestPath,
+  kNavLocations,
+  kNavShortestPath,
+  kNavDivergenceReport,
+  kSisUpsertStudent,
+  kSisGetStudent,
+  kSisGetStudentTrace,
+  kSisDeleteStudent,
+  kSisListStudents,
+  kSisListStudentsPage,
+  kSisListRange,
+  kSisSearchByNamePrefix,
+  kSisListStudentsByName,
+  kSisListStudentsStream,
+  kSisImportCsv,
+  kSisExportCsv,
+  kSisSetCommitWindow,
+  kSisCommitStats,
+  kSisListStudentsInto,
+  kAttGetDefaultersInto,
+  kAttNewSessionDay,
+  kAttMarkPresent,
+  kAttMarkPresentBatch,
+  kAttGetSummary,
+  kAttGetDefaulters,
+  kOpCount
+};
+
+void record(Op op, unsigned long long ns, unsigned long long bytes);
+
+// {"<entry point>":{"calls":n,"totalNs":n,"maxNs":n,"bytes":n},...}, entry points
+// never called are omitted.
+void json(jsonutil::Writer& out);
+
+// Times one call from construction to destruction; set bytes before returning.
+class Scope {
+ public:
+  explicit Scope(Op op) : op_(op), start_(std::chrono::steady_clock::now()) {}
+  ~Scope() {
+    auto ns = std::chrono::duration_cast<std::chrono::nanoseconds>(std::chrono::steady_clock::now() - start_).count();
+    record(op_, (unsigned long long)ns, bytes_);
+  }
+  Scope(const Scope&) = delete;
+  Scope& operator=(const Scope&) = delete;
+
+  void bytes(unsigned long long n) { bytes_ = n; }
+
+ private:
+  Op op_;
+  std::chrono::steady_clock::time_point start_;
+  unsigned long long bytes_ = 0;
+};
+
+} // namespace stats
@@ -1,5 +1,9 @@
 #include "student_store.h"
 
+#include "csv_loader.h"
+#include "dsa_merge_sort.h"
+#include "snapshot_file.h"
+
 #include <iostream>
 
 static inline std::string trim(const std::string& s) {
@@ -10,24 +14,6 @@ static inline std::string trim(const std::string& s) {
   return s.substr(a, b - a);
 }
 
-static inline bool split6(const std::string& line, std::string out[6]) {
-  int idx = 0;
-  std::string cur;
-  for (size_t i = 0; i < line.size(); i++) {
-    char c = line[i];
-    if (c == ',') {
-      if (idx >= 6) return false;
-      out[idx++] = cur;
-      cur.clear();
-    } else {
-      cur.push_back(c);
-    }
-  }
-  if (idx != 5) return false;
-  out[idx] = cur;
-  return true;
-}
-
 static inline int toInt(const std::string& s, int def) {
   int sign = 1;
   size_t i = 0;
@@ -64,29 +50,7 @@ StoreResult StudentStore::ensureFileExists() {
 }
 
 bool StudentStore::parseLine(const std::string& line, StudentRecord& out) {
-  if (line.empty()) return false;
-  // skip header
-  if (line.size() >= 4 && line.substr(0, 4) == "roll") return false;
-
-  std::string parts[6];
-  if (!split6(line, parts)) return false;
-
-  out.roll = toInt(parts[0], -1);
-  out.name = trim(parts[1]);
-  out.program = trim(parts[2]);
-  out.semester = toInt(parts[3], 1);
-  out.present = toInt(parts[4], 0);
-  out.total = toInt(parts[5], 0);
-
-  if (out.roll <= 0) return false;
-  if (out.name.empty()) return false;
-  if (out.program.empty()) return false;
-  if (out.semester < 1) out.semester = 1;
-  if (out.present < 0) out.present = 0;
-  if (out.total < 0) out.total = 0;
-  if (out.present > out.total) out.present = out.total;
-
-  return true;
+  return csvload::parseLine(line.data(), line.size(), out);
 }
 
 std::string StudentStore::toLine(const StudentRecord& r) {
@@ -107,33 +71,179 @@ std::string StudentStore::toLine(const StudentRecord& r) {
   return s;
 }
 
+// One log file: its generation (-1 when missing, empty or not a log) and the
+// complete lines after the header.
+struct LogFile {
+  int gen = -1;
+  std::vector<std::string> lines;
+};
+
+static LogFile readLog(const std::string& file) {
+  LogFile lf;
+  std::ifstream in(file.c_str());
+  std::string line;
+  while (std::getline(in, line)) {
+    if (in.eof()) break; // no trailing newline: torn by a crash mid-append
+    if (lf.gen < 0) {
+      if (line.size() > 5 && line.substr(0, 5) == "#log,") lf.gen = toInt(line.substr(5), -1);
+      if (lf.gen < 0) break;
+      continue;
+    }
+    lf.lines.push_back(line);
+  }
+  return lf;
+}
+
 StoreResult StudentStore::load() {
   StoreResult ok = ensureFileExists();
   if (!ok.ok) return ok;
 
-  std::ifstream in(path_.c_str());
-  if (!in.good()) return StoreResult{false, "Failed to open data file."};
+  log_.close();
+  compacting_ = false;
+  foldFailed_ = false;
+
+  // Replay order is older log, then newer. After the last #bak the base is the
+  // .bak snapshot and only later records apply; otherwise the CSV and all of them.
+  LogFile logs[2] = {readLog(logPath(0)), readLog(logPath(1))};
+  int newest = logs[1].gen > logs[0].gen ? 1 : 0;
+  int older = logs[1 - newest].gen >= 0 ? 1 - newest : -1;
+  std::vector<const std::string*> ops;
+  bool fromBak = false;
+  int order[2] = {older, newest};
+  for (int k = 0; k < 2; k++) {
+    if (order[k] < 0) continue;
+    const std::vector<std::string>& lines = logs[order[k]].lines;
+    for (size_t i = 0; i < lines.size(); i++) {
+      if (lines[i] == "#bak") {
+        fromBak = true;
+        ops.clear();
+      } else {
+        ops.push_back(&lines[i]);
+      }
+    }
+  }
 
-  std::string line;
-  int loaded = 0;
-  while (std::getline(in, line)) {
-    StudentRecord r;
-    if (!parseLine(line, r)) continue;
-    // insert only, duplicates in file are skipped
-    if (db_.insert(r)) loaded++;
+  std::vector<StudentRecord> snap;
+  snapCurrent_ = !fromBak && snapfile::read(snapPath(), path_, snap, snapshotBytes_);
+  if (!snapCurrent_) {
+    // one read, then parsed in parallel (csv_loader.h): roll order, first of
+    // each roll, invalid lines skipped
+    std::string text;
+    if (!snapfile::readFile(fromBak ? path_ + ".bak" : path_, text)) return StoreResult{false, "Failed to open data file."};
+    snapshotBytes_ = csvload::lineBytes(text);
+    csvload::parse(text).swap(snap);
   }
-  in.close();
+  // Both sources are in strictly increasing roll order, so the tree is built
+  // directly instead of by n inserts.
+  for (size_t i = 0; i < snap.size(); i++) flipTotal(snap[i]);
+  names_.build(snap);
+  if (!db_.buildSorted(snap)) {
+    // names_ must not list rolls the tree does not hold
+    names_.clear();
+    db_.clear();
+    return StoreResult{false, "Data file is not in roll order."};
+  }
+  std::vector<StudentRecord>().swap(snap);
+  for (size_t i = 0; i < ops.size(); i++) replayLine(*ops[i]);
+
+  // Fold what was replayed, so the active log starts empty.
+  if (fromBak || !ops.empty()) {
+    StoreResult fr = foldLogs(rows(), newest, older, snapshotBytes_);
+    if (!fr.ok) return fr;
+    snapCurrent_ = true;
+  } else if (logs[1].gen >= 0) {
+    std::ofstream stale(logPath(1).c_str(), std::ios::out | std::ios::trunc);
+  }
+  StoreResult lr = openLog(0, 1);
+  if (!lr.ok) return lr;
 
-  return StoreResult{true, "Loaded " + std::to_string(loaded) + " students."};
+  return StoreResult{true, "Loaded " + std::to_string(db_.size()) + " students."};
+}
+
+StoreResult StudentStore::close() {
+  if (!log_.isOpen()) return StoreResult{true, "OK"};
+  log_.close();
+  if (logBytes_ > 0 || foldFailed_) {
+    StoreResult fr = foldLogs(rows(), logSlot_, 1 - logSlot_, snapshotBytes_);
+    if (!fr.ok) return fr;
+  } else if (!snapCurrent_) {
+    if (!snapfile::write(snapPath(), path_, rows())) return StoreResult{false, "Failed to write snapshot file."};
+  }
+  logBytes_ = 0;
+  foldFailed_ = false;
+  snapCurrent_ = true;
+  return StoreResult{true, "OK"};
 }
 
 StoreResult StudentStore::switchToFile(const std::string& csvPath) {
   if (csvPath.empty()) return StoreResult{false, "Invalid path."};
   path_ = csvPath;
   db_.clear();
+  names_.clear();
   return load();
 }
 
+StoreResult StudentStore::openLog(int slot, int gen) {
+  if (!log_.open(logPath(slot), "#log," + std::to_string(gen) + "\n")) return StoreResult{false, "Failed to open log file."};
+  logSlot_ = slot;
+  logGen_ = gen;
+  logBytes_ = 0;
+  return StoreResult{true, "OK"};
+}
+
+// Buffers the records for the next group commit (the caller's commitLog).
+StoreResult StudentStore::appendLog(const std::string& records) {
+  unsigned long long seq = log_.append(records);
+  if (seq == 0) return StoreResult{false, "Failed to append to log file."};
+  logSeq_ = seq;
+  logBytes_ += records.size();
+  return StoreResult{true, "OK"};
+}
+
+// Applies one log record (see student_store.h); false if it is malformed or
+// does not apply.
+bool StudentStore::replayLine(const std::string& line) {
+  if (line.empty() || line[0] == '#') return false;
+  if (line[line.size() - 1] == '#') return false; // torn line closed by foldLogs
+  if (line == "N") {
+    applyNewDay();
+    return true;
+  }
+  if (line.size() < 3 || line[1] != ',') return false;
+  std::string rest = line.substr(2);
+  if (line[0] == 'A') {
+    StudentRecord r;
+    if (!parseLine(rest, r)) return false;
+    flipTotal(r);
+    return insertRecord(r);
+  }
+  int roll = toInt(rest, -1);
+  if (roll <= 0) return false;
+  if (line[0] == 'D') return removeRecord(roll);
+  if (line[0] == 'P') {
+    StudentRecord r;
+    if (!db_.find(roll, r)) return false;
+    flipTotal(r);
+    applyMark(r);
+    flipTotal(r);
+    return db_.update(r);
+  }
+  return false;
+}
+
+bool StudentStore::insertRecord(const StudentRecord& stored) {
+  if (!db_.insert(stored)) return false;
+  names_.insert(stored.name, stored.roll);
+  return true;
+}
+
+bool StudentStore::removeRecord(int roll) {
+  const StudentRecord* r = db_.get(roll);
+  if (!r) return false;
+  names_.remove(r->name, roll);
+  return db_.remove(roll);
+}
+
 StoreResult StudentStore::addStudent(const StudentRecord& r) {
   if (r.roll <= 0) return StoreResult{false, "Invalid roll."};
   if (r.name.empty()) return StoreResult{false, "Name required."};
@@ -144,45 +254,89 @@ StoreResult StudentStore::addStudent(const StudentRecord& r) {
     return StoreResult{false, "Roll already exists. Use a different roll."};
   }
 
-  if (!db_.insert(r)) return StoreResult{false, "Insert failed."};
-
-  std::ofstream out(path_.c_str(), std::ios::app);
-  if (!out.good()) return StoreResult{false, "Inserted in memory, but failed to write to file."};
-  out << toLine(r);
-  out.close();
+  StudentRecord stored = r;
+  flipTotal(stored);
+  if (!insertRecord(stored)) return StoreResult{false, "Insert failed."};
 
+  StoreResult wr = appendLog("A," + toLine(r));
+  if (!wr.ok) return StoreResult{false, "Inserted in memory, but failed to write to file."};
   return StoreResult{true, "Student added."};
 }
 
-StoreResult StudentStore::rewriteAll(const std::vector<StudentRecord>& all) const {
+size_t StudentStore::writeCsv(const std::string& file, const std::vector<StudentRecord>& all) {
+  std::ofstream out(file.c_str(), std::ios::out | std::ios::trunc);
+  if (!out.good()) return 0;
+  std::string header = "roll,name,program,semester,present,total\n";
+  size_t bytes = header.size();
+  out << header;
+  for (size_t i = 0; i < all.size(); i++) {
+    std::string line = toLine(all[i]);
+    bytes += line.size();
+    out << line;
+  }
+  out.close();
+  return out.good() ? bytes : 0;
+}
+
+StoreResult StudentStore::foldLogs(const std::vector<StudentRecord>& all, int newest, int older, size_t& bytes) const {
   // Course header restrictions: avoid filesystem ops (rename/remove).
-  // Safe-ish rewrite:
-  // 1) write a .bak snapshot first (so recovery is possible)
-  // 2) then overwrite the main file in one pass
-  std::string bak = path_ + ".bak";
+  // 1) write the .bak snapshot
+  // 2) mark the newest folded log with #bak: from here recovery starts from .bak
+  //    (the leading "#\n" closes a torn last line so it can never parse as a record)
+  // 3) overwrite the main file
+  // 4) empty the folded logs, older first
+  // 5) write the .snap for the new CSV (if this fails, or a crash cuts it, the
+  //    next load sees a hash mismatch and parses the CSV)
+  // A crash anywhere leaves either the old CSV with all logs, or a complete .bak
+  // with the marker after every folded record.
+  if (writeCsv(path_ + ".bak", all) == 0) return StoreResult{false, "Failed to write backup file."};
   {
-    std::ofstream bout(bak.c_str(), std::ios::out | std::ios::trunc);
-    if (!bout.good()) return StoreResult{false, "Failed to write backup file."};
-    bout << "roll,name,program,semester,present,total\n";
-    for (size_t i = 0; i < all.size(); i++) bout << toLine(all[i]);
-    bout.close();
+    std::ofstream mark(logPath(newest).c_str(), std::ios::app);
+    mark << "#\n#bak\n";
+    mark.close();
+    if (!mark.good()) return StoreResult{false, "Failed to append to log file."};
   }
-
-  std::ofstream out(path_.c_str(), std::ios::out | std::ios::trunc);
-  if (!out.good()) return StoreResult{false, "Failed to rewrite data file."};
-  out << "roll,name,program,semester,present,total\n";
-  for (size_t i = 0; i < all.size(); i++) out << toLine(all[i]);
-  out.close();
+  bytes = writeCsv(path_, all);
+  if (bytes == 0) return StoreResult{false, "Failed to rewrite data file."};
+  if (older >= 0) std::ofstream(logPath(older).c_str(), std::ios::out | std::ios::trunc);
+  std::ofstream(logPath(newest).c_str(), std::ios::out | std::ios::trunc);
+  snapfile::write(snapPath(), path_, all);
   return StoreResult{true, "OK"};
 }
 
+bool StudentStore::needsCompaction() const {
+  return !compacting_ && !foldFailed_ && log_.isOpen() && logBytes_ >= kMinCompactBytes && logBytes_ >= snapshotBytes_;
+}
+
+bool StudentStore::beginCompaction(std::vector<StudentRecord>& rows, int& foldedLog) {
+  if (!needsCompaction()) return false;
+  int folded = logSlot_;
+  if (!openLog(1 - folded, logGen_ + 1).ok) return false; // keep appending to the current log
+  rows = this->rows();
+  foldedLog = folded;
+  compacting_ = true;
+  return true;
+}
+
+StoreResult StudentStore::writeCompaction(const std::vector<StudentRecord>& rows, int foldedLog, size_t& snapshotBytes) const {
+  return foldLogs(rows, foldedLog, -1, snapshotBytes);
+}
+
+void StudentStore::endCompaction(const StoreResult& r, size_t snapshotBytes) {
+  compacting_ = false;
+  if (r.ok) {
+    snapshotBytes_ = snapshotBytes;
+    snapCurrent_ = true;
+  }
+  else foldFailed_ = true; // the folded log still has its records; load() replays both
+}
+
 StoreResult StudentStore::deleteStudent(int roll) {
   if (roll <= 0) return StoreResult{false, "Invalid roll."};
-  bool removed = db_.remove(roll);
+  bool removed = removeRecord(roll);
   if (!removed) return StoreResult{false, "Student not found."};
 
-  std::vector<StudentRecord> all = db_.inorder();
-  StoreResult wr = rewriteAll(all);
+  StoreResult wr = appendLog("D," + std::to_string(roll) + "\n");
   if (!wr.ok) return wr;
   return StoreResult{true, "Student deleted."};
 }
@@ -190,29 +344,33 @@ StoreResult StudentStore::deleteStudent(int roll) {
 StoreResult StudentStore::getStudent(int roll, StudentRecord& out) const {
   if (roll <= 0) return StoreResult{false, "Invalid roll."};
   if (!db_.find(roll, out)) return StoreResult{false, "Not found."};
+  flipTotal(out);
   return StoreResult{true, "OK"};
 }
 
 StoreResult StudentStore::getStudentTrace(int roll, StudentRecord& out, std::vector<int>& visited) const {
   if (roll <= 0) return StoreResult{false, "Invalid roll."};
   if (!db_.findTrace(roll, out, visited)) return StoreResult{false, "Not found."};
+  flipTotal(out);
   return StoreResult{true, "OK"};
 }
 
-StoreResult StudentStore::newDayForAll() {
-  std::vector<StudentRecord> all = db_.inorder();
-  if (all.empty()) return StoreResult{false, "No students registered."};
+void StudentStore::applyNewDay() {
+  // every real total (day_ - start day) grows by one; present never exceeds it
+  day_ += 1;
+}
 
-  for (size_t i = 0; i < all.size(); i++) {
-    all[i].total += 1;
-    if (all[i].present > all[i].total) all[i].present = all[i].total;
-  }
+void StudentStore::applyMark(StudentRecord& r) {
+  // Must have a day to mark
+  if (r.total <= 0) r.total = 1;
+  if (r.present < r.total) r.present += 1;
+}
 
-  // rebuild AVL (practical choice: keep AVL as index; rewrite with updated values)
-  db_.clear();
-  for (size_t i = 0; i < all.size(); i++) db_.insert(all[i]);
+StoreResult StudentStore::newDayForAll() {
+  if (db_.size() == 0) return StoreResult{false, "No students registered."};
+  applyNewDay();
 
-  StoreResult wr = rewriteAll(all);
+  StoreResult wr = appendLog("N\n");
   if (!wr.ok) return wr;
   return StoreResult{true, "New day recorded."};
 }
@@ -222,52 +380,151 @@ StoreResult StudentStore::markPresent(int roll) {
   StoreResult g = getStudent(roll, r);
   if (!g.ok) return g;
 
-  // Must have a day to mark
-  if (r.total <= 0) r.total = 1;
-  if (r.present < r.total) r.present += 1;
-
+  applyMark(r);
+  flipTotal(r);
   if (!db_.update(r)) return StoreResult{false, "Update failed."};
 
-  std::vector<StudentRecord> all = db_.inorder();
-  StoreResult wr = rewriteAll(all);
+  StoreResult wr = appendLog("P," + std::to_string(roll) + "\n");
   if (!wr.ok) return wr;
 
   return StoreResult{true, "Marked present."};
 }
 
-std::vector<StudentRecord> StudentStore::listByRoll() const {
-  return db_.inorder();
-}
-
-void StudentStore::mergeSortByName(std::vector<StudentRecord>& a) {
-  if (a.size() < 2) return;
-  std::vector<StudentRecord> tmp;
-  tmp.resize(a.size());
-
-  // iterative mergesort (no extra headers)
-  for (size_t width = 1; width < a.size(); width *= 2) {
-    for (size_t i = 0; i < a.size(); i += 2 * width) {
-      size_t l = i;
-      size_t m = i + width;
-      size_t r = i + 2 * width;
-      if (m > a.size()) m = a.size();
-      if (r > a.size()) r = a.size();
-
-      size_t p = l, q = m, k = l;
-      while (p < m && q < r) {
-        if (a[p].name <= a[q].name) tmp[k++] = a[p++];
-        else tmp[k++] = a[q++];
-      }
-      while (p < m) tmp[k++] = a[p++];
-      while (q < r) tmp[k++] = a[q++];
+// One roll of a batch plus the slot its result goes to.
+struct MarkRef {
+  int roll;
+  size_t index;
+};
+
+struct MarkRefLess {
+  bool operator()(const MarkRef& a, const MarkRef& b) const { return a.roll < b.roll; }
+};
+
+// Single in-order pass: marks every requested roll as the walk meets it
+// (refs are sorted by roll, so one cursor suffices) and collects the log
+// records for the one append.
+class BatchMarker : public StudentMutator {
+ public:
+  BatchMarker(const std::vector<MarkRef>& refs, int day, std::vector<int>& present, std::string& log)
+      : refs_(refs), day_(day), present_(present), log_(log) {}
+
+  void visit(StudentRecord& r) override {
+    while (next_ < refs_.size() && refs_[next_].roll < r.roll) next_++; // not in tree: stays -1
+    while (next_ < refs_.size() && refs_[next_].roll == r.roll) {
+      // same rule as markPresent, applied once per occurrence (r.total is the start day)
+      if (day_ - r.total <= 0) r.total = day_ - 1;
+      if (r.present < day_ - r.total) r.present += 1;
+      present_[refs_[next_].index] = r.present;
+      log_ += "P," + std::to_string(r.roll) + "\n";
+      next_++;
+      marked_++;
     }
-    for (size_t j = 0; j < a.size(); j++) a[j] = tmp[j];
   }
+
+  int marked() const { return marked_; }
+
+ private:
+  const std::vector<MarkRef>& refs_;
+  int day_;
+  std::vector<int>& present_;
+  std::string& log_;
+  size_t next_ = 0;
+  int marked_ = 0;
+};
+
+StoreResult StudentStore::markPresentBatch(const std::vector<int>& rolls, std::vector<int>& present) {
+  present.assign(rolls.size(), -1);
+
+  std::vector<MarkRef> refs;
+  refs.reserve(rolls.size());
+  for (size_t i = 0; i < rolls.size(); i++) {
+    if (rolls[i] > 0) refs.push_back(MarkRef{rolls[i], i});
+  }
+  if (refs.empty()) return StoreResult{true, "Nothing to mark."};
+  dsa::mergeSort(refs, MarkRefLess());
+
+  std::string log;
+  BatchMarker marker(refs, day_, present, log);
+  db_.inorderMutate(marker);
+  if (marker.marked() == 0) return StoreResult{true, "Nothing to mark."}; // nothing to log
+
+  StoreResult wr = appendLog(log);
+  if (!wr.ok) return wr;
+  return StoreResult{true, "Marked " + std::to_string(marker.marked()) + " present."};
+}
+
+std::vector<StudentRecord> StudentStore::listByRoll() const {
+  return rows();
+}
+
+std::vector<StudentRecord> StudentStore::rows() const {
+  std::vector<StudentRecord> all = db_.inorder();
+  for (size_t i = 0; i < all.size(); i++) flipTotal(all[i]);
+  return all;
+}
+
+// Hands each stored record to a StudentRowVisitor with its real total.
+class RealTotals : public StudentVisitor {
+ public:
+  RealTotals(StudentRowVisitor& inner, int day) : inner_(inner), day_(day) {}
+  void visit(const StudentRecord& r) override { inner_.visit(r, day_ - r.total); }
+
+ private:
+  StudentRowVisitor& inner_;
+  int day_;
+};
+
+void StudentStore::visitByRoll(StudentRowVisitor& v) const {
+  RealTotals real(v, day_);
+  db_.inorderVisit(real);
+}
+
+int StudentStore::visitPage(int afterRoll, int limit, StudentRowVisitor& v) const {
+  RealTotals real(v, day_);
+  return db_.inorderVisitAfter(afterRoll, limit, real);
+}
+
+int StudentStore::visitRange(int lo, int hi, int limit, StudentRowVisitor& v) const {
+  RealTotals real(v, day_);
+  return db_.inorderVisitRange(lo, hi, limit, real);
+}
+
+// names_ and db_ are kept in step, so every roll is found; one that is not is
+// skipped rather than dereferenced.
+int StudentStore::visitRolls(const std::vector<int>& rolls, StudentRowVisitor& v) const {
+  int visited = 0;
+  for (size_t i = 0; i < rolls.size(); i++) {
+    const StudentRecord* r = db_.get(rolls[i]);
+    if (!r) continue;
+    v.visit(*r, day_ - r->total);
+    visited++;
+  }
+  return visited;
+}
+
+int StudentStore::visitNamePrefix(const std::string& prefix, int limit, StudentRowVisitor& v) const {
+  std::vector<int> rolls;
+  names_.prefix(prefix, limit, rolls);
+  return visitRolls(rolls, v);
+}
+
+int StudentStore::visitNamePage(const std::string& afterName, int afterRoll, int limit, StudentRowVisitor& v) const {
+  std::vector<int> rolls;
+  names_.after(afterName, afterRoll, limit, rolls);
+  return visitRolls(rolls, v);
 }
 
 std::vector<StudentRecord> StudentStore::listByName() const {
-  std::vector<StudentRecord> out = db_.inorder();
-  mergeSortByName(out);
+  std::vector<int> rolls;
+  names_.after("", -2147483647 - 1, names_.size(), rolls);
+  std::vector<StudentRecord> out;
+  out.reserve(rolls.size());
+  for (size_t i = 0; i < rolls.size(); i++) {
+    const StudentRecord* r = db_.get(rolls[i]);
+    if (!r) continue; // as in visitRolls
+    out.push_back(*r);
+    flipTotal(out.back());
+  }
   return out;
 }
 
@@ -275,7 +532,7 @@ std::vector<StudentRecord> StudentStore::defaultersBelow(int minPercent) const {
   struct Item { int percent; StudentRecord rec; };
   struct Less { bool operator()(const Item& a, const Item& b) const { return a.percent < b.percent; } };
 
-  std::vector<StudentRecord> all = db_.inorder();
+  std::vector<StudentRecord> all = rows();
   dsa::MinHeap<Item, Less> heap;
   for (size_t i = 0; i < all.size(); i++) {
     int p = percent(all[i].present, all[i].total);
@@ -295,7 +552,7 @@ StoreResult StudentStore::exportTo(const std::string& outCsvPath) const {
   std::ofstream out(outCsvPath.c_str(), std::ios::out);
   if (!out.good()) return StoreResult{false, "Failed to open export path."};
 
-  std::vector<StudentRecord> all = db_.inorder();
+  std::vector<StudentRecord> all = rows();
   out << "roll,name,program,semester,present,total\n";
   for (size_t i = 0; i < all.size(); i++) out << toLine(all[i]);
   out.close();
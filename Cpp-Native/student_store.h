@@ -6,14 +6,52 @@
 
 #include "avl_tree.h"
 #include "dsa_min_heap.h"
+#include "group_log.h"
+#include "mem_usage.h"
+#include "name_index.h"
 
 // Practical persistence layer:
-// - CSV file is the permanent store
-// - AVL tree provides O(log n) search/insert/delete by roll
+// - CSV file is the permanent store (a snapshot)
+// - mutations are appended to a write-ahead log next to it, so they cost one
+//   short line each instead of a rewrite of every student
+// - AVL tree provides O(log n) search/insert/delete by roll; a NameIndex
+//   (name_index.h) next to it answers name-prefix searches
+// - "New Day" is O(1): the store counts days (day_) and each record in the tree
+//   keeps the day its total counts from in place of total (real total =
+//   day_ - stored total); records leave the store with real totals
 //
 // CSV format:
 // roll,name,program,semester,present,total
 // (no commas inside fields)
+//
+// Log files <csv>.wal0 / <csv>.wal1 (one active, the other being folded):
+//   #log,<gen>        header; the higher gen is the newer log
+//   A,<csv row>       addStudent
+//   D,<roll>          deleteStudent
+//   P,<roll>          markPresent (one line per mark of a batch)
+//   N                 newDayForAll
+//   #bak              <csv>.bak holds everything logged before this line
+// Records are group-committed (GroupLog): a mutation only buffers its record and
+// returns logSeq(); the caller releases the lock and then calls commitLog(seq),
+// which returns once the batch holding it is flushed.
+// load() replays the logs on top of the CSV (or of .bak after the last #bak;
+// a torn last line is ignored) and folds them. Compaction folds the other log
+// while mutations carry on in the active one: beginCompaction/writeCompaction/
+// endCompaction, see api::requestCompaction. Files are only ever truncated/appended
+// (no rename/remove under the course header rules), which is what #bak is for.
+//
+// Every fold, and close() when nothing was folded since load, also writes
+// <csv>.snap (snapshot_file.h): the CSV's records in binary, tied to the CSV's
+// hash. load() reads it instead of parsing the CSV while the hash matches.
+
+// Visitor for the store's walks (roll order, name prefix): gets each record as
+// stored (no copy, valid until the next mutation) plus its real total; r.total
+// itself is the store's start day and must not be read.
+class StudentRowVisitor {
+ public:
+  virtual ~StudentRowVisitor() = default;
+  virtual void visit(const StudentRecord& r, int total) = 0;
+};
 
 struct StoreResult {
   bool ok = false;
@@ -24,36 +62,107 @@ class StudentStore {
  public:
   explicit StudentStore(const std::string& csvPath);
 
-  StoreResult load();
+  StoreResult load();                                  // CSV (or .snap) + log replay, then folds the log
+  // Clean shutdown: flushes and folds the log, and leaves a .snap matching the
+  // CSV, so the next load has nothing to parse or replay. The store must not be
+  // used afterwards except through load()/switchToFile().
+  StoreResult close();
   StoreResult switchToFile(const std::string& csvPath); // replace dataset + persistence path
   StoreResult addStudent(const StudentRecord& r);       // insert only, no overwrite
-  StoreResult deleteStudent(int roll);                 // remove + safe rewrite
+  StoreResult deleteStudent(int roll);                 // remove + log
   StoreResult getStudent(int roll, StudentRecord& out) const;
   StoreResult getStudentTrace(int roll, StudentRecord& out, std::vector<int>& visited) const;
 
-  StoreResult newDayForAll();                          // total++ for all
+  StoreResult newDayForAll();                          // total++ for all (one counter)
   StoreResult markPresent(int roll);                   // present++ for roll
+  // present++ for each roll in one AVL pass and one log append; present[i] is
+  // the new count for rolls[i], or -1 when that roll is invalid or not found.
+  // ok is false only when the append fails.
+  StoreResult markPresentBatch(const std::vector<int>& rolls, std::vector<int>& present);
 
   std::vector<StudentRecord> listByRoll() const;       // AVL inorder
-  std::vector<StudentRecord> listByName() const;       // merge sort on name
+  void visitByRoll(StudentRowVisitor& v) const;       // AVL inorder, no copies
+  // Up to limit records with roll > afterRoll, in roll order (cursor pagination).
+  int visitPage(int afterRoll, int limit, StudentRowVisitor& v) const;
+  // Up to limit records with lo <= roll <= hi, in roll order (pruned AVL walk).
+  int visitRange(int lo, int hi, int limit, StudentRowVisitor& v) const;
+  std::vector<StudentRecord> listByName() const;       // NameIndex order, no sort
+  // Up to limit records after the cursor (afterName, afterRoll) in name then roll
+  // order (ASCII case ignored): the name-ordered visitPage, O(log n + limit) plus
+  // one roll lookup per record. ("", INT_MIN) starts at the first name.
+  int visitNamePage(const std::string& afterName, int afterRoll, int limit, StudentRowVisitor& v) const;
+  // Up to limit students whose name starts with prefix (ASCII case ignored), in
+  // name order then roll order (NameIndex): O(log n + limit) plus one roll
+  // lookup per match.
+  int visitNamePrefix(const std::string& prefix, int limit, StudentRowVisitor& v) const;
 
   std::vector<StudentRecord> defaultersBelow(int minPercent) const; // min-heap
 
   int count() const { return db_.size(); }
+  size_t memoryBytes() const { return memusage::stringHeap(path_) + db_.memoryBytes() + names_.memoryBytes(); }
 
   // Export current state to another CSV path.
   StoreResult exportTo(const std::string& outCsvPath) const;
 
+  // Background compaction, in three steps. Caller holds the store's lock
+  // exclusively for needsCompaction/beginCompaction/endCompaction only;
+  // writeCompaction runs unlocked (it touches the folded log, the .bak and the
+  // CSV, never the active log) but must not overlap load/switchToFile.
+  bool needsCompaction() const;
+  // Snapshots the records into rows and switches logging to the other file.
+  // False if there is nothing to fold.
+  bool beginCompaction(std::vector<StudentRecord>& rows, int& foldedLog);
+  StoreResult writeCompaction(const std::vector<StudentRecord>& rows, int foldedLog, size_t& snapshotBytes) const;
+  void endCompaction(const StoreResult& r, size_t snapshotBytes);
+  size_t logBytes() const { return logBytes_; }
+
+  // Group commit (see GroupLog). logSeq needs the lock like any other call;
+  // commitLog and the settings are safe without it.
+  unsigned long long logSeq() const { return logSeq_; } // last record buffered
+  bool commitLog(unsigned long long seq) { return log_.commit(seq); }
+  bool configureCommit(int windowMicros, int maxBatch) { return log_.configure(windowMicros, maxBatch); }
+  void commitStats(jsonutil::Writer& out) const { log_.stats(out); }
+
+  static const size_t kMinCompactBytes = 64 * 1024; // never fold a log smaller than this
+
  private:
   std::string path_;
-  AvlStudentDB db_;
+  AvlStudentDB db_;  // total holds the record's start day (see top of file)
+  NameIndex names_;  // (name, roll) of every record in db_
+  int day_ = 0;      // days recorded since the store was created
+
+  // active log (see top of file)
+  GroupLog log_;
+  unsigned long long logSeq_ = 0;
+  int logSlot_ = 0;
+  int logGen_ = 0;
+  size_t logBytes_ = 0;      // bytes appended to the active log
+  size_t snapshotBytes_ = 0; // size of the CSV as last written or read
+  bool compacting_ = false;
+  bool foldFailed_ = false;  // a fold failed: keep appending, fold again on next load
+  bool snapCurrent_ = false; // <csv>.snap was written for (or read from) the CSV as it is
 
   static int percent(int present, int total);
+  // Converts between real totals and stored start days (the same subtraction both ways).
+  void flipTotal(StudentRecord& r) const { r.total = day_ - r.total; }
+  std::vector<StudentRecord> rows() const;             // db_.inorder() with real totals
   static bool parseLine(const std::string& line, StudentRecord& out);
   static std::string toLine(const StudentRecord& r);
 
   StoreResult ensureFileExists();
-  StoreResult rewriteAll(const std::vector<StudentRecord>& all) const;
-
-  static void mergeSortByName(std::vector<StudentRecord>& a);
+  std::string logPath(int slot) const { return path_ + (slot == 0 ? ".wal0" : ".wal1"); }
+  std::string snapPath() const { return path_ + ".snap"; }
+  StoreResult openLog(int slot, int gen);
+  StoreResult appendLog(const std::string& records);
+  bool replayLine(const std::string& line);
+  // db_ insert/remove that keep names_ in step.
+  bool insertRecord(const StudentRecord& stored);
+  bool removeRecord(int roll);
+  void applyNewDay();
+  static void applyMark(StudentRecord& r);
+  static size_t writeCsv(const std::string& file, const std::vector<StudentRecord>& all);
+  StoreResult foldLogs(const std::vector<StudentRecord>& all, int newest, int older, size_t& bytes) const;
+  // Visits the records of rolls in that order (rolls db_ lacks are skipped);
+  // returns the number visited.
+  int visitRolls(const std::vector<int>& rolls, StudentRowVisitor& v) const;
 };
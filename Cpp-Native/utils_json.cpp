@@ -2,60 +2,123 @@
 
 namespace jsonutil {
 
-std::string escapeJsonString(const std::string& s) {
-  std::string out;
-  out.reserve(s.size() + 8);
-  const char* hex = "0123456789abcdef";
+Writer& Writer::key(const char* k) {
+  sep();
+  buf_.push_back('"');
+  buf_ += k;
+  buf_ += "\":";
+  comma_ = false;
+  return *this;
+}
+
+Writer& Writer::string(const std::string& s) {
+  sep();
+  buf_.push_back('"');
+  escapeInto(s);
+  buf_.push_back('"');
+  comma_ = true;
+  return *this;
+}
+
+Writer& Writer::number(int v) {
+  sep();
+  // widen before negating so INT_MIN survives
+  long long x = v;
+  if (x < 0) {
+    buf_.push_back('-');
+    x = -x;
+  }
+  digits((unsigned long long)x);
+  comma_ = true;
+  return *this;
+}
+
+Writer& Writer::number(unsigned long long v) {
+  sep();
+  digits(v);
+  comma_ = true;
+  return *this;
+}
+
+void Writer::digits(unsigned long long x) {
+  char tmp[20];
+  int n = 0;
+  do {
+    tmp[n++] = (char)('0' + (int)(x % 10));
+    x /= 10;
+  } while (x > 0);
+  while (n > 0) buf_.push_back(tmp[--n]);
+}
+
+Writer& Writer::boolean(bool v) {
+  sep();
+  buf_ += v ? "true" : "false";
+  comma_ = true;
+  return *this;
+}
+
+Writer& Writer::raw(const char* json) {
+  sep();
+  buf_ += json;
+  comma_ = true;
+  return *this;
+}
 
-  for (size_t i = 0; i < s.size(); i++) {
-    char c = s[i];
+// Same escaping as escapeJsonString, but runs of plain characters are appended
+// in one go and nothing is built on the side.
+void Writer::escapeInto(const std::string& s) {
+  const char* hex = "0123456789abcdef";
+  const char* p = s.data();
+  size_t n = s.size();
+  size_t run = 0;
+  for (size_t i = 0; i < n; i++) {
+    unsigned char c = (unsigned char)p[i];
+    if (c >= 0x20 && c != '"' && c != '\\') continue;
+    buf_.append(p + run, i - run);
+    run = i + 1;
     switch (c) {
-      case '"': out += "\\\""; break;
-      case '\\': out += "\\\\"; break;
-      case '\b': out += "\\b"; break;
-      case '\f': out += "\\f"; break;
-      case '\n': out += "\\n"; break;
-      case '\r': out += "\\r"; break;
-      case '\t': out += "\\t"; break;
+      case '"': buf_ += "\\\""; break;
+      case '\\': buf_ += "\\\\"; break;
+      case '\b': buf_ += "\\b"; break;
+      case '\f': buf_ += "\\f"; break;
+      case '\n': buf_ += "\\n"; break;
+      case '\r': buf_ += "\\r"; break;
+      case '\t': buf_ += "\\t"; break;
       default:
-        if ((unsigned char)c < 0x20) {
-          out += "\\u00";
-          out.push_back(hex[((unsigned char)c >> 4) & 0xF]);
-          out.push_back(hex[(unsigned char)c & 0xF]);
-        } else {
-          out.push_back(c);
-        }
+        buf_ += "\\u00";
+        buf_.push_back(hex[(c >> 4) & 0xF]);
+        buf_.push_back(hex[c & 0xF]);
     }
   }
-  return out;
+  buf_.append(p + run, n - run);
 }
 
-std::string quote(const std::string& s) { return std::string("\"") + escapeJsonString(s) + "\""; }
-
-std::string obj(const std::vector<Kv>& kv) {
-  std::string out;
-  out.reserve(32 + kv.size() * 16);
-  out.push_back('{');
-  for (size_t i = 0; i < kv.size(); i++) {
-    if (i) out.push_back(',');
-    out += quote(kv[i].k);
-    out.push_back(':');
-    out += kv[i].v;
-  }
-  out.push_back('}');
-  return out;
+bool Writer::finish() {
+  bool ok = !sink_ || drain(true);
+  sink_ = nullptr;
+  return ok;
 }
 
-std::string arr(const std::vector<std::string>& items) {
-  std::string out;
-  out.reserve(16 + items.size() * 8);
-  out.push_back('[');
-  for (size_t i = 0; i < items.size(); i++) {
-    if (i) out.push_back(',');
-    out += items[i];
+// Sends whole chunks (and with all, the tail), then keeps only the unsent remainder.
+bool Writer::drain(bool all) {
+  size_t off = 0;
+  while (!stopped_ && buf_.size() - off >= chunk_) {
+    if (!sink_->chunk(buf_.data() + off, chunk_)) stopped_ = true;
+    off += chunk_;
+    streamed_ += chunk_;
+  }
+  if (all && !stopped_ && off < buf_.size()) {
+    size_t n = buf_.size() - off;
+    if (!sink_->chunk(buf_.data() + off, n)) stopped_ = true;
+    off += n;
+    streamed_ += n;
+  }
+  if (stopped_) {
+    buf_.clear();
+  } else {
+    buf_.erase(0, off);
   }
-  out.push_back(']');
-  return out;
+  return !stopped_;
 }
 
 } // namespace jsonutil
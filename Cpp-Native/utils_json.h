@@ -1,19 +1,88 @@
 #pragma once
 
 #include <string>
-#include <vector>
 
 namespace jsonutil {
 
-struct Kv {
-  std::string k;
-  std::string v; // already JSON encoded value
+// Receives a streamed reply (Writer::streamTo). Return false to stop the stream.
+class ChunkSink {
+ public:
+  virtual ~ChunkSink() {}
+  virtual bool chunk(const char* data, size_t n) = 0;
 };
 
-std::string escapeJsonString(const std::string& s);
-std::string quote(const std::string& s);
+// Streaming writer: every token is appended straight into one growable buffer
+// (strings escaped in place, ints formatted on the stack), so a reply costs no
+// per-field temporaries. Commas between members/elements are inserted
+// automatically. reset() keeps the capacity, so a writer reused per thread
+// stops allocating once it has seen its largest reply.
+class Writer {
+ public:
+  void reset() { buf_.clear(); comma_ = false; sink_ = nullptr; }
+  const std::string& out() const { return buf_; }
+  size_t size() const { return buf_.size(); }
+  size_t capacity() const { return buf_.capacity(); }
+  void reserve(size_t n) { buf_.reserve(n); }
 
-std::string obj(const std::vector<Kv>& kv);
-std::string arr(const std::vector<std::string>& items);
+  Writer& beginObject() { open('{'); return *this; }
+  Writer& endObject() { close('}'); return *this; }
+  Writer& beginArray() { open('['); return *this; }
+  Writer& endArray() { close(']'); return *this; }
+
+  // Keys are written verbatim: callers only pass ASCII identifiers.
+  Writer& key(const char* k);
+
+  Writer& string(const std::string& s);
+  Writer& number(int v);
+  Writer& number(unsigned long long v);
+  Writer& boolean(bool v);
+  Writer& raw(const char* json); // pre-encoded value (literals like an empty reply)
+
+  // Streaming mode: the reply goes to sink in chunks of exactly chunkBytes (the last
+  // one shorter) instead of accumulating. Producers call spill() between elements, so
+  // the buffer never holds much more than one chunk; finish() sends the tail and
+  // leaves streaming mode. Both return false once the sink has stopped the stream
+  // (later output is dropped). reset() also leaves streaming mode.
+  void streamTo(ChunkSink* sink, size_t chunkBytes) {
+    sink_ = sink;
+    chunk_ = chunkBytes ? chunkBytes : 1;
+    streamed_ = 0;
+    stopped_ = false;
+  }
+  bool spill() { return !sink_ || buf_.size() < chunk_ ? !stopped_ : drain(false); }
+  bool finish();
+  unsigned long long streamed() const { return streamed_; } // bytes handed to the sink
+
+  // key(k) followed by the value
+  Writer& field(const char* k, const std::string& v) { return key(k).string(v); }
+  Writer& field(const char* k, const char* v) { return key(k).string(std::string(v)); }
+  Writer& field(const char* k, int v) { return key(k).number(v); }
+  Writer& field(const char* k, bool v) { return key(k).boolean(v); }
+
+ private:
+  std::string buf_;
+  bool comma_ = false; // a member/element precedes the next one at this level
+  ChunkSink* sink_ = nullptr;
+  size_t chunk_ = 0;
+  unsigned long long streamed_ = 0;
+  bool stopped_ = false;
+
+  bool drain(bool all);
+
+  void sep() {
+    if (comma_) buf_.push_back(',');
+  }
+  void open(char c) {
+    sep();
+    buf_.push_back(c);
+    comma_ = false;
+  }
+  void close(char c) {
+    buf_.push_back(c);
+    comma_ = true;
+  }
+  void escapeInto(const std::string& s);
+  void digits(unsigned long long x);
+};
 
 } // namespace jsonutil
@@ -0,0 +1,149 @@
+package scns.jmh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// JsonMini on backend-shaped payloads (see Payloads) at 1k..1M records. Throughput per call;
+// Run adds the gc profiler, so every row also gets gc.alloc.rate.norm (bytes per call).
+//
+// The app classes live in the default package, which Java code in a named package cannot
+// name (and JMH refuses benchmarks in the default package), so JsonMini is reached through
+// constant MethodHandles; invokeExact on a static final handle inlines like a direct call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms3g", "-Xmx3g" })
+public class JsonMiniBench {
+    private static final MethodHandle OBJ = find("obj", Map.class, String.class);
+    private static final MethodHandle ARR_OBJECTS = find("arrObjects", List.class, String.class);
+    private static final MethodHandle ARR_INTS = find("arrInts", List.class, String.class);
+    private static final MethodHandle ARR_INT_TRIPLES = find("arrIntTriples", List.class, String.class);
+    private static final MethodHandle ARR_OBJECTS_TYPED;
+    private static final MethodHandle TAPE_OF;
+    private static final MethodHandle NEW_RECORD;
+    private static final Object RECORD_JSON;
+    private static final Supplier<Object> RECORD = JsonMiniBench::newRecord;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> json = Class.forName("JsonMini");
+            Class<?> reader = Class.forName("JsonMini$FieldReader");
+            Class<?> tape = Class.forName("JsonMini$Tape");
+            Class<?> record = Class.forName("FolderCabinetView$Record");
+            ARR_OBJECTS_TYPED = lookup.findStatic(json, "arrObjects", MethodType.methodType(List.class, String.class, Supplier.class, reader))
+                    .asType(MethodType.methodType(List.class, String.class, Supplier.class, Object.class));
+            TAPE_OF = lookup.findStatic(tape, "of", MethodType.methodType(tape, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+            NEW_RECORD = lookup.findConstructor(record, MethodType.methodType(void.class)).asType(MethodType.methodType(Object.class));
+            Field f = record.getDeclaredField("JSON"); // package-private: the reader the cabinet uses
+            f.setAccessible(true);
+            RECORD_JSON = f.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int records;
+
+    private String student, listing, defaulters, trace, ints, route, triples;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Payloads.verify();
+        student = Payloads.student(records / 2);
+        listing = Payloads.listing(records);
+        defaulters = Payloads.defaulters(records, 75);
+        trace = Payloads.trace(records);
+        ints = Payloads.ints(records);
+        route = Payloads.route(records);
+        triples = Payloads.triples(records);
+    }
+
+    // sisGetStudent: one record whatever the campus size (a per-call floor).
+    @Benchmark
+    public Object objStudent() throws Throwable {
+        return (Map) OBJ.invokeExact(student);
+    }
+
+    // sisGetStudentTrace with a records-long visited array (kept as one raw substring).
+    @Benchmark
+    public Object objTrace() throws Throwable {
+        return (Map) OBJ.invokeExact(trace);
+    }
+
+    // navShortestPath over a records-stop route.
+    @Benchmark
+    public Object objRoute() throws Throwable {
+        return (Map) OBJ.invokeExact(route);
+    }
+
+    @Benchmark
+    public Object arrObjectsListing() throws Throwable {
+        return (List) ARR_OBJECTS.invokeExact(listing);
+    }
+
+    @Benchmark
+    public Object arrObjectsDefaulters() throws Throwable {
+        return (List) ARR_OBJECTS.invokeExact(defaulters);
+    }
+
+    // The typed path the cabinet uses (FolderCabinetView.Record.JSON).
+    @Benchmark
+    public Object arrObjectsListingTyped() throws Throwable {
+        return (List) ARR_OBJECTS_TYPED.invokeExact(listing, RECORD, RECORD_JSON);
+    }
+
+    @Benchmark
+    public Object tapeIndexListing() throws Throwable {
+        return (Object) TAPE_OF.invokeExact(listing);
+    }
+
+    @Benchmark
+    public Object arrInts() throws Throwable {
+        return (List) ARR_INTS.invokeExact(ints);
+    }
+
+    @Benchmark
+    public Object arrIntTriples() throws Throwable {
+        return (List) ARR_INT_TRIPLES.invokeExact(triples);
+    }
+
+    private static MethodHandle find(String name, Class<?> ret, Class<?>... args) {
+        try {
+            return MethodHandles.publicLookup().findStatic(Class.forName("JsonMini"), name, MethodType.methodType(ret, args));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static Object newRecord() {
+        try {
+            return (Object) NEW_RECORD.invokeExact();
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package scns.jmh;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Deterministic payloads in exactly the shapes backend_api.cpp writes through jsonutil::Writer
+// (no whitespace, keys in emission order), scaled to n records. Student i is the same row
+// Bench.generatedCsv writes: roll 100000+i, "Student i", PROGRAMS[i % 4], year 1 + i % 8,
+// present i % 30 of 30. verify() checks the shapes against the real backend.
+final class Payloads {
+    static final String[] PROGRAMS = { "BSCS", "BSSE", "BSAI", "BBA" };
+
+    private Payloads() {}
+
+    static int roll(int i) {
+        return 100000 + i;
+    }
+
+    // The CSV a backend loads for the same n students.
+    static String csv(int n) {
+        StringBuilder sb = new StringBuilder(n * 40).append("roll,name,program,semester,present,total\n");
+        for (int i = 0; i < n; i++) {
+            sb.append(roll(i)).append(",Student ").append(i).append(',').append(PROGRAMS[i % 4]).append(',')
+                    .append(1 + i % 8).append(',').append(i % 30).append(",30\n");
+        }
+        return sb.toString();
+    }
+
+    // sisListStudents: every student, by roll.
+    static String listing(int n) {
+        StringBuilder sb = new StringBuilder(n * 96 + 2).append('[');
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            student(sb, i);
+        }
+        return sb.append(']').toString();
+    }
+
+    // sisGetStudent
+    static String student(int i) {
+        return student(new StringBuilder(96), i).toString();
+    }
+
+    // attGetDefaulters: students below minPercent. The backend pops them off a min-heap by
+    // percent, so ties come out in heap order; here they are by percent, then roll.
+    static String defaulters(int n, int minPercent) {
+        StringBuilder sb = new StringBuilder(n * 80 + 2).append('[');
+        boolean first = true;
+        for (int present = 0; present < 30; present++) {
+            int pct = present * 100 / 30;
+            if (pct >= minPercent) break;
+            for (int i = present; i < n; i += 30) {
+                if (!first) sb.append(',');
+                first = false;
+                sb.append("{\"roll\":").append(roll(i)).append(",\"name\":\"Student ").append(i)
+                        .append("\",\"present\":").append(present).append(",\"total\":30,\"percent\":").append(pct).append('}');
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    // sisGetStudentTrace with n visited rolls (a real trace is one AVL search path).
+    static String trace(int n) {
+        StringBuilder sb = student(new StringBuilder(n * 8 + 128), n / 2);
+        sb.setLength(sb.length() - 1);
+        sb.append(",\"visited\":");
+        ints(sb, n);
+        return sb.append('}').toString();
+    }
+
+    // The bare "visited" array of trace(n): what arrInts decodes.
+    static String ints(int n) {
+        return ints(new StringBuilder(n * 7 + 2), n).toString();
+    }
+
+    // navShortestPath over an n-stop route: path/visited of n locations, n-1 edge weights.
+    static String route(int n) {
+        StringBuilder sb = new StringBuilder(n * 24 + 128);
+        int cost = 0;
+        for (int i = 1; i < n; i++) cost += 1 + i % 7;
+        sb.append("{\"ok\":true,\"algorithm\":\"Dijkstra\",\"distance\":").append(cost)
+                .append(",\"hops\":").append(Math.max(0, n - 1)).append(",\"cost\":").append(cost).append(",\"path\":[");
+        for (int i = 0; i < n; i++) sb.append(i > 0 ? "," : "").append("\"Block-").append(i).append('"');
+        sb.append("],\"visited\":[");
+        for (int i = 0; i < n; i++) sb.append(i > 0 ? "," : "").append("\"Block-").append(i).append('"');
+        sb.append("],\"edgeWeights\":[");
+        for (int i = 1; i < n; i++) sb.append(i > 1 ? "," : "").append(1 + i % 7);
+        return sb.append("]}").toString();
+    }
+
+    // [[node,left,right],...]: the AVL link shape arrIntTriples reads, for a complete tree
+    // over the n rolls (-1 = no child).
+    static String triples(int n) {
+        StringBuilder sb = new StringBuilder(n * 22 + 2).append('[');
+        for (int i = 0; i < n; i++) {
+            int l = 2 * i + 1, r = 2 * i + 2;
+            sb.append(i > 0 ? ",[" : "[").append(roll(i)).append(',').append(l < n ? roll(l) : -1).append(',')
+                    .append(r < n ? roll(r) : -1).append(']');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static StringBuilder student(StringBuilder sb, int i) {
+        return sb.append("{\"roll\":").append(roll(i)).append(",\"name\":\"Student ").append(i).append("\",\"program\":\"")
+                .append(PROGRAMS[i % 4]).append("\",\"year\":").append(1 + i % 8).append(",\"present\":").append(i % 30)
+                .append(",\"total\":30}");
+    }
+
+    private static StringBuilder ints(StringBuilder sb, int n) {
+        sb.append('[');
+        for (int i = 0; i < n; i++) sb.append(i > 0 ? "," : "").append(roll((int) ((i * 2654435761L) % Math.max(1, n))));
+        return sb.append(']');
+    }
+
+    // Loads the same students into the pure-Java backend (byte-identical to the native
+    // replies, see Bench backends) and compares: listing and student exactly, defaulters as
+    // a set of rows, trace and route by key order. Throws if the generator has drifted.
+    static void verify() throws Exception {
+        int n = 500;
+        Path csv = Files.createTempFile("scns-jmh-", ".csv");
+        csv.toFile().deleteOnExit();
+        for (String suffix : new String[] { ".bak", ".wal0", ".wal1", ".snap" }) new java.io.File(csv + suffix).deleteOnExit();
+        Files.writeString(csv, csv(n));
+
+        Class<?> api = Class.forName("CampusBackend");
+        Object b = api.getMethod("create", String.class, String.class).invoke(null, "java", csv.toString());
+        try {
+            Method one = api.getMethod("sisGetStudent", int.class);
+            Method trace = api.getMethod("sisGetStudentTrace", int.class);
+            check("sisListStudents", listing(n), (String) api.getMethod("sisListStudents").invoke(b));
+            check("sisGetStudent", student(n / 3), (String) one.invoke(b, roll(n / 3)));
+            check("attGetDefaulters", rows(defaulters(n, 75)), rows((String) api.getMethod("attGetDefaulters", int.class).invoke(b, 75)));
+            check("sisGetStudentTrace keys", keys(trace(n)), keys((String) trace.invoke(b, roll(n / 2))));
+            check("navShortestPath keys", keys(route(4)),
+                    keys((String) api.getMethod("navShortestPath", String.class, String.class, String.class).invoke(b, "Gate", "Library", "Dijkstra")));
+        } finally {
+            api.getMethod("close").invoke(b);
+        }
+    }
+
+    private static void check(String what, Object generated, Object backend) {
+        if (!generated.equals(backend)) {
+            throw new IllegalStateException("payload generator no longer matches the backend: " + what);
+        }
+    }
+
+    private static List<String> rows(String array) {
+        List<String> out = new ArrayList<>();
+        Collections.addAll(out, array.substring(1, array.length() - 1).split("(?<=\\}),(?=\\{)"));
+        Collections.sort(out);
+        return out;
+    }
+
+    private static final Pattern KEY = Pattern.compile("\"(\\w+)\":");
+
+    private static List<String> keys(String json) {
+        List<String> out = new ArrayList<>();
+        Matcher m = KEY.matcher(json);
+        while (m.find()) out.add(m.group(1));
+        return out;
+    }
+}
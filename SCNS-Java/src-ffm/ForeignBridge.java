@@ -0,0 +1,399 @@
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+// java.lang.foreign bridge (JDK 22+) over the plain C ABI in Cpp-Native/ffi_exports.cpp.
+// Replaces the JNI native methods: no GetStringUTFChars/NewStringUTF, arguments are
+// UTF-8 segments and JSON results land in a reusable per-thread native buffer.
+// Select it with -Dcampus.bridge=ffm (see NativeBridge.create).
+//
+// The library itself is loaded by NativeBridge's static initializer (same class
+// loader), so the symbols are found through SymbolLookup.loaderLookup().
+public class ForeignBridge extends NativeBridge {
+    private static final Linker LINKER = Linker.nativeLinker();
+    private static final SymbolLookup LIB = SymbolLookup.loaderLookup();
+
+    private static final FunctionDescriptor H_OUT = FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, JAVA_INT);
+    private static final FunctionDescriptor H_INT_OUT = FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT, ADDRESS, JAVA_INT);
+    private static final FunctionDescriptor H_STR_OUT = FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, ADDRESS, JAVA_INT);
+
+    private static final MethodHandle LAST_RESULT = downcall("campus_last_result", FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT));
+    private static final MethodHandle OPEN = downcall("campus_open", FunctionDescriptor.of(ADDRESS, ADDRESS));
+    private static final MethodHandle CLOSE = downcall("campus_close", FunctionDescriptor.ofVoid(ADDRESS));
+    private static final MethodHandle MEMORY_BYTES = downcall("campus_memory_bytes", FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+    private static final MethodHandle TEST_CONNECTION = downcall("campus_test_connection", FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT));
+    private static final MethodHandle SIS_IMPORT_CSV = downcall("campus_sis_import_csv", H_STR_OUT);
+    private static final MethodHandle SIS_EXPORT_CSV = downcall("campus_sis_export_csv", H_STR_OUT);
+    private static final MethodHandle SIS_SET_COMMIT_WINDOW = downcall("campus_sis_set_commit_window",
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT, JAVA_INT, ADDRESS, JAVA_INT));
+    private static final MethodHandle SIS_COMMIT_STATS = downcall("campus_sis_commit_stats", H_OUT);
+    private static final MethodHandle NAV_LOCATIONS = downcall("campus_nav_locations", H_OUT);
+    private static final MethodHandle NAV_SHORTEST_PATH = downcall("campus_nav_shortest_path",
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, ADDRESS, ADDRESS, ADDRESS, JAVA_INT));
+    private static final MethodHandle NAV_DIVERGENCE_REPORT = downcall("campus_nav_divergence_report", H_OUT);
+    private static final MethodHandle SIS_UPSERT_STUDENT = downcall("campus_sis_upsert_student",
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, ADDRESS, JAVA_INT));
+    private static final MethodHandle SIS_GET_STUDENT = downcall("campus_sis_get_student", H_INT_OUT);
+    private static final MethodHandle SIS_GET_STUDENT_TRACE = downcall("campus_sis_get_student_trace", H_INT_OUT);
+    private static final MethodHandle SIS_DELETE_STUDENT = downcall("campus_sis_delete_student", H_INT_OUT);
+    private static final MethodHandle SIS_LIST_STUDENTS = downcall("campus_sis_list_students", H_OUT);
+    private static final MethodHandle SIS_LIST_STUDENTS_PAGE = downcall("campus_sis_list_students_page",
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT, JAVA_INT, ADDRESS, JAVA_INT));
+    private static final MethodHandle SIS_LIST_RANGE = downcall("campus_sis_list_range",
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT, JAVA_INT, JAVA_INT, ADDRESS, JAVA_INT));
+    private static final MethodHandle SIS_SEARCH_BY_NAME_PREFIX = downcall("campus_sis_search_by_name_prefix",
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, ADDRESS, JAVA_INT));
+    private static final MethodHandle SIS_LIST_STUDENTS_BY_NAME = downcall("campus_sis_list_students_by_name",
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, JAVA_INT, ADDRESS, JAVA_INT));
+    private static final MethodHandle ATT_NEW_SESSION_DAY = downcall("campus_att_new_session_day", H_OUT);
+    private static final MethodHandle ATT_MARK_PRESENT = downcall("campus_att_mark_present", H_INT_OUT);
+    private static final MethodHandle ATT_MARK_PRESENT_BATCH = downcall("campus_att_mark_present_batch",
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, ADDRESS));
+    private static final MethodHandle ATT_GET_SUMMARY = downcall("campus_att_get_summary", H_INT_OUT);
+    private static final MethodHandle ATT_GET_DEFAULTERS = downcall("campus_att_get_defaulters", H_INT_OUT);
+    private static final MethodHandle SIS_LIST_STUDENTS_INTO = downcall("campus_sis_list_students_into",
+            FunctionDescriptor.of(JAVA_LONG, ADDRESS, ADDRESS, JAVA_LONG));
+    private static final MethodHandle ATT_GET_DEFAULTERS_INTO = downcall("campus_att_get_defaulters_into",
+            FunctionDescriptor.of(JAVA_LONG, ADDRESS, JAVA_INT, ADDRESS, JAVA_LONG));
+
+    private static final MethodHandle SIS_LIST_STUDENTS_STREAM = downcall("campus_sis_list_students_stream",
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, ADDRESS));
+    // campus_chunk_sink: int sink(int n)
+    private static final FunctionDescriptor CHUNK_SINK = FunctionDescriptor.of(JAVA_INT, JAVA_INT);
+    private static final MethodHandle DELIVER;
+
+    static {
+        try {
+            DELIVER = MethodHandles.lookup().findStatic(ForeignBridge.class, "deliver",
+                    MethodType.methodType(int.class, ReplySink.class, ByteBuffer.class, Throwable[].class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Pooled result buffers, shared by every thread: AsyncNativeBridge runs each call on a new
+    // virtual thread, so per-thread buffers would cost one allocation per call. Small JSON replies
+    // (the hot calls) take a pooled buffer and never allocate native memory; only calls beyond
+    // OUT_POOL concurrent ones get a short-lived buffer of their own.
+    private static final int OUT_BYTES = 4096;
+    private static final int OUT_POOL = 64;
+    private static final ArrayBlockingQueue<MemorySegment> OUT = new ArrayBlockingQueue<>(OUT_POOL);
+    private static final AtomicInteger OUT_MADE = new AtomicInteger();
+
+    @FunctionalInterface
+    private interface Call {
+        int invoke(MemorySegment out, int cap) throws Throwable;
+    }
+
+    public ForeignBridge(String csvPath) {
+        super(csvPath);
+    }
+
+    private static MethodHandle downcall(String name, FunctionDescriptor fd) {
+        MemorySegment sym = LIB.find(name).orElseThrow(() -> new UnsatisfiedLinkError("Missing native symbol: " + name));
+        return LINKER.downcallHandle(sym, fd);
+    }
+
+    private MemorySegment backend() {
+        return MemorySegment.ofAddress(handle());
+    }
+
+    private static String json(Call c) {
+        MemorySegment out = OUT.poll();
+        if (out == null && OUT_MADE.getAndUpdate(n -> n < OUT_POOL ? n + 1 : n) < OUT_POOL) {
+            out = Arena.global().allocate(OUT_BYTES); // at most OUT_POOL, kept for the process
+        }
+        if (out == null) {
+            try (Arena arena = Arena.ofConfined()) {
+                return reply(c, arena.allocate(OUT_BYTES));
+            }
+        }
+        try {
+            return reply(c, out);
+        } finally {
+            OUT.offer(out);
+        }
+    }
+
+    private static String reply(Call c, MemorySegment out) {
+        try {
+            int n = c.invoke(out, OUT_BYTES);
+            if (n < OUT_BYTES) return out.getString(0);
+            // Large reply (listings): fetch the stored result instead of calling again.
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment big = arena.allocate(n + 1L);
+                int copied = (int) LAST_RESULT.invokeExact(big, n + 1);
+                if (copied != n) return "";
+                return big.getString(0);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    // Core
+    @Override
+    public String testConnection() {
+        return json((out, cap) -> (int) TEST_CONNECTION.invokeExact(out, cap));
+    }
+
+    // Serialized per bridge, like the JNI side's gInitMu: concurrent inits must not leak a backend.
+    @Override
+    public synchronized boolean init(String csvPath) {
+        release();
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment p = arena.allocateFrom(csvPath == null ? "data/students.csv" : csvPath);
+            MemorySegment b = (MemorySegment) OPEN.invokeExact(p);
+            adoptHandle(b.address());
+            return b.address() != 0;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    protected synchronized void release() {
+        long h = handle();
+        if (h == 0) return;
+        adoptHandle(0);
+        try {
+            CLOSE.invokeExact(MemorySegment.ofAddress(h));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public long memoryBytes() {
+        try {
+            return (long) MEMORY_BYTES.invokeExact(backend());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    // Navigator
+    @Override
+    public String[] navLocations() {
+        List<String> locs = JsonMini.arrStrings(json((out, cap) -> (int) NAV_LOCATIONS.invokeExact(backend(), out, cap)));
+        return locs.toArray(new String[0]);
+    }
+
+    @Override
+    public String navShortestPath(String src, String dest, String algorithm) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment a = utf8(arena, src);
+            MemorySegment b = utf8(arena, dest);
+            MemorySegment alg = utf8(arena, algorithm);
+            return json((out, cap) -> (int) NAV_SHORTEST_PATH.invokeExact(backend(), a, b, alg, out, cap));
+        }
+    }
+
+    @Override
+    public String navDivergenceReport() {
+        return json((out, cap) -> (int) NAV_DIVERGENCE_REPORT.invokeExact(backend(), out, cap));
+    }
+
+    // Student Information System
+    @Override
+    public String sisUpsertStudent(int roll, String name, String program, int year) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment n = utf8(arena, name);
+            MemorySegment p = utf8(arena, program);
+            return json((out, cap) -> (int) SIS_UPSERT_STUDENT.invokeExact(backend(), roll, n, p, year, out, cap));
+        }
+    }
+
+    @Override
+    public String sisGetStudent(int roll) {
+        return json((out, cap) -> (int) SIS_GET_STUDENT.invokeExact(backend(), roll, out, cap));
+    }
+
+    @Override
+    public String sisGetStudentTrace(int roll) {
+        return json((out, cap) -> (int) SIS_GET_STUDENT_TRACE.invokeExact(backend(), roll, out, cap));
+    }
+
+    @Override
+    public String sisDeleteStudent(int roll) {
+        return json((out, cap) -> (int) SIS_DELETE_STUDENT.invokeExact(backend(), roll, out, cap));
+    }
+
+    @Override
+    public String sisListStudents() {
+        return json((out, cap) -> (int) SIS_LIST_STUDENTS.invokeExact(backend(), out, cap));
+    }
+
+    @Override
+    public String sisListStudentsPage(int afterRoll, int limit) {
+        return json((out, cap) -> (int) SIS_LIST_STUDENTS_PAGE.invokeExact(backend(), afterRoll, limit, out, cap));
+    }
+
+    @Override
+    public String sisListRange(int lo, int hi, int limit) {
+        return json((out, cap) -> (int) SIS_LIST_RANGE.invokeExact(backend(), lo, hi, limit, out, cap));
+    }
+
+    @Override
+    public String sisSearchByNamePrefix(String prefix, int limit) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment p = utf8(arena, prefix);
+            return json((out, cap) -> (int) SIS_SEARCH_BY_NAME_PREFIX.invokeExact(backend(), p, limit, out, cap));
+        }
+    }
+
+    @Override
+    public String sisListStudentsByName(String afterName, int afterRoll, int limit) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment n = utf8(arena, afterName);
+            return json((out, cap) -> (int) SIS_LIST_STUDENTS_BY_NAME.invokeExact(backend(), n, afterRoll, limit, out, cap));
+        }
+    }
+
+    // The sink is an upcall stub bound to this call's sink and buffer. Exceptions must not
+    // unwind through native frames, so deliver() parks them and they are rethrown here.
+    @Override
+    public boolean sisListStudentsStream(ByteBuffer chunk, ReplySink sink) {
+        MemorySegment dst = direct(chunk);
+        if (sink == null || dst.byteSize() == 0) throw new IllegalArgumentException("A sink and a non-empty buffer are required.");
+        Throwable[] failed = new Throwable[1];
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment stub = LINKER.upcallStub(MethodHandles.insertArguments(DELIVER, 0, sink, chunk, failed), CHUNK_SINK, arena);
+            int ok = (int) SIS_LIST_STUDENTS_STREAM.invokeExact(backend(), dst, (int) Math.min(Integer.MAX_VALUE, dst.byteSize()), stub);
+            if (failed[0] instanceof RuntimeException) throw (RuntimeException) failed[0];
+            if (failed[0] instanceof Error) throw (Error) failed[0];
+            if (failed[0] != null) throw new IllegalStateException(failed[0]);
+            return ok != 0;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static int deliver(ReplySink sink, ByteBuffer buf, Throwable[] failed, int n) {
+        try {
+            return sink.accept(buf, n) ? 1 : 0;
+        } catch (Throwable t) {
+            failed[0] = t;
+            return 0;
+        }
+    }
+
+    @Override
+    public String sisImportCsv(String csvPath) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment p = utf8(arena, csvPath);
+            return json((out, cap) -> (int) SIS_IMPORT_CSV.invokeExact(backend(), p, out, cap));
+        }
+    }
+
+    @Override
+    public String sisExportCsv(String csvPath) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment p = utf8(arena, csvPath);
+            return json((out, cap) -> (int) SIS_EXPORT_CSV.invokeExact(backend(), p, out, cap));
+        }
+    }
+
+    @Override
+    public String sisSetCommitWindow(int windowMicros, int maxBatch) {
+        return json((out, cap) -> (int) SIS_SET_COMMIT_WINDOW.invokeExact(backend(), windowMicros, maxBatch, out, cap));
+    }
+
+    @Override
+    public String sisCommitStats() {
+        return json((out, cap) -> (int) SIS_COMMIT_STATS.invokeExact(backend(), out, cap));
+    }
+
+    @Override
+    public int sisListStudentsInto(ByteBuffer buf) {
+        MemorySegment dst = direct(buf);
+        try {
+            return (int) (long) SIS_LIST_STUDENTS_INTO.invokeExact(backend(), dst, dst.byteSize());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public int attGetDefaultersInto(int minPercent, ByteBuffer buf) {
+        MemorySegment dst = direct(buf);
+        try {
+            return (int) (long) ATT_GET_DEFAULTERS_INTO.invokeExact(backend(), minPercent, dst, dst.byteSize());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    // Attendance
+    @Override
+    public String attNewSessionDay() {
+        return json((out, cap) -> (int) ATT_NEW_SESSION_DAY.invokeExact(backend(), out, cap));
+    }
+
+    @Override
+    public String attMarkPresent(int roll) {
+        return json((out, cap) -> (int) ATT_MARK_PRESENT.invokeExact(backend(), roll, out, cap));
+    }
+
+    @Override
+    public int[] attMarkPresentBatch(int[] rolls) {
+        int n = rolls == null ? 0 : rolls.length;
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment in = arena.allocate(4L * Math.max(1, n), 4);
+            MemorySegment out = arena.allocate(4L * Math.max(1, n), 4);
+            if (n > 0) MemorySegment.copy(rolls, 0, in, JAVA_INT, 0, n);
+            int ok = (int) ATT_MARK_PRESENT_BATCH.invokeExact(backend(), in, n, out);
+            return ok == 0 ? null : out.asSlice(0, n * 4L).toArray(JAVA_INT);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public String attGetSummary(int roll) {
+        return json((out, cap) -> (int) ATT_GET_SUMMARY.invokeExact(backend(), roll, out, cap));
+    }
+
+    @Override
+    public String attGetDefaulters(int minPercent) {
+        return json((out, cap) -> (int) ATT_GET_DEFAULTERS.invokeExact(backend(), minPercent, out, cap));
+    }
+
+    private static MemorySegment utf8(Arena arena, String s) {
+        return arena.allocateFrom(s == null ? "" : s);
+    }
+
+    private static MemorySegment direct(ByteBuffer buf) {
+        if (buf == null || !buf.isDirect()) throw new IllegalArgumentException("A direct ByteBuffer is required.");
+        return MemorySegment.ofBuffer(buf.duplicate().clear());
+    }
+}
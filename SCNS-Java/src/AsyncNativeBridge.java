@@ -0,0 +1,120 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.swing.SwingUtilities;
+
+// Runs CampusBackend calls off the Swing EDT and completes the returned futures on the EDT,
+// so thenAccept/whenComplete callbacks can update Swing components directly.
+// Calls run on virtual threads when the JDK has them (21+), otherwise on a small daemon pool;
+// either way at most MAX_IN_FLIGHT calls are inside the native layer at once.
+public final class AsyncNativeBridge {
+    private static final int MAX_IN_FLIGHT = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private final CampusBackend nb;
+    private final Consumer<Throwable> onError;
+    private final ExecutorService pool = newExecutor();
+    private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+
+    public AsyncNativeBridge(CampusBackend nb) {
+        this(nb, Throwable::printStackTrace);
+    }
+
+    // onError runs on the EDT for every failed call (futures still complete exceptionally).
+    public AsyncNativeBridge(CampusBackend nb, Consumer<Throwable> onError) {
+        this.nb = nb;
+        this.onError = onError;
+    }
+
+    public CampusBackend sync() { return nb; }
+
+    public <T> CompletableFuture<T> submit(Function<CampusBackend, T> call) {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        pool.execute(() -> {
+            T value = null;
+            Throwable error = null;
+            try {
+                inFlight.acquire();
+                try {
+                    value = call.apply(nb);
+                } finally {
+                    inFlight.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+            } catch (Throwable t) {
+                error = t;
+            }
+            final T v = value;
+            final Throwable err = error;
+            SwingUtilities.invokeLater(() -> {
+                if (err == null) {
+                    f.complete(v);
+                } else {
+                    onError.accept(err);
+                    f.completeExceptionally(err);
+                }
+            });
+        });
+        return f;
+    }
+
+    // Navigator
+    public CompletableFuture<String[]> navLocations() { return submit(CampusBackend::navLocations); }
+    public CompletableFuture<String> navShortestPath(String src, String dest, String algorithm) {
+        return submit(b -> b.navShortestPath(src, dest, algorithm));
+    }
+    public CompletableFuture<String> navDivergenceReport() { return submit(CampusBackend::navDivergenceReport); }
+
+    // Student Information System
+    public CompletableFuture<String> sisUpsertStudent(int roll, String name, String program, int year) {
+        return submit(b -> b.sisUpsertStudent(roll, name, program, year));
+    }
+    public CompletableFuture<String> sisGetStudent(int roll) { return submit(b -> b.sisGetStudent(roll)); }
+    public CompletableFuture<String> sisGetStudentTrace(int roll) { return submit(b -> b.sisGetStudentTrace(roll)); }
+    public CompletableFuture<String> sisDeleteStudent(int roll) { return submit(b -> b.sisDeleteStudent(roll)); }
+    public CompletableFuture<String> sisListStudentsPage(int afterRoll, int limit) {
+        return submit(b -> b.sisListStudentsPage(afterRoll, limit));
+    }
+    public CompletableFuture<String> sisListRange(int lo, int hi, int limit) {
+        return submit(b -> b.sisListRange(lo, hi, limit));
+    }
+    public CompletableFuture<String> sisSearchByNamePrefix(String prefix, int limit) {
+        return submit(b -> b.sisSearchByNamePrefix(prefix, limit));
+    }
+    public CompletableFuture<String> sisListStudentsByName(String afterName, int afterRoll, int limit) {
+        return submit(b -> b.sisListStudentsByName(afterName, afterRoll, limit));
+    }
+    // The sink runs on the worker thread; the future completes once the stream has ended.
+    public CompletableFuture<Boolean> sisListStudentsStream(java.nio.ByteBuffer chunk, ReplySink sink) {
+        return submit(b -> b.sisListStudentsStream(chunk, sink));
+    }
+    public CompletableFuture<String> sisImportCsv(String csvPath) { return submit(b -> b.sisImportCsv(csvPath)); }
+    public CompletableFuture<String> sisExportCsv(String csvPath) { return submit(b -> b.sisExportCsv(csvPath)); }
+    public CompletableFuture<String> sisSetCommitWindow(int windowMicros, int maxBatch) { return submit(b -> b.sisSetCommitWindow(windowMicros, maxBatch)); }
+    public CompletableFuture<String> sisCommitStats() { return submit(CampusBackend::sisCommitStats); }
+
+    // Attendance
+    public CompletableFuture<String> attNewSessionDay() { return submit(CampusBackend::attNewSessionDay); }
+    public CompletableFuture<String> attMarkPresent(int roll) { return submit(b -> b.attMarkPresent(roll)); }
+    public CompletableFuture<int[]> attMarkPresentBatch(int[] rolls) { return submit(b -> b.attMarkPresentBatch(rolls)); }
+    public CompletableFuture<String> attGetSummary(int roll) { return submit(b -> b.attGetSummary(roll)); }
+    public CompletableFuture<String> attGetDefaulters(int minPercent) { return submit(b -> b.attGetDefaulters(minPercent)); }
+
+    // Looked up reflectively so the sources still build with the project's javac.source (19).
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newFixedThreadPool(MAX_IN_FLIGHT, r -> {
+                Thread t = new Thread(r, "native-bridge-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
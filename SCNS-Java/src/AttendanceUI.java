@@ -5,7 +5,6 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
-import java.util.List;
 import java.util.Map;
 
 import javax.swing.BorderFactory;
@@ -19,7 +18,7 @@ import javax.swing.JTextField;
 import javax.swing.table.DefaultTableModel;
 
 public class AttendanceUI extends JPanel {
-    private final NativeBridge nb;
+    private final AsyncNativeBridge nb;
     private final JLayeredPane layers;
 
     private final JTextField roll = field("Roll");
@@ -27,6 +26,8 @@ public class AttendanceUI extends JPanel {
 
     private final ProgressRing ring = new ProgressRing();
     private final HeapView heapView = new HeapView();
+    private final StudentColumns columns = new StudentColumns(); // reused by worker threads, guarded by itself
+    private int defaultersSeq; // EDT only; stale listings are dropped
 
     private final DefaultTableModel model = new DefaultTableModel(new Object[] { "Roll", "Name", "Present", "Total", "%" }, 0) {
         @Override
@@ -34,7 +35,7 @@ public class AttendanceUI extends JPanel {
     };
     private final JTable table = new JTable(model);
 
-    public AttendanceUI(NativeBridge nb, JLayeredPane layers) {
+    public AttendanceUI(AsyncNativeBridge nb, JLayeredPane layers) {
         this.nb = nb;
         this.layers = layers;
 
@@ -99,19 +100,19 @@ public class AttendanceUI extends JPanel {
         JLabel lThr = label("Defaulter Threshold (%)");
         JLabel hint = new JLabel(
                 "<html><b>New Day</b> = adds 1 lecture to everyone (Total++)<br/>"
-                        + "<b>Mark Present</b> = marks this roll present for the current day (Present++)<br/>"
+                        + "<b>Mark Present</b> = marks this roll (or comma-separated rolls) present for the current day (Present++)<br/>"
                         + "<b>Get Summary</b> = shows this roll's attendance % (ring)<br/>"
                         + "<b>Show Defaulters</b> = list students below threshold (min-heap priority)</html>");
         hint.setForeground(Theme.MUTED);
         hint.setFont(hint.getFont().deriveFont(Font.PLAIN, 12f));
 
-        roll.setToolTipText("Enter student roll number. Example: 101");
+        roll.setToolTipText("Enter student roll number. Example: 101 (Mark Present also takes 101, 102, 105)");
         threshold.setToolTipText("Students below this % are shown as defaulters. Example: 75");
 
-        newDay.addActionListener(e -> {
-            Map<String, String> o = JsonMini.obj(nb.attNewSessionDay());
+        newDay.addActionListener(e -> nb.attNewSessionDay().thenAccept(res -> {
+            Map<String, String> o = JsonMini.obj(res);
             Toast.show(layers, JsonMini.asString(o.getOrDefault("message", "OK")), JsonMini.asBool(o.get("ok")) ? Theme.OK : Theme.DANGER);
-        });
+        }));
         present.addActionListener(e -> markPresent());
         summary.addActionListener(e -> showSummary());
         defaulters.addActionListener(e -> showDefaulters());
@@ -219,52 +220,115 @@ public class AttendanceUI extends JPanel {
     }
 
     private void markPresent() {
+        if (roll.getText().indexOf(',') >= 0) {
+            markPresentBatch();
+            return;
+        }
         int r = parseInt(roll.getText(), -1);
         if (r <= 0) { Toast.show(layers, "Enter a valid roll.", Theme.DANGER); return; }
-        Map<String, String> o = JsonMini.obj(nb.attMarkPresent(r));
-        Toast.show(layers, JsonMini.asString(o.getOrDefault("message", "OK")), JsonMini.asBool(o.get("ok")) ? Theme.OK : Theme.DANGER);
-        showSummary();
-        showDefaulters();
+        nb.attMarkPresent(r).thenAccept(res -> {
+            Map<String, String> o = JsonMini.obj(res);
+            Toast.show(layers, JsonMini.asString(o.getOrDefault("message", "OK")), JsonMini.asBool(o.get("ok")) ? Theme.OK : Theme.DANGER);
+            showSummary();
+            showDefaulters();
+        });
+    }
+
+    // Whole lecture in one backend call (one AVL pass, one log append).
+    private void markPresentBatch() {
+        String[] parts = roll.getText().split(",");
+        int[] rolls = new int[parts.length];
+        int n = 0;
+        for (String part : parts) {
+            if (part.trim().isEmpty()) continue;
+            int r = parseInt(part, -1);
+            if (r <= 0) { Toast.show(layers, "Invalid roll: " + part.trim(), Theme.DANGER); return; }
+            rolls[n++] = r;
+        }
+        if (n == 0) { Toast.show(layers, "Enter a valid roll.", Theme.DANGER); return; }
+        final int[] batch = java.util.Arrays.copyOf(rolls, n);
+
+        nb.attMarkPresentBatch(batch).thenAccept(present -> {
+            if (present == null) {
+                Toast.show(layers, "Failed to save attendance.", Theme.DANGER);
+                return;
+            }
+            StringBuilder missing = new StringBuilder();
+            int marked = 0;
+            for (int i = 0; i < present.length; i++) {
+                if (present[i] >= 0) marked++;
+                else missing.append(missing.length() == 0 ? "" : ", ").append(batch[i]);
+            }
+            if (missing.length() == 0) Toast.show(layers, "Marked " + marked + " present.", Theme.OK);
+            else Toast.show(layers, "Marked " + marked + " present; not found: " + missing, Theme.DANGER);
+            showDefaulters();
+        });
     }
 
     private void showSummary() {
         int r = parseInt(roll.getText(), -1);
         if (r <= 0) { Toast.show(layers, "Enter a roll to view summary.", Theme.DANGER); return; }
-        String json = nb.attGetSummary(r);
-        if (json == null || json.trim().isEmpty()) {
-            Toast.show(layers, "Roll not found.", Theme.DANGER);
-            ring.setPercent(0);
-            return;
-        }
-        Map<String, String> o = JsonMini.obj(json);
-        int pct = JsonMini.asInt(o.get("percent"), 0);
-        ring.setPercent(pct);
-        Toast.show(layers, JsonMini.asString(o.get("name")) + " • " + pct + "%", Theme.OK);
+        nb.attGetSummary(r).thenAccept(json -> {
+            if (json == null || json.trim().isEmpty()) {
+                Toast.show(layers, "Roll not found.", Theme.DANGER);
+                ring.setPercent(0);
+                return;
+            }
+            Map<String, String> o = JsonMini.obj(json);
+            int pct = JsonMini.asInt(o.get("percent"), 0);
+            ring.setPercent(pct);
+            Toast.show(layers, JsonMini.asString(o.get("name")) + " • " + pct + "%", Theme.OK);
+        });
     }
 
     private void showDefaulters() {
         int min = parseInt(threshold.getText(), 75);
         min = Math.max(0, Math.min(100, min));
 
-        model.setRowCount(0);
-        List<Map<String, String>> arr = JsonMini.arrObjects(nb.attGetDefaulters(min));
-        java.util.List<HeapView.Item> heap = new java.util.ArrayList<>();
-        for (Map<String, String> o : arr) {
-            model.addRow(new Object[] {
-                    JsonMini.asInt(o.get("roll"), 0),
-                    JsonMini.asString(o.get("name")),
-                    JsonMini.asInt(o.get("present"), 0),
-                    JsonMini.asInt(o.get("total"), 0),
-                    JsonMini.asInt(o.get("percent"), 0)
-            });
-            HeapView.Item it = new HeapView.Item();
-            it.roll = JsonMini.asInt(o.get("roll"), 0);
-            it.name = JsonMini.asString(o.get("name"));
-            it.percent = JsonMini.asInt(o.get("percent"), 0);
-            heap.add(it);
+        final int threshold = min;
+        int seq = ++defaultersSeq;
+        nb.submit(b -> defaulters(b, threshold)).thenAccept(d -> {
+            if (seq != defaultersSeq) return;
+            model.setRowCount(0);
+            for (Object[] row : d.rows) model.addRow(row);
+            heapView.setItems(d.heap, true);
+            Toast.show(layers, "Loaded " + d.rows.size() + " defaulters below " + threshold + "%.", Theme.OK);
+        });
+    }
+
+    private static final class Defaulters {
+        final java.util.List<Object[]> rows;
+        final java.util.List<HeapView.Item> heap;
+
+        Defaulters(int n) {
+            rows = new java.util.ArrayList<>(n);
+            heap = new java.util.ArrayList<>(n);
+        }
+    }
+
+    // Worker thread: one columnar fetch, decoded into table rows and heap items.
+    private Defaulters defaulters(CampusBackend b, int threshold) {
+        synchronized (columns) {
+            int n = columns.load(buf -> b.attGetDefaultersInto(threshold, buf));
+            Defaulters d = new Defaulters(n);
+            for (int i = 0; i < n; i++) {
+                String name = columns.name(i);
+                int pct = columns.percent(i);
+                d.rows.add(new Object[] {
+                        columns.roll(i),
+                        name,
+                        columns.present(i),
+                        columns.total(i),
+                        pct
+                });
+                HeapView.Item it = new HeapView.Item();
+                it.roll = columns.roll(i);
+                it.name = name;
+                it.percent = pct;
+                d.heap.add(it);
+            }
+            return d;
         }
-        heapView.setItems(heap, true);
-        Toast.show(layers, "Loaded " + arr.size() + " defaulters below " + min + "%.", Theme.OK);
     }
 
     private static JTextField field(String placeholder) {
@@ -0,0 +1,588 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+// Headless benchmarks for the backend (plain System.nanoTime loops, no GUI). Timing only:
+// the correctness checks are JUnit tests in SCNS-Java/test (see README).
+// Run from repo root after ./Cpp-Native/build.sh:
+//   java -cp SCNS-Java/src Bench bridge [iterations]
+//   java -cp SCNS-Java/src Bench batch [rolls]
+//   java -cp SCNS-Java/src Bench backends [iterations]
+//   java -cp SCNS-Java/src Bench page [records]
+//   java -cp SCNS-Java/src Bench tenants [campuses]
+//   java -cp SCNS-Java/src Bench stats [iterations]
+//   java -cp SCNS-Java/src Bench decode [records]
+//   java -cp SCNS-Java/src Bench tape [records]
+//   java -cp SCNS-Java/src Bench stream [records] [chunkBytes]
+//   java -cp SCNS-Java/src Bench wal [records]
+//   java -cp SCNS-Java/src Bench commit [clerks]
+//   java -cp SCNS-Java/src Bench newday [records]
+//   java -cp SCNS-Java/src Bench snapshot [records]
+//   java -cp SCNS-Java/src Bench names [records]
+// Every benchmark works on a temp copy of data/students.csv, so the real datastore is untouched.
+public final class Bench {
+    private Bench() {}
+
+    public static void main(String[] args) throws Exception {
+        String which = args.length > 0 ? args[0] : "";
+        int iters = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        switch (which) {
+            case "bridge":
+                bridge(iters);
+                break;
+            case "backends":
+                backends(iters);
+                break;
+            case "batch":
+                batch(args.length > 1 ? iters : 300);
+                break;
+            case "page":
+                page(args.length > 1 ? iters : 100000);
+                break;
+            case "tenants":
+                tenants(args.length > 1 ? iters : 50);
+                break;
+            case "stats":
+                stats(iters);
+                break;
+            case "decode":
+                decode(args.length > 1 ? iters : 100000);
+                break;
+            case "tape":
+                tape(args.length > 1 ? iters : 100000);
+                break;
+            case "stream":
+                stream(args.length > 1 ? iters : 100000, args.length > 2 ? Integer.parseInt(args[2]) : 64 * 1024);
+                break;
+            case "wal":
+                wal(args.length > 1 ? iters : 100000);
+                break;
+            case "commit":
+                commit(args.length > 1 ? iters : 50);
+                break;
+            case "newday":
+                newDay(args.length > 1 ? iters : 100000);
+                break;
+            case "snapshot":
+                snapshot(args.length > 1 ? iters : 1000000);
+                break;
+            case "names":
+                names(args.length > 1 ? iters : 500000);
+                break;
+            default:
+                System.out.println("usage: java -cp SCNS-Java/src Bench bridge [iterations] | batch [rolls] | backends [iterations] | page [records] | tenants [campuses] | stats [iterations] | decode [records] | tape [records] | stream [records] [chunkBytes] | wal [records] | commit [clerks] | newday [records] | snapshot [records] | names [records]");
+        }
+    }
+
+    // Per-call cost of the JNI bridge vs the java.lang.foreign bridge on the hot small calls.
+    private static void bridge(int iters) throws Exception {
+        NativeBridge jni = new NativeBridge(tempCsv());
+        NativeBridge ffm = NativeBridge.create("ffm", tempCsv());
+        if (ffm.getClass() == NativeBridge.class) {
+            System.out.println("FFM bridge not available (needs JDK 22+ with src-ffm compiled); timing JNI only.");
+            ffm = null;
+        }
+        StudentColumns cols = new StudentColumns();
+        cols.load(jni::sisListStudentsInto);
+        final int roll = cols.size() > 0 ? cols.roll(cols.size() / 2) : 101;
+
+        System.out.printf("%-16s %12s %12s%n", "call", "jni ns/op", "ffm ns/op");
+        row("sisGetStudent", iters, jni, ffm, b -> b.sisGetStudent(roll).length());
+        row("attGetSummary", iters, jni, ffm, b -> b.attGetSummary(roll).length());
+        // Each mark is a log write (a syscall), so fewer iterations keep the run short.
+        row("attMarkPresent", Math.max(1, iters / 10), jni, ffm, b -> b.attMarkPresent(roll).length());
+    }
+
+    // Native backend (JNI, or FFM with -Dcampus.bridge=ffm) vs the pure-Java JavaBackend on the
+    // same data: times the query mix on both (BackendParityTest checks they reply identically).
+    private static void backends(int iters) throws Exception {
+        CampusBackend nat = CampusBackend.create(System.getProperty("campus.bridge", "jni"), tempCsv());
+        CampusBackend jvm = new JavaBackend(tempCsv());
+        if (nat instanceof JavaBackend) {
+            System.out.println("native backend not available; nothing to compare");
+            return;
+        }
+
+        StudentColumns cols = new StudentColumns();
+        cols.load(jvm::sisListStudentsInto);
+        final int n = cols.size();
+        final int[] rolls = new int[n];
+        for (int i = 0; i < n; i++) rolls[i] = cols.roll(i);
+        final String[] locs = jvm.navLocations();
+        final StudentColumns natCols = new StudentColumns();
+        final StudentColumns jvmCols = new StudentColumns();
+
+        System.out.printf("%-22s %12s %12s%n", "call", nat.getClass().getSimpleName() + " ns", "java ns");
+        int[] k = new int[1];
+        backendRow("sisGetStudent", iters, nat, jvm, b -> b.sisGetStudent(rolls[k[0]++ % n]).length());
+        backendRow("sisGetStudentTrace", iters, nat, jvm, b -> b.sisGetStudentTrace(rolls[k[0]++ % n]).length());
+        backendRow("attGetSummary", iters, nat, jvm, b -> b.attGetSummary(rolls[k[0]++ % n]).length());
+        backendRow("navShortestPath", iters, nat, jvm, b -> {
+            int i = k[0]++;
+            return b.navShortestPath(locs[i % locs.length], locs[(i / locs.length + 1 + i) % locs.length], (i & 1) == 0 ? "BFS" : "Dijkstra").length();
+        });
+        backendRow("sisListStudents", Math.max(1, iters / 20), nat, jvm, b -> b.sisListStudents().length());
+        backendRow("sisListStudentsInto", Math.max(1, iters / 20), nat, jvm,
+                b -> (b == nat ? natCols : jvmCols).load(b::sisListStudentsInto));
+        backendRow("attGetDefaulters", Math.max(1, iters / 20), nat, jvm, b -> b.attGetDefaulters(75).length());
+        backendRow("navDivergenceReport", Math.max(1, iters / 200), nat, jvm, b -> b.navDivergenceReport().length());
+        nat.close();
+        jvm.close();
+    }
+
+    private static void backendRow(String name, int iters, CampusBackend nat, CampusBackend jvm, ToIntFunction<CampusBackend> op) {
+        System.out.printf("%-22s %12.0f %12.0f%n", name, nsPerOp(iters, nat, op), nsPerOp(iters, jvm, op));
+    }
+
+    // Cost of the cabinet's first paint: the full sisListStudents reply vs one cursor page,
+    // on a generated dataset of n records (selected backend, -Dcampus.bridge). The same pages
+    // in name order (sisListStudentsByName) should cost what the roll-ordered ones do; the
+    // whole listing is also walked in 1000-row pages both ways. Last, a 1000-roll block through
+    // sisListRange vs listing everything and filtering in Java (PagingTest checks the results).
+    private static void page(int n) throws Exception {
+        CampusBackend b = CampusBackend.create(System.getProperty("campus.bridge", "jni"), generatedCsv(n));
+        try {
+            int mid = 100000 + n / 2;
+            String midName = "Student " + (n / 2);
+            int iters = Math.max(3, 2_000_000 / Math.max(1, n));
+            System.out.printf("%s, %d records%n", b.getClass().getSimpleName(), n);
+            System.out.printf("%-40s %14s%n", "call", "ns/op");
+            System.out.printf("%-40s %14.0f%n", "sisListStudents (all)", nsPerOp(iters, b, x -> x.sisListStudents().length()));
+            System.out.printf("%-40s %14.0f%n", "sisListStudentsPage(first, 40)",
+                    nsPerOp(20000, b, x -> x.sisListStudentsPage(Integer.MIN_VALUE, 40).length()));
+            System.out.printf("%-40s %14.0f%n", "sisListStudentsPage(middle, 40)",
+                    nsPerOp(20000, b, x -> x.sisListStudentsPage(mid, 40).length()));
+            System.out.printf("%-40s %14.0f%n", "sisListStudentsByName(first, 40)",
+                    nsPerOp(20000, b, x -> x.sisListStudentsByName("", Integer.MIN_VALUE, 40).length()));
+            System.out.printf("%-40s %14.0f%n", "sisListStudentsByName(middle, 40)",
+                    nsPerOp(20000, b, x -> x.sisListStudentsByName(midName, mid, 40).length()));
+            System.out.printf("%-40s %14.0f%n", "all by roll, 1000-row pages", nsPerOp(iters, b, x -> walkPages(x, false)));
+            System.out.printf("%-40s %14.0f%n", "all by name, 1000-row pages", nsPerOp(iters, b, x -> walkPages(x, true)));
+
+            int lo = mid;
+            int hi = mid + 999;
+            System.out.printf("%-40s %14.0f%n", "sisListRange(1000-roll block)",
+                    nsPerOp(2000, b, x -> x.sisListRange(lo, hi, Integer.MAX_VALUE).length()));
+            System.out.printf("%-40s %14.0f%n", "sisListStudents + filter (same block)",
+                    nsPerOp(iters, b, x -> filterRange(x, lo, hi).size()));
+        } finally {
+            b.close();
+        }
+    }
+
+    // The rows of sisListStudents with lo <= roll <= hi (what callers did before sisListRange).
+    private static List<Map<String, String>> filterRange(CampusBackend b, int lo, int hi) {
+        List<Map<String, String>> out = new ArrayList<>();
+        for (Map<String, String> row : JsonMini.arrObjects(b.sisListStudents())) {
+            int roll = JsonMini.asInt(row.get("roll"), 0);
+            if (roll >= lo && roll <= hi) out.add(row);
+        }
+        return out;
+    }
+
+    // Pages through every student, following the reply's last row as the cursor; returns the count.
+    private static int walkPages(CampusBackend b, boolean byName) {
+        int count = 0;
+        String name = "";
+        int roll = Integer.MIN_VALUE;
+        while (true) {
+            String page = byName ? b.sisListStudentsByName(name, roll, 1000) : b.sisListStudentsPage(roll, 1000);
+            List<Map<String, String>> rows = JsonMini.arrObjects(page);
+            count += rows.size();
+            if (rows.size() < 1000) return count;
+            Map<String, String> last = rows.get(rows.size() - 1);
+            name = JsonMini.asString(last.get("name"));
+            roll = JsonMini.asInt(last.get("roll"), 0);
+        }
+    }
+
+    // n campuses in one CampusRegistry, each on its own CSV copy: opening time, then the
+    // per-tenant and shared memory accounting after one upsert each (CampusRegistryTest
+    // checks the routing).
+    private static void tenants(int n) throws Exception {
+        try (CampusRegistry reg = new CampusRegistry()) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) reg.open("campus-" + i, tempCsv());
+            long t1 = System.nanoTime();
+
+            for (int i = 0; i < n; i++) {
+                int roll = 900000 + i;
+                reg.call("campus-" + i, b -> b.sisUpsertStudent(roll, "Tenant Probe", "BSCS", 1));
+            }
+
+            Map<String, Long> mem = reg.memoryBytes();
+            long perTenant = 0;
+            for (long v : mem.values()) perTenant += v;
+            long shared = reg.sharedMemoryBytes();
+            String first = mem.keySet().iterator().next();
+            System.out.printf("%d campuses (%s), opened in %.1f ms%n", n,
+                    reg.get(first).getClass().getSimpleName(), (t1 - t0) / 1e6);
+            System.out.printf("%-26s %12d bytes%n", "per campus (" + first + ")", mem.get(first));
+            System.out.printf("%-26s %12d bytes%n", "all campuses", perTenant);
+            System.out.printf("%-26s %12d bytes (once per process)%n", "shared", shared);
+            System.out.printf("%-26s %12d bytes%n", "total", perTenant + shared);
+        }
+    }
+
+    // Drives a call mix, then prints the native counters per entry point (NativeStatsTest checks
+    // they count exactly what was issued).
+    private static void stats(int iters) throws Exception {
+        NativeBridge nb = NativeBridge.create(System.getProperty("campus.bridge", "jni"), tempCsv());
+        StudentColumns cols = new StudentColumns();
+        cols.load(nb::sisListStudentsInto);
+        for (int i = 0; i < iters; i++) {
+            int roll = cols.roll(i % cols.size());
+            nb.sisGetStudent(roll);
+            if (i % 10 == 0) nb.attGetSummary(roll);
+            if (i % 100 == 0) nb.navShortestPath("Gate", "Library", (i & 1) == 0 ? "BFS" : "Dijkstra");
+            if (i % 1000 == 0) nb.sisListStudentsPage(Integer.MIN_VALUE, 40);
+        }
+
+        System.out.printf("%-22s %10s %10s %10s %12s%n", "entry point", "calls", "mean ns", "max ns", "bytes");
+        for (Map.Entry<String, long[]> e : NativeStats.snapshot().entrySet()) {
+            long[] v = e.getValue();
+            System.out.printf("%-22s %10d %10d %10d %12d%n", e.getKey(), v[0], v[0] > 0 ? v[1] / v[0] : 0, v[2], v[3]);
+        }
+        nb.close();
+    }
+
+    // sisListStudents over n generated records decoded two ways: the Map path (arrObjects +
+    // asInt/asString per field) and the typed path straight into FolderCabinetView.Record,
+    // and prints time and heap allocated per record (ThreadMXBean allocation counter).
+    // JsonDecodeTest checks both give the same records.
+    private static void decode(int n) throws Exception {
+        CampusBackend b = CampusBackend.create(System.getProperty("campus.bridge", "jni"), generatedCsv(n));
+        String list = b.sisListStudents();
+        String defaulters = b.attGetDefaulters(75);
+        b.close();
+
+        int iters = Math.max(3, 2_000_000 / Math.max(1, n));
+        System.out.printf("%d records (%d defaulters), %d-byte listing%n", n, JsonMini.Tape.of(defaulters).size(), list.length());
+        System.out.printf("%-34s %14s %14s%n", "sisListStudents decode", "ns/record", "bytes/record");
+        decodeRow("Map path (arrObjects + asX)", iters, n, () -> {
+            int sum = 0;
+            for (Map<String, String> o : JsonMini.arrObjects(list)) {
+                sum += JsonMini.asInt(o.get("roll"), 0) + JsonMini.asString(o.get("name")).length()
+                        + JsonMini.asString(o.get("program")).length() + JsonMini.asInt(o.get("year"), 1)
+                        + JsonMini.asInt(o.get("present"), 0) + JsonMini.asInt(o.get("total"), 0);
+            }
+            return sum;
+        });
+        decodeRow("typed (Record)", iters, n, () -> {
+            int sum = 0;
+            for (FolderCabinetView.Record r : JsonMini.arrObjects(list, FolderCabinetView.Record::new, FolderCabinetView.Record.JSON)) {
+                sum += r.roll + r.name.length() + r.program.length() + r.semester + r.present + r.total;
+            }
+            return sum;
+        });
+    }
+
+    // Lazy access through JsonMini.Tape vs the eager decoders, on an n-record sisListStudents
+    // reply: reaching row n/2 (e.g. 50,000) and a 40-row window there.
+    private static void tape(int n) throws Exception {
+        CampusBackend b = CampusBackend.create(System.getProperty("campus.bridge", "jni"), generatedCsv(n));
+        String list = b.sisListStudents();
+        b.close();
+
+        JsonMini.Tape t = JsonMini.Tape.of(list);
+        int mid = n / 2;
+        int iters = Math.max(3, 2_000_000 / Math.max(1, n));
+        System.out.printf("%d records, %d-byte listing, tape index %d bytes%n", n, list.length(), t.memoryBytes());
+        System.out.printf("%-34s %14s %14s%n", "reach row " + mid, "ns/op", "bytes/op");
+        decodeRow("eager Map rows (arrObjects)", iters, 1, () -> JsonMini.asString(JsonMini.arrObjects(list).get(mid).get("name")).length());
+        decodeRow("eager typed (Record)", iters, 1, () -> JsonMini.arrObjects(list, FolderCabinetView.Record::new,
+                FolderCabinetView.Record.JSON).get(mid).name.length());
+        decodeRow("Tape.of + one row", iters, 1, () -> JsonMini.Tape.of(list).decode(mid, new FolderCabinetView.Record(),
+                FolderCabinetView.Record.JSON).name.length());
+        decodeRow("built tape: one row", 200000, 1, () -> t.decode(mid, new FolderCabinetView.Record(),
+                FolderCabinetView.Record.JSON).name.length());
+        decodeRow("built tape: 40-row window", 20000, 1, () -> t.decode(mid, mid + 40, FolderCabinetView.Record::new,
+                FolderCabinetView.Record.JSON).size());
+        decodeRow("built tape: getString(row, name)", 200000, 1, () -> t.getString(mid, "name").length());
+    }
+
+    // sisListStudents as one String + eager typed decode vs sisListStudentsStream into a
+    // JsonMini.ArrayStream (rows decoded as chunks arrive). StreamTest checks the chunks, early
+    // stop, throwing and re-entrant sinks.
+    private static void stream(int n, int chunkBytes) throws Exception {
+        CampusBackend b = CampusBackend.create(System.getProperty("campus.bridge", "jni"), generatedCsv(n));
+        String whole = b.sisListStudents();
+        java.nio.ByteBuffer chunk = java.nio.ByteBuffer.allocateDirect(chunkBytes);
+        int iters = Math.max(3, 2_000_000 / Math.max(1, n));
+        System.out.printf("%s, %d records, %d-byte listing, %d-byte chunks%n", b.getClass().getSimpleName(), n, whole.length(), chunkBytes);
+        System.out.printf("%-34s %14s %14s%n", "fetch + decode every row", "ns/op", "bytes/op");
+        decodeRow("String + arrObjects (typed)", iters, 1, () -> {
+            int sum = 0;
+            for (FolderCabinetView.Record r : JsonMini.arrObjects(b.sisListStudents(), FolderCabinetView.Record::new,
+                    FolderCabinetView.Record.JSON)) {
+                sum += r.roll;
+            }
+            return sum;
+        });
+        decodeRow("stream + ArrayStream", iters, 1, () -> {
+            int[] sum = { 0 };
+            b.sisListStudentsStream(chunk, new JsonMini.ArrayStream<>(FolderCabinetView.Record::new, FolderCabinetView.Record.JSON,
+                    r -> sum[0] += r.roll));
+            return sum[0];
+        });
+        System.out.printf("largest reply buffer: %d bytes as one String (plus the native copy) vs %d-byte chunks%n",
+                whole.length(), chunkBytes);
+        b.close();
+    }
+
+    // Mutation latency with the write-ahead log at 1k and n students (it should not grow with
+    // n), next to one full CSV write (what every mutation used to cost). Enough marks run to
+    // trigger background folds (RecoveryTest restarts the files they leave).
+    private static void wal(int n) throws Exception {
+        String bridge = System.getProperty("campus.bridge", "jni");
+        System.out.printf("%-8s %9s %10s %10s %10s %12s %6s%n", "students", "marks", "p50 ns", "p99 ns", "max ns", "csv write ms", "folds");
+        for (int size : new int[] { 1000, n }) {
+            String csv = generatedCsv(size);
+            CampusBackend b = CampusBackend.create(bridge, csv);
+            int marks = 20000;
+            long[] ns = new long[marks];
+            int folds = 0;
+            long lastLog = 0;
+            java.util.Random rnd = new java.util.Random(size);
+            for (int i = 0; i < marks; i++) {
+                int roll = 100000 + rnd.nextInt(size);
+                long t0 = System.nanoTime();
+                b.attMarkPresent(roll);
+                ns[i] = System.nanoTime() - t0;
+                if ((i & 255) == 0) {
+                    long log = logBytes(csv);
+                    if (log < lastLog) folds++;
+                    lastLog = log;
+                }
+            }
+            java.util.Arrays.sort(ns);
+            String export = csv + ".export";
+            new java.io.File(export).deleteOnExit();
+            long t0 = System.nanoTime();
+            b.sisExportCsv(export);
+            double exportMs = (System.nanoTime() - t0) / 1e6;
+            System.out.printf("%-8d %9d %10d %10d %10d %12.2f %6d%n", size, marks, ns[marks / 2], ns[marks * 99 / 100], ns[marks - 1], exportMs, folds);
+            b.close();
+        }
+    }
+
+    // Group commit: clerks threads mark attendance as fast as they can for each commit window,
+    // on the native and the Java backend. Longer windows trade latency for fewer, larger log
+    // writes; the histograms come from sisCommitStats.
+    private static void commit(int clerks) throws Exception {
+        String bridge = System.getProperty("campus.bridge", "jni");
+        int marksEach = 2000;
+        System.out.printf("%-6s %8s %11s %9s %9s %8s %8s %7s%n", "store", "window", "marks/s", "p50 us", "p99 us", "commits", "ops", "batch");
+        for (String by : new String[] { bridge, "java" }) {
+            for (int window : new int[] { 0, 1000, 5000 }) {
+                CampusBackend b = CampusBackend.create(by, generatedCsv(10000));
+                b.sisSetCommitWindow(window, 64);
+                long before = Long.parseLong(JsonMini.obj(b.sisCommitStats()).get("ops"));
+                long[] ns = new long[clerks * marksEach];
+                Thread[] threads = new Thread[clerks];
+                for (int t = 0; t < clerks; t++) {
+                    int id = t;
+                    threads[t] = new Thread(() -> {
+                        java.util.Random rnd = new java.util.Random(id);
+                        for (int i = 0; i < marksEach; i++) {
+                            long t0 = System.nanoTime();
+                            b.attMarkPresent(100000 + rnd.nextInt(10000));
+                            ns[id * marksEach + i] = System.nanoTime() - t0;
+                        }
+                    });
+                }
+                long t0 = System.nanoTime();
+                for (Thread t : threads) t.start();
+                for (Thread t : threads) t.join();
+                double secs = (System.nanoTime() - t0) / 1e9;
+                String stats = b.sisCommitStats();
+                b.close();
+                Map<String, String> o = JsonMini.obj(stats);
+                long commits = Long.parseLong(o.get("commits"));
+                long ops = Long.parseLong(o.get("ops")) - before;
+                java.util.Arrays.sort(ns);
+                System.out.printf("%-6s %8d %11.0f %9.1f %9.1f %8d %8d %7.1f%n", by, window, ns.length / secs,
+                        ns[ns.length / 2] / 1e3, ns[ns.length * 99 / 100] / 1e3, commits, ops, ops / (double) Math.max(1, commits));
+                System.out.println("       batchSizes " + o.get("batchSizes"));
+                System.out.println("       waitMicros " + o.get("waitMicros"));
+            }
+        }
+    }
+
+    // New Day cost at 1k and n students (it should not grow with n) on the native and the
+    // Java store (NewDayTest checks the totals and percents they leave).
+    private static void newDay(int n) throws Exception {
+        String bridge = System.getProperty("campus.bridge", "jni");
+        int days = 200;
+        System.out.printf("%-6s %-8s %10s %10s%n", "store", "students", "days", "ns/day");
+        for (String by : new String[] { bridge, "java" }) {
+            for (int size : new int[] { 1000, n }) {
+                CampusBackend b = CampusBackend.create(by, generatedCsv(size));
+                long t0 = System.nanoTime();
+                for (int d = 0; d < days; d++) b.attNewSessionDay();
+                long ns = (System.nanoTime() - t0) / days;
+                System.out.printf("%-6s %-8d %10d %10d%n", by, size, days, ns);
+                b.close();
+            }
+        }
+    }
+
+    // Front-desk name search at n students with realistic names, on the native and the Java
+    // store: sisSearchByNamePrefix (20 results) vs fetching sisListStudents and filtering it
+    // in Java, the only option before (NameSearchTest checks the results match).
+    private static void names(int n) throws Exception {
+        String bridge = System.getProperty("campus.bridge", "jni");
+        String[] prefixes = { "z", "SHAH", "fatima akbar 1", "ahmed k", "nobody" };
+        System.out.printf("%-6s %-8s %-16s %8s %14s %14s%n", "store", "students", "prefix", "matches", "search ns", "list+filter ns");
+        for (String by : new String[] { bridge, "java" }) {
+            CampusBackend b = CampusBackend.create(by, namesCsv(n));
+            try {
+                for (String prefix : prefixes) {
+                    String key = prefix.toLowerCase(java.util.Locale.ROOT);
+                    int matches = 0;
+                    for (Map<String, String> row : JsonMini.arrObjects(b.sisListStudents())) {
+                        if (JsonMini.asString(row.get("name")).toLowerCase(java.util.Locale.ROOT).startsWith(key)) matches++;
+                    }
+                    double search = nsPerOp(2000, b, x -> x.sisSearchByNamePrefix(prefix, 20).length());
+                    double filter = nsPerOp(3, b, x -> {
+                        int m = 0;
+                        for (Map<String, String> row : JsonMini.arrObjects(x.sisListStudents())) {
+                            if (m < 20 && JsonMini.asString(row.get("name")).toLowerCase(java.util.Locale.ROOT).startsWith(key)) m++;
+                        }
+                        return m;
+                    });
+                    System.out.printf("%-6s %-8d %-16s %8d %14.0f %14.0f%n", by, n, "\"" + prefix + "\"", matches, search, filter);
+                }
+            } finally {
+                b.close();
+            }
+        }
+    }
+
+    // Temp CSV of n students with realistic names scattered across rolls.
+    private static String namesCsv(int n) throws Exception {
+        String[] first = { "Ali", "Ayesha", "Bilal", "Fatima", "Hamza", "Hira", "Imran", "Maryam", "Omar", "Sana",
+                "Shahmir", "Usman", "Zainab", "Zara", "ahmed", "Noor" };
+        String[] last = { "Akbar", "Khan", "Malik", "Qureshi", "Raza", "Shah", "Siddiqui", "Butt", "Chaudhry", "Iqbal" };
+        Path tmp = Files.createTempFile("scns-bench-names-", ".csv");
+        deleteOnExit(tmp);
+        StringBuilder sb = new StringBuilder(n * 48).append("roll,name,program,semester,present,total\n");
+        for (int i = 0; i < n; i++) {
+            int k = (int) ((i * 2654435761L) % n);
+            sb.append(100000 + i).append(',').append(first[k % first.length]).append(' ').append(last[(k / first.length) % last.length])
+                    .append(' ').append(k).append(",BSCS,").append(1 + i % 8).append(',').append(i % 30).append(",30\n");
+        }
+        Files.writeString(tmp, sb);
+        return tmp.toString();
+    }
+
+    // Cold start from the CSV vs from the binary .snap written at close, at n students, on
+    // the native and the Java store (SnapshotTest checks what a restart from it gives).
+    private static void snapshot(int n) throws Exception {
+        String bridge = System.getProperty("campus.bridge", "jni");
+        System.out.printf("%-6s %9s %13s %13s %10s %9s%n", "store", "students", "csv start ms", "snap start ms", "close ms", "snap MB");
+        for (String by : new String[] { bridge, "java" }) {
+            String csv = generatedCsv(n);
+            long t0 = System.nanoTime();
+            CampusBackend b = CampusBackend.create(by, csv);
+            double csvMs = (System.nanoTime() - t0) / 1e6;
+            t0 = System.nanoTime();
+            b.close(); // nothing logged: writes the snapshot only
+            double closeMs = (System.nanoTime() - t0) / 1e6;
+            t0 = System.nanoTime();
+            b = CampusBackend.create(by, csv);
+            double snapMs = (System.nanoTime() - t0) / 1e6;
+            b.close();
+            System.out.printf("%-6s %9d %13.1f %13.1f %10.1f %9.1f%n", by, n, csvMs, snapMs, closeMs, Files.size(Path.of(csv + ".snap")) / 1e6);
+        }
+    }
+
+    private static long logBytes(String csv) {
+        return new java.io.File(csv + ".wal0").length() + new java.io.File(csv + ".wal1").length();
+    }
+
+    private static void decodeRow(String name, int iters, int n, java.util.function.IntSupplier op) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        double ns = nsPerOp(iters, op, java.util.function.IntSupplier::getAsInt);
+        long a0 = mx.getCurrentThreadAllocatedBytes();
+        int sink = op.getAsInt();
+        long a1 = mx.getCurrentThreadAllocatedBytes();
+        if (sink == 42) System.out.print("");
+        System.out.printf("%-34s %14.1f %14.1f%n", name, ns / n, (a1 - a0) / (double) n);
+    }
+
+    // Marking a lecture of n rolls: n attMarkPresent calls vs one attMarkPresentBatch, each on
+    // its own copy of the data (AttendanceBatchTest checks both leave identical records).
+    private static void batch(int n) throws Exception {
+        NativeBridge single = new NativeBridge(tempCsv());
+        NativeBridge batched = new NativeBridge(tempCsv());
+        StudentColumns cols = new StudentColumns();
+        cols.load(single::sisListStudentsInto);
+        if (cols.size() == 0) {
+            System.out.println("batch: no students");
+            return;
+        }
+        // every student (cycling, so n > size gives duplicates) plus one unknown roll
+        int[] rolls = new int[n];
+        for (int i = 0; i < n - 1; i++) rolls[i] = cols.roll((i * 7) % cols.size());
+        rolls[n - 1] = 999999999;
+
+        long t0 = System.nanoTime();
+        for (int r : rolls) single.attMarkPresent(r);
+        long t1 = System.nanoTime();
+        batched.attMarkPresentBatch(rolls);
+        long t2 = System.nanoTime();
+
+        System.out.printf("batch: %d rolls over %d students%n", n, cols.size());
+        System.out.printf("  %-22s %10.2f ms%n", "attMarkPresent x" + n, (t1 - t0) / 1e6);
+        System.out.printf("  %-22s %10.2f ms%n", "attMarkPresentBatch", (t2 - t1) / 1e6);
+        single.close();
+        batched.close();
+    }
+
+    private static void row(String name, int iters, NativeBridge jni, NativeBridge ffm, ToIntFunction<NativeBridge> op) {
+        double j = nsPerOp(iters, jni, op);
+        String f = ffm == null ? "-" : String.format("%.0f", nsPerOp(iters, ffm, op));
+        System.out.printf("%-16s %12.0f %12s%n", name, j, f);
+    }
+
+    static <T> double nsPerOp(int iters, T target, ToIntFunction<T> op) {
+        long sink = 0;
+        for (int i = 0; i < Math.max(1, iters / 5); i++) sink += op.applyAsInt(target); // warm-up
+        long t0 = System.nanoTime();
+        for (int i = 0; i < iters; i++) sink += op.applyAsInt(target);
+        long t1 = System.nanoTime();
+        if (sink == 42) System.out.print("");
+        return (t1 - t0) / (double) iters;
+    }
+
+    // Temp CSV of n synthetic students (rolls 100000.., all programs and semesters).
+    static String generatedCsv(int n) throws Exception {
+        Path tmp = Files.createTempFile("scns-bench-gen-", ".csv");
+        deleteOnExit(tmp);
+        StringBuilder sb = new StringBuilder(n * 40).append("roll,name,program,semester,present,total\n");
+        String[] programs = { "BSCS", "BSSE", "BSAI", "BBA" };
+        for (int i = 0; i < n; i++) {
+            sb.append(100000 + i).append(",Student ").append(i).append(',').append(programs[i % 4]).append(',')
+                    .append(1 + i % 8).append(',').append(i % 30).append(",30\n");
+        }
+        Files.writeString(tmp, sb);
+        return tmp.toString();
+    }
+
+    static String tempCsv() throws Exception {
+        Path tmp = Files.createTempFile("scns-bench-", ".csv");
+        deleteOnExit(tmp);
+        Files.copy(Path.of(CampusBackend.defaultCsvPath()), tmp, StandardCopyOption.REPLACE_EXISTING);
+        return tmp.toString();
+    }
+
+    // A temp CSV and the files the store keeps next to it (.bak snapshot, write-ahead logs).
+    private static void deleteOnExit(Path csv) {
+        for (String suffix : new String[] { "", ".bak", ".wal0", ".wal1", ".snap" }) new java.io.File(csv + suffix).deleteOnExit();
+    }
+}
@@ -0,0 +1,111 @@
+import java.nio.ByteBuffer;
+
+// Backend operations used by the UI. Replies are the compact JSON documented in the README
+// (parsed with JsonMini); bulk listings use the columnar layout read by StudentColumns.
+//
+// Implementations:
+//   NativeBridge   C++ backend over JNI (ForeignBridge: same backend over java.lang.foreign)
+//   JavaBackend    pure-Java port running in the JVM (no native library needed)
+public interface CampusBackend {
+    // Core
+    String testConnection();
+    boolean init(String csvPath);
+    void close();
+    // Approximate heap bytes held by this campus (records and indexes), excluding state
+    // shared by every backend in the process (the campus graph). See CampusRegistry.
+    long memoryBytes();
+
+    // Navigator (Graph + BFS/Dijkstra)
+    String[] navLocations();
+    String navShortestPath(String src, String dest, String algorithm);
+    String navDivergenceReport();
+
+    // Student Information System (AVL + searching/sorting)
+    String sisUpsertStudent(int roll, String name, String program, int year);
+    String sisGetStudent(int roll);
+    String sisGetStudentTrace(int roll);
+    String sisDeleteStudent(int roll);
+    String sisListStudents();
+    // Cursor pagination: the first limit students with roll > afterRoll, same JSON as
+    // sisListStudents. Start from Integer.MIN_VALUE, continue after the last roll
+    // returned; fewer than limit items means the end was reached.
+    String sisListStudentsPage(int afterRoll, int limit);
+    // Roll-block query: the first limit students with lo <= roll <= hi, same JSON as
+    // sisListStudents, in roll order ("[]" when lo > hi).
+    String sisListRange(int lo, int hi, int limit);
+    // Front-desk search: the first limit students whose name starts with prefix (ASCII case
+    // ignored; empty matches everyone), same JSON as sisListStudents, in name then roll order.
+    String sisSearchByNamePrefix(String prefix, int limit);
+    // sisListStudentsPage in name then roll order (ASCII case ignored): the first limit students
+    // after the cursor (afterName, afterRoll). Start from ("", Integer.MIN_VALUE), continue from
+    // the name and roll of the last student returned.
+    String sisListStudentsByName(String afterName, int afterRoll, int limit);
+    // sisListStudents streamed through sink in chunks of chunk.capacity() bytes (the last one
+    // shorter), written into the direct buffer chunk as the listing is generated, so neither
+    // side ever holds the whole reply. Encoded in steps that each take and drop the read lock,
+    // so rolls come out once each in order but mutations between steps may show up.
+    // False if the sink stopped the stream early.
+    boolean sisListStudentsStream(ByteBuffer chunk, ReplySink sink);
+    String sisImportCsv(String csvPath);
+    String sisExportCsv(String csvPath);
+    // Group commit of the student write-ahead log: a mutation replies once its record is
+    // written, batched with the mutations arriving within windowMicros (0..1000000) or until
+    // maxBatch are waiting. Defaults 0 us (batches form only while a write is in progress)
+    // and 64. sisCommitStats: {"windowMicros","maxBatch","commits","ops","batchSizes":[..],
+    // "waitMicros":[..]}, where histogram bucket i counts values in [2^i, 2^(i+1)).
+    String sisSetCommitWindow(int windowMicros, int maxBatch);
+    String sisCommitStats();
+    // Bulk columnar listings (layout in StudentColumns).
+    // Return bytes written, or -(bytes needed) when buf is too small.
+    int sisListStudentsInto(ByteBuffer buf);
+    int attGetDefaultersInto(int minPercent, ByteBuffer buf);
+
+    // Attendance (stored in student records)
+    String attNewSessionDay();
+    String attMarkPresent(int roll);
+    // New present count per roll (-1 = not found), or null if saving failed.
+    int[] attMarkPresentBatch(int[] rolls);
+    String attGetSummary(int roll);
+    String attGetDefaulters(int minPercent);
+
+    // Picks the backend at startup from -Dcampus.bridge:
+    //   jni (default), ffm   native C++ backend (see NativeBridge.create)
+    //   java                 JavaBackend
+    // Falls back to JavaBackend when the native library cannot be loaded.
+    static CampusBackend create() {
+        return create(System.getProperty("campus.bridge", "jni"), defaultCsvPath());
+    }
+
+    static CampusBackend create(String kind, String csvPath) {
+        if ("java".equalsIgnoreCase(kind)) return new JavaBackend(csvPath);
+        try {
+            return NativeBridge.create(kind, csvPath);
+        } catch (LinkageError e) {
+            System.err.println("Native backend unavailable, using the pure-Java backend: " + e);
+            return new JavaBackend(csvPath);
+        }
+    }
+
+    static String defaultCsvPath() {
+        // Default data file (try to locate repo-root /data/students.csv)
+        String path = "data/students.csv";
+        try {
+            java.io.File dir = new java.io.File(System.getProperty("user.dir"));
+            java.io.File found = null;
+            for (int i = 0; i < 6 && dir != null; i++) {
+                java.io.File candidate = new java.io.File(new java.io.File(dir, "data"), "students.csv");
+                if (candidate.exists()) { found = candidate; break; }
+                dir = dir.getParentFile();
+            }
+            if (found != null) {
+                path = found.getAbsolutePath();
+            } else {
+                java.io.File f = new java.io.File(path);
+                java.io.File parent = f.getParentFile();
+                if (parent != null) parent.mkdirs();
+                path = f.getAbsolutePath();
+            }
+        } catch (Throwable ignored) {}
+        return path;
+    }
+}
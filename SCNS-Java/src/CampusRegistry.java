@@ -0,0 +1,99 @@
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Hosts several campuses (tenants) in one JVM instead of one process per campus.
+// Each tenant is its own CampusBackend with its own CSV and records; all of them share the
+// loaded native library and the immutable campus graph (defaultCampusGraph / JavaCampusGraph.shared).
+// Calls are routed by tenant id:
+//
+//   CampusRegistry reg = new CampusRegistry();
+//   reg.open("north", "data/north.csv");
+//   reg.call("north", b -> b.sisGetStudent(101));
+//
+// Thread-safe: tenants can be opened, used and closed concurrently.
+public final class CampusRegistry implements AutoCloseable {
+    private final String kind;
+    private final ConcurrentHashMap<String, CampusBackend> tenants = new ConcurrentHashMap<>();
+
+    // Bridge kind from -Dcampus.bridge (see CampusBackend.create).
+    public CampusRegistry() {
+        this(System.getProperty("campus.bridge", "jni"));
+    }
+
+    public CampusRegistry(String kind) {
+        this.kind = kind;
+    }
+
+    // Opens a campus on its own CSV. Fails if the tenant id is already open.
+    public CampusBackend open(String tenant, String csvPath) {
+        if (tenant == null || tenant.isEmpty()) throw new IllegalArgumentException("Tenant id is required.");
+        CampusBackend b = CampusBackend.create(kind, csvPath);
+        if (tenants.putIfAbsent(tenant, b) != null) {
+            b.close();
+            throw new IllegalArgumentException("Tenant already open: " + tenant);
+        }
+        return b;
+    }
+
+    public CampusBackend get(String tenant) {
+        CampusBackend b = tenants.get(tenant);
+        if (b == null) throw new IllegalArgumentException("Unknown tenant: " + tenant);
+        return b;
+    }
+
+    public <T> T call(String tenant, Function<CampusBackend, T> op) {
+        return op.apply(get(tenant));
+    }
+
+    public boolean contains(String tenant) {
+        return tenants.containsKey(tenant);
+    }
+
+    public Set<String> tenants() {
+        return new TreeSet<>(tenants.keySet());
+    }
+
+    public int size() {
+        return tenants.size();
+    }
+
+    // Closes and forgets one campus; false if it was not open.
+    public boolean close(String tenant) {
+        CampusBackend b = tenants.remove(tenant);
+        if (b == null) return false;
+        b.close();
+        return true;
+    }
+
+    @Override
+    public void close() {
+        for (String t : tenants()) close(t);
+    }
+
+    // Per-tenant bytes (CampusBackend.memoryBytes), sorted by tenant id.
+    public Map<String, Long> memoryBytes() {
+        Map<String, Long> out = new TreeMap<>();
+        tenants.forEach((t, b) -> out.put(t, b.memoryBytes()));
+        return out;
+    }
+
+    // Bytes shared by all tenants (paid once per process, not per campus).
+    public long sharedMemoryBytes() {
+        boolean nat = false, jvm = false;
+        for (CampusBackend b : tenants.values()) {
+            if (b instanceof NativeBridge) nat = true;
+            else if (b instanceof JavaBackend) jvm = true;
+        }
+        return (nat ? NativeBridge.sharedMemoryBytes() : 0) + (jvm ? JavaCampusGraph.shared().memoryBytes() : 0);
+    }
+
+    public long totalMemoryBytes() {
+        long sum = sharedMemoryBytes();
+        for (long v : memoryBytes().values()) sum += v;
+        return sum;
+    }
+}
@@ -13,11 +13,21 @@ import javax.swing.JComponent;
 public class FolderCabinetView extends JComponent {
     public static final class Record {
         public int roll;
-        public String name;
-        public String program;
-        public int semester;
+        public String name = "";
+        public String program = "";
+        public int semester = 1;
         public int present;
         public int total;
+
+        // sisListStudents / sisGetStudent JSON member -> field (JsonMini typed decoding).
+        static final JsonMini.FieldReader<Record> JSON = (r, f) -> {
+            if (f.is("roll")) r.roll = f.asInt(r.roll);
+            else if (f.is("name")) r.name = f.asString();
+            else if (f.is("program")) r.program = f.asString();
+            else if (f.is("year")) r.semester = f.asInt(r.semester);
+            else if (f.is("present")) r.present = f.asInt(r.present);
+            else if (f.is("total")) r.total = f.asInt(r.total);
+        };
     }
 
     private final List<Record> records = new ArrayList<>();
@@ -67,6 +77,23 @@ public class FolderCabinetView extends JComponent {
         }, null);
     }
 
+    // Next page below the current records (no reflow animation).
+    public void appendRecords(List<Record> recs) {
+        if (recs == null || recs.isEmpty()) return;
+        for (Record r : recs) {
+            records.add(r);
+            y.add(0f);
+            yTarget.add(0f);
+            alpha.add(1f);
+        }
+        layoutTargets();
+        repaint();
+    }
+
+    public int recordCount() {
+        return records.size();
+    }
+
     public void animateInsert(Record r, int targetIndex) {
         if (r == null) return;
         // insert at beginning visually (desk), then reflow to target
@@ -0,0 +1,236 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Port of Cpp-Native/group_log.h (used by JavaStudentStore): append-only log file with
+// group commit. append() buffers records and returns their sequence number; commit(seq)
+// blocks until they are written. The first committer with no write in progress leads: it
+// waits up to the window (or until maxBatch ops are buffered), writes everything buffered
+// with one write and wakes the rest. Window 0 never waits.
+//
+// Thread-safe.
+final class GroupLog {
+    static final int SIZE_BUCKETS = 12; // batch sizes: bucket i counts [2^i, 2^(i+1)) ops
+    static final int WAIT_BUCKETS = 24; // commit waits: bucket i counts [2^i, 2^(i+1)) us, bucket 0 also 0
+
+    private final ReentrantLock lock = new ReentrantLock(); // everything below; file is written by the leader outside it
+    private final Condition changed = lock.newCondition();
+    private FileOutputStream file;
+    private StringBuilder pending = new StringBuilder();
+    private int pendingOps;
+    private long appended; // seq of the last append
+    private long durable;  // seq of the last written append
+    private boolean flushing;
+    // Seq spans whose write failed, as [first, last] pairs in increasing order (adjacent
+    // spans merged); kept across open() (GroupLog::failed_).
+    private long[] failed = new long[0];
+    private int failedSpans;
+    private int windowMicros = 0;
+    private int maxBatch = 64;
+    private long commits;
+    private long ops;
+    private final long[] sizes = new long[SIZE_BUCKETS];
+    private final long[] waits = new long[WAIT_BUCKETS];
+
+    // Writes what is buffered to the current file, then starts path anew with header.
+    boolean open(String path, String header) {
+        lock.lock();
+        try {
+            awaitNoFlush();
+            FileOutputStream next;
+            try {
+                next = new FileOutputStream(path, false);
+                next.write(header.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                return false;
+            }
+            if (file != null) writePending();
+            closeFile();
+            file = next;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writes what is buffered.
+    void close() {
+        lock.lock();
+        try {
+            awaitNoFlush();
+            if (file != null) writePending();
+            closeFile();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isOpen() {
+        lock.lock();
+        try {
+            return file != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Buffers records (complete lines); their sequence number, or 0 when no file is open.
+    long append(String records) {
+        lock.lock();
+        try {
+            if (file == null) return 0;
+            pending.append(records);
+            if (++pendingOps >= maxBatch) changed.signalAll(); // a leader in its window can go
+            return ++appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits until every record up to seq is written; true if the batch holding seq was
+    // written, false if that write failed (no matter what other batches or open() did).
+    // seq 0 returns true at once.
+    boolean commit(long seq) {
+        if (seq == 0) return true;
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            while (durable < seq) {
+                if (flushing) {
+                    changed.awaitUninterruptibly();
+                    continue;
+                }
+                // leader: gather for the window, then one write for the batch
+                flushing = true;
+                long deadline = start + TimeUnit.MICROSECONDS.toNanos(windowMicros);
+                for (long left; windowMicros > 0 && pendingOps < maxBatch && (left = deadline - System.nanoTime()) > 0; ) {
+                    try {
+                        changed.awaitNanos(left);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                byte[] batch = pending.toString().getBytes(StandardCharsets.UTF_8);
+                pending = new StringBuilder();
+                int n = pendingOps;
+                long from = durable + 1; // pending holds every append after durable
+                long upTo = appended;
+                pendingOps = 0;
+
+                lock.unlock();
+                boolean ok = write(batch);
+                lock.lock();
+
+                if (!ok) markFailed(from, upTo);
+                durable = upTo;
+                flushing = false;
+                commits++;
+                ops += n;
+                sizes[bucketOf(n, SIZE_BUCKETS)]++;
+                changed.signalAll();
+            }
+            waits[bucketOf((System.nanoTime() - start) / 1000, WAIT_BUCKETS)]++;
+            return !failedAt(seq);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // windowMicros 0..1000000, maxBatch >= 1; false (unchanged) otherwise.
+    boolean configure(int windowMicros, int maxBatch) {
+        if (windowMicros < 0 || windowMicros > 1000000 || maxBatch < 1) return false;
+        lock.lock();
+        try {
+            this.windowMicros = windowMicros;
+            this.maxBatch = maxBatch;
+            changed.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Same JSON as GroupLog::stats.
+    String stats() {
+        lock.lock();
+        try {
+            StringBuilder sb = new StringBuilder(256);
+            sb.append("{\"windowMicros\":").append(windowMicros).append(",\"maxBatch\":").append(maxBatch)
+                    .append(",\"commits\":").append(commits).append(",\"ops\":").append(ops).append(",\"batchSizes\":[");
+            for (int i = 0; i < SIZE_BUCKETS; i++) sb.append(i > 0 ? "," : "").append(sizes[i]);
+            sb.append("],\"waitMicros\":[");
+            for (int i = 0; i < WAIT_BUCKETS; i++) sb.append(i > 0 ? "," : "").append(waits[i]);
+            return sb.append("]}").toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int bucketOf(long v, int buckets) {
+        int b = 0;
+        while (v > 1 && b < buckets - 1) {
+            v >>= 1;
+            b++;
+        }
+        return b;
+    }
+
+    private void awaitNoFlush() {
+        while (flushing) changed.awaitUninterruptibly();
+    }
+
+    // Caller holds lock and no leader is writing.
+    private void writePending() {
+        if (pending.length() > 0 && !write(pending.toString().getBytes(StandardCharsets.UTF_8))) markFailed(durable + 1, appended);
+        pending.setLength(0);
+        pendingOps = 0;
+        durable = appended;
+        changed.signalAll();
+    }
+
+    private void markFailed(long first, long last) {
+        if (first > last) return;
+        if (failedSpans > 0 && failed[2 * failedSpans - 1] + 1 == first) {
+            failed[2 * failedSpans - 1] = last;
+            return;
+        }
+        if (2 * failedSpans == failed.length) failed = java.util.Arrays.copyOf(failed, Math.max(8, failed.length * 2));
+        failed[2 * failedSpans] = first;
+        failed[2 * failedSpans + 1] = last;
+        failedSpans++;
+    }
+
+    // Binary search for the last span starting at or before seq (GroupLog::failedAt).
+    private boolean failedAt(long seq) {
+        int lo = 0, hi = failedSpans;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (failed[2 * mid] <= seq) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo > 0 && seq <= failed[2 * (lo - 1) + 1];
+    }
+
+    private boolean write(byte[] b) {
+        try {
+            file.write(b);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void closeFile() {
+        if (file == null) return;
+        try {
+            file.close();
+        } catch (IOException ignored) {
+            // every batch was already written through
+        }
+        file = null;
+    }
+}
@@ -14,8 +14,15 @@ import javax.swing.JComponent;
 public class HeapView extends JComponent {
     public static final class Item {
         public int roll;
-        public String name;
+        public String name = "";
         public int percent;
+
+        // attGetDefaulters JSON member -> field (JsonMini typed decoding).
+        static final JsonMini.FieldReader<Item> JSON = (it, f) -> {
+            if (f.is("roll")) it.roll = f.asInt(it.roll);
+            else if (f.is("name")) it.name = f.asString();
+            else if (f.is("percent")) it.percent = f.asInt(it.percent);
+        };
     }
 
     private final List<Item> items = new ArrayList<>();
@@ -0,0 +1,633 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Pure-Java CampusBackend: JavaStudentStore (array AVL + CSV), JavaCampusGraph (BFS/Dijkstra)
+// and the min-heap defaulters, with the same JSON replies and columnar layout as
+// Cpp-Native/backend_api.cpp. Select it with -Dcampus.bridge=java; it is also the fallback
+// when libcampus_backend cannot be loaded. Thread-safe (read/write lock like Backend::mu).
+public final class JavaBackend implements CampusBackend {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final JavaCampusGraph nav = JavaCampusGraph.shared(); // fixed map, shared by all instances
+    private JavaStudentStore students; // null after close()
+
+    // Log compaction (JavaStudentStore's write-ahead log), like Backend::compactor but on one
+    // daemon thread shared by every JavaBackend. compactLock is held for a whole fold;
+    // init, close and sisImportCsv take it too, before the read/write lock.
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "scns-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Object compactLock = new Object();
+    private boolean compactQueued; // under the write lock
+
+    public JavaBackend() {
+        this(CampusBackend.defaultCsvPath());
+    }
+
+    public JavaBackend(String csvPath) {
+        init(csvPath);
+    }
+
+    // Core
+    @Override
+    public String testConnection() {
+        return "Java Backend Connected Successfully!";
+    }
+
+    @Override
+    public boolean init(String csvPath) {
+        synchronized (compactLock) {
+            close(); // folds the old store's log first; the new one may read the same files
+            JavaStudentStore s = new JavaStudentStore(csvPath == null ? "data/students.csv" : csvPath);
+            s.load();
+            // ensure some initial data if file had none (same demo rows as api::open)
+            if (s.count() == 0) {
+                s.addStudent(101, "Ayesha", "BSCS", 3);
+                s.addStudent(102, "Hassan", "BBA", 2);
+                s.addStudent(103, "Zara", "BSSE", 4);
+                s.addStudent(104, "Ali", "BSAI", 1);
+                s.commitLog(s.logSeq());
+            }
+            lock.writeLock().lock();
+            try {
+                students = s;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        synchronized (compactLock) { // lets a running fold finish
+            lock.writeLock().lock();
+            try {
+                if (students != null) students.close();
+                students = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // After a mutation; caller holds the write lock.
+    private void requestCompaction() {
+        if (students == null || compactQueued || !students.needsCompaction()) return;
+        compactQueued = true;
+        COMPACTOR.execute(this::compact);
+    }
+
+    // Folds the log the store just switched away from; the write lock is held only to take
+    // the snapshot and to record the outcome, so mutations keep appending meanwhile.
+    private void compact() {
+        synchronized (compactLock) {
+            JavaStudentStore s;
+            JavaStudentStore.Snapshot rows;
+            lock.writeLock().lock();
+            try {
+                compactQueued = false;
+                s = students;
+                rows = s == null ? null : s.beginCompaction();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (rows == null) return;
+            long[] bytes = new long[1];
+            JavaStudentStore.Result r = s.writeCompaction(rows, bytes);
+            lock.writeLock().lock();
+            try {
+                s.endCompaction(r, bytes[0]);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return students == null ? 0 : students.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Navigator
+    @Override
+    public String[] navLocations() {
+        return nav.locations().toArray(new String[0]);
+    }
+
+    @Override
+    public String navShortestPath(String src, String dest, String algorithm) {
+        JavaCampusGraph.PathResult pr = "BFS".equals(algorithm) ? nav.bfsShortestPath(src, dest) : nav.dijkstraShortestPath(src, dest);
+        StringBuilder sb = new StringBuilder(256);
+        if (pr.distance < 0 || pr.path.isEmpty()) {
+            sb.append("{\"ok\":false,\"error\":\"No route found (check locations).\",\"algorithm\":");
+            quote(sb, pr.algorithm).append('}');
+            return sb.toString();
+        }
+        sb.append("{\"ok\":true,\"algorithm\":");
+        quote(sb, pr.algorithm);
+        sb.append(",\"distance\":").append(pr.distance);
+        sb.append(",\"hops\":").append(pr.hops);
+        sb.append(",\"cost\":").append(pr.cost);
+        sb.append(",\"path\":");
+        strings(sb, pr.path);
+        sb.append(",\"visited\":");
+        strings(sb, pr.visitedOrder);
+        sb.append(",\"edgeWeights\":[");
+        for (int i = 0; i + 1 < pr.path.size(); i++) {
+            if (i > 0) sb.append(',');
+            int w = nav.edgeWeight(nav.resolve(pr.path.get(i)), nav.resolve(pr.path.get(i + 1)));
+            sb.append(w < 0 ? 0 : w);
+        }
+        return sb.append("]}").toString();
+    }
+
+    @Override
+    public String navDivergenceReport() {
+        int[] st = nav.divergenceStats();
+        return "{\"totalPairs\":" + st[0] + ",\"divergedPairs\":" + st[1] + ",\"percent\":" + st[2] + "}";
+    }
+
+    // Student Information System
+    @Override
+    public String sisUpsertStudent(int roll, String name, String program, int year) {
+        JavaStudentStore s;
+        JavaStudentStore.Result r;
+        long seq;
+        lock.writeLock().lock();
+        try {
+            if (students == null) return okMessage(false, "Backend not initialized. Restart app.");
+            s = students;
+            r = s.addStudent(roll, name, program, year);
+            seq = s.logSeq();
+        } finally {
+            requestCompaction();
+            lock.writeLock().unlock();
+        }
+        return okMessage(durable(s, seq, r));
+    }
+
+    @Override
+    public String sisGetStudent(int roll) {
+        lock.readLock().lock();
+        try {
+            int s = students == null ? -1 : students.find(roll);
+            if (s < 0) return "";
+            return studentFields(new StringBuilder(128).append('{'), s).append('}').toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String sisGetStudentTrace(int roll) {
+        lock.readLock().lock();
+        try {
+            if (students == null) return "";
+            JavaStudentStore.IntList visited = new JavaStudentStore.IntList();
+            int s = students.findTrace(roll, visited);
+            if (s < 0) return "";
+            StringBuilder sb = studentFields(new StringBuilder(192).append('{'), s).append(",\"visited\":[");
+            for (int i = 0; i < visited.size(); i++) {
+                if (i > 0) sb.append(',');
+                sb.append(visited.get(i));
+            }
+            return sb.append("]}").toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String sisDeleteStudent(int roll) {
+        JavaStudentStore s;
+        JavaStudentStore.Result r;
+        long seq;
+        lock.writeLock().lock();
+        try {
+            if (students == null) return okMessage(false, "Backend not initialized.");
+            s = students;
+            r = s.deleteStudent(roll);
+            seq = s.logSeq();
+        } finally {
+            requestCompaction();
+            lock.writeLock().unlock();
+        }
+        return okMessage(durable(s, seq, r));
+    }
+
+    @Override
+    public String sisListStudents() {
+        lock.readLock().lock();
+        try {
+            if (students == null) return "[]";
+            int[] order = students.inorder();
+            StringBuilder sb = new StringBuilder(16 + order.length * 96).append('[');
+            for (int i = 0; i < order.length; i++) {
+                if (i > 0) sb.append(',');
+                studentFields(sb.append('{'), order[i]).append('}');
+            }
+            return sb.append(']').toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String sisListStudentsPage(int afterRoll, int limit) {
+        lock.readLock().lock();
+        try {
+            if (students == null || limit <= 0) return "[]";
+            return studentsJson(students.inorderAfter(afterRoll, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String sisListRange(int lo, int hi, int limit) {
+        lock.readLock().lock();
+        try {
+            if (students == null || limit <= 0 || lo > hi) return "[]";
+            return studentsJson(students.inorderRange(lo, hi, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String sisSearchByNamePrefix(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            if (students == null || limit <= 0) return "[]";
+            return studentsJson(students.namePrefix(prefix == null ? "" : prefix, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String sisListStudentsByName(String afterName, int afterRoll, int limit) {
+        lock.readLock().lock();
+        try {
+            if (students == null || limit <= 0) return "[]";
+            return studentsJson(students.nameAfter(afterName == null ? "" : afterName, afterRoll, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // sisListStudents' JSON for the given slots, in that order. Caller holds the read lock.
+    private String studentsJson(int[] slots) {
+        StringBuilder sb = new StringBuilder(16 + slots.length * 96).append('[');
+        for (int i = 0; i < slots.length; i++) {
+            if (i > 0) sb.append(',');
+            studentFields(sb.append('{'), slots[i]).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    @Override
+    public boolean sisListStudentsStream(ByteBuffer chunk, ReplySink sink) {
+        if (chunk == null || !chunk.isDirect() || chunk.capacity() == 0 || sink == null) {
+            throw new IllegalArgumentException("A sink and a non-empty direct ByteBuffer are required.");
+        }
+        // As api::sisListStudentsStream: STREAM_STEP records are encoded under the read lock,
+        // which is released before the sink sees them; the cursor is the last roll sent.
+        ChunkOut out = new ChunkOut(chunk, sink);
+        StringBuilder sb = new StringBuilder(STREAM_STEP * 96).append('[');
+        int after = Integer.MIN_VALUE;
+        boolean first = true;
+        while (true) {
+            int n;
+            lock.readLock().lock();
+            try {
+                int[] slots = students == null ? new int[0] : students.inorderAfter(after, STREAM_STEP);
+                n = slots.length;
+                for (int s : slots) {
+                    if (!first) sb.append(',');
+                    first = false;
+                    studentFields(sb.append('{'), s).append('}');
+                }
+                if (n > 0) after = students.roll(slots[n - 1]);
+            } finally {
+                lock.readLock().unlock();
+            }
+            out.write(sb);
+            sb.setLength(0);
+            if (out.stopped || n < STREAM_STEP) break;
+        }
+        out.write("]");
+        return out.finish();
+    }
+
+    private static final int STREAM_STEP = 256; // records per read-lock hold (kStreamStep)
+
+    // Same chunking as jsonutil::Writer streaming: full chunks of chunk.capacity() bytes.
+    private static final class ChunkOut {
+        final ByteBuffer chunk;
+        final ReplySink sink;
+        final int cap;
+        int used;
+        boolean stopped;
+
+        ChunkOut(ByteBuffer chunk, ReplySink sink) {
+            this.chunk = chunk;
+            this.sink = sink;
+            this.cap = chunk.capacity();
+        }
+
+        void write(CharSequence s) {
+            byte[] b = s.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            for (int off = 0; off < b.length && !stopped; ) {
+                int n = Math.min(cap - used, b.length - off);
+                chunk.put(used, b, off, n);
+                used += n;
+                off += n;
+                if (used == cap) flush();
+            }
+        }
+
+        void flush() {
+            if (!sink.accept(chunk, used)) stopped = true;
+            used = 0;
+        }
+
+        boolean finish() {
+            if (!stopped && used > 0) flush();
+            return !stopped;
+        }
+    }
+
+    @Override
+    public String sisImportCsv(String csvPath) {
+        synchronized (compactLock) { // no fold writing the old files
+            lock.writeLock().lock();
+            try {
+                if (students == null) return okMessage(false, "Backend not initialized.");
+                return okMessage(students.switchToFile(csvPath));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public String sisExportCsv(String csvPath) {
+        lock.readLock().lock();
+        try {
+            if (students == null) return okMessage(false, "Backend not initialized.");
+            return okMessage(students.exportTo(csvPath));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int sisListStudentsInto(ByteBuffer buf) {
+        lock.readLock().lock();
+        try {
+            return columnar(students == null ? new int[0] : students.inorder(), buf);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int attGetDefaultersInto(int minPercent, ByteBuffer buf) {
+        lock.readLock().lock();
+        try {
+            return columnar(students == null ? new int[0] : students.defaultersBelow(minPercent), buf);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Attendance
+    @Override
+    public String attNewSessionDay() {
+        JavaStudentStore s;
+        JavaStudentStore.Result r;
+        long seq;
+        lock.writeLock().lock();
+        try {
+            if (students == null) return okMessage(false, "Backend not initialized.");
+            s = students;
+            r = s.newDayForAll();
+            seq = s.logSeq();
+        } finally {
+            requestCompaction();
+            lock.writeLock().unlock();
+        }
+        return okMessage(durable(s, seq, r));
+    }
+
+    @Override
+    public String attMarkPresent(int roll) {
+        JavaStudentStore s;
+        JavaStudentStore.Result r;
+        long seq;
+        lock.writeLock().lock();
+        try {
+            if (students == null) return okMessage(false, "Backend not initialized.");
+            s = students;
+            r = s.markPresent(roll);
+            seq = s.logSeq();
+        } finally {
+            requestCompaction();
+            lock.writeLock().unlock();
+        }
+        return okMessage(durable(s, seq, r));
+    }
+
+    @Override
+    public int[] attMarkPresentBatch(int[] rolls) {
+        int[] out = new int[rolls == null ? 0 : rolls.length];
+        JavaStudentStore s;
+        JavaStudentStore.Result r;
+        long seq;
+        lock.writeLock().lock();
+        try {
+            if (students == null) return null;
+            s = students;
+            r = s.markPresentBatch(rolls == null ? out : rolls, out);
+            seq = s.logSeq();
+        } finally {
+            requestCompaction();
+            lock.writeLock().unlock();
+        }
+        return durable(s, seq, r).ok ? out : null;
+    }
+
+    @Override
+    public String sisSetCommitWindow(int windowMicros, int maxBatch) {
+        JavaStudentStore s = store();
+        if (s == null) return okMessage(false, "Backend not initialized.");
+        boolean ok = s.configureCommit(windowMicros, maxBatch);
+        return okMessage(ok, ok ? "Commit window set." : "Invalid commit window.");
+    }
+
+    @Override
+    public String sisCommitStats() {
+        JavaStudentStore s = store();
+        return s == null ? "{}" : s.commitStats();
+    }
+
+    private JavaStudentStore store() {
+        lock.readLock().lock();
+        try {
+            return students;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Waits, with the write lock released, for the group commit that flushes a successful
+    // mutation's log records (GroupLog), so other mutations can join the batch meanwhile.
+    private static JavaStudentStore.Result durable(JavaStudentStore s, long seq, JavaStudentStore.Result r) {
+        if (!r.ok) return r;
+        return s.commitLog(seq) ? r : new JavaStudentStore.Result(false, "Failed to append to log file.");
+    }
+
+    @Override
+    public String attGetSummary(int roll) {
+        lock.readLock().lock();
+        try {
+            int s = students == null ? -1 : students.find(roll);
+            if (s < 0) return "";
+            return attendanceFields(new StringBuilder(96).append('{'), s).append('}').toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String attGetDefaulters(int minPercent) {
+        lock.readLock().lock();
+        try {
+            if (students == null) return "[]";
+            int[] slots = students.defaultersBelow(minPercent);
+            StringBuilder sb = new StringBuilder(16 + slots.length * 80).append('[');
+            for (int i = 0; i < slots.length; i++) {
+                if (i > 0) sb.append(',');
+                attendanceFields(sb.append('{'), slots[i]).append('}');
+            }
+            return sb.append(']').toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- reply builders (field order matches backend_api.cpp) ----
+
+    private StringBuilder studentFields(StringBuilder sb, int s) {
+        sb.append("\"roll\":").append(students.roll(s));
+        sb.append(",\"name\":");
+        quote(sb, students.name(s));
+        sb.append(",\"program\":");
+        quote(sb, students.program(s));
+        sb.append(",\"year\":").append(students.semester(s));
+        sb.append(",\"present\":").append(students.present(s));
+        sb.append(",\"total\":").append(students.total(s));
+        return sb;
+    }
+
+    private StringBuilder attendanceFields(StringBuilder sb, int s) {
+        sb.append("\"roll\":").append(students.roll(s));
+        sb.append(",\"name\":");
+        quote(sb, students.name(s));
+        sb.append(",\"present\":").append(students.present(s));
+        sb.append(",\"total\":").append(students.total(s));
+        sb.append(",\"percent\":").append(JavaStudentStore.percent(students.present(s), students.total(s)));
+        return sb;
+    }
+
+    private static String okMessage(JavaStudentStore.Result r) {
+        return okMessage(r.ok, r.message);
+    }
+
+    private static String okMessage(boolean ok, String message) {
+        StringBuilder sb = new StringBuilder(64).append("{\"ok\":").append(ok).append(",\"message\":");
+        return quote(sb, message).append('}').toString();
+    }
+
+    private static void strings(StringBuilder sb, List<String> items) {
+        sb.append('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) sb.append(',');
+            quote(sb, items.get(i));
+        }
+        sb.append(']');
+    }
+
+    // Same escaping as jsonutil::escapeJsonString.
+    private static StringBuilder quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\b': sb.append("\\b"); break;
+                case '\f': sb.append("\\f"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+
+    // Columnar layout from Cpp-Native/columnar.h; bytes written or -(bytes needed).
+    private int columnar(int[] slots, ByteBuffer buf) {
+        int n = slots.length;
+        byte[][] strs = new byte[2 * n][];
+        int heap = 0;
+        for (int i = 0; i < n; i++) {
+            strs[2 * i] = students.name(slots[i]).getBytes(StandardCharsets.UTF_8);
+            strs[2 * i + 1] = students.program(slots[i]).getBytes(StandardCharsets.UTF_8);
+            heap += strs[2 * i].length + strs[2 * i + 1].length;
+        }
+        int need = 4 * (2 + 4 * n + 2 * n + 1) + heap;
+        if (buf == null || buf.capacity() < need) return -need;
+
+        ByteBuffer b = buf.duplicate().order(ByteOrder.nativeOrder());
+        b.putInt(0, n);
+        b.putInt(4, heap);
+        int col = 8;
+        for (int i = 0; i < n; i++) {
+            int s = slots[i];
+            b.putInt(col + 4 * i, students.roll(s));
+            b.putInt(col + 4 * (n + i), students.semester(s));
+            b.putInt(col + 4 * (2 * n + i), students.present(s));
+            b.putInt(col + 4 * (3 * n + i), students.total(s));
+        }
+        int strOff = col + 16 * n;
+        int heapPos = strOff + 4 * (2 * n + 1);
+        int pos = 0;
+        for (int k = 0; k < 2 * n; k++) {
+            b.putInt(strOff + 4 * k, pos);
+            b.put(heapPos + pos, strs[k]);
+            pos += strs[k].length;
+        }
+        b.putInt(strOff + 4 * (2 * n), pos);
+        return need;
+    }
+}
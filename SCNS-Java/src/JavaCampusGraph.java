@@ -0,0 +1,290 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Pure-Java port of Cpp-Native/graph.cpp (used by JavaBackend).
+// Same seeded campus map, adjacency order, BFS queue and Dijkstra min-heap, so routes,
+// visit orders and the divergence report match the native backend exactly.
+// Adjacency is kept as per-node int arrays (to[], w[]) in insertion order.
+final class JavaCampusGraph {
+    static final class PathResult {
+        final List<String> path = new ArrayList<>();
+        int distance = -1; // BFS hops / Dijkstra cost (compatibility field)
+        int hops = -1;
+        int cost = -1;
+        String algorithm;
+        final List<String> visitedOrder = new ArrayList<>();
+    }
+
+    private final Map<String, Integer> indexOf = new HashMap<>();
+    private final List<String> nameOf = new ArrayList<>();
+    private int[][] adjTo = new int[0][];
+    private int[][] adjW = new int[0][];
+    private int[] degree = new int[0];
+
+    // The seeded map is never modified after construction, so every JavaBackend in the
+    // process (see CampusRegistry) shares this one instance.
+    private static final JavaCampusGraph DEFAULT = new JavaCampusGraph();
+
+    static JavaCampusGraph shared() {
+        return DEFAULT;
+    }
+
+    private JavaCampusGraph() {
+        seedDefault();
+    }
+
+    // Approximate heap bytes of the map (names, adjacency arrays, index).
+    long memoryBytes() {
+        long bytes = 0;
+        for (String n : nameOf) bytes += JavaStudentStore.stringBytes(n) + 48; // + HashMap node/Integer
+        for (int i = 0; i < adjTo.length; i++) bytes += 2 * (16 + 4L * adjTo[i].length);
+        return bytes + 3 * (16 + 4L * adjTo.length);
+    }
+
+    // Mirrors CampusGraph::seedDefault (see the comments there for the demo cases).
+    private void seedDefault() {
+        String[] nodes = {
+                "Gate", "Admin", "Library", "Ground", "Cafeteria",
+                "Block-A", "Block-B", "Lab", "Gym", "Dorms", "Hostel"};
+        for (String n : nodes) addLocation(n);
+
+        addEdge("Gate", "Admin", 12);
+        addEdge("Admin", "Library", 12);
+        addEdge("Gate", "Ground", 3);
+        addEdge("Ground", "Cafeteria", 3);
+        addEdge("Cafeteria", "Library", 3);
+
+        addEdge("Ground", "Admin", 2);
+        addEdge("Admin", "Block-A", 2);
+        addEdge("Admin", "Block-B", 2);
+        addEdge("Block-A", "Lab", 2);
+        addEdge("Block-B", "Lab", 2);
+        addEdge("Lab", "Gym", 2);
+        addEdge("Gym", "Dorms", 2);
+        addEdge("Dorms", "Hostel", 2);
+        addEdge("Ground", "Hostel", 3);
+
+        // expensive shortcuts between all other pairs, Gate excluded
+        int gate = indexOf.get("Gate");
+        for (int i = 0; i < nameOf.size(); i++) {
+            for (int j = i + 1; j < nameOf.size(); j++) {
+                if (edgeWeight(i, j) >= 0) continue;
+                if (i == gate || j == gate) continue;
+                addEdge(nameOf.get(i), nameOf.get(j), 50);
+            }
+        }
+    }
+
+    private void addLocation(String name) {
+        if (indexOf.containsKey(name)) return;
+        int idx = nameOf.size();
+        nameOf.add(name);
+        indexOf.put(name, idx);
+        adjTo = Arrays.copyOf(adjTo, idx + 1);
+        adjW = Arrays.copyOf(adjW, idx + 1);
+        degree = Arrays.copyOf(degree, idx + 1);
+        adjTo[idx] = new int[4];
+        adjW[idx] = new int[4];
+    }
+
+    private void addEdge(String a, String b, int w) {
+        Integer ia = indexOf.get(a);
+        Integer ib = indexOf.get(b);
+        if (w <= 0 || ia == null || ib == null) return;
+        link(ia, ib, w);
+        link(ib, ia, w);
+    }
+
+    private void link(int from, int to, int w) {
+        int d = degree[from];
+        if (d == adjTo[from].length) {
+            adjTo[from] = Arrays.copyOf(adjTo[from], d * 2);
+            adjW[from] = Arrays.copyOf(adjW[from], d * 2);
+        }
+        adjTo[from][d] = to;
+        adjW[from][d] = w;
+        degree[from] = d + 1;
+    }
+
+    List<String> locations() {
+        return new ArrayList<>(nameOf);
+    }
+
+    int resolve(String name) {
+        Integer idx = name == null ? null : indexOf.get(name);
+        return idx == null ? -1 : idx;
+    }
+
+    int edgeWeight(int from, int to) {
+        if (from < 0 || to < 0 || from >= degree.length || to >= degree.length) return -1;
+        for (int k = 0; k < degree[from]; k++) {
+            if (adjTo[from][k] == to) return adjW[from][k];
+        }
+        return -1;
+    }
+
+    PathResult bfsShortestPath(String src, String dst) {
+        PathResult res = new PathResult();
+        res.algorithm = "BFS";
+        int s = resolve(src);
+        int t = resolve(dst);
+        if (s < 0 || t < 0) return res;
+
+        int n = nameOf.size();
+        int[] prev = new int[n];
+        int[] dist = new int[n];
+        boolean[] vis = new boolean[n];
+        Arrays.fill(prev, -1);
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        vis[s] = true;
+
+        while (head < tail) {
+            int u = queue[head++];
+            res.visitedOrder.add(nameOf.get(u));
+            if (u == t) break;
+            for (int k = 0; k < degree[u]; k++) {
+                int v = adjTo[u][k];
+                if (!vis[v]) {
+                    vis[v] = true;
+                    prev[v] = u;
+                    dist[v] = dist[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        if (!vis[t]) return res;
+
+        buildPath(res, prev, t);
+        res.hops = dist[t];
+        res.distance = res.hops;
+
+        // weighted cost of the BFS path (may exceed Dijkstra's)
+        int cost = 0;
+        for (int i = 0; i + 1 < res.path.size(); i++) {
+            int w = edgeWeight(resolve(res.path.get(i)), resolve(res.path.get(i + 1)));
+            if (w < 0) { cost = -1; break; }
+            cost += w;
+        }
+        res.cost = cost;
+        return res;
+    }
+
+    PathResult dijkstraShortestPath(String src, String dst) {
+        PathResult res = new PathResult();
+        res.algorithm = "Dijkstra";
+        int s = resolve(src);
+        int t = resolve(dst);
+        if (s < 0 || t < 0) return res;
+
+        final int inf = 1000000000;
+        int n = nameOf.size();
+        int[] prev = new int[n];
+        int[] dist = new int[n];
+        boolean[] settled = new boolean[n];
+        Arrays.fill(prev, -1);
+        Arrays.fill(dist, inf);
+
+        // binary min-heap of (d, v), same sift rules as dsa::MinHeap
+        int[] hd = new int[16];
+        int[] hv = new int[16];
+        int len = 0;
+        dist[s] = 0;
+        hd[0] = 0;
+        hv[0] = s;
+        len = 1;
+
+        while (len > 0) {
+            int u = hv[0];
+            hd[0] = hd[len - 1];
+            hv[0] = hv[len - 1];
+            len--;
+            siftDown(hd, hv, len);
+            if (settled[u]) continue;
+            settled[u] = true;
+            res.visitedOrder.add(nameOf.get(u));
+            if (u == t) break;
+
+            for (int k = 0; k < degree[u]; k++) {
+                int v = adjTo[u][k];
+                int w = adjW[u][k];
+                if (dist[u] != inf && dist[u] + w < dist[v]) {
+                    dist[v] = dist[u] + w;
+                    prev[v] = u;
+                    if (len == hd.length) {
+                        hd = Arrays.copyOf(hd, len * 2);
+                        hv = Arrays.copyOf(hv, len * 2);
+                    }
+                    hd[len] = dist[v];
+                    hv[len] = v;
+                    siftUp(hd, hv, len++);
+                }
+            }
+        }
+        if (dist[t] == inf) return res;
+
+        buildPath(res, prev, t);
+        res.cost = dist[t];
+        res.distance = res.cost;
+        res.hops = res.path.isEmpty() ? -1 : res.path.size() - 1;
+        return res;
+    }
+
+    private void buildPath(PathResult res, int[] prev, int t) {
+        for (int cur = t; cur != -1; cur = prev[cur]) res.path.add(nameOf.get(cur));
+        java.util.Collections.reverse(res.path);
+    }
+
+    private static void siftUp(int[] d, int[] v, int i) {
+        while (i > 0) {
+            int p = (i - 1) / 2;
+            if (!(d[i] < d[p])) break;
+            swap(d, v, i, p);
+            i = p;
+        }
+    }
+
+    private static void siftDown(int[] d, int[] v, int n) {
+        int i = 0;
+        for (;;) {
+            int l = i * 2 + 1;
+            int r = i * 2 + 2;
+            int best = i;
+            if (l < n && d[l] < d[best]) best = l;
+            if (r < n && d[r] < d[best]) best = r;
+            if (best == i) break;
+            swap(d, v, i, best);
+            i = best;
+        }
+    }
+
+    private static void swap(int[] a, int[] b, int i, int j) {
+        int t = a[i]; a[i] = a[j]; a[j] = t;
+        t = b[i]; b[i] = b[j]; b[j] = t;
+    }
+
+    // {totalPairs, divergedPairs, percent}: pairs where BFS takes fewer hops at a higher cost.
+    int[] divergenceStats() {
+        int n = nameOf.size();
+        int totalPairs = 0;
+        int diverged = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                totalPairs++;
+                PathResult bfs = bfsShortestPath(nameOf.get(i), nameOf.get(j));
+                PathResult dij = dijkstraShortestPath(nameOf.get(i), nameOf.get(j));
+                if (bfs.path.isEmpty() || dij.path.isEmpty()) continue;
+                boolean differentPath = !bfs.path.equals(dij.path);
+                boolean bfsFewerHops = bfs.hops >= 0 && dij.hops >= 0 && bfs.hops < dij.hops;
+                boolean bfsHigherCost = bfs.cost >= 0 && dij.cost >= 0 && bfs.cost > dij.cost;
+                if (differentPath && bfsFewerHops && bfsHigherCost) diverged++;
+            }
+        }
+        int percent = totalPairs > 0 ? (diverged * 100) / totalPairs : 0;
+        return new int[] { totalPairs, diverged, percent };
+    }
+}
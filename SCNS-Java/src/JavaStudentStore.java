@@ -0,0 +1,1018 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Pure-Java port of Cpp-Native/student_store.cpp + avl_tree.cpp (used by JavaBackend).
+// The AVL tree lives in parallel primitive arrays indexed by node slot; freed slots are
+// reused. Same algorithms as the C++ tree (insert-only, successor-copy delete, balanced bulk
+// build on load), so search traces and CSV output match the native backend exactly. New Day
+// is one counter, as in the C++ store: each slot keeps the day its total counts from
+// (total = day - start).
+//
+// Persistence is the same write-ahead log as the native store (format and recovery rules
+// in Cpp-Native/student_store.h): mutations append one line to <csv>.wal0/.wal1, load()
+// replays the log over the CSV and folds it, and beginCompaction/writeCompaction/
+// endCompaction fold it in the background while appends go to the other file. Records are
+// group-committed (GroupLog): mutations buffer them, JavaBackend calls commitLog(logSeq())
+// after releasing its lock. Folds and close() also write the binary <csv>.snap
+// (SnapshotFile), which load() reads instead of parsing the CSV while it still matches.
+//
+// Not thread-safe; JavaBackend guards it with a read/write lock.
+final class JavaStudentStore {
+    static final class Result {
+        final boolean ok;
+        final String message;
+
+        Result(boolean ok, String message) {
+            this.ok = ok;
+            this.message = message;
+        }
+    }
+
+    private static final String HEADER = "roll,name,program,semester,present,total\n";
+    static final long MIN_COMPACT_BYTES = 64 * 1024; // StudentStore::kMinCompactBytes
+
+    private String path;
+
+    // active log
+    private final GroupLog log = new GroupLog();
+    private long logSeq;         // last record buffered
+    private int logSlot;
+    private int logGen;
+    private long logBytes;       // bytes appended to the active log
+    private long snapshotBytes;  // size of the CSV as last written or read
+    private boolean compacting;
+    private boolean foldFailed;  // a fold failed: keep appending, fold again on next load
+    private boolean snapCurrent; // <csv>.snap was written for (or read from) the CSV as it is
+
+    // node slots
+    private int[] roll = new int[64];
+    private int[] semester = new int[64];
+    private int[] present = new int[64];
+    private int[] start = new int[64]; // day the slot's total counts from
+    private int day;                    // days recorded since the store was created
+    private String[] name = new String[64];
+    private String[] program = new String[64];
+    private int[] left = new int[64];
+    private int[] right = new int[64];
+    private int[] height = new int[64];
+
+    private int root = -1;
+    private int size = 0;
+    private int used = 0;       // slots ever handed out
+    private int freeHead = -1;  // free slots chained through left[]
+
+    // NameIndex: (key, roll) of every record, in the same order as the native index
+    private java.util.TreeSet<NameEntry> names = new java.util.TreeSet<>();
+
+    JavaStudentStore(String csvPath) {
+        this.path = csvPath;
+    }
+
+    int count() { return size; }
+
+    // Approximate heap bytes (64-bit JVM, compressed oops): the slot arrays plus the
+    // name/program strings. Mirrors api::memoryBytes for per-campus accounting.
+    long memoryBytes() {
+        long cap = roll.length;
+        long bytes = 7 * (16 + 4 * cap) + 2 * (16 + 4 * cap);
+        for (int s = 0; s < used; s++) {
+            if (name[s] != null) bytes += stringBytes(name[s]) + 64 + ((16 + name[s].length() + 7) & ~7L); // + name entry
+            if (program[s] != null) bytes += stringBytes(program[s]);
+        }
+        return bytes + stringBytes(path);
+    }
+
+    // String header + backing byte[] (Latin-1 when possible), 8-byte aligned.
+    static long stringBytes(String s) {
+        long bytes = s.length();
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) { bytes = 2L * s.length(); break; }
+        }
+        return 24 + ((16 + bytes + 7) & ~7L);
+    }
+
+    // Record fields by slot (valid until the next mutation).
+    int roll(int slot) { return roll[slot]; }
+    int semester(int slot) { return semester[slot]; }
+    int present(int slot) { return present[slot]; }
+    int total(int slot) { return day - start[slot]; }
+    String name(int slot) { return name[slot]; }
+    String program(int slot) { return program[slot]; }
+
+    static int percent(int present, int total) {
+        return total > 0 ? (present * 100) / total : 0;
+    }
+
+    // ---- persistence ----
+
+    Result load() {
+        Result ok = ensureFileExists();
+        if (!ok.ok) return ok;
+
+        log.close();
+        compacting = false;
+        foldFailed = false;
+
+        // Replay order is older log, then newer. After the last #bak the base is the .bak
+        // snapshot and only later records apply; otherwise the CSV and all of them.
+        LogFile[] logs = { readLog(logPath(0)), readLog(logPath(1)) };
+        int newest = logs[1].gen > logs[0].gen ? 1 : 0;
+        int older = logs[1 - newest].gen >= 0 ? 1 - newest : -1;
+        java.util.List<String> ops = new java.util.ArrayList<>();
+        boolean fromBak = false;
+        for (int slot : new int[] { older, newest }) {
+            if (slot < 0) continue;
+            for (String line : logs[slot].lines) {
+                if (line.equals("#bak")) {
+                    fromBak = true;
+                    ops.clear();
+                } else {
+                    ops.add(line);
+                }
+            }
+        }
+
+        Snapshot snap = fromBak ? null : SnapshotFile.read(snapPath(), path);
+        snapCurrent = snap != null;
+        if (snap != null) {
+            snapshotBytes = new File(path).length();
+        } else {
+            long[] bytes = new long[1];
+            snap = readCsv(fromBak ? path + ".bak" : path, bytes);
+            if (snap == null) return new Result(false, "Failed to open data file.");
+            snapshotBytes = bytes[0];
+        }
+        // both sources are in strictly increasing roll order: build the tree directly
+        buildSorted(snap);
+        for (String op : ops) replayLine(op);
+
+        // Fold what was replayed, so the active log starts empty.
+        if (fromBak || !ops.isEmpty()) {
+            long[] bytes = new long[1];
+            Result fr = foldLogs(snapshot(), newest, older, bytes);
+            if (!fr.ok) return fr;
+            snapshotBytes = bytes[0];
+            snapCurrent = true;
+        } else if (logs[1].gen >= 0) {
+            truncate(logPath(1));
+        }
+        Result lr = openLog(0, 1);
+        if (!lr.ok) return lr;
+
+        return new Result(true, "Loaded " + size + " students.");
+    }
+
+    // Clean shutdown (StudentStore::close): flushes and folds the log and leaves a .snap
+    // matching the CSV. The store must not be used afterwards except through load().
+    Result close() {
+        if (!log.isOpen()) return new Result(true, "OK");
+        log.close();
+        if (logBytes > 0 || foldFailed) {
+            long[] bytes = new long[1];
+            Result fr = foldLogs(snapshot(), logSlot, 1 - logSlot, bytes);
+            if (!fr.ok) return fr;
+            snapshotBytes = bytes[0];
+        } else if (!snapCurrent) {
+            if (!SnapshotFile.write(snapPath(), path, snapshot())) return new Result(false, "Failed to write snapshot file.");
+        }
+        logBytes = 0;
+        foldFailed = false;
+        snapCurrent = true;
+        return new Result(true, "OK");
+    }
+
+    // Group commit (GroupLog). logSeq needs the lock like any other call; commitLog and the
+    // settings are safe without it.
+    long logSeq() { return logSeq; }
+    boolean commitLog(long seq) { return log.commit(seq); }
+    boolean configureCommit(int windowMicros, int maxBatch) { return log.configure(windowMicros, maxBatch); }
+    String commitStats() { return log.stats(); }
+
+    Result switchToFile(String csvPath) {
+        if (csvPath == null || csvPath.isEmpty()) return new Result(false, "Invalid path.");
+        path = csvPath;
+        clear();
+        return load();
+    }
+
+    Result exportTo(String outCsvPath) {
+        try (Writer out = writer(outCsvPath, false)) {
+            writeAll(out);
+        } catch (IOException e) {
+            return new Result(false, "Failed to open export path.");
+        }
+        return new Result(true, "Exported.");
+    }
+
+    // One log file: its generation (-1 when missing, empty or not a log) and the complete
+    // lines after the header.
+    private static final class LogFile {
+        int gen = -1;
+        final java.util.List<String> lines = new java.util.ArrayList<>();
+    }
+
+    private static LogFile readLog(String file) {
+        LogFile lf = new LogFile();
+        String text;
+        try {
+            text = new String(java.nio.file.Files.readAllBytes(new File(file).toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return lf;
+        }
+        int start = 0;
+        for (int nl; (nl = text.indexOf('\n', start)) >= 0; start = nl + 1) { // text after the last '\n' is torn
+            String line = text.substring(start, nl);
+            if (lf.gen < 0) {
+                if (line.startsWith("#log,") && line.length() > 5) lf.gen = toInt(line.substring(5), -1);
+                if (lf.gen < 0) break;
+                continue;
+            }
+            lf.lines.add(line);
+        }
+        return lf;
+    }
+
+    private String logPath(int slot) {
+        return path + (slot == 0 ? ".wal0" : ".wal1");
+    }
+
+    private String snapPath() {
+        return path + ".snap";
+    }
+
+    private Result openLog(int slot, int gen) {
+        if (!log.open(logPath(slot), "#log," + gen + "\n")) return new Result(false, "Failed to open log file.");
+        logSlot = slot;
+        logGen = gen;
+        logBytes = 0;
+        return new Result(true, "OK");
+    }
+
+    // Buffers the records for the next group commit (JavaBackend's commitLog).
+    private Result appendLog(String records) {
+        long seq = log.append(records);
+        if (seq == 0) return new Result(false, "Failed to append to log file.");
+        logSeq = seq;
+        logBytes += records.getBytes(StandardCharsets.UTF_8).length;
+        return new Result(true, "OK");
+    }
+
+    private static void truncate(String file) {
+        try {
+            new FileOutputStream(file, false).close();
+        } catch (IOException ignored) {
+            // an unreadable log is ignored by load() as well
+        }
+    }
+
+    // Applies one log record (StudentStore::replayLine); false if it is malformed or does
+    // not apply.
+    private boolean replayLine(String line) {
+        if (line.isEmpty() || line.charAt(0) == '#') return false;
+        if (line.charAt(line.length() - 1) == '#') return false; // torn line closed by foldLogs
+        if (line.equals("N")) {
+            applyNewDay();
+            return true;
+        }
+        if (line.length() < 3 || line.charAt(1) != ',') return false;
+        String rest = line.substring(2);
+        if (line.charAt(0) == 'A') {
+            String[] parts = new String[6];
+            return parseLine(rest, parts) && insertParsed(parts);
+        }
+        int r = toInt(rest, -1);
+        if (r <= 0) return false;
+        if (line.charAt(0) == 'D') return remove(r);
+        if (line.charAt(0) == 'P') {
+            int s = find(r);
+            if (s < 0) return false;
+            mark(s);
+            return true;
+        }
+        return false;
+    }
+
+    // Records in roll order, copied out of the tree (a compaction snapshot).
+    static final class Snapshot {
+        final int n;
+        final int[] roll, semester, present, total;
+        final String[] name, program;
+        int foldedLog;
+
+        Snapshot(int n) {
+            this.n = n;
+            roll = new int[n];
+            semester = new int[n];
+            present = new int[n];
+            total = new int[n];
+            name = new String[n];
+            program = new String[n];
+        }
+    }
+
+    private Snapshot snapshot() {
+        int[] order = inorder();
+        Snapshot rows = new Snapshot(order.length);
+        for (int i = 0; i < order.length; i++) {
+            int s = order[i];
+            rows.roll[i] = roll[s];
+            rows.name[i] = name[s];
+            rows.program[i] = program[s];
+            rows.semester[i] = semester[s];
+            rows.present[i] = present[s];
+            rows.total[i] = total(s);
+        }
+        return rows;
+    }
+
+    // Bytes written, or 0 on failure.
+    private static long writeCsv(String file, Snapshot rows) {
+        long bytes = HEADER.length();
+        try (Writer out = writer(file, false)) {
+            out.write(HEADER);
+            StringBuilder line = new StringBuilder(64);
+            for (int i = 0; i < rows.n; i++) {
+                line.setLength(0);
+                line.append(rows.roll[i]).append(',').append(rows.name[i]).append(',').append(rows.program[i]).append(',')
+                        .append(rows.semester[i]).append(',').append(rows.present[i]).append(',').append(rows.total[i]).append('\n');
+                out.append(line);
+                bytes += line.length();
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+        return bytes;
+    }
+
+    // Same steps as StudentStore::foldLogs: .bak, #bak marker in the newest folded log,
+    // the CSV, then the folded logs are emptied (older first).
+    private Result foldLogs(Snapshot rows, int newest, int older, long[] bytes) {
+        if (writeCsv(path + ".bak", rows) == 0) return new Result(false, "Failed to write backup file.");
+        try (FileOutputStream mark = new FileOutputStream(logPath(newest), true)) {
+            mark.write("#\n#bak\n".getBytes(StandardCharsets.UTF_8)); // "#\n" closes a torn last line
+        } catch (IOException e) {
+            return new Result(false, "Failed to append to log file.");
+        }
+        bytes[0] = writeCsv(path, rows);
+        if (bytes[0] == 0) return new Result(false, "Failed to rewrite data file.");
+        if (older >= 0) truncate(logPath(older));
+        truncate(logPath(newest));
+        SnapshotFile.write(snapPath(), path, rows); // on failure the next load parses the CSV
+        return new Result(true, "OK");
+    }
+
+    // ---- background compaction (caller holds the write lock except for writeCompaction) ----
+
+    boolean needsCompaction() {
+        return !compacting && !foldFailed && log.isOpen() && logBytes >= MIN_COMPACT_BYTES && logBytes >= snapshotBytes;
+    }
+
+    // Snapshot of the records, with logging switched to the other file; null if there is
+    // nothing to fold.
+    Snapshot beginCompaction() {
+        if (!needsCompaction()) return null;
+        int folded = logSlot;
+        if (!openLog(1 - folded, logGen + 1).ok) return null; // keep appending to the current log
+        Snapshot rows = snapshot();
+        rows.foldedLog = folded;
+        compacting = true;
+        return rows;
+    }
+
+    // Runs without the lock; must not overlap load/switchToFile. bytes[0] = new CSV size.
+    Result writeCompaction(Snapshot rows, long[] bytes) {
+        return foldLogs(rows, rows.foldedLog, -1, bytes);
+    }
+
+    void endCompaction(Result r, long bytes) {
+        compacting = false;
+        if (r.ok) {
+            snapshotBytes = bytes;
+            snapCurrent = true;
+        }
+        else foldFailed = true; // the folded log still has its records; load() replays both
+    }
+
+    long logBytes() { return logBytes; }
+
+    private Result ensureFileExists() {
+        File f = new File(path);
+        if (f.exists()) return new Result(true, "OK");
+        try (Writer out = writer(path, false)) {
+            out.write(HEADER);
+        } catch (IOException e) {
+            return new Result(false, "Failed to create data file.");
+        }
+        return new Result(true, "Created data file.");
+    }
+
+    // Same validation as StudentStore::parseLine; on success parts[] holds the 6 raw fields.
+    private static boolean parseLine(String line, String[] parts) {
+        if (line.isEmpty()) return false;
+        if (line.startsWith("roll")) return false;
+
+        int idx = 0;
+        int start = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) != ',') continue;
+            if (idx >= 5) return false;
+            parts[idx++] = line.substring(start, i);
+            start = i + 1;
+        }
+        if (idx != 5) return false;
+        parts[5] = line.substring(start);
+
+        return toInt(parts[0], -1) > 0 && !parts[1].trim().isEmpty() && !parts[2].trim().isEmpty();
+    }
+
+    // The valid records of a CSV in roll order, of repeated rolls the first in file order
+    // (what csvload::parse returns); bytes[0] = the line bytes read. Null if it cannot be read.
+    private static Snapshot readCsv(String file, long[] bytes) {
+        java.util.List<String[]> lines = new java.util.ArrayList<>();
+        try (FileInputStream fin = new FileInputStream(file);
+                BufferedReader in = new BufferedReader(new InputStreamReader(fin, StandardCharsets.UTF_8))) {
+            String line;
+            String[] parts = new String[6];
+            while ((line = in.readLine()) != null) {
+                if (!parseLine(line, parts)) continue;
+                lines.add(parts);
+                parts = new String[6];
+            }
+            // csvload::lineBytes: the file's bytes, plus the newline a last line lacks
+            long size = fin.getChannel().size();
+            java.nio.ByteBuffer last = java.nio.ByteBuffer.allocate(1);
+            boolean open = size > 0 && fin.getChannel().read(last, size - 1) == 1 && last.get(0) != '\n';
+            bytes[0] = size + (open ? 1 : 0);
+        } catch (IOException e) {
+            return null;
+        }
+
+        // roll << 32 | line index: distinct keys, so sorting them keeps file order within a roll
+        int n = lines.size();
+        long[] keys = new long[n];
+        boolean sorted = true;
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) toInt(lines.get(i)[0], -1) << 32) | i;
+            if (i > 0 && keys[i - 1] >>> 32 >= keys[i] >>> 32) sorted = false;
+        }
+        if (!sorted) java.util.Arrays.sort(keys);
+        int unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || keys[i - 1] >>> 32 != keys[i] >>> 32) keys[unique++] = keys[i];
+        }
+
+        Snapshot rows = new Snapshot(unique);
+        for (int i = 0; i < unique; i++) {
+            String[] parts = lines.get((int) keys[i]);
+            rows.roll[i] = (int) (keys[i] >>> 32);
+            rows.name[i] = parts[1].trim();
+            rows.program[i] = parts[2].trim();
+            rows.semester[i] = Math.max(1, toInt(parts[3], 1));
+            rows.total[i] = Math.max(0, toInt(parts[5], 0));
+            rows.present[i] = Math.min(Math.max(0, toInt(parts[4], 0)), rows.total[i]);
+        }
+        return rows;
+    }
+
+    // Inserts parseLine's fields with StudentStore::parseLine's clamping; false if the roll exists.
+    private boolean insertParsed(String[] parts) {
+        int sem = Math.max(1, toInt(parts[3], 1));
+        int tot = Math.max(0, toInt(parts[5], 0));
+        int pr = Math.min(Math.max(0, toInt(parts[4], 0)), tot);
+        return insert(toInt(parts[0], -1), parts[1].trim(), parts[2].trim(), sem, pr, tot);
+    }
+
+    private static int toInt(String s, int def) {
+        String t = s.trim();
+        if (t.isEmpty()) return def;
+        int sign = 1;
+        int i = 0;
+        if (t.charAt(0) == '-') { sign = -1; i = 1; }
+        long v = 0;
+        for (; i < t.length(); i++) {
+            char c = t.charAt(i);
+            if (c < '0' || c > '9') return def;
+            v = v * 10 + (c - '0');
+            if (v > 2000000000L) break;
+        }
+        return (int) (sign * v);
+    }
+
+    private void appendLine(Writer out, int slot) throws IOException {
+        out.write(Integer.toString(roll[slot]));
+        out.write(',');
+        out.write(name[slot]);
+        out.write(',');
+        out.write(program[slot]);
+        out.write(',');
+        out.write(Integer.toString(semester[slot]));
+        out.write(',');
+        out.write(Integer.toString(present[slot]));
+        out.write(',');
+        out.write(Integer.toString(total(slot)));
+        out.write('\n');
+    }
+
+    private void writeAll(Writer out) throws IOException {
+        out.write(HEADER);
+        int[] order = inorder();
+        for (int slot : order) appendLine(out, slot);
+    }
+
+    private static Writer writer(String file, boolean append) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, append), StandardCharsets.UTF_8));
+    }
+
+    // ---- operations (mirror StudentStore) ----
+
+    Result addStudent(int r, String n, String p, int sem) {
+        if (r <= 0) return new Result(false, "Invalid roll.");
+        if (n == null || n.isEmpty()) return new Result(false, "Name required.");
+        if (p == null || p.isEmpty()) return new Result(false, "Program required.");
+        if (find(r) >= 0) return new Result(false, "Roll already exists. Use a different roll.");
+        if (!insert(r, n, p, sem, 0, 0)) return new Result(false, "Insert failed.");
+
+        int s = find(r);
+        Result wr = appendLog("A," + r + "," + name[s] + "," + program[s] + "," + semester[s] + "," + present[s] + "," + total(s) + "\n");
+        if (!wr.ok) return new Result(false, "Inserted in memory, but failed to write to file.");
+        return new Result(true, "Student added.");
+    }
+
+    Result deleteStudent(int r) {
+        if (r <= 0) return new Result(false, "Invalid roll.");
+        if (!remove(r)) return new Result(false, "Student not found.");
+        Result wr = appendLog("D," + r + "\n");
+        if (!wr.ok) return wr;
+        return new Result(true, "Student deleted.");
+    }
+
+    private boolean remove(int r) {
+        int s = find(r);
+        if (s >= 0) names.remove(new NameEntry(NameEntry.key(name[s]), r));
+        boolean[] removed = new boolean[1];
+        root = erase(root, r, removed);
+        if (removed[0]) size--;
+        return removed[0];
+    }
+
+    // Slot of roll, or -1.
+    int find(int r) {
+        if (r <= 0) return -1;
+        int cur = root;
+        while (cur >= 0) {
+            if (r < roll[cur]) cur = left[cur];
+            else if (r > roll[cur]) cur = right[cur];
+            else return cur;
+        }
+        return -1;
+    }
+
+    // Like find(), also reporting the visited keys (for the cabinet search animation).
+    int findTrace(int r, IntList visited) {
+        visited.clear();
+        if (r <= 0) return -1;
+        int cur = root;
+        while (cur >= 0) {
+            visited.add(roll[cur]);
+            if (r < roll[cur]) cur = left[cur];
+            else if (r > roll[cur]) cur = right[cur];
+            else return cur;
+        }
+        return -1;
+    }
+
+    Result newDayForAll() {
+        if (size == 0) return new Result(false, "No students registered.");
+        applyNewDay();
+        Result wr = appendLog("N\n");
+        if (!wr.ok) return wr;
+        return new Result(true, "New day recorded.");
+    }
+
+    private void applyNewDay() {
+        // every total (day - start) grows by one; present never exceeds it
+        day++;
+    }
+
+    Result markPresent(int r) {
+        if (r <= 0) return new Result(false, "Invalid roll.");
+        int s = find(r);
+        if (s < 0) return new Result(false, "Not found.");
+        mark(s);
+        Result wr = appendLog("P," + r + "\n");
+        if (!wr.ok) return wr;
+        return new Result(true, "Marked present.");
+    }
+
+    // One in-order pass + one log append; out[i] = new present count for rolls[i] or -1.
+    Result markPresentBatch(int[] rolls, int[] out) {
+        java.util.Arrays.fill(out, -1);
+        long[] refs = new long[rolls.length]; // (roll << 32 | index): sorting keeps duplicates in input order
+        int n = 0;
+        for (int i = 0; i < rolls.length; i++) {
+            if (rolls[i] > 0) refs[n++] = ((long) rolls[i] << 32) | i;
+        }
+        if (n == 0) return new Result(true, "Nothing to mark.");
+        java.util.Arrays.sort(refs, 0, n);
+
+        int marked = 0;
+        int next = 0;
+        StringBuilder records = new StringBuilder();
+        for (int s : inorder()) {
+            while (next < n && (int) (refs[next] >>> 32) < roll[s]) next++;
+            while (next < n && (int) (refs[next] >>> 32) == roll[s]) {
+                mark(s);
+                out[(int) refs[next]] = present[s];
+                records.append("P,").append(roll[s]).append('\n');
+                next++;
+                marked++;
+            }
+        }
+        if (marked == 0) return new Result(true, "Nothing to mark.");
+
+        Result wr = appendLog(records.toString());
+        if (!wr.ok) return wr;
+        return new Result(true, "Marked " + marked + " present.");
+    }
+
+    private void mark(int s) {
+        // Must have a day to mark
+        if (total(s) <= 0) start[s] = day - 1;
+        if (present[s] < total(s)) present[s]++;
+    }
+
+    // Slots in roll order.
+    int[] inorder() {
+        int[] out = new int[size];
+        int n = 0;
+        int[] stack = new int[Math.max(1, 2 * height(root) + 1)];
+        int sp = 0;
+        int cur = root;
+        while (cur >= 0 || sp > 0) {
+            while (cur >= 0) {
+                stack[sp++] = cur;
+                cur = left[cur];
+            }
+            cur = stack[--sp];
+            out[n++] = cur;
+            cur = right[cur];
+        }
+        return out;
+    }
+
+    // Up to limit slots whose name starts with prefix (ASCII case ignored), in name then roll
+    // order (StudentStore::visitNamePrefix).
+    int[] namePrefix(String prefix, int limit) {
+        if (limit <= 0) return new int[0];
+        byte[] p = NameEntry.key(prefix);
+        IntList out = new IntList();
+        for (NameEntry e : names.tailSet(new NameEntry(p, Integer.MIN_VALUE), true)) {
+            if (out.size() >= limit || !e.startsWith(p)) break;
+            out.add(find(e.roll));
+        }
+        return out.toArray();
+    }
+
+    // Up to limit slots after the cursor (afterName, afterRoll) in name then roll order
+    // (StudentStore::visitNamePage).
+    int[] nameAfter(String afterName, int afterRoll, int limit) {
+        if (limit <= 0) return new int[0];
+        IntList out = new IntList();
+        for (NameEntry e : names.tailSet(new NameEntry(NameEntry.key(afterName), afterRoll), false)) {
+            if (out.size() >= limit) break;
+            out.add(find(e.roll));
+        }
+        return out.toArray();
+    }
+
+    // Up to limit slots with roll > afterRoll, in roll order (AvlStudentDB::inorderVisitAfter).
+    int[] inorderAfter(int afterRoll, int limit) {
+        if (limit <= 0) return new int[0];
+        int[] out = new int[Math.min(limit, size)];
+        int n = 0;
+        int[] stack = new int[Math.max(1, 2 * height(root) + 1)];
+        int sp = 0;
+        // ancestors > afterRoll on the search path are exactly the pending in-order nodes
+        for (int cur = root; cur >= 0; ) {
+            if (roll[cur] > afterRoll) {
+                stack[sp++] = cur;
+                cur = left[cur];
+            } else {
+                cur = right[cur];
+            }
+        }
+        while (sp > 0 && n < out.length) {
+            int s = stack[--sp];
+            out[n++] = s;
+            for (int cur = right[s]; cur >= 0; cur = left[cur]) stack[sp++] = cur;
+        }
+        return n == out.length ? out : java.util.Arrays.copyOf(out, n);
+    }
+
+    // Up to limit slots with lo <= roll <= hi, in roll order (AvlStudentDB::inorderVisitRange).
+    int[] inorderRange(int lo, int hi, int limit) {
+        if (limit <= 0 || lo > hi) return new int[0];
+        IntList out = new IntList();
+        int[] stack = new int[Math.max(1, 2 * height(root) + 1)];
+        int sp = 0;
+        for (int cur = root; cur >= 0; ) {
+            if (roll[cur] >= lo) {
+                stack[sp++] = cur;
+                cur = left[cur];
+            } else {
+                cur = right[cur];
+            }
+        }
+        while (sp > 0 && out.size() < limit) {
+            int s = stack[--sp];
+            if (roll[s] > hi) break;
+            out.add(s);
+            for (int cur = right[s]; cur >= 0; cur = left[cur]) stack[sp++] = cur;
+        }
+        return out.toArray();
+    }
+
+    // Same min-heap as StudentStore::defaultersBelow (dsa::MinHeap), so ties pop in the same order.
+    int[] defaultersBelow(int minPercent) {
+        int[] order = inorder();
+        int n = order.length;
+        int[] pct = new int[n];
+        int[] slot = new int[n];
+        int len = 0;
+        for (int s : order) {
+            pct[len] = percent(present[s], total(s));
+            slot[len] = s;
+            // sift up
+            int i = len++;
+            while (i > 0) {
+                int p = (i - 1) / 2;
+                if (!(pct[i] < pct[p])) break;
+                swap(pct, slot, i, p);
+                i = p;
+            }
+        }
+
+        IntList out = new IntList();
+        while (len > 0) {
+            int topPct = pct[0];
+            int topSlot = slot[0];
+            pct[0] = pct[len - 1];
+            slot[0] = slot[len - 1];
+            len--;
+            int i = 0;
+            for (;;) {
+                int l = i * 2 + 1;
+                int r = i * 2 + 2;
+                int best = i;
+                if (l < len && pct[l] < pct[best]) best = l;
+                if (r < len && pct[r] < pct[best]) best = r;
+                if (best == i) break;
+                swap(pct, slot, i, best);
+                i = best;
+            }
+            if (topPct >= minPercent) break;
+            out.add(topSlot);
+        }
+        return out.toArray();
+    }
+
+    private static void swap(int[] a, int[] b, int i, int j) {
+        int t = a[i]; a[i] = a[j]; a[j] = t;
+        t = b[i]; b[i] = b[j]; b[j] = t;
+    }
+
+    // ---- AVL on slots ----
+
+    private void clear() {
+        root = -1;
+        size = 0;
+        used = 0;
+        freeHead = -1;
+        java.util.Arrays.fill(name, null);
+        java.util.Arrays.fill(program, null);
+        names.clear();
+    }
+
+    // AvlStudentDB::buildSorted: replaces the tree with rows (strictly increasing rolls), the
+    // middle row at each root, so it is perfectly balanced and built in O(n). Slot i holds row i.
+    private void buildSorted(Snapshot rows) {
+        clear();
+        while (roll.length < rows.n) grow();
+        for (int i = 0; i < rows.n; i++) {
+            roll[i] = rows.roll[i];
+            name[i] = rows.name[i];
+            program[i] = rows.program[i];
+            semester[i] = rows.semester[i];
+            present[i] = rows.present[i];
+            start[i] = day - rows.total[i];
+        }
+        used = rows.n;
+        size = rows.n;
+        root = buildRange(0, rows.n);
+        NameEntry[] entries = new NameEntry[rows.n];
+        for (int i = 0; i < rows.n; i++) entries[i] = new NameEntry(NameEntry.key(rows.name[i]), rows.roll[i]);
+        java.util.Arrays.sort(entries);
+        names.addAll(java.util.Arrays.asList(entries));
+    }
+
+    private int buildRange(int lo, int hi) {
+        if (lo >= hi) return -1;
+        int mid = lo + (hi - lo) / 2;
+        left[mid] = buildRange(lo, mid);
+        right[mid] = buildRange(mid + 1, hi);
+        updateHeight(mid);
+        return mid;
+    }
+
+    private boolean insert(int r, String n, String p, int sem, int pr, int tot) {
+        boolean[] inserted = new boolean[1];
+        root = insertOnly(root, r, n, p, sem, pr, tot, inserted);
+        if (inserted[0]) {
+            size++;
+            names.add(new NameEntry(NameEntry.key(n), r));
+        }
+        return inserted[0];
+    }
+
+    private int insertOnly(int node, int r, String n, String p, int sem, int pr, int tot, boolean[] inserted) {
+        if (node < 0) {
+            inserted[0] = true;
+            int s = alloc();
+            roll[s] = r;
+            name[s] = n;
+            program[s] = p;
+            semester[s] = sem;
+            present[s] = pr;
+            start[s] = day - tot;
+            return s;
+        }
+        // child first: alloc() may grow (replace) the arrays during the recursive call
+        if (r < roll[node]) {
+            int c = insertOnly(left[node], r, n, p, sem, pr, tot, inserted);
+            left[node] = c;
+        } else if (r > roll[node]) {
+            int c = insertOnly(right[node], r, n, p, sem, pr, tot, inserted);
+            right[node] = c;
+        } else {
+            return node; // prevent overwrite
+        }
+        return balance(node);
+    }
+
+    private int erase(int node, int r, boolean[] removed) {
+        if (node < 0) return -1;
+        if (r < roll[node]) left[node] = erase(left[node], r, removed);
+        else if (r > roll[node]) right[node] = erase(right[node], r, removed);
+        else {
+            removed[0] = true;
+            if (left[node] < 0 || right[node] < 0) {
+                int child = left[node] >= 0 ? left[node] : right[node];
+                release(node);
+                return child;
+            }
+            int succ = right[node];
+            while (left[succ] >= 0) succ = left[succ];
+            copyRecord(succ, node);
+            right[node] = erase(right[node], roll[succ], removed);
+        }
+        return balance(node);
+    }
+
+    private void copyRecord(int from, int to) {
+        roll[to] = roll[from];
+        name[to] = name[from];
+        program[to] = program[from];
+        semester[to] = semester[from];
+        present[to] = present[from];
+        start[to] = start[from];
+    }
+
+    private int height(int n) { return n >= 0 ? height[n] : 0; }
+
+    private int bf(int n) { return n >= 0 ? height(left[n]) - height(right[n]) : 0; }
+
+    private void updateHeight(int n) {
+        height[n] = 1 + Math.max(height(left[n]), height(right[n]));
+    }
+
+    private int rotateRight(int y) {
+        int x = left[y];
+        left[y] = right[x];
+        right[x] = y;
+        updateHeight(y);
+        updateHeight(x);
+        return x;
+    }
+
+    private int rotateLeft(int x) {
+        int y = right[x];
+        right[x] = left[y];
+        left[y] = x;
+        updateHeight(x);
+        updateHeight(y);
+        return y;
+    }
+
+    private int balance(int n) {
+        updateHeight(n);
+        int b = bf(n);
+        if (b > 1) {
+            if (bf(left[n]) < 0) left[n] = rotateLeft(left[n]);
+            return rotateRight(n);
+        }
+        if (b < -1) {
+            if (bf(right[n]) > 0) right[n] = rotateRight(right[n]);
+            return rotateLeft(n);
+        }
+        return n;
+    }
+
+    private int alloc() {
+        int s;
+        if (freeHead >= 0) {
+            s = freeHead;
+            freeHead = left[s];
+        } else {
+            if (used == roll.length) grow();
+            s = used++;
+        }
+        left[s] = -1;
+        right[s] = -1;
+        height[s] = 1;
+        return s;
+    }
+
+    private void release(int s) {
+        name[s] = null;
+        program[s] = null;
+        left[s] = freeHead;
+        freeHead = s;
+    }
+
+    private void grow() {
+        int cap = roll.length * 2;
+        roll = java.util.Arrays.copyOf(roll, cap);
+        semester = java.util.Arrays.copyOf(semester, cap);
+        present = java.util.Arrays.copyOf(present, cap);
+        start = java.util.Arrays.copyOf(start, cap);
+        name = java.util.Arrays.copyOf(name, cap);
+        program = java.util.Arrays.copyOf(program, cap);
+        left = java.util.Arrays.copyOf(left, cap);
+        right = java.util.Arrays.copyOf(right, cap);
+        height = java.util.Arrays.copyOf(height, cap);
+    }
+
+    // One NameIndex entry. Keys are the UTF-8 bytes of the name with ASCII letters lowercased,
+    // compared unsigned like std::string, so the order matches the native index exactly.
+    private static final class NameEntry implements Comparable<NameEntry> {
+        final byte[] key;
+        final int roll;
+
+        NameEntry(byte[] key, int roll) {
+            this.key = key;
+            this.roll = roll;
+        }
+
+        static byte[] key(String name) {
+            char[] c = name.toCharArray();
+            for (int i = 0; i < c.length; i++) {
+                if (c[i] >= 'A' && c[i] <= 'Z') c[i] = (char) (c[i] - 'A' + 'a');
+            }
+            return new String(c).getBytes(StandardCharsets.UTF_8);
+        }
+
+        boolean startsWith(byte[] p) {
+            return key.length >= p.length && java.util.Arrays.equals(key, 0, p.length, p, 0, p.length);
+        }
+
+        @Override
+        public int compareTo(NameEntry o) {
+            int c = java.util.Arrays.compareUnsigned(key, o.key);
+            return c != 0 ? c : Integer.compare(roll, o.roll);
+        }
+    }
+
+    // Minimal growable int list (avoids boxing in traces and result lists).
+    static final class IntList {
+        private int[] a = new int[16];
+        private int n = 0;
+
+        void add(int v) {
+            if (n == a.length) a = java.util.Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        void clear() { n = 0; }
+        int size() { return n; }
+        int get(int i) { return a[i]; }
+        int[] toArray() { return java.util.Arrays.copyOf(a, n); }
+    }
+}
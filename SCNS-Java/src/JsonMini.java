@@ -1,33 +1,29 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 // Tiny JSON parser for the limited shapes produced by our C++ backend.
 // Supports: objects with string/number/bool/array fields, array of objects, array of strings.
 public final class JsonMini {
     private JsonMini() {}
 
+    // Typed decoding: called once per member of each object, with f positioned on that
+    // member. Match the key with f.is(..) and read the value with f.asInt/asString/asBool;
+    // members not read are skipped. No per-row Map and no re-quoted value strings.
+    public interface FieldReader<T> {
+        void field(T row, Field f);
+    }
+
     public static Map<String, String> obj(String json) {
         json = json == null ? "" : json.trim();
         Map<String, String> out = new HashMap<>();
         if (!json.startsWith("{") || !json.endsWith("}")) return out;
-        int i = 1;
-        while (i < json.length() - 1) {
-            i = skipWs(json, i);
-            if (i >= json.length() - 1) break;
-            if (json.charAt(i) == ',') { i++; continue; }
-            String key = readString(json, i);
-            i = nextIndex;
-            i = skipWs(json, i);
-            if (i < json.length() && json.charAt(i) == ':') i++;
-            i = skipWs(json, i);
-            String val = readValue(json, i);
-            i = nextIndex;
-            out.put(key, val);
-            i = skipWs(json, i);
-            if (i < json.length() && json.charAt(i) == ',') i++;
-        }
+        fields(new Cursor(json, 1), json.length() - 1, out);
         return out;
     }
 
@@ -35,16 +31,16 @@ public final class JsonMini {
         List<String> out = new ArrayList<>();
         json = json == null ? "" : json.trim();
         if (!json.startsWith("[") || !json.endsWith("]")) return out;
-        int i = 1;
-        while (i < json.length() - 1) {
-            i = skipWs(json, i);
-            if (i >= json.length() - 1) break;
-            if (json.charAt(i) == ',') { i++; continue; }
-            String s = readString(json, i);
-            i = nextIndex;
-            out.add(s);
-            i = skipWs(json, i);
-            if (i < json.length() && json.charAt(i) == ',') i++;
+        Cursor c = new Cursor(json, 1);
+        int end = json.length() - 1;
+        while (c.i < end) {
+            c.skipWs();
+            if (c.i >= end) break;
+            char ch = json.charAt(c.i);
+            if (ch == ',') { c.i++; continue; }
+            if (ch == '"') out.add(c.readString());
+            else c.skipValue(); // not a string: skipped (used to spin here)
+            c.skipComma();
         }
         return out;
     }
@@ -53,39 +49,298 @@ public final class JsonMini {
         List<Map<String, String>> out = new ArrayList<>();
         json = json == null ? "" : json.trim();
         if (!json.startsWith("[") || !json.endsWith("]")) return out;
-        int i = 1;
-        while (i < json.length() - 1) {
-            i = skipWs(json, i);
-            if (i >= json.length() - 1) break;
-            if (json.charAt(i) == ',') { i++; continue; }
-            String v = readValue(json, i);
-            i = nextIndex;
-            Map<String, String> o = obj(v);
-            if (!o.isEmpty()) out.add(o);
-            i = skipWs(json, i);
-            if (i < json.length() && json.charAt(i) == ',') i++;
+        Cursor c = new Cursor(json, 1);
+        int end = json.length() - 1;
+        while (c.i < end) {
+            c.skipWs();
+            if (c.i >= end) break;
+            char ch = json.charAt(c.i);
+            if (ch == ',') { c.i++; continue; }
+            if (ch == '{') {
+                // parse the element in place (no substring + re-scan)
+                int close = matchBrace(json, c.i, '{', '}');
+                if (json.charAt(close - 1) == '}') {
+                    Map<String, String> o = new HashMap<>();
+                    fields(new Cursor(json, c.i + 1), close - 1, o);
+                    if (!o.isEmpty()) out.add(o);
+                }
+                c.i = close;
+            } else {
+                c.skipValue(); // not an object: skipped
+            }
+            c.skipComma();
+        }
+        return out;
+    }
+
+    // Array of objects straight into rows: one newRow() per object, filled by reader.
+    public static <T> List<T> arrObjects(String json, Supplier<T> newRow, FieldReader<T> reader) {
+        List<T> out = new ArrayList<>();
+        json = json == null ? "" : json.trim();
+        if (!json.startsWith("[") || !json.endsWith("]")) return out;
+        Cursor c = new Cursor(json, 1);
+        Field f = new Field(c);
+        int end = json.length() - 1;
+        while (c.i < end) {
+            c.skipWs();
+            if (c.i >= end) break;
+            char ch = json.charAt(c.i);
+            if (ch == ',') { c.i++; continue; }
+            if (ch == '{') {
+                int close = matchBrace(json, c.i, '{', '}');
+                if (json.charAt(close - 1) == '}') {
+                    T row = newRow.get();
+                    c.i++;
+                    if (fields(f, close - 1, row, reader)) out.add(row);
+                }
+                c.i = close;
+            } else {
+                c.skipValue();
+            }
+            c.skipComma();
         }
         return out;
     }
 
+    // One object into row; false (row untouched) if json is not an object or has no members.
+    public static <T> boolean obj(String json, T row, FieldReader<T> reader) {
+        json = json == null ? "" : json.trim();
+        if (!json.startsWith("{") || !json.endsWith("}")) return false;
+        return fields(new Field(new Cursor(json, 1)), json.length() - 1, row, reader);
+    }
+
+    // Structural index over a large array of objects (sisListStudents, attGetDefaulters),
+    // built in one scan that decodes nothing: an int tape with the offset of every member's
+    // value (its key sits right before it), plus where each row starts on the tape. Rows are
+    // decoded only when asked for, so a view can show row 50,000 without materializing the
+    // other 49,999. Immutable once built; any number of threads may read it.
+    public static final class Tape {
+        private final String s;
+        private int[] rowStart = new int[64]; // row -> first tape slot; rowStart[rows] = end
+        private int[] tape = new int[256];    // value offset per member
+        private int rows, slots;
+
+        private Tape(String s) {
+            this.s = s;
+        }
+
+        // Same rows as arrObjects(json): non-objects and empty objects are skipped.
+        public static Tape of(String json) {
+            json = json == null ? "" : json.trim();
+            Tape t = new Tape(json);
+            if (json.startsWith("[") && json.endsWith("]")) {
+                Cursor c = new Cursor(json, 1);
+                int end = json.length() - 1;
+                while (c.i < end) {
+                    c.skipWs();
+                    if (c.i >= end) break;
+                    char ch = json.charAt(c.i);
+                    if (ch == ',') { c.i++; continue; }
+                    if (ch == '{') {
+                        c.i++;
+                        t.row(c, end);
+                    } else {
+                        c.skipValue();
+                    }
+                    c.skipComma();
+                }
+            }
+            t.rowStart[t.rows] = t.slots;
+            t.tape = java.util.Arrays.copyOf(t.tape, t.slots);
+            t.rowStart = java.util.Arrays.copyOf(t.rowStart, t.rows + 1);
+            return t;
+        }
+
+        // Members of one object up to its closing brace (single pass, no matchBrace).
+        private void row(Cursor c, int end) {
+            int mark = slots;
+            while (c.i < end) {
+                c.skipWs();
+                if (c.i >= end) break;
+                char ch = s.charAt(c.i);
+                if (ch == '}') {
+                    c.i++;
+                    if (slots > mark) {
+                        if (rows + 2 > rowStart.length) rowStart = java.util.Arrays.copyOf(rowStart, rowStart.length * 2);
+                        rowStart[++rows] = slots;
+                    }
+                    return;
+                }
+                if (ch == ',') { c.i++; continue; }
+                c.skipString(); // key
+                c.skipWs();
+                if (c.i < s.length() && s.charAt(c.i) == ':') c.i++;
+                c.skipWs();
+                if (slots == tape.length) tape = java.util.Arrays.copyOf(tape, tape.length * 2);
+                tape[slots++] = c.i;
+                c.skipValue();
+            }
+            slots = mark; // unterminated object: dropped
+        }
+
+        public int size() {
+            return rows;
+        }
+
+        // Decodes one row into `into` (same FieldReader as the eager typed path).
+        public <T> T decode(int row, T into, FieldReader<T> reader) {
+            Field f = new Field(new Cursor(s, 0));
+            for (int k = rowStart(row); k < rowStart[row + 1]; k++) {
+                at(f, tape[k]);
+                reader.field(into, f);
+            }
+            return into;
+        }
+
+        // Rows [from, to), e.g. the visible window of a virtualized view.
+        public <T> List<T> decode(int from, int to, Supplier<T> newRow, FieldReader<T> reader) {
+            to = Math.min(to, rows);
+            from = Math.max(0, from);
+            List<T> out = new ArrayList<>(Math.max(0, to - from));
+            for (int r = from; r < to; r++) out.add(decode(r, newRow.get(), reader));
+            return out;
+        }
+
+        public int getInt(int row, String key, int def) {
+            Field f = find(row, key);
+            return f == null ? def : f.asInt(def);
+        }
+
+        // "" when the row has no such member (like asString(null)).
+        public String getString(int row, String key) {
+            Field f = find(row, key);
+            return f == null ? "" : f.asString();
+        }
+
+        public boolean getBool(int row, String key) {
+            Field f = find(row, key);
+            return f != null && f.asBool();
+        }
+
+        // Index size only; the JSON text itself is the caller's.
+        public long memoryBytes() {
+            return 4L * (rowStart.length + tape.length) + 2 * 16 + 32;
+        }
+
+        private int rowStart(int row) {
+            if (row < 0 || row >= rows) throw new IndexOutOfBoundsException("row " + row + " of " + rows);
+            return rowStart[row];
+        }
+
+        private Field find(int row, String key) {
+            Field f = new Field(new Cursor(s, 0));
+            for (int k = rowStart(row); k < rowStart[row + 1]; k++) {
+                at(f, tape[k]);
+                if (f.is(key)) return f;
+            }
+            return null;
+        }
+
+        // Points f at the member whose value starts at v: back over ':' to the key's quotes.
+        private void at(Field f, int v) {
+            int j = v - 1;
+            while (j > 0 && s.charAt(j) != '"') j--;
+            f.keyEnd = j;
+            j--;
+            while (j > 0 && (s.charAt(j) != '"' || s.charAt(j - 1) == '\\')) j--;
+            f.keyStart = j + 1;
+            f.valueStart = v;
+            f.valueEnd = -1;
+        }
+    }
+
+    // Decodes an array of objects that arrives in chunks (a ReplySink, e.g. for
+    // sisListStudentsStream): each row is decoded with reader as soon as its closing brace
+    // arrives and handed to each, so memory is one chunk plus one row whatever the size of
+    // the listing. Chunks may split rows, strings and UTF-8 sequences anywhere. Same rows
+    // as arrObjects(json, newRow, reader). One stream per reply, used by one thread.
+    public static final class ArrayStream<T> implements ReplySink {
+        private final Supplier<T> newRow;
+        private final FieldReader<T> reader;
+        private final Consumer<T> each;
+        private byte[] chunk = new byte[0];
+        private byte[] row = new byte[256]; // bytes of the row being received
+        private int len, depth, rows;
+        private boolean started, inString, escaped;
+
+        public ArrayStream(Supplier<T> newRow, FieldReader<T> reader, Consumer<T> each) {
+            this.newRow = newRow;
+            this.reader = reader;
+            this.each = each;
+        }
+
+        @Override
+        public boolean accept(ByteBuffer buf, int length) {
+            if (chunk.length < length) chunk = new byte[length];
+            buf.get(0, chunk, 0, length);
+            for (int i = 0; i < length; i++) {
+                byte b = chunk[i];
+                if (depth >= 2) append(b);
+                if (inString) {
+                    if (escaped) escaped = false;
+                    else if (b == '\\') escaped = true;
+                    else if (b == '"') inString = false;
+                    continue;
+                }
+                if (b == '"') {
+                    inString = true;
+                } else if (b == '{' || b == '[') {
+                    if (depth == 1 && b == '{') {
+                        len = 0;
+                        append(b);
+                    }
+                    if (depth == 0) started = true;
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                    if (depth == 1 && b == '}') row();
+                }
+            }
+            return true;
+        }
+
+        // Rows decoded so far.
+        public int rows() {
+            return rows;
+        }
+
+        // True once the outer array has been closed.
+        public boolean complete() {
+            return started && depth == 0;
+        }
+
+        private void append(byte b) {
+            if (len == row.length) row = java.util.Arrays.copyOf(row, len * 2);
+            row[len++] = b;
+        }
+
+        private void row() {
+            T r = newRow.get();
+            if (obj(new String(row, 0, len, StandardCharsets.UTF_8), r, reader)) {
+                rows++;
+                each.accept(r);
+            }
+            len = 0;
+        }
+    }
+
     // Parses: [1,2,3,...] into List<Integer>
     public static List<Integer> arrInts(String json) {
         List<Integer> out = new ArrayList<>();
         json = json == null ? "" : json.trim();
         if (!json.startsWith("[") || !json.endsWith("]")) return out;
-        int i = 1;
-        while (i < json.length() - 1) {
-            i = skipWs(json, i);
-            if (i >= json.length() - 1) break;
-            if (json.charAt(i) == ',') { i++; continue; }
-            String v = readValue(json, i);
-            i = nextIndex;
+        Cursor c = new Cursor(json, 1);
+        int end = json.length() - 1;
+        while (c.i < end) {
+            c.skipWs();
+            if (c.i >= end) break;
+            if (json.charAt(c.i) == ',') { c.i++; continue; }
+            String v = c.readValue();
             try {
                 out.add(Integer.parseInt(stripQuotes(v)));
             } catch (Exception ignored) {
             }
-            i = skipWs(json, i);
-            if (i < json.length() && json.charAt(i) == ',') i++;
+            c.skipComma();
         }
         return out;
     }
@@ -151,73 +406,226 @@ public final class JsonMini {
 
     // --- internal scanner ---
 
-    private static int nextIndex = 0;
+    // Object members between c.i and end (exclusive: the closing brace) into out.
+    private static void fields(Cursor c, int end, Map<String, String> out) {
+        String s = c.s;
+        while (c.i < end) {
+            c.skipWs();
+            if (c.i >= end) break;
+            if (s.charAt(c.i) == ',') { c.i++; continue; }
+            String key = c.readString();
+            c.skipWs();
+            if (c.i < s.length() && s.charAt(c.i) == ':') c.i++;
+            String val = c.readValue();
+            out.put(key, val);
+            c.skipComma();
+        }
+    }
 
-    private static int skipWs(String s, int i) {
-        while (i < s.length()) {
-            char c = s.charAt(i);
-            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') break;
-            i++;
+    private static <T> boolean fields(Field f, int end, T row, FieldReader<T> reader) {
+        Cursor c = f.c;
+        String s = c.s;
+        boolean any = false;
+        while (c.i < end) {
+            c.skipWs();
+            if (c.i >= end) break;
+            if (s.charAt(c.i) == ',') { c.i++; continue; }
+            c.skipString(); // key: [mark, i) holds the quoted key
+            f.keyStart = c.mark + 1;
+            f.keyEnd = c.i - 1;
+            c.skipWs();
+            if (c.i < s.length() && s.charAt(c.i) == ':') c.i++;
+            c.skipWs();
+            f.valueStart = c.i;
+            f.valueEnd = -1;
+            reader.field(row, f);
+            if (f.valueEnd < 0) c.skipValue();
+            else c.i = f.valueEnd;
+            any = true;
+            c.skipComma();
         }
-        return i;
+        return any;
     }
 
-    private static String readString(String s, int i) {
-        i = skipWs(s, i);
-        if (i >= s.length() || s.charAt(i) != '"') {
-            nextIndex = i;
-            return "";
+    // The member a FieldReader is looking at. One per parse, reused for every member.
+    public static final class Field {
+        private final Cursor c;
+        private int keyStart, keyEnd, valueStart, valueEnd;
+
+        private Field(Cursor c) {
+            this.c = c;
         }
-        i++;
-        StringBuilder sb = new StringBuilder();
-        while (i < s.length()) {
-            char c = s.charAt(i);
-            if (c == '"') {
-                i++;
-                break;
+
+        // Compares the key in place (our keys are plain ASCII, never escaped).
+        public boolean is(String key) {
+            int n = keyEnd - keyStart;
+            return n == key.length() && c.s.startsWith(key, keyStart);
+        }
+
+        public String key() {
+            return c.s.substring(keyStart, keyEnd);
+        }
+
+        // Same results as JsonMini.asInt on the Map path: numbers or quoted numbers, else def.
+        public int asInt(int def) {
+            String s = c.s;
+            c.i = valueStart;
+            c.skipValue();
+            valueEnd = c.i;
+            int i = valueStart, end = valueEnd;
+            while (end > i && s.charAt(end - 1) <= ' ') end--;
+            if (end - i >= 2 && s.charAt(i) == '"' && s.charAt(end - 1) == '"') { i++; end--; }
+            boolean neg = false;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) neg = s.charAt(i++) == '-';
+            if (i >= end) return def;
+            long v = 0;
+            for (; i < end; i++) {
+                char ch = s.charAt(i);
+                if (ch < '0' || ch > '9') return def;
+                v = v * 10 + (ch - '0');
+                if (v > (long) Integer.MAX_VALUE + 1) return def;
             }
-            if (c == '\\' && i + 1 < s.length()) {
-                char n = s.charAt(i + 1);
-                if (n == '"' || n == '\\' || n == '/') { sb.append(n); i += 2; continue; }
-                if (n == 'n') { sb.append('\n'); i += 2; continue; }
-                if (n == 'r') { sb.append('\r'); i += 2; continue; }
-                if (n == 't') { sb.append('\t'); i += 2; continue; }
+            if (neg) v = -v;
+            return v < Integer.MIN_VALUE || v > Integer.MAX_VALUE ? def : (int) v;
+        }
+
+        public boolean asBool() {
+            String s = c.s;
+            c.i = valueStart;
+            c.skipValue();
+            valueEnd = c.i;
+            int end = valueEnd;
+            while (end > valueStart && s.charAt(end - 1) <= ' ') end--;
+            int len = end - valueStart;
+            return (len == 4 && s.startsWith("true", valueStart)) || (len == 6 && s.startsWith("\"true\"", valueStart));
+        }
+
+        // Decoded string value (one substring when it has no escapes); other values as raw text.
+        public String asString() {
+            c.i = valueStart;
+            if (valueStart < c.s.length() && c.s.charAt(valueStart) == '"') {
+                String v = c.readString();
+                valueEnd = c.i;
+                return v;
             }
-            sb.append(c);
-            i++;
+            c.skipValue();
+            valueEnd = c.i;
+            return c.s.substring(valueStart, valueEnd).trim();
         }
-        nextIndex = i;
-        return sb.toString();
     }
 
-    private static String readValue(String s, int i) {
-        i = skipWs(s, i);
-        if (i >= s.length()) { nextIndex = i; return ""; }
-        char c = s.charAt(i);
-        if (c == '"') {
-            String str = readString(s, i);
-            nextIndex = nextIndex;
-            return "\"" + str.replace("\"", "\\\"") + "\"";
+    // Scan position for one parse. Each call creates its own, so parses on different
+    // threads share no state (the old scanner kept the position in a static field).
+    private static final class Cursor {
+        final String s;
+        int i;
+        int mark; // start of the last skipString
+
+        Cursor(String s, int i) {
+            this.s = s;
+            this.i = i;
         }
-        if (c == '{') {
-            int end = matchBrace(s, i, '{', '}');
-            nextIndex = end;
-            return s.substring(i, end);
+
+        void skipWs() {
+            i = JsonMini.skipWs(s, i);
         }
-        if (c == '[') {
-            int end = matchBrace(s, i, '[', ']');
-            nextIndex = end;
-            return s.substring(i, end);
+
+        void skipComma() {
+            skipWs();
+            if (i < s.length() && s.charAt(i) == ',') i++;
         }
 
-        int j = i;
-        while (j < s.length()) {
-            char cc = s.charAt(j);
-            if (cc == ',' || cc == '}' || cc == ']') break;
-            j++;
+        String readString() {
+            skipWs();
+            if (i >= s.length() || s.charAt(i) != '"') return "";
+            i++;
+            // fast path: no escapes, one substring
+            int start = i;
+            while (i < s.length()) {
+                char c = s.charAt(i);
+                if (c == '"') return s.substring(start, i++);
+                if (c == '\\') break;
+                i++;
+            }
+            StringBuilder sb = new StringBuilder(i - start + 16).append(s, start, i);
+            while (i < s.length()) {
+                char c = s.charAt(i);
+                if (c == '"') {
+                    i++;
+                    break;
+                }
+                if (c == '\\' && i + 1 < s.length()) {
+                    char n = s.charAt(i + 1);
+                    if (n == '"' || n == '\\' || n == '/') { sb.append(n); i += 2; continue; }
+                    if (n == 'n') { sb.append('\n'); i += 2; continue; }
+                    if (n == 'r') { sb.append('\r'); i += 2; continue; }
+                    if (n == 't') { sb.append('\t'); i += 2; continue; }
+                }
+                sb.append(c);
+                i++;
+            }
+            return sb.toString();
+        }
+
+        // Past one quoted string without decoding it (mark = its opening quote).
+        void skipString() {
+            skipWs();
+            mark = i;
+            if (i >= s.length() || s.charAt(i) != '"') return;
+            i++;
+            while (i < s.length()) {
+                char c = s.charAt(i++);
+                if (c == '"') return;
+                if (c == '\\') i++;
+            }
+            if (i > s.length()) i = s.length();
+        }
+
+        // Past one value of any kind, allocating nothing.
+        void skipValue() {
+            skipWs();
+            if (i >= s.length()) return;
+            char c = s.charAt(i);
+            if (c == '"') { skipString(); return; }
+            if (c == '{' || c == '[') { i = matchBrace(s, i, c, c == '{' ? '}' : ']'); return; }
+            while (i < s.length()) {
+                char cc = s.charAt(i);
+                if (cc == ',' || cc == '}' || cc == ']') break;
+                i++;
+            }
         }
-        nextIndex = j;
-        return s.substring(i, j).trim();
+
+        String readValue() {
+            skipWs();
+            if (i >= s.length()) return "";
+            char c = s.charAt(i);
+            if (c == '"') {
+                String str = readString();
+                return "\"" + str.replace("\"", "\\\"") + "\"";
+            }
+            if (c == '{' || c == '[') {
+                int start = i;
+                i = matchBrace(s, i, c, c == '{' ? '}' : ']');
+                return s.substring(start, i);
+            }
+
+            int start = i;
+            while (i < s.length()) {
+                char cc = s.charAt(i);
+                if (cc == ',' || cc == '}' || cc == ']') break;
+                i++;
+            }
+            return s.substring(start, i).trim();
+        }
+    }
+
+    private static int skipWs(String s, int i) {
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') break;
+            i++;
+        }
+        return i;
     }
 
     private static int matchBrace(String s, int i, char open, char close) {
@@ -1,8 +1,8 @@
 public class MainMenu {
     public static void main(String[] args) {
-        // In CI/headless environments we can still validate JNI wiring.
+        // In CI/headless environments we can still validate the backend wiring.
         if (java.awt.GraphicsEnvironment.isHeadless()) {
-            NativeBridge nb = new NativeBridge();
+            CampusBackend nb = CampusBackend.create();
             System.out.println(nb.testConnection());
             System.out.println("Divergence: " + nb.navDivergenceReport());
             System.out.println("BFS Gate->Library: " + nb.navShortestPath("Gate", "Library", "BFS"));
@@ -14,7 +14,7 @@ public class MainMenu {
         }
 
         javax.swing.SwingUtilities.invokeLater(() -> {
-            NativeBridge nb = new NativeBridge();
+            CampusBackend nb = CampusBackend.create();
             SmartCampusFrame frame = new SmartCampusFrame(nb);
             frame.setVisible(true);
         });
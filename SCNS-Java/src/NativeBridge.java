@@ -1,7 +1,10 @@
-public class NativeBridge {
+// CampusBackend over the C++ backend in Cpp-Native (JNI native methods).
+public class NativeBridge implements CampusBackend {
 
     // Native backend handle (no global state on C++ side)
     private long handle = 0;
+    // Closes the backend at JVM exit if the app never did; removed by close().
+    private Thread shutdownHook;
 
     static {
         // Cross-platform JNI loader:
@@ -33,12 +36,26 @@ public class NativeBridge {
             System.err.println("Failed to load JNI library: " + t);
             throw t;
         }
+        NativeStats.register();
 }
 
     // Core
     public native String testConnection();
     public native boolean init(String csvPath);
-    public native void close();
+    // Closes the backend and unregisters the exit hook, so a closed bridge is not kept alive.
+    public void close() {
+        dropShutdownHook();
+        release();
+    }
+    // Closes the native backend; no-op when none is open.
+    protected native void release();
+    public native long memoryBytes();
+    // Native state shared by every open Backend (the campus graph), in bytes.
+    public static native long sharedMemoryBytes();
+    // Process-wide per-entry-point counters (JNI and FFM calls):
+    // {"sisGetStudent":{"calls":n,"totalNs":n,"maxNs":n,"bytes":n},...}
+    // Also published over JMX as scns:type=NativeStats (see NativeStats).
+    public static native String nativeStats();
 
     // Navigator (Graph + BFS/Dijkstra)
     public native String[] navLocations();
@@ -51,38 +68,87 @@ public class NativeBridge {
     public native String sisGetStudentTrace(int roll);
     public native String sisDeleteStudent(int roll);
     public native String sisListStudents();
+    public native String sisListStudentsPage(int afterRoll, int limit);
+    public native String sisListRange(int lo, int hi, int limit);
+    public native String sisSearchByNamePrefix(String prefix, int limit);
+    public native String sisListStudentsByName(String afterName, int afterRoll, int limit);
+    // Chunks are copied into chunk (a direct buffer) and handed to sink; see ReplySink.
+    public native boolean sisListStudentsStream(java.nio.ByteBuffer chunk, ReplySink sink);
     public native String sisImportCsv(String csvPath);
     public native String sisExportCsv(String csvPath);
+    public native String sisSetCommitWindow(int windowMicros, int maxBatch);
+    public native String sisCommitStats();
+    // Bulk columnar listings (direct buffer, layout in StudentColumns).
+    // Return bytes written, or -(bytes needed) when buf is too small.
+    public native int sisListStudentsInto(java.nio.ByteBuffer buf);
+    public native int attGetDefaultersInto(int minPercent, java.nio.ByteBuffer buf);
     // Attendance (stored in student records)
     public native String attNewSessionDay();
     public native String attMarkPresent(int roll);
+    // Marks a whole lecture in one call: new present count per roll (-1 = not found),
+    // or null if the backend is not initialized or saving failed.
+    public native int[] attMarkPresentBatch(int[] rolls);
     public native String attGetSummary(int roll);
     public native String attGetDefaulters(int minPercent);
 
     public NativeBridge() {
-        // Default data file (try to locate repo-root /data/students.csv)
-        String path = "data/students.csv";
+        this(defaultCsvPath());
+    }
+
+    public NativeBridge(String csvPath) {
+        init(csvPath);
+        Thread hook = new Thread(() -> {
+            try { release(); } catch (Throwable ignored) {}
+        });
+        synchronized (this) { shutdownHook = hook; }
+        Runtime.getRuntime().addShutdownHook(hook);
+    }
+
+    private void dropShutdownHook() {
+        Thread hook;
+        synchronized (this) {
+            hook = shutdownHook;
+            shutdownHook = null;
+        }
+        if (hook == null) return;
         try {
-            java.io.File dir = new java.io.File(System.getProperty("user.dir"));
-            java.io.File found = null;
-            for (int i = 0; i < 6 && dir != null; i++) {
-                java.io.File candidate = new java.io.File(new java.io.File(dir, "data"), "students.csv");
-                if (candidate.exists()) { found = candidate; break; }
-                dir = dir.getParentFile();
-            }
-            if (found != null) {
-                path = found.getAbsolutePath();
-            } else {
-                java.io.File f = new java.io.File(path);
-                java.io.File parent = f.getParentFile();
-                if (parent != null) parent.mkdirs();
-                path = f.getAbsolutePath();
+            Runtime.getRuntime().removeShutdownHook(hook);
+        } catch (IllegalStateException ignored) {
+            // the JVM is already shutting down; the hook closes the backend
+        }
+    }
+
+    // Picks the bridge implementation at startup:
+    //   -Dcampus.bridge=jni (default)  JNI native methods below
+    //   -Dcampus.bridge=ffm            java.lang.foreign downcalls (ForeignBridge, JDK 22+, src-ffm)
+    // Falls back to JNI if the FFM bridge is not on the classpath or cannot link.
+    public static NativeBridge create() {
+        return create(System.getProperty("campus.bridge", "jni"), defaultCsvPath());
+    }
+
+    public static NativeBridge create(String kind, String csvPath) {
+        if ("ffm".equalsIgnoreCase(kind)) {
+            try {
+                return (NativeBridge) Class.forName("ForeignBridge").getConstructor(String.class).newInstance(csvPath);
+            } catch (Throwable t) {
+                System.err.println("FFM bridge unavailable, using JNI: " + t);
             }
-        } catch (Throwable ignored) {}
-        init(path);
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            try { close(); } catch (Throwable ignored) {}
-        }));
+        }
+        return new NativeBridge(csvPath);
+    }
+
+    // Backend pointer shared with ForeignBridge, so calls it does not override still
+    // reach the same native Backend through JNI.
+    protected final long handle() {
+        return handle;
+    }
+
+    protected final void adoptHandle(long h) {
+        handle = h;
+    }
+
+    static String defaultCsvPath() {
+        return CampusBackend.defaultCsvPath();
     }
 }
 
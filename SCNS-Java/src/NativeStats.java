@@ -0,0 +1,77 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.management.ObjectName;
+
+// NativeStatsMXBean over the native counters (Cpp-Native/stats.h). Registered once when
+// the native library loads; every attribute read takes one fresh snapshot.
+public final class NativeStats implements NativeStatsMXBean {
+    static final String OBJECT_NAME = "scns:type=NativeStats";
+
+    // nativeStats() is flat and machine-written, so a pattern is enough.
+    private static final Pattern ENTRY = Pattern.compile(
+            "\"(\\w+)\":\\{\"calls\":(\\d+),\"totalNs\":(\\d+),\"maxNs\":(\\d+),\"bytes\":(\\d+)\\}");
+
+    private static final int CALLS = 0, TOTAL_NS = 1, MAX_NS = 2, BYTES = 3;
+
+    static synchronized void register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            javax.management.MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) server.registerMBean(new NativeStats(), name);
+        } catch (Exception | LinkageError e) {
+            // no JMX (e.g. a minimal runtime): stats stay available through nativeStats()
+            System.err.println("NativeStats MBean not registered: " + e);
+        }
+    }
+
+    // entry point -> {calls, totalNs, maxNs, bytes}
+    static Map<String, long[]> snapshot() {
+        Map<String, long[]> out = new TreeMap<>();
+        Matcher m = ENTRY.matcher(NativeBridge.nativeStats());
+        while (m.find()) {
+            out.put(m.group(1), new long[] {
+                    Long.parseLong(m.group(2)), Long.parseLong(m.group(3)),
+                    Long.parseLong(m.group(4)), Long.parseLong(m.group(5)) });
+        }
+        return out;
+    }
+
+    private static Map<String, Long> column(int field) {
+        Map<String, Long> out = new TreeMap<>();
+        snapshot().forEach((k, v) -> out.put(k, v[field]));
+        return out;
+    }
+
+    @Override
+    public Map<String, Long> getCalls() { return column(CALLS); }
+
+    @Override
+    public Map<String, Long> getTotalNanos() { return column(TOTAL_NS); }
+
+    @Override
+    public Map<String, Long> getMaxNanos() { return column(MAX_NS); }
+
+    @Override
+    public Map<String, Long> getBytesReturned() { return column(BYTES); }
+
+    @Override
+    public Map<String, Long> getMeanNanos() {
+        Map<String, Long> out = new TreeMap<>();
+        snapshot().forEach((k, v) -> out.put(k, v[CALLS] > 0 ? v[TOTAL_NS] / v[CALLS] : 0));
+        return out;
+    }
+
+    @Override
+    public long getTotalCalls() {
+        long sum = 0;
+        for (long[] v : snapshot().values()) sum += v[CALLS];
+        return sum;
+    }
+
+    @Override
+    public String getStatsJson() { return NativeBridge.nativeStats(); }
+}
@@ -0,0 +1,13 @@
+import java.util.Map;
+
+// JMX view of NativeBridge.nativeStats(), keyed by native entry point (e.g. "sisGetStudent").
+// Readable from JConsole/VisualVM under scns:type=NativeStats.
+public interface NativeStatsMXBean {
+    Map<String, Long> getCalls();
+    Map<String, Long> getTotalNanos();
+    Map<String, Long> getMaxNanos();
+    Map<String, Long> getMeanNanos();
+    Map<String, Long> getBytesReturned();
+    long getTotalCalls();
+    String getStatsJson();
+}
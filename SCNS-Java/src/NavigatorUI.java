@@ -10,7 +10,7 @@ import javax.swing.JLayeredPane;
 import javax.swing.JPanel;
 
 public class NavigatorUI extends JPanel {
-    private final NativeBridge nb;
+    private final AsyncNativeBridge nb;
     private final JLayeredPane layers;
 
     private final JComboBox<String> src;
@@ -28,14 +28,15 @@ public class NavigatorUI extends JPanel {
     private java.util.List<Integer> lastBfsEdgeW, lastDijEdgeW;
     private String lastWinner = "Dijkstra";
 
-    public NavigatorUI(NativeBridge nb, JLayeredPane layers) {
+    public NavigatorUI(AsyncNativeBridge nb, JLayeredPane layers) {
         this.nb = nb;
         this.layers = layers;
 
         setOpaque(false);
         setLayout(null);
 
-        String[] nodes = safe(nb.navLocations());
+        // Needed to build the combo boxes; an in-memory read, so it stays synchronous.
+        String[] nodes = safe(nb.sync().navLocations());
         src = new JComboBox<>(nodes);
         dst = new JComboBox<>(nodes);
         UIStyle.comboBox(src);
@@ -209,37 +210,39 @@ public class NavigatorUI extends JPanel {
             return;
         }
 
-        String json = nb.navShortestPath(a, b, algorithm);
-        java.util.Map<String, String> o = JsonMini.obj(json);
-        if (!JsonMini.asBool(o.get("ok"))) {
-            Toast.show(layers, JsonMini.asString(o.getOrDefault("error", "Route not found.")), Theme.DANGER);
-            out.setText("No route found.");
-            graph.animateTraversal(java.util.Collections.emptyList(), java.util.Collections.emptyList(), java.util.Collections.emptyList(), algorithm);
-            return;
-        }
+        final String algo = algorithm;
+        nb.navShortestPath(a, b, algo).thenAccept(json -> {
+            java.util.Map<String, String> o = JsonMini.obj(json);
+            if (!JsonMini.asBool(o.get("ok"))) {
+                Toast.show(layers, JsonMini.asString(o.getOrDefault("error", "Route not found.")), Theme.DANGER);
+                out.setText("No route found.");
+                graph.animateTraversal(java.util.Collections.emptyList(), java.util.Collections.emptyList(), java.util.Collections.emptyList(), algo);
+                return;
+            }
 
-        int hops = JsonMini.asInt(o.get("hops"), -1);
-        int cost = JsonMini.asInt(o.get("cost"), -1);
-        java.util.List<String> path = JsonMini.arrStrings(o.get("path"));
-        java.util.List<String> visited = JsonMini.arrStrings(o.get("visited"));
-        java.util.List<Integer> edgeW = JsonMini.arrInts(o.get("edgeWeights"));
+            int hops = JsonMini.asInt(o.get("hops"), -1);
+            int cost = JsonMini.asInt(o.get("cost"), -1);
+            java.util.List<String> path = JsonMini.arrStrings(o.get("path"));
+            java.util.List<String> visited = JsonMini.arrStrings(o.get("visited"));
+            java.util.List<Integer> edgeW = JsonMini.arrInts(o.get("edgeWeights"));
 
-        if ("BFS".equals(JsonMini.asString(o.get("algorithm")))) {
-            out.setText("BFS: hops " + hops + " • cost " + cost + "   •   Path: " + String.join(" → ", path));
-        } else {
-            out.setText("Dijkstra: cost " + cost + " • hops " + hops + "   •   Path: " + String.join(" → ", path));
-        }
-        compare.setText("Tip: click Compare to see both algorithms at once.");
-        chips.setChips(new String[] { "Visited: " + visited.size(), "Hops: " + hops, "Cost: " + cost },
-                new java.awt.Color[] { Theme.ACCENT_2, Theme.CARD_2, Theme.CARD_2 });
-        graph.setMode(algorithm);
-        graph.animateTraversal(path, visited, edgeW, algorithm);
-
-        if ("BFS".equals(algorithm)) {
-            explain.setText("<html><b>Why this route?</b><br/>BFS minimizes number of locations passed (hops).<br/>It may ignore a shorter walking-time route.</html>");
-        } else {
-            explain.setText("<html><b>Why this route?</b><br/>Dijkstra minimizes total walking cost (sum of edge weights).<br/>It may take more stops if the total is smaller.</html>");
-        }
+            if ("BFS".equals(JsonMini.asString(o.get("algorithm")))) {
+                out.setText("BFS: hops " + hops + " • cost " + cost + "   •   Path: " + String.join(" → ", path));
+            } else {
+                out.setText("Dijkstra: cost " + cost + " • hops " + hops + "   •   Path: " + String.join(" → ", path));
+            }
+            compare.setText("Tip: click Compare to see both algorithms at once.");
+            chips.setChips(new String[] { "Visited: " + visited.size(), "Hops: " + hops, "Cost: " + cost },
+                    new java.awt.Color[] { Theme.ACCENT_2, Theme.CARD_2, Theme.CARD_2 });
+            graph.setMode(algo);
+            graph.animateTraversal(path, visited, edgeW, algo);
+
+            if ("BFS".equals(algo)) {
+                explain.setText("<html><b>Why this route?</b><br/>BFS minimizes number of locations passed (hops).<br/>It may ignore a shorter walking-time route.</html>");
+            } else {
+                explain.setText("<html><b>Why this route?</b><br/>Dijkstra minimizes total walking cost (sum of edge weights).<br/>It may take more stops if the total is smaller.</html>");
+            }
+        });
     }
 
     private void compare() {
@@ -254,50 +257,55 @@ public class NavigatorUI extends JPanel {
             return;
         }
 
-        java.util.Map<String, String> bfs = JsonMini.obj(nb.navShortestPath(a, b, "BFS"));
-        java.util.Map<String, String> dij = JsonMini.obj(nb.navShortestPath(a, b, "Dijkstra"));
-        if (!JsonMini.asBool(bfs.get("ok")) || !JsonMini.asBool(dij.get("ok"))) {
-            Toast.show(layers, "Comparison failed (route not found).", Theme.DANGER);
-            return;
-        }
+        // both routes in one background task, so the race always compares the same graph state
+        nb.submit(bridge -> new String[] {
+                bridge.navShortestPath(a, b, "BFS"),
+                bridge.navShortestPath(a, b, "Dijkstra") }).thenAccept(res -> {
+            java.util.Map<String, String> bfs = JsonMini.obj(res[0]);
+            java.util.Map<String, String> dij = JsonMini.obj(res[1]);
+            if (!JsonMini.asBool(bfs.get("ok")) || !JsonMini.asBool(dij.get("ok"))) {
+                Toast.show(layers, "Comparison failed (route not found).", Theme.DANGER);
+                return;
+            }
 
-        int bfsHops = JsonMini.asInt(bfs.get("hops"), -1);
-        int bfsCost = JsonMini.asInt(bfs.get("cost"), -1);
-        int dijHops = JsonMini.asInt(dij.get("hops"), -1);
-        int dijCost = JsonMini.asInt(dij.get("cost"), -1);
-
-        java.util.List<String> bfsPath = JsonMini.arrStrings(bfs.get("path"));
-        java.util.List<String> dijPath = JsonMini.arrStrings(dij.get("path"));
-        java.util.List<String> bfsVisited = JsonMini.arrStrings(bfs.get("visited"));
-        java.util.List<String> dijVisited = JsonMini.arrStrings(dij.get("visited"));
-        java.util.List<Integer> bfsEdgeW = JsonMini.arrInts(bfs.get("edgeWeights"));
-        java.util.List<Integer> dijEdgeW = JsonMini.arrInts(dij.get("edgeWeights"));
-
-        out.setText("Algorithm Race: BFS vs Dijkstra");
-        boolean costWinnerDij = (dijCost >= 0 && bfsCost >= 0 && dijCost < bfsCost);
-        boolean hopWinnerBfs = (bfsHops >= 0 && dijHops >= 0 && bfsHops < dijHops);
-        String winner = costWinnerDij ? "Dijkstra" : "BFS";
-        compare.setText("Winner: " + winner + "  •  (Cost decides the winner; BFS can still win on hops)");
-
-        String chip1 = costWinnerDij ? "Best cost: Dijkstra" : "Best cost: BFS path";
-        String chip2 = hopWinnerBfs ? "Fewest hops: BFS" : "Fewest hops: Dijkstra";
-        String chip3 = "Visited: BFS " + bfsVisited.size() + " • Dij " + dijVisited.size();
-        chips.setChips(new String[] { chip1, chip2, chip3 }, new java.awt.Color[] { Theme.ACCENT, Theme.ACCENT_2, Theme.CARD_2 });
-
-        explain.setText("<html><b>Why do they differ?</b><br/>"
-                + "BFS chooses the route with <b>fewest stops</b> (hops = " + bfsHops + ").<br/>"
-                + "Dijkstra chooses the route with <b>lowest total cost</b> (cost = " + dijCost + ").</html>");
-
-        // cache for replay
-        lastBfsPath = bfsPath;
-        lastDijPath = dijPath;
-        lastBfsVisited = bfsVisited;
-        lastDijVisited = dijVisited;
-        lastBfsEdgeW = bfsEdgeW;
-        lastDijEdgeW = dijEdgeW;
-        lastWinner = winner;
-
-        graph.animateRace(bfsPath, bfsVisited, bfsEdgeW, dijPath, dijVisited, dijEdgeW, winner);
+            int bfsHops = JsonMini.asInt(bfs.get("hops"), -1);
+            int bfsCost = JsonMini.asInt(bfs.get("cost"), -1);
+            int dijHops = JsonMini.asInt(dij.get("hops"), -1);
+            int dijCost = JsonMini.asInt(dij.get("cost"), -1);
+
+            java.util.List<String> bfsPath = JsonMini.arrStrings(bfs.get("path"));
+            java.util.List<String> dijPath = JsonMini.arrStrings(dij.get("path"));
+            java.util.List<String> bfsVisited = JsonMini.arrStrings(bfs.get("visited"));
+            java.util.List<String> dijVisited = JsonMini.arrStrings(dij.get("visited"));
+            java.util.List<Integer> bfsEdgeW = JsonMini.arrInts(bfs.get("edgeWeights"));
+            java.util.List<Integer> dijEdgeW = JsonMini.arrInts(dij.get("edgeWeights"));
+
+            out.setText("Algorithm Race: BFS vs Dijkstra");
+            boolean costWinnerDij = (dijCost >= 0 && bfsCost >= 0 && dijCost < bfsCost);
+            boolean hopWinnerBfs = (bfsHops >= 0 && dijHops >= 0 && bfsHops < dijHops);
+            String winner = costWinnerDij ? "Dijkstra" : "BFS";
+            compare.setText("Winner: " + winner + "  •  (Cost decides the winner; BFS can still win on hops)");
+
+            String chip1 = costWinnerDij ? "Best cost: Dijkstra" : "Best cost: BFS path";
+            String chip2 = hopWinnerBfs ? "Fewest hops: BFS" : "Fewest hops: Dijkstra";
+            String chip3 = "Visited: BFS " + bfsVisited.size() + " • Dij " + dijVisited.size();
+            chips.setChips(new String[] { chip1, chip2, chip3 }, new java.awt.Color[] { Theme.ACCENT, Theme.ACCENT_2, Theme.CARD_2 });
+
+            explain.setText("<html><b>Why do they differ?</b><br/>"
+                    + "BFS chooses the route with <b>fewest stops</b> (hops = " + bfsHops + ").<br/>"
+                    + "Dijkstra chooses the route with <b>lowest total cost</b> (cost = " + dijCost + ").</html>");
+
+            // cache for replay
+            lastBfsPath = bfsPath;
+            lastDijPath = dijPath;
+            lastBfsVisited = bfsVisited;
+            lastDijVisited = dijVisited;
+            lastBfsEdgeW = bfsEdgeW;
+            lastDijEdgeW = dijEdgeW;
+            lastWinner = winner;
+
+            graph.animateRace(bfsPath, bfsVisited, bfsEdgeW, dijPath, dijVisited, dijEdgeW, winner);
+        });
     }
 
     // Premium chips row
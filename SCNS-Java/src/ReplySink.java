@@ -0,0 +1,12 @@
+import java.nio.ByteBuffer;
+
+// Receives a streamed reply (UTF-8 JSON, see CampusBackend.sisListStudentsStream) one chunk
+// at a time: bytes [0, length) of buf. buf is reused for the next chunk once this returns,
+// so copy or decode what is needed before returning. Return false to stop the stream.
+// Runs on the calling thread with no backend lock held (the listing is encoded a few hundred
+// records at a time under the lock, then handed over), so the sink may call any campus,
+// the streaming one included.
+@FunctionalInterface
+public interface ReplySink {
+    boolean accept(ByteBuffer buf, int length);
+}
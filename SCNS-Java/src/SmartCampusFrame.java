@@ -24,7 +24,8 @@ import javax.swing.SwingConstants;
 import javax.swing.Timer;
 
 public class SmartCampusFrame extends JFrame {
-    private final NativeBridge nb;
+    private final CampusBackend nb;
+    private final AsyncNativeBridge async; // module screens call the backend off the EDT
     private final JLayeredPane layers = new JLayeredPane();
 
     private final AnimatedSwitcher switcher = new AnimatedSwitcher();
@@ -45,9 +46,10 @@ public class SmartCampusFrame extends JFrame {
         switcher.switchTo(key);
     }
 
-    public SmartCampusFrame(NativeBridge nb) {
+    public SmartCampusFrame(CampusBackend nb) {
         super("SmartCampus DSA Project");
         this.nb = nb;
+        this.async = new AsyncNativeBridge(nb, t -> Toast.show(layers, "Backend error: " + t, Theme.DANGER));
 
         Theme.apply();
 
@@ -101,9 +103,9 @@ public class SmartCampusFrame extends JFrame {
             HomePanel home = new HomePanel(nb, key -> {
                 openScreen(key);
             });
-            NavigatorUI nav = new NavigatorUI(nb, layers);
-            StudentInfoUI sis = new StudentInfoUI(nb, layers);
-            AttendanceUI att = new AttendanceUI(nb, layers);
+            NavigatorUI nav = new NavigatorUI(async, layers);
+            StudentInfoUI sis = new StudentInfoUI(async, layers);
+            AttendanceUI att = new AttendanceUI(async, layers);
 
             switcher.addScreen("home", home);
             switcher.addScreen("nav", nav);
@@ -489,7 +491,7 @@ class AnimatedSwitcher extends JPanel {
 }
 
 class HomePanel extends JPanel {
-    HomePanel(NativeBridge nb, Consumer<String> onOpen) {
+    HomePanel(CampusBackend nb, Consumer<String> onOpen) {
         setOpaque(false);
         setLayout(null);
 
@@ -520,7 +522,7 @@ class HomePanel extends JPanel {
         private final HomeCard cSis;
         private final HomeCard cAtt;
 
-        Dashboard(NativeBridge nb, Consumer<String> onOpen) {
+        Dashboard(CampusBackend nb, Consumer<String> onOpen) {
             setOpaque(false);
             this.status = nb.testConnection();
             this.onOpen = onOpen;
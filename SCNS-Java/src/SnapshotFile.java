@@ -0,0 +1,115 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Port of Cpp-Native/snapshot_file.h (used by JavaStudentStore): the binary <csv>.snap,
+// byte-identical to the native one (layout in the header). Files are read whole, not
+// memory-mapped: a live map would keep Windows from rewriting the CSV or .snap on the next fold.
+final class SnapshotFile {
+    private SnapshotFile() {}
+
+    static final int VERSION = 1;
+    private static final byte[] MAGIC = "SCNSSNAP".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_BYTES = 48;
+    private static final int RECORD_BYTES = 24;
+
+    // snapfile::hash: 64-bit FNV-1a over little-endian 8-byte words (the last one
+    // zero-padded), then the length. Hashes b from its position to its limit.
+    static long hash(ByteBuffer b) {
+        final long prime = 0x100000001b3L;
+        long h = 0xcbf29ce484222325L;
+        ByteBuffer le = b.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int n = le.remaining();
+        int i = 0;
+        for (; i + 8 <= n; i += 8) h = (h ^ le.getLong(i)) * prime;
+        if (i < n) {
+            long w = 0;
+            for (int k = 0; i + k < n; k++) w |= (le.get(i + k) & 0xFFL) << (8 * k);
+            h = (h ^ w) * prime;
+        }
+        return (h ^ n) * prime;
+    }
+
+    // Whole file, or null if it cannot be read.
+    static ByteBuffer readFile(String file) {
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(Path.of(file))).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException | OutOfMemoryError e) {
+            return null;
+        }
+    }
+
+    // Writes rows (roll order, real totals) as the snapshot of csvFile, which must hold the
+    // same records. False on failure.
+    static boolean write(String file, String csvFile, JavaStudentStore.Snapshot rows) {
+        ByteBuffer csv = readFile(csvFile);
+        if (csv == null) return false;
+
+        byte[][] names = new byte[rows.n][];
+        byte[][] programs = new byte[rows.n][];
+        long heap = 0;
+        for (int i = 0; i < rows.n; i++) {
+            names[i] = rows.name[i].getBytes(StandardCharsets.UTF_8);
+            programs[i] = rows.program[i].getBytes(StandardCharsets.UTF_8);
+            heap += names[i].length + programs[i].length;
+        }
+        ByteBuffer b = ByteBuffer.allocate(Math.toIntExact(HEADER_BYTES + (long) rows.n * RECORD_BYTES + heap)).order(ByteOrder.LITTLE_ENDIAN);
+        b.put(MAGIC);
+        b.putLong(0); // checksum, below
+        b.putInt(VERSION).putInt(rows.n).putLong(heap).putLong(csv.capacity()).putLong(hash(csv));
+        for (int i = 0; i < rows.n; i++) {
+            b.putInt(rows.roll[i]).putInt(rows.semester[i]).putInt(rows.present[i]).putInt(rows.total[i])
+                    .putInt(names[i].length).putInt(programs[i].length);
+        }
+        for (int i = 0; i < rows.n; i++) b.put(names[i]).put(programs[i]);
+        b.flip().position(16);
+        b.putLong(8, hash(b));
+
+        try (FileOutputStream out = new FileOutputStream(file, false)) {
+            out.write(b.array());
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // The records when file is an intact snapshot of csvFile as it is now, with strictly
+    // increasing rolls, else null.
+    static JavaStudentStore.Snapshot read(String file, String csvFile) {
+        ByteBuffer b = readFile(file);
+        if (b == null || b.capacity() < HEADER_BYTES) return null;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (b.get(i) != MAGIC[i]) return null;
+        }
+        if (b.getLong(8) != hash(b.position(16)) || b.getInt(16) != VERSION) return null;
+        int n = b.getInt(20);
+        long heap = b.getLong(24);
+        if (n < 0 || b.capacity() - HEADER_BYTES != (long) n * RECORD_BYTES + heap) return null;
+
+        ByteBuffer csv = readFile(csvFile);
+        if (csv == null || b.getLong(32) != csv.capacity() || b.getLong(40) != hash(csv)) return null; // CSV changed since
+
+        JavaStudentStore.Snapshot rows = new JavaStudentStore.Snapshot(n);
+        int pos = HEADER_BYTES + n * RECORD_BYTES;
+        byte[] heapBytes = b.array();
+        for (int i = 0; i < n; i++) {
+            int at = HEADER_BYTES + i * RECORD_BYTES;
+            rows.roll[i] = b.getInt(at);
+            if (i > 0 && rows.roll[i - 1] >= rows.roll[i]) return null;
+            rows.semester[i] = b.getInt(at + 4);
+            rows.present[i] = b.getInt(at + 8);
+            rows.total[i] = b.getInt(at + 12);
+            int nameLen = b.getInt(at + 16);
+            int programLen = b.getInt(at + 20);
+            if (nameLen < 0 || programLen < 0 || (long) nameLen + programLen > b.capacity() - pos) return null;
+            rows.name[i] = new String(heapBytes, pos, nameLen, StandardCharsets.UTF_8);
+            rows.program[i] = new String(heapBytes, pos + nameLen, programLen, StandardCharsets.UTF_8);
+            pos += nameLen + programLen;
+        }
+        return rows;
+    }
+}
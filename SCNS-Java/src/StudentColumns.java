@@ -0,0 +1,87 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+// Reader for the columnar bulk layout written by Cpp-Native/columnar.cpp:
+//   count, heapBytes, roll[n], semester[n], present[n], total[n], strOff[2n+1], heap
+// (native-endian int32; string 2i is the name of row i, 2i+1 its program).
+// One instance keeps a single direct buffer and reuses it across refreshes.
+public final class StudentColumns {
+    // Fills buf; returns bytes written, or -(bytes needed) when buf is too small.
+    public interface Source {
+        int fill(ByteBuffer buf);
+    }
+
+    private static final int HEADER = 8;
+
+    private ByteBuffer buf;
+    private byte[] scratch = new byte[64];
+    private int count = 0;
+    private int strOffPos = HEADER;
+    private int heapPos = HEADER;
+
+    public StudentColumns() {
+        this(64 * 1024);
+    }
+
+    public StudentColumns(int initialBytes) {
+        buf = allocate(Math.max(HEADER, initialBytes));
+    }
+
+    // Loads one snapshot from src, growing the buffer if the backend asks for more room.
+    public int load(Source src) {
+        for (int attempt = 0; attempt < 4; attempt++) {
+            int n = src.fill(buf);
+            if (n >= HEADER) {
+                index();
+                return count;
+            }
+            if (n >= 0) break;
+            // dataset may grow between calls, so leave some slack
+            int need = -n;
+            buf = allocate(need + need / 8);
+        }
+        count = 0;
+        return 0;
+    }
+
+    public int size() { return count; }
+
+    public int roll(int i) { return column(0, i); }
+    public int semester(int i) { return column(1, i); }
+    public int present(int i) { return column(2, i); }
+    public int total(int i) { return column(3, i); }
+
+    // Same integer formula as the backend (attGetSummary / defaultersBelow).
+    public int percent(int i) {
+        int t = total(i);
+        return t > 0 ? (present(i) * 100) / t : 0;
+    }
+
+    public String name(int i) { return string(2 * i); }
+    public String program(int i) { return string(2 * i + 1); }
+
+    private void index() {
+        count = buf.getInt(0);
+        strOffPos = HEADER + 4 * count * 4;
+        heapPos = strOffPos + 4 * (2 * count + 1);
+    }
+
+    private int column(int col, int i) {
+        return buf.getInt(HEADER + 4 * (col * count + i));
+    }
+
+    private String string(int k) {
+        int a = buf.getInt(strOffPos + 4 * k);
+        int b = buf.getInt(strOffPos + 4 * (k + 1));
+        int len = b - a;
+        if (len <= 0) return "";
+        if (len > scratch.length) scratch = new byte[Math.max(len, scratch.length * 2)];
+        buf.get(heapPos + a, scratch, 0, len);
+        return new String(scratch, 0, len, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
@@ -5,9 +5,9 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.GridLayout;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.BorderFactory;
 import javax.swing.JComponent;
@@ -23,7 +23,7 @@ import javax.swing.text.BadLocationException;
 import javax.swing.text.DocumentFilter;
 
 public class StudentInfoUI extends JPanel {
-    private final NativeBridge nb;
+    private final AsyncNativeBridge nb;
     private final JLayeredPane layers;
 
     private final JTextField roll = field("Roll (e.g. 101)");
@@ -31,9 +31,18 @@ public class StudentInfoUI extends JPanel {
     private final JTextField program = field("Program (e.g. BSCS)");
     private final JTextField year = field("Semester (1-8)");
 
-    private final FolderCabinetView cabinet = new FolderCabinetView();
+    // Cabinet pages: first paint costs one page, the rest is fetched while scrolling.
+    private static final int PAGE = 40;
 
-    public StudentInfoUI(NativeBridge nb, JLayeredPane layers) {
+    private final FolderCabinetView cabinet = new FolderCabinetView();
+    private JScrollPane cabinetScroll;
+    // EDT only
+    private int refreshSeq; // stale listings are dropped
+    private int lastRoll = Integer.MIN_VALUE; // cursor: last roll shown
+    private boolean hasMore;
+    private CompletableFuture<Void> pageInFlight = CompletableFuture.completedFuture(null);
+
+    public StudentInfoUI(AsyncNativeBridge nb, JLayeredPane layers) {
         this.nb = nb;
         this.layers = layers;
 
@@ -186,6 +195,8 @@ public class StudentInfoUI extends JPanel {
         JScrollPane sp = new JScrollPane(cabinet);
         UIStyle.scrollPane(sp);
         sp.getViewport().setBackground(Theme.CARD);
+        sp.getVerticalScrollBar().getModel().addChangeListener(e -> loadMoreIfNeeded());
+        cabinetScroll = sp;
 
         JPanel listCard = new CardPanel();
         listCard.setLayout(new BorderLayout());
@@ -234,26 +245,23 @@ public class StudentInfoUI extends JPanel {
         if (n.length() > 50) { Toast.show(layers, "Name is too long (max 50 chars).", Theme.DANGER); return; }
         if (p.length() > 20) { Toast.show(layers, "Program is too long (max 20 chars).", Theme.DANGER); return; }
 
-        String res = nb.sisUpsertStudent(r, n, p, y);
-        Map<String, String> o = JsonMini.obj(res);
-        if (JsonMini.asBool(o.get("ok"))) {
+        nb.sisUpsertStudent(r, n, p, y).thenAccept(res -> {
+            Map<String, String> o = JsonMini.obj(res);
+            if (!JsonMini.asBool(o.get("ok"))) {
+                Toast.show(layers, JsonMini.asString(o.getOrDefault("message", "Insert failed.")), Theme.DANGER);
+                return;
+            }
             Toast.show(layers, JsonMini.asString(o.getOrDefault("message", "Student added.")), Theme.OK);
             // animate insert into cabinet
-            String js = nb.sisGetStudent(r);
-            Map<String, String> so = JsonMini.obj(js);
-            FolderCabinetView.Record rr = new FolderCabinetView.Record();
-            rr.roll = JsonMini.asInt(so.get("roll"), r);
-            rr.name = JsonMini.asString(so.get("name"));
-            rr.program = JsonMini.asString(so.get("program"));
-            rr.semester = JsonMini.asInt(so.get("year"), y);
-            rr.present = JsonMini.asInt(so.get("present"), 0);
-            rr.total = JsonMini.asInt(so.get("total"), 0);
-            // refresh list and animate reflow
-            refresh(true);
-            cabinet.animateInsert(rr, 0);
-        } else {
-            Toast.show(layers, JsonMini.asString(o.getOrDefault("message", "Insert failed.")), Theme.DANGER);
-        }
+            nb.sisGetStudent(r).thenAccept(js -> {
+                FolderCabinetView.Record rr = new FolderCabinetView.Record();
+                rr.roll = r;
+                rr.semester = y;
+                JsonMini.obj(js, rr, FolderCabinetView.Record.JSON);
+                // refresh list and animate reflow
+                refresh(true).thenRun(() -> cabinet.animateInsert(rr, 0));
+            });
+        });
     }
 
     private void importCsv() {
@@ -263,10 +271,12 @@ public class StudentInfoUI extends JPanel {
         if (res != javax.swing.JFileChooser.APPROVE_OPTION) return;
         java.io.File f = fc.getSelectedFile();
         if (f == null) return;
-        Map<String, String> o = JsonMini.obj(nb.sisImportCsv(f.getAbsolutePath()));
-        Toast.show(layers, JsonMini.asString(o.getOrDefault("message", "OK")), JsonMini.asBool(o.get("ok")) ? Theme.OK : Theme.DANGER);
-        // conveyor belt feel: reflow in
-        refresh(true);
+        nb.sisImportCsv(f.getAbsolutePath()).thenAccept(json -> {
+            Map<String, String> o = JsonMini.obj(json);
+            Toast.show(layers, JsonMini.asString(o.getOrDefault("message", "OK")), JsonMini.asBool(o.get("ok")) ? Theme.OK : Theme.DANGER);
+            // conveyor belt feel: reflow in
+            refresh(true);
+        });
     }
 
     private void exportCsv() {
@@ -276,58 +286,109 @@ public class StudentInfoUI extends JPanel {
         if (res != javax.swing.JFileChooser.APPROVE_OPTION) return;
         java.io.File f = fc.getSelectedFile();
         if (f == null) return;
-        Map<String, String> o = JsonMini.obj(nb.sisExportCsv(f.getAbsolutePath()));
-        Toast.show(layers, JsonMini.asString(o.getOrDefault("message", "OK")), JsonMini.asBool(o.get("ok")) ? Theme.OK : Theme.DANGER);
-        // tiny \"fly to folder\" pulse
-        cabinet.animateExportPulse();
+        nb.sisExportCsv(f.getAbsolutePath()).thenAccept(json -> {
+            Map<String, String> o = JsonMini.obj(json);
+            Toast.show(layers, JsonMini.asString(o.getOrDefault("message", "OK")), JsonMini.asBool(o.get("ok")) ? Theme.OK : Theme.DANGER);
+            // tiny \"fly to folder\" pulse
+            cabinet.animateExportPulse();
+        });
     }
 
     private void search() {
         Integer r = parseIntStrict(roll.getText());
         if (r == null || r <= 0) { Toast.show(layers, "Enter a valid numeric roll to search.", Theme.DANGER); return; }
 
-        String json = nb.sisGetStudentTrace(r);
-        if (json == null || json.trim().isEmpty()) {
-            Toast.show(layers, "Student not found.", Theme.DANGER);
-            return;
-        }
-        Map<String, String> o = JsonMini.obj(json);
-        name.setText(JsonMini.asString(o.get("name")));
-        program.setText(JsonMini.asString(o.get("program")));
-        year.setText(String.valueOf(JsonMini.asInt(o.get("year"), 1)));
-        Toast.show(layers, "Record loaded.", Theme.OK);
-        java.util.List<Integer> trace = JsonMini.arrInts(o.get("visited"));
-        cabinet.animateSearchTrace(trace, r);
+        nb.sisGetStudentTrace(r).thenAccept(json -> {
+            if (json == null || json.trim().isEmpty()) {
+                Toast.show(layers, "Student not found.", Theme.DANGER);
+                return;
+            }
+            Map<String, String> o = JsonMini.obj(json);
+            name.setText(JsonMini.asString(o.get("name")));
+            program.setText(JsonMini.asString(o.get("program")));
+            year.setText(String.valueOf(JsonMini.asInt(o.get("year"), 1)));
+            Toast.show(layers, "Record loaded.", Theme.OK);
+            java.util.List<Integer> trace = JsonMini.arrInts(o.get("visited"));
+            loadThrough(r).thenRun(() -> cabinet.animateSearchTrace(trace, r));
+        });
     }
 
     private void delete() {
         Integer r = parseIntStrict(roll.getText());
         if (r == null || r <= 0) { Toast.show(layers, "Enter a valid numeric roll to delete.", Theme.DANGER); return; }
-        String json = nb.sisDeleteStudent(r);
-        Map<String, String> o = JsonMini.obj(json);
-        if (JsonMini.asBool(o.get("ok"))) Toast.show(layers, JsonMini.asString(o.get("message")), Theme.OK);
-        else Toast.show(layers, JsonMini.asString(o.get("message")), Theme.DANGER);
-        if (JsonMini.asBool(o.get("ok"))) cabinet.animateDelete(r);
-        refresh(true);
+        nb.sisDeleteStudent(r).thenAccept(json -> {
+            Map<String, String> o = JsonMini.obj(json);
+            if (JsonMini.asBool(o.get("ok"))) Toast.show(layers, JsonMini.asString(o.get("message")), Theme.OK);
+            else Toast.show(layers, JsonMini.asString(o.get("message")), Theme.DANGER);
+            if (JsonMini.asBool(o.get("ok"))) cabinet.animateDelete(r);
+            refresh(true);
+        });
     }
 
     private void refresh() { refresh(false); }
 
-    private void refresh(boolean animate) {
+    // Completes on the EDT once the cabinet shows the new listing.
+    // Reloads as many records as are currently shown (one bounded page from the start),
+    // so the scroll position survives.
+    private CompletableFuture<Void> refresh(boolean animate) {
         cabinet.clearSearch();
-        List<Map<String, String>> arr = JsonMini.arrObjects(nb.sisListStudents());
-        List<FolderCabinetView.Record> recs = new ArrayList<>();
-        for (Map<String, String> o : arr) {
-            FolderCabinetView.Record r = new FolderCabinetView.Record();
-            r.roll = JsonMini.asInt(o.get("roll"), 0);
-            r.name = JsonMini.asString(o.get("name"));
-            r.program = JsonMini.asString(o.get("program"));
-            r.semester = JsonMini.asInt(o.get("year"), 1);
-            r.present = JsonMini.asInt(o.get("present"), 0);
-            r.total = JsonMini.asInt(o.get("total"), 0);
-            recs.add(r);
-        }
-        cabinet.setRecords(recs, animate);
+        int seq = ++refreshSeq;
+        int limit = Math.max(PAGE, cabinet.recordCount());
+        pageInFlight = nb.submit(b -> records(b.sisListStudentsPage(Integer.MIN_VALUE, limit))).thenAccept(recs -> {
+            if (seq != refreshSeq) return;
+            cabinet.setRecords(recs, animate);
+            pageLoaded(recs, limit);
+        });
+        return pageInFlight;
+    }
+
+    // Next page once the view is within one screen of the bottom (or not filled yet).
+    private void loadMoreIfNeeded() {
+        if (!hasMore || !pageInFlight.isDone() || cabinetScroll == null) return;
+        javax.swing.BoundedRangeModel m = cabinetScroll.getVerticalScrollBar().getModel();
+        if (m.getValue() + 2 * m.getExtent() < m.getMaximum()) return;
+        nextPage();
+    }
+
+    private CompletableFuture<Void> nextPage() {
+        int seq = refreshSeq;
+        int after = lastRoll;
+        pageInFlight = nb.submit(b -> records(b.sisListStudentsPage(after, PAGE))).thenAccept(recs -> {
+            if (seq != refreshSeq) return;
+            cabinet.appendRecords(recs);
+            pageLoaded(recs, PAGE);
+        });
+        return pageInFlight;
+    }
+
+    private void pageLoaded(List<FolderCabinetView.Record> recs, int limit) {
+        hasMore = recs.size() == limit;
+        if (!recs.isEmpty()) lastRoll = recs.get(recs.size() - 1).roll;
+        else if (cabinet.recordCount() == 0) lastRoll = Integer.MIN_VALUE;
+        // layout may not have grown the scrollbar yet (short pages, tall window)
+        javax.swing.SwingUtilities.invokeLater(this::loadMoreIfNeeded);
+    }
+
+    // Brings the cabinet up to (at least) roll, so a search can highlight it: the whole gap
+    // after the last roll shown comes in one range query and is appended once.
+    private CompletableFuture<Void> loadThrough(int roll) {
+        // a page already on its way lands first
+        if (!pageInFlight.isDone()) return pageInFlight.thenCompose(v -> loadThrough(roll));
+        if (!hasMore || lastRoll >= roll) return CompletableFuture.completedFuture(null);
+        int seq = refreshSeq;
+        int after = lastRoll;
+        pageInFlight = nb.submit(b -> records(b.sisListRange(after + 1, roll, Integer.MAX_VALUE))).thenAccept(recs -> {
+            if (seq != refreshSeq) return;
+            cabinet.appendRecords(recs);
+            lastRoll = roll; // every roll up to it is shown now; hasMore stays as it was
+            javax.swing.SwingUtilities.invokeLater(this::loadMoreIfNeeded);
+        });
+        return pageInFlight;
+    }
+
+    // Worker thread: one page of sisListStudents JSON -> cabinet records (one object per student).
+    private static List<FolderCabinetView.Record> records(String json) {
+        return JsonMini.arrObjects(json, FolderCabinetView.Record::new, FolderCabinetView.Record.JSON);
     }
 
     private static JTextField field(String placeholder) {
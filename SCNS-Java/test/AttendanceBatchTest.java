@@ -0,0 +1,41 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+// Marking a lecture with one attMarkPresentBatch must leave the records n attMarkPresent
+// calls leave, and report each roll's new present count (-1 for unknown rolls).
+public class AttendanceBatchTest {
+
+    @Test
+    public void batchMatchesOneMarkPerRoll() throws Exception {
+        CampusBackend single = CampusBackend.create(TestData.bridge(), TestData.tempCsv());
+        CampusBackend batched = CampusBackend.create(TestData.bridge(), TestData.tempCsv());
+        try {
+            StudentColumns cols = new StudentColumns();
+            cols.load(single::sisListStudentsInto);
+            assertTrue("no students", cols.size() > 0);
+            // every student (cycling, so duplicates too) plus one unknown roll
+            int n = 3 * cols.size() + 1;
+            int[] rolls = new int[n];
+            for (int i = 0; i < n - 1; i++) rolls[i] = cols.roll((i * 7) % cols.size());
+            rolls[n - 1] = 999999999;
+
+            int[] expected = new int[n];
+            for (int i = 0; i < n; i++) {
+                String r = single.attMarkPresent(rolls[i]);
+                expected[i] = r.contains("\"ok\":true") ? JsonMini.asInt(JsonMini.obj(single.attGetSummary(rolls[i])).get("present"), -1) : -1;
+            }
+            int[] present = batched.attMarkPresentBatch(rolls);
+            assertNotNull(present);
+            assertEquals(-1, present[n - 1]);
+            assertArrayEquals(expected, present);
+            assertEquals(single.sisListStudents(), batched.sisListStudents());
+        } finally {
+            single.close();
+            batched.close();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+// The native backend (JNI, or FFM with -Dcampus.bridge=ffm) and the pure-Java JavaBackend on
+// the same data must give byte-identical replies, CSV and log files, and read each other's files.
+public class BackendParityTest {
+    private String nativeCsv;
+    private String javaCsv;
+    private CampusBackend nat;
+    private CampusBackend jvm;
+
+    @Before
+    public void open() throws Exception {
+        nativeCsv = TestData.tempCsv();
+        javaCsv = TestData.tempCsv();
+        nat = CampusBackend.create(TestData.bridge(), nativeCsv);
+        jvm = new JavaBackend(javaCsv);
+        assertFalse("native backend not available", nat instanceof JavaBackend);
+    }
+
+    @After
+    public void close() {
+        nat.close();
+        jvm.close();
+    }
+
+    @Test
+    public void navigatorRepliesMatch() {
+        List<Function<CampusBackend, Object>> calls = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        String[] locs = nat.navLocations();
+        assertArrayEquals(locs, jvm.navLocations());
+        for (String s : locs) {
+            for (String d : locs) {
+                for (String alg : new String[] { "BFS", "Dijkstra" }) {
+                    calls.add(x -> x.navShortestPath(s, d, alg));
+                    names.add("navShortestPath " + s + "->" + d + " " + alg);
+                }
+            }
+        }
+        calls.add(x -> x.navShortestPath("Gate", "Nowhere", "BFS"));
+        names.add("navShortestPath unknown");
+        calls.add(CampusBackend::navDivergenceReport);
+        names.add("navDivergenceReport");
+        compareCalls(calls, names);
+    }
+
+    // Every student query, then a round of mutations, then every query again; the CSV and log
+    // files left behind must match byte for byte.
+    @Test
+    public void studentRepliesAndFilesMatchThroughMutations() throws Exception {
+        compareQueries();
+        List<Function<CampusBackend, Object>> muts = new ArrayList<>();
+        muts.add(x -> x.sisUpsertStudent(777001, "Parity \"Check\"", "BSCS", 2));
+        muts.add(x -> x.sisUpsertStudent(101, "Duplicate", "BSCS", 2));
+        muts.add(x -> x.sisUpsertStudent(-1, "Bad", "BSCS", 2));
+        muts.add(x -> x.attMarkPresent(777001));
+        muts.add(x -> x.attMarkPresent(424242));
+        muts.add(x -> x.attNewSessionDay());
+        muts.add(x -> java.util.Arrays.toString(x.attMarkPresentBatch(new int[] { 101, 102, 101, 424242, 777001 })));
+        muts.add(x -> x.sisDeleteStudent(103));
+        muts.add(x -> x.sisDeleteStudent(424242));
+        muts.add(x -> x.attNewSessionDay());
+        muts.add(x -> x.sisSetCommitWindow(200, 1));
+        muts.add(x -> x.attMarkPresent(101));
+        muts.add(x -> x.sisSetCommitWindow(-1, 4));
+        muts.add(x -> x.sisSetCommitWindow(2000000, 4));
+        muts.add(x -> x.sisSetCommitWindow(0, 0));
+        muts.add(x -> x.sisSetCommitWindow(0, 64));
+        List<String> names = List.of("upsert", "upsert dup", "upsert bad", "mark", "mark missing", "new day",
+                "batch", "delete", "delete missing", "new day", "commit window", "mark in window",
+                "commit window negative", "commit window too long", "commit batch 0", "commit window reset");
+        compareCalls(muts, names);
+        compareQueries();
+
+        assertSameFile(nativeCsv, javaCsv);
+        assertSameFile(nativeCsv + ".wal0", javaCsv + ".wal0");
+    }
+
+    // Each backend's files restarted (as after a crash) under both backends give the live
+    // listing, and both fold them into the same snapshot.
+    @Test
+    public void eachBackendReplaysTheOthersLog() throws Exception {
+        for (CampusBackend b : new CampusBackend[] { nat, jvm }) {
+            b.sisUpsertStudent(777001, "Replay Probe", "BSCS", 2);
+            b.attMarkPresent(101);
+            b.attNewSessionDay();
+            b.sisDeleteStudent(102);
+        }
+        String live = nat.sisListStudents();
+        for (String csv : new String[] { nativeCsv, javaCsv }) {
+            String[] copies = new String[2];
+            int k = 0;
+            for (String by : new String[] { TestData.bridge(), "java" }) {
+                copies[k] = TestData.crashCopy(csv);
+                assertEquals("log replay of " + (csv == nativeCsv ? "native" : "java") + " files by " + by,
+                        live, TestData.reopened(by, copies[k++]));
+            }
+            assertSameFile(copies[0] + ".snap", copies[1] + ".snap");
+        }
+    }
+
+    // A hand-edited CSV (rolls out of order, repeated rolls, bad lines) opened by both
+    // backends: same listing and the same search path to every roll, i.e. the same tree.
+    @Test
+    public void unsortedCsvLoadsTheSameTree() throws Exception {
+        final int n = 500;
+        StringBuilder sb = new StringBuilder("roll,name,program,semester,present,total\n");
+        for (int i = 0; i < n; i++) {
+            int k = i * 7919 % n;
+            if (i % 17 == 0) sb.append(100000 + k / 2).append(",Repeat ").append(i).append(",BBA,2,9,4\n");
+            if (i % 23 == 0) sb.append("x,Bad,BSCS,1,1,1\n");
+            sb.append(100000 + k).append(", Student ").append(k).append(",BSCS,").append(1 + k % 8).append(',')
+                    .append(k % 40).append(",30\n");
+        }
+        close();
+        nat = CampusBackend.create(TestData.bridge(), TestData.csvOf(sb));
+        jvm = new JavaBackend(TestData.csvOf(sb));
+
+        List<Function<CampusBackend, Object>> q = new ArrayList<>();
+        List<String> qn = new ArrayList<>();
+        q.add(CampusBackend::sisListStudents);
+        qn.add("sisListStudents");
+        for (String prefix : new String[] { "", "student 1", "REP", "repeat 4" }) {
+            q.add(x -> x.sisSearchByNamePrefix(prefix, 1000));
+            qn.add("sisSearchByNamePrefix " + prefix);
+        }
+        q.add(x -> x.sisListStudentsByName("", Integer.MIN_VALUE, 100000));
+        qn.add("sisListStudentsByName");
+        q.add(x -> x.sisListRange(100000 + n / 4, 100000 + n / 2, 100000));
+        qn.add("sisListRange");
+        for (int r = 100000; r <= 100000 + n; r++) {
+            int roll = r;
+            q.add(x -> x.sisGetStudentTrace(roll));
+            qn.add("sisGetStudentTrace " + roll);
+        }
+        compareCalls(q, qn);
+    }
+
+    private void compareQueries() {
+        StudentColumns cols = new StudentColumns();
+        cols.load(nat::sisListStudentsInto);
+        List<Function<CampusBackend, Object>> q = new ArrayList<>();
+        List<String> qn = new ArrayList<>();
+        q.add(CampusBackend::sisListStudents);
+        qn.add("sisListStudents");
+        for (int pct : new int[] { 0, 50, 75, 101 }) {
+            q.add(x -> x.attGetDefaulters(pct));
+            qn.add("attGetDefaulters " + pct);
+            q.add(x -> columnBytes(buf -> x.attGetDefaultersInto(pct, buf)));
+            qn.add("attGetDefaultersInto " + pct);
+        }
+        q.add(x -> columnBytes(x::sisListStudentsInto));
+        qn.add("sisListStudentsInto");
+        for (int chunk : new int[] { 1, 7, 1000, 1 << 20 }) {
+            q.add(x -> StreamTest.streamed(x, chunk, 0));
+            qn.add("sisListStudentsStream " + chunk);
+            q.add(x -> StreamTest.streamed(x, chunk, 2));
+            qn.add("sisListStudentsStream " + chunk + " stop after 2");
+        }
+        for (int limit : new int[] { 0, 1, 7, 40, 100000 }) {
+            for (int i = -1; i <= cols.size(); i += Math.max(1, cols.size() / 5)) {
+                int after = i < 0 ? Integer.MIN_VALUE : i < cols.size() ? cols.roll(i) : Integer.MAX_VALUE;
+                q.add(x -> x.sisListStudentsPage(after, limit));
+                qn.add("sisListStudentsPage " + after + " " + limit);
+                q.add(x -> x.sisListStudentsPage(after + 1, limit)); // cursor between keys
+                qn.add("sisListStudentsPage " + (after + 1) + " " + limit);
+            }
+        }
+        int[] bounds = new int[cols.size() + 4];
+        bounds[0] = Integer.MIN_VALUE;
+        bounds[1] = Integer.MAX_VALUE;
+        bounds[2] = 0;
+        bounds[3] = 424242;
+        for (int i = 0; i < cols.size(); i++) bounds[4 + i] = cols.roll(i);
+        for (int limit : new int[] { 0, 1, 7, 100000 }) {
+            for (int i = 0; i < bounds.length; i += Math.max(1, bounds.length / 6)) {
+                for (int j = 0; j < bounds.length; j += Math.max(1, bounds.length / 6)) {
+                    int lo = bounds[i];
+                    int hi = bounds[j];
+                    q.add(x -> x.sisListRange(lo, hi, limit));
+                    qn.add("sisListRange " + lo + " " + hi + " " + limit);
+                    q.add(x -> x.sisListRange(lo + 1, hi - 1, limit)); // bounds between keys
+                    qn.add("sisListRange " + (lo + 1) + " " + (hi - 1) + " " + limit);
+                }
+            }
+        }
+        for (String prefix : new String[] { "", "a", "S", "stu", "parity \"", "Z", "\u00e9", "no such name" }) {
+            for (int limit : new int[] { 0, 1, 5, 100000 }) {
+                q.add(x -> x.sisSearchByNamePrefix(prefix, limit));
+                qn.add("sisSearchByNamePrefix " + prefix + " " + limit);
+            }
+        }
+        for (int limit : new int[] { 0, 1, 7, 100000 }) {
+            for (int i = -1; i <= cols.size(); i += Math.max(1, cols.size() / 5)) {
+                String name = i < 0 ? "" : i < cols.size() ? cols.name(i) : "\u00ff";
+                int after = i < 0 ? Integer.MIN_VALUE : i < cols.size() ? cols.roll(i) : Integer.MAX_VALUE;
+                for (String n : new String[] { name, name.toUpperCase(java.util.Locale.ROOT) }) {
+                    q.add(x -> x.sisListStudentsByName(n, after, limit));
+                    qn.add("sisListStudentsByName " + n + " " + after + " " + limit);
+                    q.add(x -> x.sisListStudentsByName(n, after - 1, limit)); // cursor between rolls
+                    qn.add("sisListStudentsByName " + n + " " + (after - 1) + " " + limit);
+                }
+            }
+        }
+        for (int i = 0; i <= cols.size(); i++) {
+            int r = i < cols.size() ? cols.roll(i) : 424242;
+            q.add(x -> x.sisGetStudent(r));
+            qn.add("sisGetStudent " + r);
+            q.add(x -> x.sisGetStudentTrace(r));
+            qn.add("sisGetStudentTrace " + r);
+            q.add(x -> x.attGetSummary(r));
+            qn.add("attGetSummary " + r);
+        }
+        compareCalls(q, qn);
+    }
+
+    private void compareCalls(List<Function<CampusBackend, Object>> calls, List<String> names) {
+        for (int i = 0; i < calls.size(); i++) {
+            assertEquals(names.get(i), calls.get(i).apply(jvm), calls.get(i).apply(nat));
+        }
+    }
+
+    private static String columnBytes(StudentColumns.Source src) {
+        java.nio.ByteBuffer buf = java.nio.ByteBuffer.allocateDirect(1 << 20).order(java.nio.ByteOrder.nativeOrder());
+        int n = src.fill(buf);
+        byte[] out = new byte[Math.max(0, n)];
+        buf.get(0, out, 0, out.length);
+        return n + ":" + java.util.Base64.getEncoder().encodeToString(out);
+    }
+
+    private static void assertSameFile(String a, String b) throws Exception {
+        assertArrayEquals(Path.of(a).getFileName() + " and " + Path.of(b).getFileName() + " differ",
+                Files.readAllBytes(Path.of(a)), Files.readAllBytes(Path.of(b)));
+    }
+}
@@ -0,0 +1,41 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+// Several campuses in one CampusRegistry, each on its own CSV copy: calls reach the right
+// tenant, and closing one leaves the others working.
+public class CampusRegistryTest {
+    private static final int CAMPUSES = 10;
+
+    @Test
+    public void callsAreRoutedToTheirTenant() throws Exception {
+        try (CampusRegistry reg = new CampusRegistry(TestData.bridge())) {
+            for (int i = 0; i < CAMPUSES; i++) reg.open("campus-" + i, TestData.tempCsv());
+            for (int i = 0; i < CAMPUSES; i++) {
+                int roll = 900000 + i;
+                String res = reg.call("campus-" + i, b -> b.sisUpsertStudent(roll, "Tenant Probe", "BSCS", 1));
+                assertTrue("upsert into campus-" + i + ": " + res, JsonMini.asBool(JsonMini.obj(res).get("ok")));
+            }
+            for (int i = 0; i < CAMPUSES; i++) {
+                CampusBackend b = reg.get("campus-" + i);
+                assertFalse("campus-" + i + " lost its own record", b.sisGetStudent(900000 + i).isEmpty());
+                assertTrue("campus-" + i + " sees another campus's record", b.sisGetStudent(900000 + (i + 1) % CAMPUSES).isEmpty());
+            }
+            assertTrue(reg.totalMemoryBytes() > reg.sharedMemoryBytes());
+        }
+    }
+
+    @Test
+    public void closingOneTenantLeavesTheOthers() throws Exception {
+        try (CampusRegistry reg = new CampusRegistry(TestData.bridge())) {
+            reg.open("north", TestData.tempCsv());
+            reg.open("south", TestData.tempCsv());
+            assertTrue(reg.close("north"));
+            assertFalse(reg.close("north"));
+            assertEquals(1, reg.size());
+            assertFalse(reg.call("south", b -> b.sisGetStudent(101)).isEmpty());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+// Concurrent readers and writers on one shared bridge; every reply is checked for consistency.
+// Writers add/mark/delete students in their own roll ranges, so readers only ever look up the
+// seeded rows and listings must stay sorted with present <= total.
+// Runs for -Dscns.stress.seconds (default 2).
+public class ConcurrencyStressTest {
+
+    @Test
+    public void readersAndWritersShareOneHandle() throws Exception {
+        int seconds = Integer.getInteger("scns.stress.seconds", 2);
+        NativeBridge nb = NativeBridge.create(TestData.bridge(), TestData.tempCsv());
+        StudentColumns seed = new StudentColumns();
+        seed.load(nb::sisListStudentsInto);
+        int[] seeded = new int[seed.size()];
+        for (int i = 0; i < seeded.length; i++) seeded[i] = seed.roll(i);
+        assertTrue("no seeded students", seeded.length > 0);
+
+        int readers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        int writers = 2;
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < readers; t++) {
+            final int id = t;
+            threads.add(new Thread(() -> {
+                StudentColumns cols = new StudentColumns();
+                int i = id;
+                while (System.nanoTime() < deadline && failure.get() == null) {
+                    int roll = seeded[i++ % seeded.length];
+                    String err = readOnce(nb, cols, roll, i % 5);
+                    if (err != null) failure.compareAndSet(null, "reader " + id + ": " + err);
+                }
+            }, "stress-reader-" + t));
+        }
+        for (int t = 0; t < writers; t++) {
+            final int base = 900000 + t * 10000;
+            threads.add(new Thread(() -> {
+                int k = 0;
+                while (System.nanoTime() < deadline && failure.get() == null) {
+                    int roll = base + (k++ % 1000);
+                    String err = writeOnce(nb, roll, k % 25 == 0);
+                    if (err != null) failure.compareAndSet(null, "writer " + base + ": " + err);
+                }
+            }, "stress-writer-" + t));
+        }
+
+        for (Thread th : threads) th.start();
+        for (Thread th : threads) th.join();
+        nb.close();
+        assertNull(failure.get());
+    }
+
+    private static String readOnce(NativeBridge nb, StudentColumns cols, int roll, int which) {
+        switch (which) {
+            case 0: {
+                Map<String, String> m = JsonMini.obj(nb.sisGetStudent(roll));
+                return JsonMini.asInt(m.get("roll"), -1) == roll ? null : "sisGetStudent(" + roll + ") lost the row";
+            }
+            case 1: {
+                cols.load(nb::sisListStudentsInto);
+                for (int i = 0; i < cols.size(); i++) {
+                    if (i > 0 && cols.roll(i - 1) >= cols.roll(i)) return "listing out of order at " + i;
+                    if (cols.present(i) > cols.total(i)) return "present > total for roll " + cols.roll(i);
+                }
+                return null;
+            }
+            case 2: {
+                Map<String, String> m = JsonMini.obj(nb.attGetSummary(roll));
+                int present = JsonMini.asInt(m.get("present"), -1);
+                int total = JsonMini.asInt(m.get("total"), -1);
+                return present >= 0 && present <= total ? null : "attGetSummary(" + roll + ") present=" + present + " total=" + total;
+            }
+            case 3: {
+                for (Map<String, String> m : JsonMini.arrObjects(nb.attGetDefaulters(75))) {
+                    if (JsonMini.asInt(m.get("percent"), 100) >= 75) return "defaulter at or above threshold: " + m;
+                }
+                return null;
+            }
+            default: {
+                Map<String, String> m = JsonMini.obj(nb.navShortestPath("Gate", "Library", "BFS"));
+                return JsonMini.asBool(m.get("ok")) ? null : "navShortestPath failed";
+            }
+        }
+    }
+
+    private static String writeOnce(NativeBridge nb, int roll, boolean newDay) {
+        if (newDay) nb.attNewSessionDay();
+        if (!JsonMini.asBool(JsonMini.obj(nb.sisUpsertStudent(roll, "Stress " + roll, "BSCS", 1)).get("ok"))) {
+            return "add " + roll + " failed";
+        }
+        if (JsonMini.asInt(JsonMini.obj(nb.sisGetStudent(roll)).get("roll"), -1) != roll) {
+            return "added " + roll + " but could not read it back";
+        }
+        nb.attMarkPresent(roll);
+        if (!JsonMini.asBool(JsonMini.obj(nb.sisDeleteStudent(roll)).get("ok"))) {
+            return "delete " + roll + " failed";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,149 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+// The typed decoders (FieldReader into FolderCabinetView.Record / HeapView.Item) and the
+// JsonMini.Tape index must read replies exactly as the Map path does, and JsonMini must give
+// every thread the single-threaded result when many decode at once.
+public class JsonDecodeTest {
+    private static final int RECORDS = 20000;
+
+    private static String list;
+    private static String defaulters;
+
+    @BeforeClass
+    public static void fetch() throws Exception {
+        CampusBackend b = CampusBackend.create(TestData.bridge(), TestData.generatedCsv(RECORDS));
+        b.sisUpsertStudent(990001, "Quote \"Q\" Probe", "BSCS", 1);
+        b.sisUpsertStudent(990002, "Back\\slash Probe", "BSSE", 2);
+        list = b.sisListStudents();
+        defaulters = b.attGetDefaulters(75);
+        b.close();
+    }
+
+    @Test
+    public void typedRecordsMatchTheMapPath() {
+        List<FolderCabinetView.Record> viaMaps = new ArrayList<>();
+        for (Map<String, String> o : JsonMini.arrObjects(list)) {
+            FolderCabinetView.Record r = new FolderCabinetView.Record();
+            r.roll = JsonMini.asInt(o.get("roll"), 0);
+            r.name = JsonMini.asString(o.get("name"));
+            r.program = JsonMini.asString(o.get("program"));
+            r.semester = JsonMini.asInt(o.get("year"), 1);
+            r.present = JsonMini.asInt(o.get("present"), 0);
+            r.total = JsonMini.asInt(o.get("total"), 0);
+            viaMaps.add(r);
+        }
+        List<FolderCabinetView.Record> typed = JsonMini.arrObjects(list, FolderCabinetView.Record::new, FolderCabinetView.Record.JSON);
+        assertEquals(RECORDS + 2, typed.size());
+        assertEquals(recordKeys(viaMaps), recordKeys(typed));
+    }
+
+    @Test
+    public void typedDefaultersMatchTheMapPath() {
+        List<HeapView.Item> items = JsonMini.arrObjects(defaulters, HeapView.Item::new, HeapView.Item.JSON);
+        List<Map<String, String>> rows = JsonMini.arrObjects(defaulters);
+        assertEquals(rows.size(), items.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, String> o = rows.get(i);
+            HeapView.Item it = items.get(i);
+            assertEquals("defaulter " + i, JsonMini.asInt(o.get("roll"), 0), it.roll);
+            assertEquals("defaulter " + i, JsonMini.asString(o.get("name")), it.name);
+            assertEquals("defaulter " + i, JsonMini.asInt(o.get("percent"), 0), it.percent);
+        }
+    }
+
+    @Test
+    public void tapeRowsMatchTheEagerDecode() {
+        JsonMini.Tape t = JsonMini.Tape.of(list);
+        List<FolderCabinetView.Record> eager = JsonMini.arrObjects(list, FolderCabinetView.Record::new, FolderCabinetView.Record.JSON);
+        assertEquals(recordKeys(eager), recordKeys(t.decode(0, t.size(), FolderCabinetView.Record::new, FolderCabinetView.Record.JSON)));
+
+        JsonMini.Tape td = JsonMini.Tape.of(defaulters);
+        List<Map<String, String>> rows = JsonMini.arrObjects(defaulters);
+        assertEquals(rows.size(), td.size());
+        for (int i = 0; i < rows.size(); i += Math.max(1, rows.size() / 1000)) {
+            assertEquals("defaulter " + i, JsonMini.asInt(rows.get(i).get("roll"), 0), td.getInt(i, "roll", -1));
+            assertEquals("defaulter " + i, JsonMini.asString(rows.get(i).get("name")), td.getString(i, "name"));
+            assertEquals("defaulter " + i, JsonMini.asInt(rows.get(i).get("percent"), 0), td.getInt(i, "percent", -1));
+        }
+    }
+
+    // The same replies (the listing eagerly, typed and through one shared Tape, a page, a
+    // student and a route) decoded on many threads at once, shapes interleaved so threads are
+    // mid-parse on different strings.
+    @Test
+    public void decodesTheSameOnManyThreads() throws Exception {
+        CampusBackend b = CampusBackend.create(TestData.bridge(), TestData.tempCsv());
+        b.sisUpsertStudent(990001, "Quote \"Q\" Probe", "BSCS", 1);
+        b.sisUpsertStudent(990002, "Back\\slash Probe", "BSSE", 2);
+        String small = b.sisListStudents();
+        String page = b.sisListStudentsPage(Integer.MIN_VALUE, 40);
+        String student = b.sisGetStudent(990001);
+        String path = b.navShortestPath("Gate", "Library", "Dijkstra");
+        b.close();
+
+        List<Map<String, String>> listRef = JsonMini.arrObjects(small);
+        List<Map<String, String>> pageRef = JsonMini.arrObjects(page);
+        Map<String, String> studentRef = JsonMini.obj(student);
+        Map<String, String> pathRef = JsonMini.obj(path);
+        List<String> pathNodes = JsonMini.arrStrings(pathRef.get("path"));
+        List<String> typedRef = recordKeys(JsonMini.arrObjects(small, FolderCabinetView.Record::new, FolderCabinetView.Record.JSON));
+        JsonMini.Tape tape = JsonMini.Tape.of(small); // one index read by every thread
+        assertEquals("Quote \"Q\" Probe", JsonMini.asString(studentRef.get("name")));
+
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int rounds = 200;
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers.add(new Thread(() -> {
+                for (int r = 0; r < rounds && failure.get() == null; r++) {
+                    String err = null;
+                    switch ((id + r) % 6) {
+                        case 0:
+                            if (!listRef.equals(JsonMini.arrObjects(small))) err = "sisListStudents";
+                            break;
+                        case 1:
+                            if (!pageRef.equals(JsonMini.arrObjects(page))) err = "sisListStudentsPage";
+                            break;
+                        case 2:
+                            if (!studentRef.equals(JsonMini.obj(student))) err = "sisGetStudent";
+                            break;
+                        case 3:
+                            if (!typedRef.equals(recordKeys(JsonMini.arrObjects(small, FolderCabinetView.Record::new,
+                                    FolderCabinetView.Record.JSON)))) err = "sisListStudents (typed)";
+                            break;
+                        case 4:
+                            if (!typedRef.equals(recordKeys(tape.decode(0, tape.size(), FolderCabinetView.Record::new,
+                                    FolderCabinetView.Record.JSON)))) err = "sisListStudents (shared tape)";
+                            break;
+                        default:
+                            Map<String, String> m = JsonMini.obj(path);
+                            if (!pathRef.equals(m) || !pathNodes.equals(JsonMini.arrStrings(m.get("path")))) err = "navShortestPath";
+                    }
+                    if (err != null) failure.compareAndSet(null, "thread " + id + ", round " + r + ": " + err + " decoded differently");
+                }
+            }, "json-" + t));
+        }
+        for (Thread th : workers) th.start();
+        for (Thread th : workers) th.join();
+        assertNull(failure.get());
+    }
+
+    static List<String> recordKeys(List<FolderCabinetView.Record> recs) {
+        List<String> out = new ArrayList<>(recs.size());
+        for (FolderCabinetView.Record r : recs) {
+            out.add(r.roll + "|" + r.name + "|" + r.program + "|" + r.semester + "|" + r.present + "|" + r.total);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,70 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+// sisSearchByNamePrefix against sisListStudents filtered and sorted in Java, on the native and
+// the Java store, also after adding and deleting a matching student; both stores must agree.
+public class NameSearchTest {
+    private static final int RECORDS = 20000;
+    private static final String[] PREFIXES = { "z", "SHAH", "fatima akbar 1", "ahmed k", "nobody", "" };
+
+    @Test
+    public void searchesMatchListAndFilter() throws Exception {
+        String csv = namesCsv(RECORDS);
+        String[][] replies = new String[2][PREFIXES.length];
+        int k = 0;
+        for (String by : new String[] { TestData.bridge(), "java" }) {
+            CampusBackend b = CampusBackend.create(by, TestData.crashCopy(csv));
+            try {
+                for (int p = 0; p < PREFIXES.length; p++) {
+                    checkSearch(by, b, PREFIXES[p]);
+                    replies[k][p] = b.sisSearchByNamePrefix(PREFIXES[p], 20);
+                }
+                b.sisUpsertStudent(99, "Zz Newcomer", "BSCS", 1);
+                b.sisDeleteStudent(100000 + RECORDS / 2);
+                checkSearch(by + " after add/delete", b, "z");
+                assertTrue(by + ": added student not found", b.sisSearchByNamePrefix("zz", 5).contains("\"roll\":99"));
+            } finally {
+                b.close();
+            }
+            k++;
+        }
+        for (int p = 0; p < PREFIXES.length; p++) {
+            assertEquals("stores differ for \"" + PREFIXES[p] + "\"", replies[1][p], replies[0][p]);
+        }
+    }
+
+    // Realistic names scattered across rolls, some sharing a first name in lower case.
+    private static String namesCsv(int n) throws Exception {
+        String[] first = { "Ali", "Ayesha", "Bilal", "Fatima", "Hamza", "Hira", "Imran", "Maryam", "Omar", "Sana",
+                "Shahmir", "Usman", "Zainab", "Zara", "ahmed", "Noor" };
+        String[] last = { "Akbar", "Khan", "Malik", "Qureshi", "Raza", "Shah", "Siddiqui", "Butt", "Chaudhry", "Iqbal" };
+        StringBuilder sb = new StringBuilder(n * 48).append("roll,name,program,semester,present,total\n");
+        for (int i = 0; i < n; i++) {
+            int k = (int) ((i * 2654435761L) % n);
+            sb.append(100000 + i).append(',').append(first[k % first.length]).append(' ').append(last[(k / first.length) % last.length])
+                    .append(' ').append(k).append(",BSCS,").append(1 + i % 8).append(',').append(i % 30).append(",30\n");
+        }
+        return TestData.csvOf(sb);
+    }
+
+    // sisSearchByNamePrefix(prefix, all) against the filtered listing. Names here are ASCII,
+    // so String order is the index order.
+    private static void checkSearch(String by, CampusBackend b, String prefix) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        List<Map<String, String>> expected = new ArrayList<>();
+        for (Map<String, String> row : JsonMini.arrObjects(b.sisListStudents())) {
+            if (JsonMini.asString(row.get("name")).toLowerCase(Locale.ROOT).startsWith(key)) expected.add(row);
+        }
+        expected.sort(Comparator.comparing((Map<String, String> row) -> JsonMini.asString(row.get("name")).toLowerCase(Locale.ROOT))
+                .thenComparingInt(row -> Integer.parseInt(row.get("roll"))));
+        assertEquals(by + ": search \"" + prefix + "\"", expected, JsonMini.arrObjects(b.sisSearchByNamePrefix(prefix, Integer.MAX_VALUE)));
+    }
+}
@@ -0,0 +1,41 @@
+import static org.junit.Assert.assertEquals;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+
+// The native counters, read back through the platform MBean server (the same path JConsole
+// uses), move by exactly the calls issued.
+public class NativeStatsTest {
+
+    @Test
+    public void callCountsMoveByTheCallsIssued() throws Exception {
+        NativeBridge nb = NativeBridge.create(TestData.bridge(), TestData.tempCsv());
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(NativeStats.OBJECT_NAME);
+            long before = calls(server, name, "sisGetStudent");
+            long summariesBefore = calls(server, name, "attGetSummary");
+            int iters = 2000;
+            for (int i = 0; i < iters; i++) {
+                nb.sisGetStudent(101 + i % 4);
+                if (i % 10 == 0) nb.attGetSummary(101);
+            }
+            assertEquals(iters, calls(server, name, "sisGetStudent") - before);
+            assertEquals(iters / 10, calls(server, name, "attGetSummary") - summariesBefore);
+        } finally {
+            nb.close();
+        }
+    }
+
+    private static long calls(MBeanServer server, ObjectName name, String op) throws Exception {
+        TabularData t = (TabularData) server.getAttribute(name, "Calls");
+        CompositeData row = t.get(new Object[] { op });
+        return row == null ? 0 : (Long) row.get("value");
+    }
+}
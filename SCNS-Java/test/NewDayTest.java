@@ -0,0 +1,56 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+// After many New Days on the native and the Java store, every total rose by exactly the days
+// recorded, present counts and percents are unchanged in meaning, a student added after them
+// starts at 0, and the state survives a restart.
+public class NewDayTest {
+    private static final int RECORDS = 2000;
+    private static final int DAYS = 200;
+
+    @Test
+    public void nativeStoreCountsDays() throws Exception {
+        countsDays(TestData.bridge());
+    }
+
+    @Test
+    public void javaStoreCountsDays() throws Exception {
+        countsDays("java");
+    }
+
+    private static void countsDays(String by) throws Exception {
+        String csv = TestData.generatedCsv(RECORDS);
+        CampusBackend b = CampusBackend.create(by, csv);
+        StudentColumns before = new StudentColumns();
+        before.load(b::sisListStudentsInto);
+        for (int d = 0; d < DAYS; d++) b.attNewSessionDay();
+
+        b.sisUpsertStudent(99, "Late Joiner", "BSCS", 1);
+        b.attMarkPresent(99);
+        b.attMarkPresent(100000);
+        b.attNewSessionDay();
+        StudentColumns after = new StudentColumns();
+        after.load(b::sisListStudentsInto);
+        assertEquals(RECORDS + 1, after.size());
+        assertEquals(99, after.roll(0));
+        assertEquals("late joiner present", 1, after.present(0));
+        assertEquals("late joiner total", 2, after.total(0));
+        for (int i = 0; i < RECORDS; i++) {
+            int marked = before.roll(i) == 100000 ? 1 : 0;
+            assertEquals(before.roll(i), after.roll(i + 1));
+            assertEquals("total of roll " + before.roll(i), before.total(i) + DAYS + 1, after.total(i + 1));
+            assertEquals("present of roll " + before.roll(i), before.present(i) + marked, after.present(i + 1));
+        }
+        for (int i = 0; i < RECORDS; i += RECORDS / 50) {
+            Map<String, String> sum = JsonMini.obj(b.attGetSummary(after.roll(i + 1)));
+            assertEquals("percent for roll " + after.roll(i + 1), after.present(i + 1) * 100 / after.total(i + 1),
+                    JsonMini.asInt(sum.get("percent"), -1));
+        }
+        String live = b.sisListStudents();
+        b.close();
+        assertEquals("restart", live, TestData.reopened(by, csv));
+    }
+}
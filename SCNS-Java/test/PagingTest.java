@@ -0,0 +1,87 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+// Cursor pages (sisListStudentsPage, sisListStudentsByName) and roll blocks (sisListRange)
+// against the full listing, on a generated dataset.
+public class PagingTest {
+    private static final int RECORDS = 20000;
+
+    private static CampusBackend b;
+
+    @BeforeClass
+    public static void open() throws Exception {
+        b = CampusBackend.create(TestData.bridge(), TestData.generatedCsv(RECORDS));
+    }
+
+    @AfterClass
+    public static void close() {
+        b.close();
+    }
+
+    @Test
+    public void rollPagesListEveryStudentOnce() {
+        List<Map<String, String>> all = JsonMini.arrObjects(b.sisListStudents());
+        List<Map<String, String>> paged = new ArrayList<>();
+        int roll = Integer.MIN_VALUE;
+        while (true) {
+            List<Map<String, String>> rows = JsonMini.arrObjects(b.sisListStudentsPage(roll, 7));
+            paged.addAll(rows);
+            if (rows.size() < 7) break;
+            roll = JsonMini.asInt(rows.get(rows.size() - 1).get("roll"), 0);
+        }
+        assertEquals(all, paged);
+    }
+
+    // The name walk in 7-row pages: every student exactly once, in (lowercased name, roll)
+    // order (generated names are ASCII).
+    @Test
+    public void namePagesListEveryStudentOnceInNameOrder() {
+        Set<Integer> seen = new HashSet<>();
+        String prevKey = null;
+        int prevRoll = 0;
+        String name = "";
+        int roll = Integer.MIN_VALUE;
+        while (true) {
+            List<Map<String, String>> rows = JsonMini.arrObjects(b.sisListStudentsByName(name, roll, 7));
+            for (Map<String, String> row : rows) {
+                name = JsonMini.asString(row.get("name"));
+                roll = JsonMini.asInt(row.get("roll"), 0);
+                String key = name.toLowerCase(Locale.ROOT);
+                assertTrue("roll " + roll + " listed twice", seen.add(roll));
+                assertTrue("roll " + roll + " out of name order",
+                        prevKey == null || prevKey.compareTo(key) < 0 || (prevKey.equals(key) && prevRoll < roll));
+                prevKey = key;
+                prevRoll = roll;
+            }
+            if (rows.size() < 7) break;
+        }
+        assertEquals(RECORDS, seen.size());
+    }
+
+    @Test
+    public void rangeMatchesTheFilteredListing() {
+        int mid = 100000 + RECORDS / 2;
+        int[][] blocks = { { mid, mid + 999 }, { Integer.MIN_VALUE, 100010 }, { 100000 + RECORDS - 5, Integer.MAX_VALUE }, { mid, mid - 1 } };
+        for (int[] blk : blocks) {
+            int lo = blk[0];
+            int hi = blk[1];
+            List<Map<String, String>> expected = new ArrayList<>();
+            for (Map<String, String> row : JsonMini.arrObjects(b.sisListStudents())) {
+                int roll = JsonMini.asInt(row.get("roll"), 0);
+                if (roll >= lo && roll <= hi) expected.add(row);
+            }
+            assertEquals("sisListRange " + lo + ".." + hi, expected, JsonMini.arrObjects(b.sisListRange(lo, hi, Integer.MAX_VALUE)));
+        }
+    }
+}
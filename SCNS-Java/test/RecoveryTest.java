@@ -0,0 +1,144 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+// Write-ahead log and group commit, on the native and the Java store: after enough marks to
+// trigger background folds, the files restarted as after a crash, with a torn last log line,
+// and with a fold interrupted between its #bak marker and the CSV all give the live state,
+// whichever store reopens them.
+public class RecoveryTest {
+    private static final int RECORDS = 2000;
+
+    @Test
+    public void nativeStoreRecovers() throws Exception {
+        recovers(TestData.bridge());
+    }
+
+    @Test
+    public void javaStoreRecovers() throws Exception {
+        recovers("java");
+    }
+
+    @Test
+    public void nativeGroupCommitSurvivesRestart() throws Exception {
+        groupCommit(TestData.bridge());
+    }
+
+    @Test
+    public void javaGroupCommitSurvivesRestart() throws Exception {
+        groupCommit("java");
+    }
+
+    private static void recovers(String by) throws Exception {
+        String csv = TestData.generatedCsv(RECORDS);
+        CampusBackend b = CampusBackend.create(by, csv);
+        java.util.Random rnd = new java.util.Random(RECORDS);
+        int folds = 0;
+        long lastLog = 0;
+        for (int i = 0; i < 20000; i++) {
+            b.attMarkPresent(100000 + rnd.nextInt(RECORDS));
+            if ((i & 255) == 0) {
+                long log = logBytes(csv);
+                if (log < lastLog) folds++;
+                lastLog = log;
+            }
+        }
+        assertTrue("no background fold ran", folds > 0);
+        String export = csv + ".export";
+        new java.io.File(export).deleteOnExit();
+        b.sisExportCsv(export);
+
+        String live = b.sisListStudents();
+        for (String reader : new String[] { TestData.bridge(), "java" }) {
+            assertEquals("crash, read by " + reader, live, TestData.reopened(reader, TestData.crashCopy(csv)));
+            assertEquals("torn log line, read by " + reader, live, TestData.reopened(reader, tornCopy(csv)));
+            assertEquals("fold cut after #bak, read by " + reader, live, TestData.reopened(reader, cutFoldCopy(csv, export)));
+        }
+        b.close();
+        assertEquals("close", live, TestData.reopened(by, csv));
+    }
+
+    // Clerks threads mark attendance at once with a 1 ms commit window: every mark succeeds,
+    // batches form, and the state survives a restart.
+    private static void groupCommit(String by) throws Exception {
+        String csv = TestData.generatedCsv(RECORDS);
+        CampusBackend b = CampusBackend.create(by, csv);
+        assertTrue(b.sisSetCommitWindow(1000, 64).contains("\"ok\":true"));
+        int clerks = 8;
+        int marksEach = 200;
+        long before = Long.parseLong(JsonMini.obj(b.sisCommitStats()).get("ops"));
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[clerks];
+        for (int t = 0; t < clerks; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                java.util.Random rnd = new java.util.Random(id);
+                for (int i = 0; i < marksEach; i++) {
+                    String r = b.attMarkPresent(100000 + rnd.nextInt(RECORDS));
+                    if (!r.contains("\"ok\":true")) failure.compareAndSet(null, r);
+                }
+            });
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        assertNull(failure.get());
+        Map<String, String> stats = JsonMini.obj(b.sisCommitStats());
+        long ops = Long.parseLong(stats.get("ops")) - before;
+        assertEquals(clerks * marksEach, ops);
+        assertTrue("no batching: " + stats, Long.parseLong(stats.get("commits")) < Long.parseLong(stats.get("ops")));
+
+        String live = b.sisListStudents();
+        assertEquals("crash", live, TestData.reopened(by, TestData.crashCopy(csv)));
+        b.close();
+        assertEquals("close", live, TestData.reopened(by, csv));
+    }
+
+    private static long logBytes(String csv) {
+        return new java.io.File(csv + ".wal0").length() + new java.io.File(csv + ".wal1").length();
+    }
+
+    // The active (higher generation) log of csv, or null.
+    private static Path activeLog(String csv) throws Exception {
+        Path best = null;
+        int bestGen = -1;
+        for (String suffix : new String[] { ".wal0", ".wal1" }) {
+            Path p = Path.of(csv + suffix);
+            if (!Files.exists(p)) continue;
+            String head = new String(Files.readAllBytes(p), StandardCharsets.UTF_8).split("\n", 2)[0];
+            int gen = head.startsWith("#log,") ? Integer.parseInt(head.substring(5)) : -1;
+            if (gen > bestGen) {
+                bestGen = gen;
+                best = p;
+            }
+        }
+        return best;
+    }
+
+    // crashCopy whose active log ends in half a record (a crash mid-append).
+    private static String tornCopy(String csv) throws Exception {
+        String copy = TestData.crashCopy(csv);
+        Files.writeString(activeLog(copy), "N", StandardOpenOption.APPEND); // a whole New Day if replayed
+        return copy;
+    }
+
+    // crashCopy caught mid-fold: .bak holds the state (the export), the active log has the
+    // #bak marker, and the CSV is half written.
+    private static String cutFoldCopy(String csv, String export) throws Exception {
+        String copy = TestData.crashCopy(csv);
+        Files.copy(Path.of(export), Path.of(copy + ".bak"), StandardCopyOption.REPLACE_EXISTING);
+        Files.writeString(activeLog(copy), "#\n#bak\n", StandardOpenOption.APPEND);
+        byte[] half = Files.readAllBytes(Path.of(copy));
+        Files.write(Path.of(copy), java.util.Arrays.copyOf(half, half.length / 2));
+        return copy;
+    }
+}
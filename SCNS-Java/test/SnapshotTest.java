@@ -0,0 +1,69 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Test;
+
+// The binary .snap written at close: a restart from it gives the same state, logs replay on
+// top of it, it is ignored once the CSV is edited or when it is torn, and both stores write
+// the same bytes and read each other's snapshot.
+public class SnapshotTest {
+    private static final int RECORDS = 20000;
+
+    @Test
+    public void nativeStoreRestartsFromItsSnapshot() throws Exception {
+        restarts(TestData.bridge(), "java");
+    }
+
+    @Test
+    public void javaStoreRestartsFromItsSnapshot() throws Exception {
+        restarts("java", TestData.bridge());
+    }
+
+    @Test
+    public void bothStoresWriteTheSameBytes() throws Exception {
+        String[] snaps = new String[2];
+        int k = 0;
+        for (String by : new String[] { TestData.bridge(), "java" }) {
+            String csv = TestData.generatedCsv(RECORDS);
+            CampusBackend.create(by, csv).close(); // nothing logged: writes the snapshot only
+            snaps[k++] = csv + ".snap";
+        }
+        assertArrayEquals(Files.readAllBytes(Path.of(snaps[0])), Files.readAllBytes(Path.of(snaps[1])));
+    }
+
+    private static void restarts(String by, String other) throws Exception {
+        String csv = TestData.generatedCsv(RECORDS);
+        Path snap = Path.of(csv + ".snap");
+        CampusBackend b = CampusBackend.create(by, csv);
+        String live = b.sisListStudents();
+        b.close();
+        assertTrue("no snapshot written", Files.exists(snap));
+        assertEquals("start from snapshot", live, TestData.reopened(by, csv));
+
+        // logs on top of the snapshot
+        b = CampusBackend.create(by, csv);
+        b.attMarkPresent(100000 + RECORDS / 2);
+        b.sisDeleteStudent(100000);
+        live = b.sisListStudents();
+        assertEquals("marks over a snapshot", live, TestData.reopened(by, TestData.crashCopy(csv)));
+        assertEquals("marks over a snapshot, read by " + other, live, TestData.reopened(other, TestData.crashCopy(csv)));
+        b.close();
+
+        // CSV edited behind the snapshot's back
+        Files.writeString(Path.of(csv), "99,Edited Row,BSCS,1,0,0\n", StandardOpenOption.APPEND);
+        b = CampusBackend.create(by, csv);
+        assertTrue("stale snapshot used after the CSV changed", b.sisGetStudent(99).contains("Edited Row"));
+        b.sisDeleteStudent(99);
+        b.close();
+
+        // torn snapshot
+        byte[] whole = Files.readAllBytes(snap);
+        Files.write(snap, java.util.Arrays.copyOf(whole, whole.length / 2));
+        assertEquals("torn snapshot", live, TestData.reopened(by, csv));
+    }
+}
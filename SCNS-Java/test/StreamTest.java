@@ -0,0 +1,107 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+// sisListStudentsStream: the chunks concatenate to sisListStudents, every chunk but the last is
+// full, the sink can stop the stream, fail it, or call back into campuses while it runs.
+public class StreamTest {
+    private static final int RECORDS = 20000;
+    private static final int CHUNK = 64 * 1024;
+
+    private CampusBackend b;
+
+    @Before
+    public void open() throws Exception {
+        b = CampusBackend.create(TestData.bridge(), TestData.generatedCsv(RECORDS));
+    }
+
+    @After
+    public void close() {
+        b.close();
+    }
+
+    @Test
+    public void chunksConcatenateToTheListing() {
+        String[] parts = streamed(b, CHUNK, 0).split("\\|", 3);
+        assertEquals("true", parts[0]);
+        assertEquals(b.sisListStudents(), parts[2]);
+        String[] sizes = parts[1].trim().split(" ");
+        assertTrue(sizes.length > 2);
+        for (int i = 0; i < sizes.length; i++) {
+            int sz = Integer.parseInt(sizes[i]);
+            if (sz > CHUNK || (i < sizes.length - 1 && sz != CHUNK)) fail("chunk " + i + " has " + sz + " bytes");
+        }
+    }
+
+    @Test
+    public void sinkReturningFalseStops() {
+        assertTrue(streamed(b, CHUNK, 2).startsWith("false|" + CHUNK + " " + CHUNK + " |"));
+    }
+
+    @Test
+    public void sinkExceptionIsRethrown() {
+        try {
+            b.sisListStudentsStream(ByteBuffer.allocateDirect(CHUNK), (buf, len) -> {
+                throw new IllegalStateException("sink failed");
+            });
+            fail("exception from the sink was swallowed");
+        } catch (IllegalStateException e) {
+            assertEquals("sink failed", e.getMessage());
+        }
+        assertFalse("backend unusable after a failed stream", b.sisGetStudent(100000).isEmpty());
+    }
+
+    // No lock is held while the sink runs: reads and writes on this campus and opening and
+    // closing another one (which needs the handle lock exclusively) must all go through.
+    @Test
+    public void sinkMayCallBackIntoCampuses() throws Exception {
+        String other = TestData.generatedCsv(10);
+        int[] reentered = { 0 };
+        boolean complete = b.sisListStudentsStream(ByteBuffer.allocateDirect(CHUNK), (buf, len) -> {
+            if (reentered[0]++ < 3) {
+                if (b.sisGetStudent(100000).isEmpty()) throw new IllegalStateException("read from the sink failed");
+                b.attMarkPresent(100000);
+                CampusBackend.create(TestData.bridge(), other).close();
+            }
+            return true;
+        });
+        assertTrue(complete);
+        assertTrue(reentered[0] > 3);
+        assertTrue(b.attGetSummary(100000).contains("\"present\":3"));
+    }
+
+    @Test
+    public void arrayStreamDecodesLikeTheEagerPath() {
+        List<FolderCabinetView.Record> rows = new ArrayList<>();
+        JsonMini.ArrayStream<FolderCabinetView.Record> as = new JsonMini.ArrayStream<>(FolderCabinetView.Record::new,
+                FolderCabinetView.Record.JSON, rows::add);
+        b.sisListStudentsStream(ByteBuffer.allocateDirect(CHUNK), as);
+        assertTrue(as.complete());
+        assertEquals(JsonDecodeTest.recordKeys(JsonMini.arrObjects(b.sisListStudents(), FolderCabinetView.Record::new,
+                FolderCabinetView.Record.JSON)), JsonDecodeTest.recordKeys(rows));
+    }
+
+    // sisListStudentsStream through a chunk-byte buffer as "returned|chunk sizes|text"; the
+    // sink asks to stop after stopAfter chunks (0 = never).
+    static String streamed(CampusBackend x, int chunk, int stopAfter) {
+        ByteBuffer buf = ByteBuffer.allocateDirect(chunk);
+        java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+        StringBuilder sizes = new StringBuilder();
+        int[] seen = { 0 };
+        boolean ok = x.sisListStudentsStream(buf, (bb, n) -> {
+            for (int i = 0; i < n; i++) bytes.write(bb.get(i));
+            sizes.append(n).append(' ');
+            return ++seen[0] != stopAfter;
+        });
+        return ok + "|" + sizes + "|" + new String(bytes.toByteArray(), java.nio.charset.StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Temp datastores for the tests. Every test works on its own copy, so data/students.csv is
+// never touched; each file and the ones the store keeps next to it are deleted at exit.
+final class TestData {
+    private TestData() {}
+
+    // The backend under test: -Dcampus.bridge (jni, ffm or java), as for the app.
+    static String bridge() {
+        return System.getProperty("campus.bridge", "jni");
+    }
+
+    // Temp copy of data/students.csv.
+    static String tempCsv() throws Exception {
+        Path tmp = Files.createTempFile("scns-test-", ".csv");
+        deleteOnExit(tmp);
+        Files.copy(Path.of(CampusBackend.defaultCsvPath()), tmp, StandardCopyOption.REPLACE_EXISTING);
+        return tmp.toString();
+    }
+
+    // Temp CSV of n synthetic students (rolls 100000.., all programs and semesters).
+    static String generatedCsv(int n) throws Exception {
+        StringBuilder sb = new StringBuilder(n * 40).append("roll,name,program,semester,present,total\n");
+        String[] programs = { "BSCS", "BSSE", "BSAI", "BBA" };
+        for (int i = 0; i < n; i++) {
+            sb.append(100000 + i).append(",Student ").append(i).append(',').append(programs[i % 4]).append(',')
+                    .append(1 + i % 8).append(',').append(i % 30).append(",30\n");
+        }
+        return csvOf(sb);
+    }
+
+    // Temp CSV holding text as it is.
+    static String csvOf(CharSequence text) throws Exception {
+        Path tmp = Files.createTempFile("scns-test-gen-", ".csv");
+        deleteOnExit(tmp);
+        Files.writeString(tmp, text);
+        return tmp.toString();
+    }
+
+    // Copies csv with its .bak, logs and snapshot to a new temp path, as the files a crash at
+    // this moment would leave behind (every mutation is written through before it returns).
+    static String crashCopy(String csv) throws Exception {
+        Path tmp = Files.createTempFile("scns-test-crash-", ".csv");
+        deleteOnExit(tmp);
+        for (String suffix : new String[] { "", ".bak", ".wal0", ".wal1", ".snap" }) {
+            Path from = Path.of(csv + suffix);
+            if (Files.exists(from)) Files.copy(from, Path.of(tmp + suffix), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return tmp.toString();
+    }
+
+    // sisListStudents after reopening csv with the given backend.
+    static String reopened(String bridge, String csv) {
+        CampusBackend r = CampusBackend.create(bridge, csv);
+        try {
+            return r.sisListStudents();
+        } finally {
+            r.close();
+        }
+    }
+
+    // Up to 80 chars of a around its first difference from b.
+    static String around(Object a, Object b) {
+        String s = String.valueOf(a);
+        String t = String.valueOf(b);
+        int i = 0;
+        while (i < s.length() && i < t.length() && s.charAt(i) == t.charAt(i)) i++;
+        int from = Math.max(0, i - 40);
+        return (from > 0 ? "..." : "") + s.substring(from, Math.min(s.length(), i + 40));
+    }
+
+    private static void deleteOnExit(Path csv) {
+        for (String suffix : new String[] { "", ".bak", ".wal0", ".wal1", ".snap" }) new java.io.File(csv + suffix).deleteOnExit();
+    }
+}
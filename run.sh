@@ -7,5 +7,10 @@ ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
 
 javac "${ROOT}/SCNS-Java/src"/*.java
 
+# Optional java.lang.foreign bridge (JDK 22+); select it with JAVA_OPTS=-Dcampus.bridge=ffm
+if javac --release 22 -version >/dev/null 2>&1; then
+  javac -cp "${ROOT}/SCNS-Java/src" -d "${ROOT}/SCNS-Java/src" "${ROOT}/SCNS-Java/src-ffm"/*.java
+fi
+
 # Run from repo root so NativeBridge loads ./Cpp-Native/libcampus_backend.so
-exec java -cp "${ROOT}/SCNS-Java/src" MainMenu
+exec java --enable-native-access=ALL-UNNAMED ${JAVA_OPTS:-} -cp "${ROOT}/SCNS-Java/src" MainMenu